@@ -0,0 +1,401 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.model.Category;
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+import com.juanlopez.ecommerce.backend.domain.model.ProductCursor;
+import com.juanlopez.ecommerce.backend.domain.model.ProductFilter;
+import com.juanlopez.ecommerce.backend.domain.model.ProductSort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Immutable view of the whole catalog: every product and category, indexed by ID, by
+ * code and by category.
+ * <p>
+ * Products and categories are held in arrays sorted by ID, next to a parallel array of
+ * their IDs, so a lookup by ID is a binary search over primitive values. The products
+ * of each category are held in their own array, also sorted by ID.
+ * <p>
+ * A snapshot never changes once built: {@link #withProduct(Product)} and the other
+ * {@code with}/{@code without} methods return a new snapshot that copies the arrays and
+ * maps touched by the change and shares everything else, including the product and
+ * category objects and the arrays of the other categories. Readers holding a snapshot
+ * therefore always see a consistent catalog without any locking.
+ * <p>
+ * Products and categories are mutable domain objects, so they are copied when they
+ * enter a snapshot and again when they are handed out: neither the code that notified a
+ * change nor a reader can modify the objects shared by the snapshots.
+ */
+public final class CatalogSnapshot {
+
+    /**
+     * Snapshot of an empty catalog.
+     */
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(new Product[0], new int[0], new Category[0],
+            new int[0], Map.of(), Map.of());
+
+    private static final Product[] NO_PRODUCTS = new Product[0];
+
+    private final Product[] products;
+    private final int[] productIds;
+    private final Category[] categories;
+    private final int[] categoryIds;
+    private final Map<String, Product> productsByCode;
+    private final Map<Integer, Product[]> productsByCategory;
+
+    private CatalogSnapshot(Product[] products, int[] productIds, Category[] categories, int[] categoryIds,
+                            Map<String, Product> productsByCode, Map<Integer, Product[]> productsByCategory) {
+        this.products = products;
+        this.productIds = productIds;
+        this.categories = categories;
+        this.categoryIds = categoryIds;
+        this.productsByCode = productsByCode;
+        this.productsByCategory = productsByCategory;
+    }
+
+    /**
+     * Builds the snapshot of the given catalog. Products and categories without an ID are ignored.
+     *
+     * @param products   every product of the catalog
+     * @param categories every category of the catalog
+     * @return the snapshot holding them
+     */
+    public static CatalogSnapshot of(Collection<Product> products, Collection<Category> categories) {
+        Product[] sortedProducts = products.stream()
+                .filter(product -> product.getId() != null)
+                .map(CatalogSnapshot::copy)
+                .sorted(Comparator.comparing(Product::getId))
+                .toArray(Product[]::new);
+        Category[] sortedCategories = categories.stream()
+                .filter(category -> category.getId() != null)
+                .map(CatalogSnapshot::copy)
+                .sorted(Comparator.comparing(Category::getId))
+                .toArray(Category[]::new);
+
+        Map<String, Product> productsByCode = new HashMap<>();
+        Map<Integer, List<Product>> groups = new HashMap<>();
+        for (Product product : sortedProducts) {
+            if (product.getCode() != null) {
+                productsByCode.put(product.getCode(), product);
+            }
+            if (product.getCategoryId() != null) {
+                groups.computeIfAbsent(product.getCategoryId(), categoryId -> new ArrayList<>()).add(product);
+            }
+        }
+        Map<Integer, Product[]> productsByCategory = new HashMap<>();
+        groups.forEach((categoryId, group) -> productsByCategory.put(categoryId, group.toArray(Product[]::new)));
+
+        return new CatalogSnapshot(sortedProducts, ids(sortedProducts, Product::getId), sortedCategories,
+                ids(sortedCategories, Category::getId), productsByCode, productsByCategory);
+    }
+
+    /**
+     * Returns every product, ordered by ID.
+     *
+     * @return an unmodifiable list of the products
+     */
+    public List<Product> products() {
+        return copies(products);
+    }
+
+    /**
+     * Returns the products of a category, ordered by ID.
+     *
+     * @param categoryId the ID of the category
+     * @return an unmodifiable list of the products, empty if the category has none
+     */
+    public List<Product> productsOfCategory(Integer categoryId) {
+        if (categoryId == null) {
+            return List.of();
+        }
+        return copies(productsByCategory.getOrDefault(categoryId, NO_PRODUCTS));
+    }
+
+    /**
+     * Finds a product by its ID.
+     *
+     * @param id the product ID
+     * @return the product, or {@code null} if it is not in the snapshot
+     */
+    public Product findProduct(Integer id) {
+        int index = id == null ? -1 : Arrays.binarySearch(productIds, id);
+        return index < 0 ? null : copy(products[index]);
+    }
+
+    /**
+     * Finds a product by its code.
+     *
+     * @param code the product code
+     * @return the product, or {@code null} if no product of the snapshot has that code
+     */
+    public Product findProductByCode(String code) {
+        Product product = code == null ? null : productsByCode.get(code);
+        return product == null ? null : copy(product);
+    }
+
+    /**
+     * Returns every category, ordered by ID.
+     *
+     * @return an unmodifiable list of the categories
+     */
+    public List<Category> categories() {
+        return Arrays.stream(categories).map(CatalogSnapshot::copy).toList();
+    }
+
+    /**
+     * Finds a category by its ID.
+     *
+     * @param id the category ID
+     * @return the category, or {@code null} if it is not in the snapshot
+     */
+    public Category findCategory(Integer id) {
+        int index = id == null ? -1 : Arrays.binarySearch(categoryIds, id);
+        return index < 0 ? null : copy(categories[index]);
+    }
+
+    /**
+     * Returns the number of products in the snapshot.
+     *
+     * @return the number of products
+     */
+    public int productCount() {
+        return products.length;
+    }
+
+    /**
+     * Retrieves a page of the products of a category matching a filter, filtering and
+     * sorting the products of the category in memory.
+     * <p>
+     * Like the database queries, only products with a name and a price are listed, and
+     * the name filter matches the names starting with the given text, ignoring case.
+     *
+     * @param filter the criteria the products must match, with a category
+     * @param sort   the ordering of the products
+     * @param after  the position after which the page starts, or {@code null} for the first page
+     * @param limit  the maximum number of products to return
+     * @return the products of the page, in the requested order
+     */
+    public List<Product> findPage(ProductFilter filter, ProductSort sort, ProductCursor after, int limit) {
+        Objects.requireNonNull(filter.getCategoryId(), "categoryId");
+        String prefix = filter.getName() == null ? null : filter.getName().toLowerCase(Locale.ROOT);
+        Stream<Product> matching = Arrays.stream(productsByCategory.getOrDefault(filter.getCategoryId(), NO_PRODUCTS))
+                .filter(product -> product.getName() != null && product.getPrice() != null)
+                .filter(product -> filter.getMinPrice() == null || product.getPrice().compareTo(filter.getMinPrice()) >= 0)
+                .filter(product -> filter.getMaxPrice() == null || product.getPrice().compareTo(filter.getMaxPrice()) <= 0)
+                .filter(product -> prefix == null || product.getName().toLowerCase(Locale.ROOT).startsWith(prefix));
+        if (after != null) {
+            matching = matching.filter(product -> isAfter(product, after));
+        }
+        return matching.sorted(comparator(sort)).limit(limit).map(CatalogSnapshot::copy).toList();
+    }
+
+    /**
+     * Returns a snapshot in which the given product is added, or replaces the product with the same ID.
+     *
+     * @param product the persisted product
+     * @return the new snapshot
+     */
+    public CatalogSnapshot withProduct(Product product) {
+        product = copy(product);
+        int index = Arrays.binarySearch(productIds, product.getId());
+        Product previous = index < 0 ? null : products[index];
+        Product[] newProducts;
+        int[] newProductIds;
+        if (previous != null) {
+            newProducts = products.clone();
+            newProducts[index] = product;
+            newProductIds = productIds;
+        } else {
+            newProducts = insert(products, -index - 1, product);
+            newProductIds = insert(productIds, -index - 1, product.getId());
+        }
+
+        Map<String, Product> newProductsByCode = productsByCode;
+        String previousCode = previous == null ? null : previous.getCode();
+        if (previousCode != null || product.getCode() != null) {
+            newProductsByCode = new HashMap<>(productsByCode);
+            if (previousCode != null) {
+                newProductsByCode.remove(previousCode, previous);
+            }
+            if (product.getCode() != null) {
+                newProductsByCode.put(product.getCode(), product);
+            }
+        }
+
+        Map<Integer, Product[]> newProductsByCategory = new HashMap<>(productsByCategory);
+        if (previous != null && previous.getCategoryId() != null) {
+            removeFromCategory(newProductsByCategory, previous.getCategoryId(), previous.getId());
+        }
+        if (product.getCategoryId() != null) {
+            Product[] group = newProductsByCategory.getOrDefault(product.getCategoryId(), NO_PRODUCTS);
+            int position = -Arrays.binarySearch(group, product, Comparator.comparing(Product::getId)) - 1;
+            newProductsByCategory.put(product.getCategoryId(), insert(group, position, product));
+        }
+
+        return new CatalogSnapshot(newProducts, newProductIds, categories, categoryIds, newProductsByCode,
+                newProductsByCategory);
+    }
+
+    /**
+     * Returns a snapshot without the product with the given ID.
+     *
+     * @param id the ID of the deleted product
+     * @return the new snapshot, or this one if it does not hold the product
+     */
+    public CatalogSnapshot withoutProduct(Integer id) {
+        int index = Arrays.binarySearch(productIds, id);
+        if (index < 0) {
+            return this;
+        }
+        Product previous = products[index];
+        Map<String, Product> newProductsByCode = productsByCode;
+        if (previous.getCode() != null) {
+            newProductsByCode = new HashMap<>(productsByCode);
+            newProductsByCode.remove(previous.getCode(), previous);
+        }
+        Map<Integer, Product[]> newProductsByCategory = productsByCategory;
+        if (previous.getCategoryId() != null) {
+            newProductsByCategory = new HashMap<>(productsByCategory);
+            removeFromCategory(newProductsByCategory, previous.getCategoryId(), id);
+        }
+        return new CatalogSnapshot(remove(products, index), remove(productIds, index), categories, categoryIds,
+                newProductsByCode, newProductsByCategory);
+    }
+
+    /**
+     * Returns a snapshot in which the given category is added, or replaces the category with the same ID.
+     *
+     * @param category the persisted category
+     * @return the new snapshot
+     */
+    public CatalogSnapshot withCategory(Category category) {
+        category = copy(category);
+        int index = Arrays.binarySearch(categoryIds, category.getId());
+        if (index >= 0) {
+            Category[] newCategories = categories.clone();
+            newCategories[index] = category;
+            return new CatalogSnapshot(products, productIds, newCategories, categoryIds, productsByCode,
+                    productsByCategory);
+        }
+        return new CatalogSnapshot(products, productIds, insert(categories, -index - 1, category),
+                insert(categoryIds, -index - 1, category.getId()), productsByCode, productsByCategory);
+    }
+
+    /**
+     * Returns a snapshot without the category with the given ID.
+     *
+     * @param id the ID of the deleted category
+     * @return the new snapshot, or this one if it does not hold the category
+     */
+    public CatalogSnapshot withoutCategory(Integer id) {
+        int index = Arrays.binarySearch(categoryIds, id);
+        if (index < 0) {
+            return this;
+        }
+        return new CatalogSnapshot(products, productIds, remove(categories, index), remove(categoryIds, index),
+                productsByCode, productsByCategory);
+    }
+
+    private static List<Product> copies(Product[] products) {
+        return Arrays.stream(products).map(CatalogSnapshot::copy).toList();
+    }
+
+    private static Product copy(Product product) {
+        return new Product(product.getId(), product.getName(), product.getCode(), product.getDescription(),
+                product.getUrlImage(), product.getPrice(), product.getDateCreated(), product.getDateUpdated(),
+                product.getUserId(), product.getCategoryId());
+    }
+
+    private static Category copy(Category category) {
+        return new Category(category.getId(), category.getName(), category.getDateCreated(),
+                category.getDateUpdated());
+    }
+
+    private static boolean isAfter(Product product, ProductCursor after) {
+        int byId = product.getId().compareTo(after.getId());
+        return switch (after.getSort()) {
+            case NEWEST -> byId < 0;
+            case PRICE_ASC -> thenBy(product.getPrice().compareTo(after.getPrice()), byId) > 0;
+            case PRICE_DESC -> thenBy(product.getPrice().compareTo(after.getPrice()), byId) < 0;
+            case NAME_ASC -> thenBy(product.getName().compareTo(after.getName()), byId) > 0;
+        };
+    }
+
+    private static int thenBy(int byKey, int byId) {
+        return byKey != 0 ? byKey : byId;
+    }
+
+    private static Comparator<Product> comparator(ProductSort sort) {
+        Comparator<Product> byId = Comparator.comparing(Product::getId);
+        return switch (sort) {
+            case NEWEST -> byId.reversed();
+            case PRICE_ASC -> Comparator.comparing(Product::getPrice, BigDecimal::compareTo).thenComparing(byId);
+            case PRICE_DESC -> Comparator.comparing(Product::getPrice, BigDecimal::compareTo).thenComparing(byId)
+                    .reversed();
+            case NAME_ASC -> Comparator.comparing(Product::getName).thenComparing(byId);
+        };
+    }
+
+    private static void removeFromCategory(Map<Integer, Product[]> productsByCategory, Integer categoryId, Integer id) {
+        Product[] group = productsByCategory.get(categoryId);
+        if (group == null) {
+            return;
+        }
+        for (int i = 0; i < group.length; i++) {
+            if (group[i].getId().equals(id)) {
+                if (group.length == 1) {
+                    productsByCategory.remove(categoryId);
+                } else {
+                    productsByCategory.put(categoryId, remove(group, i));
+                }
+                return;
+            }
+        }
+    }
+
+    private static <T> int[] ids(T[] values, Function<T, Integer> id) {
+        int[] ids = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            ids[i] = id.apply(values[i]);
+        }
+        return ids;
+    }
+
+    private static <T> T[] insert(T[] values, int index, T value) {
+        T[] copy = Arrays.copyOf(values, values.length + 1);
+        System.arraycopy(values, index, copy, index + 1, values.length - index);
+        copy[index] = value;
+        return copy;
+    }
+
+    private static int[] insert(int[] values, int index, int value) {
+        int[] copy = Arrays.copyOf(values, values.length + 1);
+        System.arraycopy(values, index, copy, index + 1, values.length - index);
+        copy[index] = value;
+        return copy;
+    }
+
+    private static <T> T[] remove(T[] values, int index) {
+        T[] copy = Arrays.copyOf(values, values.length - 1);
+        System.arraycopy(values, index + 1, copy, index, values.length - index - 1);
+        return copy;
+    }
+
+    private static int[] remove(int[] values, int index) {
+        int[] copy = Arrays.copyOf(values, values.length - 1);
+        System.arraycopy(values, index + 1, copy, index, values.length - index - 1);
+        return copy;
+    }
+
+}
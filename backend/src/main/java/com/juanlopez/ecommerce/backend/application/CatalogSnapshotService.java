@@ -0,0 +1,150 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.model.Category;
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+import com.juanlopez.ecommerce.backend.domain.port.ICatalogChangeListener;
+import com.juanlopez.ecommerce.backend.domain.port.ICategoryRepository;
+import com.juanlopez.ecommerce.backend.domain.port.IProductRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Application service publishing the current {@link CatalogSnapshot} through a single
+ * volatile reference.
+ * <p>
+ * The snapshot is built by {@link #rebuild()}, streaming the products from
+ * {@link IProductRepository}, and then kept up to date as a {@link ICatalogChangeListener}
+ * of {@link ProductService} and {@link CategoryService}: each change derives a new
+ * snapshot from the current one and swaps the reference, without reading the database.
+ * Readers take the reference once and never wait; changes are applied one at a time.
+ * <p>
+ * Changes notified while a rebuild reads the database are applied to the current
+ * snapshot and recorded, then replayed on top of the rebuilt one before it is published,
+ * so none of them is lost whatever rows the rebuild had already read.
+ */
+@Slf4j
+public class CatalogSnapshotService implements ICatalogChangeListener {
+
+    private final IProductRepository iProductRepository;
+    private final ICategoryRepository iCategoryRepository;
+
+    /**
+     * Snapshot currently published; only replaced while holding {@link #changeLock}.
+     */
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+
+    /**
+     * Guards {@link #snapshot} writes and {@link #pendingChanges}.
+     */
+    private final Object changeLock = new Object();
+
+    /**
+     * Serializes the rebuilds, so at most one records the changes at a time.
+     */
+    private final Object rebuildLock = new Object();
+
+    /**
+     * Changes applied since the running rebuild started, or {@code null} if none is running.
+     */
+    private List<UnaryOperator<CatalogSnapshot>> pendingChanges;
+
+    /**
+     * creates a new instance of {@code CatalogSnapshotService} with an empty snapshot.
+     *
+     * @param iProductRepository  the repository the products are streamed from
+     * @param iCategoryRepository the repository the categories are read from
+     */
+    public CatalogSnapshotService(IProductRepository iProductRepository, ICategoryRepository iCategoryRepository) {
+        this.iProductRepository = iProductRepository;
+        this.iCategoryRepository = iCategoryRepository;
+    }
+
+    /**
+     * Returns the current snapshot of the catalog.
+     *
+     * @return the snapshot, which never changes afterwards
+     */
+    public CatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Replaces the snapshot with a new one built from all the persisted products and categories.
+     * <p>
+     * Reads keep using the previous snapshot until the new one is published.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.nanoTime();
+            synchronized (changeLock) {
+                pendingChanges = new ArrayList<>();
+            }
+            CatalogSnapshot newSnapshot;
+            try {
+                List<Product> products = new ArrayList<>();
+                iProductRepository.forEachProduct(products::add);
+                List<Category> categories = new ArrayList<>();
+                iCategoryRepository.findAll().forEach(categories::add);
+                newSnapshot = CatalogSnapshot.of(products, categories);
+            } catch (RuntimeException e) {
+                synchronized (changeLock) {
+                    pendingChanges = null;
+                }
+                throw e;
+            }
+            synchronized (changeLock) {
+                for (UnaryOperator<CatalogSnapshot> change : pendingChanges) {
+                    newSnapshot = change.apply(newSnapshot);
+                }
+                pendingChanges = null;
+                snapshot = newSnapshot;
+            }
+            log.info("Instantánea del catálogo reconstruida: {} productos y {} categorías en {} ms",
+                    newSnapshot.productCount(), newSnapshot.categories().size(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    @Override
+    public void onProductSaved(Product product) {
+        apply(current -> current.withProduct(product));
+    }
+
+    @Override
+    public void onProductDeleted(Integer id) {
+        apply(current -> current.withoutProduct(id));
+    }
+
+    /**
+     * Rebuilds the snapshot, since an import may change any number of products.
+     */
+    @Override
+    public void onProductsImported() {
+        rebuild();
+    }
+
+    @Override
+    public void onCategorySaved(Category category) {
+        apply(current -> current.withCategory(category));
+    }
+
+    @Override
+    public void onCategoryDeleted(Integer id) {
+        apply(current -> current.withoutCategory(id));
+    }
+
+    /**
+     * Publishes the snapshot resulting from a change, recording it for the running rebuild if any.
+     */
+    private void apply(UnaryOperator<CatalogSnapshot> change) {
+        synchronized (changeLock) {
+            snapshot = change.apply(snapshot);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,193 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.juanlopez.ecommerce.backend.domain.model.Category;
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+import com.juanlopez.ecommerce.backend.domain.port.ICatalogChangeListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Application service tracking the version of the catalog resources in memory, so
+ * clients holding the current representation of a resource can be answered without
+ * reading or serializing it.
+ * <p>
+ * The version of a product or category is derived from its ID and its update date, and
+ * is known once the resource has been read or changed through this instance. The
+ * version of the product list, and of the category list, is a counter increased on
+ * every change, prefixed by a generation drawn on startup so versions issued by a
+ * previous run are never repeated. As a {@link ICatalogChangeListener} it must be
+ * notified after every other listener, so a list version is never observed before the
+ * views it describes are up to date.
+ * <p>
+ * Versions are only tracked in memory, so changes made through other instances are not
+ * seen here. Known versions are therefore forgotten once they reach a maximum age, and
+ * list versions change at least as often, so a resource changed elsewhere stops being
+ * answered as not modified after that time at most.
+ */
+public class CatalogVersionService implements ICatalogChangeListener {
+
+    /**
+     * Version of the resources known to be deleted; IDs are never reused.
+     */
+    private static final long DELETED = Long.MIN_VALUE;
+
+    private final String generation = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong productsVersion = new AtomicLong();
+    private final AtomicLong categoriesVersion = new AtomicLong();
+    private final ConcurrentMap<Integer, Long> productVersions;
+    private final ConcurrentMap<Integer, Long> categoryVersions;
+    private final Ticker ticker;
+    private final long maxAgeNanos;
+
+    /**
+     * creates a new instance of {@code CatalogVersionService}.
+     *
+     * @param maxAge the time after which a known version is forgotten and a list version changes
+     */
+    public CatalogVersionService(Duration maxAge) {
+        this(maxAge, Ticker.systemTicker());
+    }
+
+    /**
+     * creates a new instance of {@code CatalogVersionService} with the given time source.
+     *
+     * @param maxAge the time after which a known version is forgotten and a list version changes
+     * @param ticker the time source of the versions
+     */
+    CatalogVersionService(Duration maxAge, Ticker ticker) {
+        this.ticker = ticker;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.productVersions = versions(maxAge, ticker);
+        this.categoryVersions = versions(maxAge, ticker);
+    }
+
+    /**
+     * Returns the current version of the product list.
+     *
+     * @return a token that changes whenever any product is saved or deleted, and once per maximum age
+     */
+    public String productsVersion() {
+        return listVersion(productsVersion);
+    }
+
+    /**
+     * Returns the current version of the category list.
+     *
+     * @return a token that changes whenever any category is saved or deleted, and once per maximum age
+     */
+    public String categoriesVersion() {
+        return listVersion(categoriesVersion);
+    }
+
+    /**
+     * Returns the known version of a product.
+     *
+     * @param id the product ID
+     * @return the version of the product, or {@code null} if it is unknown or the product was deleted
+     */
+    public String productVersion(Integer id) {
+        return format(id, productVersions.get(id));
+    }
+
+    /**
+     * Returns the known version of a category.
+     *
+     * @param id the category ID
+     * @return the version of the category, or {@code null} if it is unknown or the category was deleted
+     */
+    public String categoryVersion(Integer id) {
+        return format(id, categoryVersions.get(id));
+    }
+
+    /**
+     * Records the version of a product that has been read.
+     * <p>
+     * A version older than the known one, read before a concurrent change, is ignored.
+     *
+     * @param product the product read
+     * @return the version of the product, or {@code null} if it has no update date
+     */
+    public String recordProduct(Product product) {
+        return record(productVersions, product.getId(), product.getDateUpdated());
+    }
+
+    /**
+     * Records the version of a category that has been read.
+     *
+     * @param category the category read
+     * @return the version of the category, or {@code null} if it has no update date
+     */
+    public String recordCategory(Category category) {
+        return record(categoryVersions, category.getId(), category.getDateUpdated());
+    }
+
+    @Override
+    public void onProductSaved(Product product) {
+        record(productVersions, product.getId(), product.getDateUpdated());
+        productsVersion.incrementAndGet();
+    }
+
+    @Override
+    public void onProductDeleted(Integer id) {
+        productVersions.put(id, DELETED);
+        productsVersion.incrementAndGet();
+    }
+
+    /**
+     * Forgets the versions of every product, except the deleted ones, since any number
+     * of them may have changed.
+     */
+    @Override
+    public void onProductsImported() {
+        productVersions.values().removeIf(version -> version != DELETED);
+        productsVersion.incrementAndGet();
+    }
+
+    @Override
+    public void onCategorySaved(Category category) {
+        record(categoryVersions, category.getId(), category.getDateUpdated());
+        categoriesVersion.incrementAndGet();
+    }
+
+    @Override
+    public void onCategoryDeleted(Integer id) {
+        categoryVersions.put(id, DELETED);
+        categoriesVersion.incrementAndGet();
+    }
+
+    private static ConcurrentMap<Integer, Long> versions(Duration maxAge, Ticker ticker) {
+        Cache<Integer, Long> versions = Caffeine.newBuilder()
+                .expireAfterWrite(maxAge)
+                .ticker(ticker)
+                .build();
+        return versions.asMap();
+    }
+
+    /**
+     * Formats a list version, suffixed by the period of the maximum age it is issued in.
+     */
+    private String listVersion(AtomicLong counter) {
+        return generation + "-" + counter.get() + "-" + Long.toString(ticker.read() / maxAgeNanos, 36);
+    }
+
+    private static String record(ConcurrentMap<Integer, Long> versions, Integer id, LocalDateTime dateUpdated) {
+        if (id == null || dateUpdated == null) {
+            return null;
+        }
+        long version = dateUpdated.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateUpdated.getNano();
+        versions.merge(id, version, (known, read) -> known == DELETED ? DELETED : Math.max(known, read));
+        return format(id, version);
+    }
+
+    private static String format(Integer id, Long version) {
+        return version == null || version == DELETED ? null : id + "-" + Long.toString(version, 36);
+    }
+
+}
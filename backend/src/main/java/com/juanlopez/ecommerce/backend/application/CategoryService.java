@@ -1,7 +1,12 @@
 package com.juanlopez.ecommerce.backend.application;
 
 import com.juanlopez.ecommerce.backend.domain.model.Category;
+import com.juanlopez.ecommerce.backend.domain.model.CategorySummary;
+import com.juanlopez.ecommerce.backend.domain.port.ICatalogChangeListener;
 import com.juanlopez.ecommerce.backend.domain.port.ICategoryRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
 
 /**
  * Application service for managing {@link Category} operations.
@@ -10,18 +15,38 @@ import com.juanlopez.ecommerce.backend.domain.port.ICategoryRepository;
  * the infrastructure layer, delegating persistence operations to
  * {@link ICategoryRepository}. It contains the application use cases
  * related to category management.
+ * <p>
+ * Every category saved or deleted through this service is notified to the registered
+ * {@link ICatalogChangeListener}s once persisted.
+ * <p>
+ * The number of products of each category is kept up to date by the product writes
+ * themselves; {@link #reconcileProductCounts()} is run periodically to correct any drift.
  */
+@Slf4j
 public class CategoryService {
 
     private final ICategoryRepository iCategoryRepository;
+    private final List<ICatalogChangeListener> catalogChangeListeners;
 
     /**
-     * Creates a new instance of {@code CategoryService}.
+     * Creates a new instance of {@code CategoryService} without catalog listeners.
      *
      * @param iCategoryRepository the repository used for category persistence operations
      */
     public CategoryService(ICategoryRepository iCategoryRepository) {
+        this(iCategoryRepository, List.of());
+    }
+
+    /**
+     * Creates a new instance of {@code CategoryService}.
+     *
+     * @param iCategoryRepository    the repository used for category persistence operations
+     * @param catalogChangeListeners the listeners notified after each change to the categories
+     */
+    public CategoryService(ICategoryRepository iCategoryRepository,
+                           List<ICatalogChangeListener> catalogChangeListeners) {
         this.iCategoryRepository = iCategoryRepository;
+        this.catalogChangeListeners = List.copyOf(catalogChangeListeners);
     }
 
     /**
@@ -31,7 +56,9 @@ public class CategoryService {
      * @return the persisted category
      */
     public Category save(Category category) {
-        return iCategoryRepository.save(category);
+        Category savedCategory = iCategoryRepository.save(category);
+        catalogChangeListeners.forEach(listener -> listener.onCategorySaved(savedCategory));
+        return savedCategory;
     }
 
     /**
@@ -43,6 +70,29 @@ public class CategoryService {
         return iCategoryRepository.findAll();
     }
 
+    /**
+     * Retrieves all categories along with their number of listable products, as shown
+     * in the storefront navigation.
+     *
+     * @return the categories with their number of products, ordered by name
+     */
+    public List<CategorySummary> findAllWithProductCounts() {
+        return iCategoryRepository.findAllWithProductCounts();
+    }
+
+    /**
+     * Recomputes the number of products of every category and corrects the counters that drifted.
+     *
+     * @return the number of counters corrected
+     */
+    public int reconcileProductCounts() {
+        int corrected = iCategoryRepository.reconcileProductCounts();
+        if (corrected > 0) {
+            log.warn("Se corrigieron los contadores de productos de {} categorías", corrected);
+        }
+        return corrected;
+    }
+
     /**
      * Finds a category by its ID.
      *
@@ -62,6 +112,7 @@ public class CategoryService {
      */
     public void deleteById(Integer id) {
         iCategoryRepository.deleteById(id);
+        catalogChangeListeners.forEach(listener -> listener.onCategoryDeleted(id));
     }
 
 }
@@ -0,0 +1,219 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.exception.IdempotencyKeyInUseException;
+import com.juanlopez.ecommerce.backend.domain.exception.IdempotencyKeyMismatchException;
+import com.juanlopez.ecommerce.backend.domain.model.IdempotencyKey;
+import com.juanlopez.ecommerce.backend.domain.model.Order;
+import com.juanlopez.ecommerce.backend.domain.model.OrderProduct;
+import com.juanlopez.ecommerce.backend.domain.port.IIdempotencyKeyRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Application service for creating orders idempotently.
+ * <p>
+ * Clients send a key with each order creation and reuse it when they retry the same
+ * request. Keys belong to the user of the order, so different users never share them.
+ * The first request with a key creates the order; repeated requests get the order
+ * created by the first one instead of creating another, and a request reusing the key
+ * with different content is rejected with an {@link IdempotencyKeyMismatchException}.
+ * Requests are compared through a hash of the user, state and lines of the order; the
+ * prices sent by the client are left out, since they are replaced by the current ones.
+ * <p>
+ * The orders created with the most recently used keys are kept in a bounded in-memory
+ * map, so most repetitions are answered without any query. Otherwise the key is looked
+ * up in {@link IIdempotencyKeyRepository}, which keeps every key durably and records its
+ * order in the same transaction as the order itself. Concurrent requests with the same
+ * key on this instance wait for the first one and share its outcome, so only one of them
+ * reaches the database; on different instances, the durable reservation lets only one
+ * of them create the order and the others are rejected with an
+ * {@link IdempotencyKeyInUseException} until it has finished.
+ */
+public class IdempotentOrderService {
+
+    /**
+     * Maximum length of an idempotency key, matching the size of its column.
+     */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final OrderService orderService;
+    private final IIdempotencyKeyRepository iIdempotencyKeyRepository;
+    private final Duration reservationTimeout;
+    private final Map<ScopedKey, CreatedOrder> recentOrders;
+    private final Map<ScopedKey, Flight> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the service.
+     *
+     * @param orderService              The service used to create the orders.
+     * @param iIdempotencyKeyRepository The repository keeping the keys durably.
+     * @param retainedKeys              The maximum number of keys whose order is kept in memory;
+     *                                  the least recently used ones are forgotten first.
+     * @param reservationTimeout        The time after which a key reserved by a request that never
+     *                                  finished can be used again.
+     */
+    public IdempotentOrderService(OrderService orderService, IIdempotencyKeyRepository iIdempotencyKeyRepository,
+                                  int retainedKeys, Duration reservationTimeout) {
+        this.orderService = orderService;
+        this.iIdempotencyKeyRepository = iIdempotencyKeyRepository;
+        this.reservationTimeout = reservationTimeout;
+        this.recentOrders = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ScopedKey, CreatedOrder> eldest) {
+                return size() > retainedKeys;
+            }
+        });
+    }
+
+    /**
+     * Creates an order unless its user already created it with the same key.
+     *
+     * @param key   The idempotency key sent by the client.
+     * @param order The order to create, with its initial state already set.
+     * @return The created order, or the one created by the first request with the key.
+     * @throws IllegalArgumentException        If the key or the order is not valid.
+     * @throws IdempotencyKeyMismatchException If the user already used the key with a different request.
+     * @throws IdempotencyKeyInUseException    If another instance is still creating the order of the key.
+     */
+    public Order save(String key, Order order) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("La clave de idempotencia debe tener entre 1 y "
+                    + MAX_KEY_LENGTH + " caracteres.");
+        }
+        String error = orderService.validate(order);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        ScopedKey scopedKey = new ScopedKey(order.getUserId(), key);
+        String requestHash = requestHash(order);
+
+        CreatedOrder recentOrder = recentOrders.get(scopedKey);
+        if (recentOrder != null) {
+            checkSameRequest(key, recentOrder.requestHash(), requestHash);
+            return recentOrder.order();
+        }
+
+        Flight flight = new Flight(requestHash, new CompletableFuture<>());
+        Flight currentFlight = inFlight.putIfAbsent(scopedKey, flight);
+        if (currentFlight != null) {
+            checkSameRequest(key, currentFlight.requestHash(), requestHash);
+            return await(currentFlight.order());
+        }
+        try {
+            Order savedOrder = saveOnce(scopedKey, requestHash, order);
+            recentOrders.put(scopedKey, new CreatedOrder(requestHash, savedOrder));
+            flight.order().complete(savedOrder);
+            return savedOrder;
+        } catch (RuntimeException e) {
+            flight.order().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(scopedKey, flight);
+        }
+    }
+
+    /**
+     * Computes the hash identifying the content of an order creation request.
+     * <p>
+     * Quantities are compared by value, so {@code 1} and {@code 1.00} hash the same.
+     *
+     * @param order A valid order.
+     * @return The SHA-256 hash of the request, in hexadecimal.
+     */
+    static String requestHash(Order order) {
+        StringBuilder canonical = new StringBuilder()
+                .append(order.getUserId()).append('|')
+                .append(order.getOrderState());
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            canonical.append('|').append(orderProduct.getProductId())
+                    .append('x').append(orderProduct.getQuantity().stripTrailingZeros().toPlainString());
+        }
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible.", e);
+        }
+    }
+
+    /**
+     * Creates the order of a key not known to be in memory, going through its durable reservation.
+     */
+    private Order saveOnce(ScopedKey scopedKey, String requestHash, Order order) {
+        Integer userId = scopedKey.userId();
+        String key = scopedKey.key();
+        if (!iIdempotencyKeyRepository.reserve(userId, key, requestHash, LocalDateTime.now().minus(reservationTimeout))) {
+            IdempotencyKey storedKey = iIdempotencyKeyRepository.findByUserIdAndKey(userId, key);
+            if (storedKey == null) {
+                // Released by a failed request in between: the client may retry
+                throw new IdempotencyKeyInUseException(key);
+            }
+            checkSameRequest(key, storedKey.getRequestHash(), requestHash);
+            if (storedKey.getOrderId() == null) {
+                throw new IdempotencyKeyInUseException(key);
+            }
+            return orderService.findById(storedKey.getOrderId());
+        }
+
+        try {
+            return orderService.save(order, key);
+        } catch (RuntimeException e) {
+            iIdempotencyKeyRepository.release(userId, key);
+            throw e;
+        }
+    }
+
+    /**
+     * Rejects a request reusing a key that was first used with different content.
+     * Keys recorded without a hash are accepted.
+     */
+    private void checkSameRequest(String key, String storedHash, String requestHash) {
+        if (storedHash != null && !storedHash.equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException(key);
+        }
+    }
+
+    /**
+     * Waits for a concurrent request with the same key and returns its outcome.
+     */
+    private Order await(CompletableFuture<Order> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Idempotency key of a user.
+     */
+    private record ScopedKey(Integer userId, String key) {
+    }
+
+    /**
+     * Order created with a key, along with the hash of the request that created it.
+     */
+    private record CreatedOrder(String requestHash, Order order) {
+    }
+
+    /**
+     * Request in progress on this instance, along with its hash.
+     */
+    private record Flight(String requestHash, CompletableFuture<Order> order) {
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.port.IOrderArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Application service maintaining the monthly partitions of the order storage.
+ * <p>
+ * Each run creates in advance the partitions of the coming months, and moves to the
+ * cold archive the months older than the retention period whose orders have all
+ * reached a final state (see {@link OrderState#nextStates()}). Months that still
+ * have orders in progress are kept and checked again on the next run. Every instance
+ * schedules the maintenance, but only one of them runs it at a time; the others skip it.
+ */
+@Slf4j
+public class OrderArchiveService {
+
+    private final IOrderArchiveRepository iOrderArchiveRepository;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    /**
+     * Constructs the service.
+     *
+     * @param iOrderArchiveRepository The repository managing the partitions.
+     * @param monthsAhead             The number of months after the current one whose
+     *                                partitions are created in advance.
+     * @param retentionMonths         The number of months before the current one that
+     *                                are never archived.
+     */
+    public OrderArchiveService(IOrderArchiveRepository iOrderArchiveRepository, int monthsAhead, int retentionMonths) {
+        this.iOrderArchiveRepository = iOrderArchiveRepository;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * Creates the upcoming partitions and archives the old ones.
+     *
+     * @return The archived months.
+     */
+    public List<YearMonth> maintainPartitions() {
+        return maintainPartitions(YearMonth.now());
+    }
+
+    /**
+     * Creates the upcoming partitions and archives the old ones, relative to the given month.
+     *
+     * @param currentMonth The month considered as the current one.
+     * @return The archived months.
+     */
+    List<YearMonth> maintainPartitions(YearMonth currentMonth) {
+        List<YearMonth> archivedMonths = new ArrayList<>();
+        if (!iOrderArchiveRepository.runExclusively(() -> archivedMonths.addAll(maintain(currentMonth)))) {
+            log.info("Otra instancia está manteniendo las particiones de órdenes; se omite esta ejecución");
+        }
+        return archivedMonths;
+    }
+
+    private List<YearMonth> maintain(YearMonth currentMonth) {
+        iOrderArchiveRepository.createPartitions(currentMonth, monthsAhead + 1);
+
+        YearMonth oldestRetained = currentMonth.minusMonths(retentionMonths);
+        List<OrderState> openStates = Arrays.stream(OrderState.values())
+                .filter(state -> !state.nextStates().isEmpty())
+                .toList();
+        List<YearMonth> archivedMonths = new ArrayList<>();
+        for (YearMonth month : iOrderArchiveRepository.findPartitionMonths()) {
+            if (!month.isBefore(oldestRetained)) {
+                break;
+            }
+            if (iOrderArchiveRepository.hasOrders(month, openStates)) {
+                log.warn("No se archiva el mes {}: tiene órdenes sin finalizar", month);
+                continue;
+            }
+            iOrderArchiveRepository.archivePartition(month);
+            archivedMonths.add(month);
+            log.info("Órdenes del mes {} movidas al archivo", month);
+        }
+        return archivedMonths;
+    }
+
+}
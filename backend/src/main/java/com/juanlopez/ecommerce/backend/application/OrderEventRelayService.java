@@ -0,0 +1,75 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.port.IOrderEventPublisher;
+import com.juanlopez.ecommerce.backend.domain.port.IOrderOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Application service relaying the order events recorded in the outbox to the
+ * {@link IOrderEventPublisher}.
+ * <p>
+ * Each run drains the outbox in batches, so a backlog is delivered with one lock,
+ * one publication and one delete per batch rather than per event. A run stops when
+ * the outbox is empty, after a maximum number of batches, or at the first failed
+ * publication; the events that were not delivered remain in the outbox for the next
+ * run, so every event is delivered at least once. The delay between runs bounds the
+ * latency of the events.
+ * <p>
+ * Events are not delivered in the order they were recorded, not even those of the same
+ * order: their IDs are allocated in blocks per instance, and concurrent relays publish
+ * disjoint batches. Consumers must not depend on the order of the events.
+ */
+@Slf4j
+public class OrderEventRelayService {
+
+    private final IOrderOutboxRepository iOrderOutboxRepository;
+    private final IOrderEventPublisher iOrderEventPublisher;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    /**
+     * Constructs the relay.
+     *
+     * @param iOrderOutboxRepository The outbox holding the pending events.
+     * @param iOrderEventPublisher   The publisher delivering the events.
+     * @param batchSize              The maximum number of events published at once.
+     * @param maxBatchesPerRun       The maximum number of batches published by a single run.
+     */
+    public OrderEventRelayService(IOrderOutboxRepository iOrderOutboxRepository,
+                                  IOrderEventPublisher iOrderEventPublisher, int batchSize, int maxBatchesPerRun) {
+        if (batchSize <= 0 || maxBatchesPerRun <= 0) {
+            throw new IllegalArgumentException("El tamaño del lote y el número de lotes deben ser mayores que cero.");
+        }
+        this.iOrderOutboxRepository = iOrderOutboxRepository;
+        this.iOrderEventPublisher = iOrderEventPublisher;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    /**
+     * Publishes the pending events, batch after batch.
+     *
+     * @return The number of events published.
+     */
+    public int relayPendingEvents() {
+        int published = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int batchCount;
+            try {
+                batchCount = iOrderOutboxRepository.publishNextBatch(batchSize, iOrderEventPublisher::publish);
+            } catch (RuntimeException e) {
+                log.warn("No se pudieron publicar los eventos de órdenes, se reintentará: {}", e.getMessage());
+                break;
+            }
+            published += batchCount;
+            if (batchCount < batchSize) {
+                break;
+            }
+        }
+        if (published > 0) {
+            log.debug("Eventos de órdenes publicados: {}", published);
+        }
+        return published;
+    }
+
+}
@@ -0,0 +1,226 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.model.Order;
+import com.juanlopez.ecommerce.backend.domain.model.OrderBatchResult;
+import com.juanlopez.ecommerce.backend.domain.model.OrderPlacement;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Application service for placing orders asynchronously.
+ * <p>
+ * Submitted orders are validated and put on a bounded in-memory queue, and the caller
+ * gets a placement token right away. A fixed number of writers, each running on a
+ * virtual thread, drain the queue and persist the orders in groups of up to
+ * {@link OrderService#BATCH_CHUNK_SIZE} through {@link OrderService#saveChunk(List, int)},
+ * so each group is written within a single transaction.
+ * <p>
+ * When the queue is full, new orders are rejected instead of blocking the caller.
+ * Queued orders are kept in memory only: they are written on {@link #close()}, but
+ * they are lost if the process stops abruptly.
+ */
+@Slf4j
+public class OrderPlacementService implements AutoCloseable {
+
+    /**
+     * Time a writer waits for new orders before checking whether it must stop.
+     */
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+
+    private final OrderService orderService;
+    private final BlockingQueue<QueuedOrder> queue;
+    private final Map<UUID, OrderPlacement> placements;
+    private final List<Thread> writers = new ArrayList<>();
+    private final Duration shutdownTimeout;
+    /**
+     * Held shared while an order is checked in and queued, and exclusively to stop accepting
+     * orders, so no order is queued after the writers have been told to stop.
+     */
+    private final ReadWriteLock intakeLock = new ReentrantReadWriteLock();
+    private volatile boolean accepting = true;
+
+    /**
+     * Constructs the service and starts its writers.
+     *
+     * @param orderService      The service used to persist the queued orders.
+     * @param queueCapacity     The maximum number of orders waiting to be written.
+     * @param writerCount       The number of writers draining the queue.
+     * @param retainedPlacements The maximum number of placements whose status is kept;
+     *                          the oldest ones are forgotten first.
+     * @param shutdownTimeout   The maximum time to wait for the queue to be drained on close.
+     */
+    public OrderPlacementService(OrderService orderService, int queueCapacity, int writerCount,
+                                 int retainedPlacements, Duration shutdownTimeout) {
+        this.orderService = orderService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.shutdownTimeout = shutdownTimeout;
+        this.placements = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, OrderPlacement> eldest) {
+                return size() > retainedPlacements;
+            }
+        });
+        for (int i = 0; i < writerCount; i++) {
+            writers.add(Thread.ofVirtual().name("order-placement-writer-", i).start(this::drain));
+        }
+    }
+
+    /**
+     * Validates an order and queues it to be persisted.
+     *
+     * @param order The order to place, with its initial state already set.
+     * @return The pending placement, whose token identifies it in {@link #findByToken(UUID)}.
+     * @throws IllegalArgumentException   If the order is not valid.
+     * @throws RejectedExecutionException If the queue is full or the service is shutting down.
+     */
+    public OrderPlacement submit(Order order) {
+        String error = orderService.validate(order);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+
+        intakeLock.readLock().lock();
+        try {
+            if (!accepting) {
+                throw new RejectedExecutionException("El servicio de órdenes se está deteniendo.");
+            }
+            OrderPlacement placement = new OrderPlacement(UUID.randomUUID(), OrderPlacement.Status.PENDING, null, null);
+            placements.put(placement.getToken(), placement);
+            if (!queue.offer(new QueuedOrder(placement.getToken(), order))) {
+                placements.remove(placement.getToken());
+                throw new RejectedExecutionException("Hay demasiadas órdenes pendientes, inténtelo más tarde.");
+            }
+            return placement;
+        } finally {
+            intakeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the current status of a placement.
+     *
+     * @param token The token returned on submission.
+     * @return The placement, or {@code null} if it is unknown or no longer retained.
+     */
+    public OrderPlacement findByToken(UUID token) {
+        return placements.get(token);
+    }
+
+    /**
+     * Returns the number of orders waiting to be written.
+     *
+     * @return The current size of the queue.
+     */
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting orders and waits until the writers have persisted every queued order,
+     * or until the shutdown timeout expires.
+     */
+    @Override
+    public void close() {
+        // Waits for the submissions in progress, whose orders the writers will then find queued
+        intakeLock.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            intakeLock.writeLock().unlock();
+        }
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        boolean drained = true;
+        for (Thread writer : writers) {
+            try {
+                if (!writer.join(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())))) {
+                    writer.interrupt();
+                    drained = false;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        // Without writers, the queued orders are written here
+        List<QueuedOrder> group = new ArrayList<>(OrderService.BATCH_CHUNK_SIZE);
+        while (drained && queue.drainTo(group, OrderService.BATCH_CHUNK_SIZE) > 0) {
+            write(group);
+            group.clear();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Se detuvo la escritura con {} órdenes pendientes", queue.size());
+        }
+    }
+
+    /**
+     * Writer loop: takes a group of queued orders and persists them, until the service
+     * stops accepting orders and the queue is empty.
+     */
+    private void drain() {
+        List<QueuedOrder> group = new ArrayList<>(OrderService.BATCH_CHUNK_SIZE);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                QueuedOrder first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, OrderService.BATCH_CHUNK_SIZE - 1);
+                write(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    /**
+     * Persists a group of queued orders and records the outcome of each placement.
+     */
+    private void write(List<QueuedOrder> group) {
+        List<OrderBatchResult> results;
+        try {
+            results = orderService.saveChunk(group.stream().map(QueuedOrder::order).toList(), 0);
+        } catch (RuntimeException e) {
+            log.error("No se pudo escribir un grupo de {} órdenes", group.size(), e);
+            group.forEach(queuedOrder -> complete(queuedOrder.token(), OrderPlacement.Status.FAILED, null, e.getMessage()));
+            return;
+        }
+        for (OrderBatchResult result : results) {
+            UUID token = group.get(result.getIndex()).token();
+            if (result.isCreated()) {
+                complete(token, OrderPlacement.Status.CREATED, result.getOrderId(), null);
+            } else {
+                complete(token, OrderPlacement.Status.FAILED, null, result.getError());
+            }
+        }
+    }
+
+    private void complete(UUID token, OrderPlacement.Status status, Integer orderId, String error) {
+        // Placements are replaced rather than modified, so the instances handed out never change.
+        // Only placements still retained are updated; forgotten ones are not brought back.
+        placements.computeIfPresent(token, (key, placement) -> new OrderPlacement(key, status, orderId, error));
+    }
+
+    /**
+     * An order waiting in the queue, along with the token of its placement.
+     */
+    private record QueuedOrder(UUID token, Order order) {
+    }
+
+}
@@ -1,7 +1,30 @@
 package com.juanlopez.ecommerce.backend.application;
 
+import com.juanlopez.ecommerce.backend.domain.exception.IdempotencyKeyInUseException;
+import com.juanlopez.ecommerce.backend.domain.model.CursorPage;
+import com.juanlopez.ecommerce.backend.domain.model.Money;
 import com.juanlopez.ecommerce.backend.domain.model.Order;
+import com.juanlopez.ecommerce.backend.domain.model.OrderBatchResult;
+import com.juanlopez.ecommerce.backend.domain.model.OrderCursor;
+import com.juanlopez.ecommerce.backend.domain.model.OrderProduct;
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.model.OrderStateBulkUpdate;
+import com.juanlopez.ecommerce.backend.domain.model.OrderStateBulkUpdateResult;
+import com.juanlopez.ecommerce.backend.domain.model.OrderStateTransitionResult;
+import com.juanlopez.ecommerce.backend.domain.model.OrderSummary;
 import com.juanlopez.ecommerce.backend.domain.port.IOrderRepository;
+import com.juanlopez.ecommerce.backend.domain.port.IProductRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Application service for managing orders.
@@ -14,54 +37,295 @@ import com.juanlopez.ecommerce.backend.domain.port.IOrderRepository;
  */
 public class OrderService {
 
+    /**
+     * Page size applied when the client does not request a specific one.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * Upper bound for the page size requested by clients.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Number of orders persisted per transaction during batch ingestion.
+     */
+    public static final int BATCH_CHUNK_SIZE = 500;
+
+    /**
+     * Number of orders updated per statement and transaction during bulk state transitions.
+     */
+    public static final int BULK_UPDATE_CHUNK_SIZE = 1000;
+
     private final IOrderRepository iOrderRepository;
+    private final IProductRepository iProductRepository;
 
     /**
-     * Constructs an OrderService with the given order repository.
+     * Constructs an OrderService with the given repositories.
      *
-     * @param iOrderRepository The repository implementation for orders.
+     * @param iOrderRepository   The repository implementation for orders.
+     * @param iProductRepository The repository implementation for products, used to price the orders.
      */
-    public OrderService(IOrderRepository iOrderRepository) {
+    public OrderService(IOrderRepository iOrderRepository, IProductRepository iProductRepository) {
         this.iOrderRepository = iOrderRepository;
+        this.iProductRepository = iProductRepository;
     }
 
     /**
      * Saves a new order or updates an existing one.
+     * <p>
+     * The price of every line is replaced by the current price of its product, so the
+     * prices sent by the client are never trusted. All the products of the order are
+     * resolved with a single lookup.
      *
      * @param order The order to save.
      * @return The persisted order, possibly updated with generated values (e.g., ID).
+     * @throws IllegalArgumentException If the order is not valid or refers to unknown products.
      */
     public Order save(Order order) {
+        price(order);
         return this.iOrderRepository.save(order);
     }
 
     /**
-     * Retrieves all existing orders.
+     * Saves a new order created with an idempotency key, priced like {@link #save(Order)},
+     * completing the key in the same transaction as the order.
+     *
+     * @param order          The order to save.
+     * @param idempotencyKey The key reserved for the order by its user.
+     * @return The persisted order.
+     * @throws IllegalArgumentException     If the order is not valid or refers to unknown products.
+     * @throws IdempotencyKeyInUseException If the key is no longer reserved.
+     */
+    public Order save(Order order, String idempotencyKey) {
+        price(order);
+        return this.iOrderRepository.save(order, idempotencyKey);
+    }
+
+    /**
+     * Persists a chunk of a batch of orders within a single transaction.
+     * <p>
+     * Invalid orders, including those referring to unknown products, are rejected up
+     * front and the remaining ones are priced with the current price of their products
+     * and written together. The products of the whole chunk are resolved with a single
+     * lookup before anything is inserted. If that write fails, the chunk is retried
+     * order by order so that only the offending orders are reported as failed.
      *
-     * @return An iterable containing all orders.
+     * @param orders     The orders of the chunk, at most {@link #BATCH_CHUNK_SIZE} elements.
+     * @param firstIndex Position of the first order of the chunk within the whole batch.
+     * @return One result per order of the chunk, in the same order.
      */
-    public Iterable<Order> findAll() {
-        return this.iOrderRepository.findAll();
+    public List<OrderBatchResult> saveChunk(List<Order> orders, int firstIndex) {
+        OrderBatchResult[] results = new OrderBatchResult[orders.size()];
+        List<Order> checkedOrders = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            String error = validate(orders.get(i));
+            if (error != null) {
+                results[i] = OrderBatchResult.failed(firstIndex + i, error);
+            } else {
+                checkedOrders.add(orders.get(i));
+            }
+        }
+
+        Map<Integer, Money> prices = findPrices(checkedOrders);
+        List<Order> validOrders = new ArrayList<>(checkedOrders.size());
+        List<Integer> validPositions = new ArrayList<>(checkedOrders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            String error = applyPrices(orders.get(i), prices);
+            if (error != null) {
+                results[i] = OrderBatchResult.failed(firstIndex + i, error);
+            } else {
+                validOrders.add(orders.get(i));
+                validPositions.add(i);
+            }
+        }
+
+        if (!validOrders.isEmpty()) {
+            try {
+                List<Order> savedOrders = this.iOrderRepository.saveAll(validOrders);
+                for (int i = 0; i < savedOrders.size(); i++) {
+                    int position = validPositions.get(i);
+                    results[position] = OrderBatchResult.created(firstIndex + position, savedOrders.get(i).getId());
+                }
+            } catch (RuntimeException e) {
+                // Isolate the orders that make the chunk fail
+                for (int i = 0; i < validOrders.size(); i++) {
+                    int position = validPositions.get(i);
+                    try {
+                        results[position] = OrderBatchResult.created(
+                                firstIndex + position, this.iOrderRepository.save(validOrders.get(i)).getId());
+                    } catch (RuntimeException orderException) {
+                        results[position] = OrderBatchResult.failed(firstIndex + position, orderException.getMessage());
+                    }
+                }
+            }
+        }
+        return List.of(results);
     }
 
     /**
-     * Retrieves all orders associated with a specific user.
+     * Retrieves a page of orders, from the newest to the oldest.
+     *
+     * @param cursor Opaque token returned by the previous page, or {@code null} for the first page.
+     * @param size   Requested page size, or {@code null} for the default one.
+     * @return The requested page of orders.
+     * @throws IllegalArgumentException If the cursor is malformed.
+     */
+    public CursorPage<Order> findAll(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        return toPage(this.iOrderRepository.findAll(decodeCursor(cursor), pageSize + 1), pageSize, OrderCursor::after);
+    }
+
+    /**
+     * Retrieves a page of the orders associated with a specific user, from the newest to the oldest.
      *
      * @param userId The ID of the user.
-     * @return An iterable containing the orders of the user.
+     * @param cursor Opaque token returned by the previous page, or {@code null} for the first page.
+     * @param size   Requested page size, or {@code null} for the default one.
+     * @return The requested page of the user's orders.
+     * @throws IllegalArgumentException If the cursor is malformed.
+     */
+    public CursorPage<Order> fingByUserId(Integer userId, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        return toPage(this.iOrderRepository.findByUserId(userId, decodeCursor(cursor), pageSize + 1), pageSize,
+                OrderCursor::after);
+    }
+
+    /**
+     * Retrieves a page of order summaries, from the newest to the oldest.
+     * <p>
+     * Intended for listings: summaries carry the line count and total of each order
+     * without loading its products.
+     *
+     * @param cursor Opaque token returned by the previous page, or {@code null} for the first page.
+     * @param size   Requested page size, or {@code null} for the default one.
+     * @return The requested page of order summaries.
+     * @throws IllegalArgumentException If the cursor is malformed.
+     */
+    public CursorPage<OrderSummary> findSummaries(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        return toPage(this.iOrderRepository.findSummaries(decodeCursor(cursor), pageSize + 1), pageSize,
+                OrderCursor::after);
+    }
+
+    /**
+     * Retrieves a page of the order summaries of a specific user, from the newest to the oldest.
+     *
+     * @param userId The ID of the user.
+     * @param cursor Opaque token returned by the previous page, or {@code null} for the first page.
+     * @param size   Requested page size, or {@code null} for the default one.
+     * @return The requested page of the user's order summaries.
+     * @throws IllegalArgumentException If the cursor is malformed.
+     */
+    public CursorPage<OrderSummary> findSummariesByUserId(Integer userId, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        return toPage(this.iOrderRepository.findSummariesByUserId(userId, decodeCursor(cursor), pageSize + 1),
+                pageSize, OrderCursor::after);
+    }
+
+    /**
+     * Hands every order matching the given filters to the consumer, from the oldest to the newest.
+     * <p>
+     * Orders are read incrementally, so this method is suitable for full dumps of the
+     * orders table: memory usage does not grow with the number of exported orders.
+     *
+     * @param state    The state the orders must have, or {@code null} for any state.
+     * @param dateFrom Lower bound (inclusive) of the creation date, or {@code null} for no bound.
+     * @param dateTo   Upper bound (exclusive) of the creation date, or {@code null} for no bound.
+     * @param consumer The action applied to each order; it must not keep references to them.
+     */
+    public void exportOrders(OrderState state, LocalDateTime dateFrom, LocalDateTime dateTo, Consumer<Order> consumer) {
+        this.iOrderRepository.forEachOrder(state, dateFrom, dateTo, consumer);
+    }
+
+    /**
+     * Moves an existing order to a new state, following the transitions allowed by {@link OrderState}.
+     * <p>
+     * The transition is applied as a compare-and-set from the state the caller expects
+     * (or, if none is given, the state currently stored). When another writer changes
+     * the order in between, the transition is not applied and a conflict is reported
+     * along with the state the order has now, instead of waiting on a row lock. Every
+     * outcome reports the state actually stored, never the one the caller expected.
+     *
+     * @param id            The ID of the order to update.
+     * @param state         The new state to be applied.
+     * @param expectedState The state the caller expects the order to have, or {@code null}
+     *                      to use the state currently stored.
+     * @return The outcome of the transition.
+     * @throws IllegalArgumentException If a state name is not valid.
      */
-    public Iterable<Order> fingByUserId(Integer userId) {
-        return this.iOrderRepository.findByUserId(userId);
+    public OrderStateTransitionResult updateStateById(Integer id, String state, String expectedState) {
+        OrderState next = OrderState.valueOf(state);
+        OrderState current = expectedState != null
+                ? OrderState.valueOf(expectedState)
+                : this.iOrderRepository.findStateById(id);
+        if (current == null) {
+            return new OrderStateTransitionResult(id, OrderStateTransitionResult.Outcome.NOT_FOUND, null);
+        }
+        if (!current.canTransitionTo(next)) {
+            // The expected state given by the caller may not be the stored one
+            OrderState actual = expectedState != null ? this.iOrderRepository.findStateById(id) : current;
+            return actual == null
+                    ? new OrderStateTransitionResult(id, OrderStateTransitionResult.Outcome.NOT_FOUND, null)
+                    : new OrderStateTransitionResult(id, OrderStateTransitionResult.Outcome.INVALID_TRANSITION, actual);
+        }
+        if (this.iOrderRepository.compareAndSetState(id, current, next)) {
+            return new OrderStateTransitionResult(id, OrderStateTransitionResult.Outcome.APPLIED, next);
+        }
+
+        OrderState actual = this.iOrderRepository.findStateById(id);
+        return actual == null
+                ? new OrderStateTransitionResult(id, OrderStateTransitionResult.Outcome.NOT_FOUND, null)
+                : new OrderStateTransitionResult(id, OrderStateTransitionResult.Outcome.CONFLICT, actual);
     }
 
     /**
-     * Updates the state of an existing order identified by its ID.
+     * Applies a state transition to many orders at once.
+     * <p>
+     * Orders are selected by their IDs or, when none are given, by their current state
+     * and creation date range. Only orders whose current state allows the transition are
+     * changed. Each chunk of {@link #BULK_UPDATE_CHUNK_SIZE} orders is
+     * updated with a single statement in its own transaction, so a large transition
+     * does not hold locks on every affected row until it completes.
      *
-     * @param id    The ID of the order to update.
-     * @param state The new state to be applied.
+     * @param bulkUpdate The description of the transition.
+     * @return The number of orders whose state was changed.
+     * @throws IllegalArgumentException If the transition is incomplete or the filter
+     *                                  selects orders that cannot move to the new state.
      */
-    public void updateStateById(Integer id, String state) {
-        this.iOrderRepository.updateStateById(id, state);
+    public OrderStateBulkUpdateResult updateStateInBulk(OrderStateBulkUpdate bulkUpdate) {
+        if (bulkUpdate.getState() == null) {
+            throw new IllegalArgumentException("Debe indicarse el nuevo estado de las órdenes.");
+        }
+        int updated = 0;
+        if (bulkUpdate.getIds() != null) {
+            List<Integer> ids = bulkUpdate.getIds();
+            for (int from = 0; from < ids.size(); from += BULK_UPDATE_CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + BULK_UPDATE_CHUNK_SIZE, ids.size()));
+                updated += this.iOrderRepository.updateStateByIds(chunk, bulkUpdate.getState()).size();
+            }
+            return new OrderStateBulkUpdateResult(updated);
+        }
+
+        if (bulkUpdate.getCurrentState() == null || bulkUpdate.getDateFrom() == null || bulkUpdate.getDateTo() == null) {
+            throw new IllegalArgumentException("Debe indicarse la lista de órdenes o el estado actual y el rango de fechas.");
+        }
+        if (!bulkUpdate.getCurrentState().canTransitionTo(bulkUpdate.getState())) {
+            throw new IllegalArgumentException("No se permite pasar de " + bulkUpdate.getCurrentState()
+                    + " a " + bulkUpdate.getState() + ".");
+        }
+        // Updated orders leave the filter, so each iteration picks the next chunk. A chunk may
+        // come back short when orders are changed concurrently, so only an empty one ends the loop
+        int chunkUpdated;
+        do {
+            chunkUpdated = this.iOrderRepository.updateStateByFilter(bulkUpdate.getCurrentState(),
+                    bulkUpdate.getDateFrom(), bulkUpdate.getDateTo(), bulkUpdate.getState(), BULK_UPDATE_CHUNK_SIZE).size();
+            updated += chunkUpdated;
+        } while (chunkUpdated > 0);
+        return new OrderStateBulkUpdateResult(updated);
     }
 
     /**
@@ -74,4 +338,114 @@ public class OrderService {
         return this.iOrderRepository.findById(id);
     }
 
+    /**
+     * Checks the structural rules an order must satisfy before being persisted.
+     *
+     * @param order The order to check.
+     * @return The reason why the order is invalid, or {@code null} if it is valid.
+     */
+    String validate(Order order) {
+        if (order == null) {
+            return "La orden no puede ser nula.";
+        }
+        if (order.getUserId() == null) {
+            return "La orden debe indicar el usuario.";
+        }
+        if (order.getOrderProducts() == null || order.getOrderProducts().isEmpty()) {
+            return "La orden debe contener al menos un producto.";
+        }
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            if (orderProduct.getProductId() == null) {
+                return "Todos los productos de la orden deben indicar el producto.";
+            }
+            if (orderProduct.getQuantity() == null || orderProduct.getQuantity().signum() <= 0) {
+                return "La cantidad del producto " + orderProduct.getProductId() + " debe ser mayor que cero.";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Validates an order and replaces the price of every line with the current price of its product.
+     *
+     * @param order The order about to be saved.
+     * @throws IllegalArgumentException If the order is not valid or refers to unknown products.
+     */
+    private void price(Order order) {
+        String error = validate(order);
+        if (error == null) {
+            error = applyPrices(order, findPrices(List.of(order)));
+        }
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+    }
+
+    /**
+     * Resolves the current prices of every product referred to by the given orders
+     * with a single repository lookup.
+     *
+     * @param orders Orders that passed {@link #validate(Order)}.
+     * @return The price of each existing product, keyed by product ID.
+     */
+    private Map<Integer, Money> findPrices(List<Order> orders) {
+        Set<Integer> productIds = new HashSet<>();
+        orders.forEach(order -> order.getOrderProducts().forEach(
+                orderProduct -> productIds.add(orderProduct.getProductId())));
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Integer, BigDecimal> storedPrices = this.iProductRepository.findPricesByIds(productIds);
+        Map<Integer, Money> prices = new HashMap<>(storedPrices.size() * 2);
+        storedPrices.forEach((productId, price) -> {
+            if (price != null) {
+                prices.put(productId, Money.of(price));
+            }
+        });
+        return prices;
+    }
+
+    /**
+     * Stamps the current price of its product onto every line of an order.
+     *
+     * @param order  An order that passed {@link #validate(Order)}.
+     * @param prices The current prices, as returned by {@link #findPrices(List)}.
+     * @return The reason why the order cannot be priced, or {@code null} if every line was priced.
+     */
+    private String applyPrices(Order order, Map<Integer, Money> prices) {
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            if (!prices.containsKey(orderProduct.getProductId())) {
+                return "El producto con Id: " + orderProduct.getProductId() + " no existe o no tiene precio.";
+            }
+        }
+        order.getOrderProducts().forEach(orderProduct -> orderProduct.setPrice(prices.get(orderProduct.getProductId())));
+        return null;
+    }
+
+    /**
+     * Clamps the requested page size to the range {@code [1, MAX_PAGE_SIZE]}.
+     */
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private OrderCursor decodeCursor(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : OrderCursor.decode(cursor);
+    }
+
+    /**
+     * Builds the page from a result fetched with one extra element, which is only
+     * used to know whether a next page exists and is never returned to the client.
+     */
+    private <T> CursorPage<T> toPage(List<T> elements, int pageSize, Function<T, OrderCursor> cursorAfter) {
+        if (elements.size() <= pageSize) {
+            return new CursorPage<>(elements, null, false);
+        }
+        List<T> items = elements.subList(0, pageSize);
+        return new CursorPage<>(items, cursorAfter.apply(items.get(pageSize - 1)).encode(), true);
+    }
+
 }
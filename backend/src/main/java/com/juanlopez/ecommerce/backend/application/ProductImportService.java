@@ -0,0 +1,584 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.model.Category;
+import com.juanlopez.ecommerce.backend.domain.model.ProductImport;
+import com.juanlopez.ecommerce.backend.domain.model.ProductImportError;
+import com.juanlopez.ecommerce.backend.domain.model.ProductImportRow;
+import com.juanlopez.ecommerce.backend.domain.model.ProductMergeResult;
+import com.juanlopez.ecommerce.backend.domain.port.ICatalogChangeListener;
+import com.juanlopez.ecommerce.backend.domain.port.ICategoryRepository;
+import com.juanlopez.ecommerce.backend.domain.port.IProductImportRepository;
+import com.juanlopez.ecommerce.backend.domain.port.IUserRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Application service importing products in bulk from CSV files.
+ * <p>
+ * The uploaded file is copied to a temporary file, and the caller gets the ID of the
+ * import right away. Imports run one at a time: a reader splits the file into chunks of
+ * {@link #CHUNK_SIZE} records, which a pool of workers parses, validates and stages in
+ * parallel through {@link IProductImportRepository}. At most two chunks per worker are
+ * held in memory, so the memory used does not depend on the size of the file. Once the
+ * whole file has been staged, the valid rows are merged into the catalog in a single
+ * transaction, by code, and the {@link ICatalogChangeListener}s are notified.
+ * <p>
+ * Invalid rows are rejected, with their line and reason, without stopping the import;
+ * a failure of the database stops it and leaves the catalog untouched. Imports are kept
+ * in memory only: those queued or running are lost if the process stops.
+ */
+@Slf4j
+public class ProductImportService implements AutoCloseable {
+
+    /**
+     * Number of records parsed, validated and staged together.
+     */
+    public static final int CHUNK_SIZE = 5_000;
+
+    /**
+     * Maximum number of rejected rows reported by an import; the rest are only counted.
+     */
+    public static final int MAX_REPORTED_ERRORS = 1_000;
+
+    /**
+     * Maximum number of imports waiting for the one running.
+     */
+    public static final int MAX_QUEUED_IMPORTS = 10;
+
+    /**
+     * Columns every file must have in its header, in any order.
+     */
+    public static final List<String> REQUIRED_COLUMNS = List.of("code", "name", "price", "category_id");
+
+    /**
+     * Columns a file may have in its header; any other column is ignored.
+     */
+    public static final List<String> OPTIONAL_COLUMNS = List.of("description", "url_image");
+
+    /**
+     * Maximum length of the text columns of the products.
+     */
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final IProductImportRepository iProductImportRepository;
+    private final ICategoryRepository iCategoryRepository;
+    private final IUserRepository iUserRepository;
+    private final List<ICatalogChangeListener> catalogChangeListeners;
+    private final int parallelism;
+    private final Duration shutdownTimeout;
+    private final Map<UUID, Job> jobs;
+    private final ThreadPoolExecutor runner;
+    private final ExecutorService workers;
+
+    /**
+     * Constructs the service and starts its threads.
+     *
+     * @param iProductImportRepository the repository staging and merging the rows
+     * @param iCategoryRepository      the repository used to validate the categories of the rows
+     * @param iUserRepository          the repository used to validate the owner of the created products
+     * @param catalogChangeListeners   the listeners notified after each import is merged
+     * @param parallelism              the number of workers parsing and staging chunks
+     * @param retainedImports          the maximum number of imports whose status is kept;
+     *                                 the oldest ones are forgotten first
+     * @param shutdownTimeout          the maximum time to wait for the running import on close
+     */
+    public ProductImportService(IProductImportRepository iProductImportRepository,
+                                ICategoryRepository iCategoryRepository, IUserRepository iUserRepository,
+                                List<ICatalogChangeListener> catalogChangeListeners, int parallelism,
+                                int retainedImports, Duration shutdownTimeout) {
+        this.iProductImportRepository = iProductImportRepository;
+        this.iCategoryRepository = iCategoryRepository;
+        this.iUserRepository = iUserRepository;
+        this.catalogChangeListeners = List.copyOf(catalogChangeListeners);
+        this.parallelism = parallelism;
+        this.shutdownTimeout = shutdownTimeout;
+        this.jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Job> eldest) {
+                return size() > retainedImports;
+            }
+        });
+        this.runner = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_IMPORTS), Thread.ofPlatform().name("product-import").factory());
+        this.workers = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("product-import-worker-", 0).factory());
+    }
+
+    /**
+     * Copies a CSV file of products and queues it to be imported.
+     * <p>
+     * The file must be encoded in UTF-8 and start with a header naming its columns:
+     * every one of {@link #REQUIRED_COLUMNS} and, optionally, {@link #OPTIONAL_COLUMNS}.
+     *
+     * @param csv    the content of the file; it is read to the end but not closed
+     * @param userId the ID of the user owning the products created by the import
+     * @return the queued import, whose ID identifies it in {@link #findById(UUID)}
+     * @throws IllegalArgumentException   if the user does not exist or the header is not valid
+     * @throws RejectedExecutionException if too many imports are queued or the service is shutting down
+     * @throws IOException                if the file cannot be read or copied
+     */
+    public ProductImport submit(InputStream csv, Integer userId) throws IOException {
+        if (userId == null) {
+            throw new IllegalArgumentException("El usuario propietario de los productos es obligatorio.");
+        }
+        try {
+            iUserRepository.findById(userId);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("El usuario con id: " + userId + " no existe.", e);
+        }
+
+        Path file = Files.createTempFile("product-import-", ".csv");
+        try {
+            Files.copy(csv, file, StandardCopyOption.REPLACE_EXISTING);
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                readHeader(reader);
+            }
+            Job job = new Job(UUID.randomUUID(), userId, file);
+            jobs.put(job.id, job);
+            try {
+                runner.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.id);
+                throw new RejectedExecutionException("Hay demasiadas importaciones pendientes, inténtelo más tarde.", e);
+            }
+            return job.snapshot();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieves the current progress of an import.
+     *
+     * @param id the ID returned on submission
+     * @return a snapshot of the import, or {@code null} if it is unknown or no longer retained
+     */
+    public ProductImport findById(UUID id) {
+        Job job = jobs.get(id);
+        return job == null ? null : job.snapshot();
+    }
+
+    /**
+     * Stops accepting imports, fails the queued ones and waits for the running one to
+     * finish; once the shutdown timeout expires, the running import is interrupted.
+     */
+    @Override
+    public void close() {
+        runner.shutdown();
+        List<Runnable> queued = new ArrayList<>();
+        runner.getQueue().drainTo(queued);
+        // Run on this thread, they see the service stopped and only mark their import as failed
+        queued.forEach(Runnable::run);
+        try {
+            if (!runner.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Se interrumpe la importación de productos en curso");
+                runner.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Imports a queued file: stages its valid rows, merges them and notifies the listeners.
+     * When the service is shutting down, the import is marked as failed instead.
+     */
+    private void run(Job job) {
+        long start = System.nanoTime();
+        try {
+            if (runner.isShutdown()) {
+                throw new IllegalStateException("El servicio de importación se detuvo antes de procesar el fichero.");
+            }
+            job.status = ProductImport.Status.STAGING;
+            stage(job);
+            job.status = ProductImport.Status.MERGING;
+            ProductMergeResult result = job.rowsStaged.get() == 0
+                    ? new ProductMergeResult()
+                    : iProductImportRepository.merge(job.id, job.userId);
+            job.result = result;
+            if (result.getCreated() + result.getUpdated() > 0) {
+                catalogChangeListeners.forEach(ICatalogChangeListener::onProductsImported);
+            }
+            job.finish(ProductImport.Status.COMPLETED, null);
+            log.info("Importación {} completada en {} ms: {} filas, {} rechazadas, {} productos creados y {} actualizados",
+                    job.id, (System.nanoTime() - start) / 1_000_000, job.rowsRead.get(), job.rowsRejected.get(),
+                    result.getCreated(), result.getUpdated());
+        } catch (Exception e) {
+            log.error("Falló la importación de productos {}", job.id, e);
+            job.finish(ProductImport.Status.FAILED, e.getMessage());
+        } finally {
+            cleanUp(job);
+        }
+    }
+
+    /**
+     * Reads the file, handing chunks of records to the workers. Each chunk in flight holds
+     * a permit, so the reader waits while every worker is busy and one chunk is waiting.
+     */
+    private void stage(Job job) throws Exception {
+        Set<Integer> categoryIds = new HashSet<>();
+        for (Category category : iCategoryRepository.findAll()) {
+            categoryIds.add(category.getId());
+        }
+        int permits = parallelism * 2;
+        Semaphore inFlight = new Semaphore(permits);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(job.file, StandardCharsets.UTF_8)) {
+            RecordReader records = new RecordReader(reader);
+            Header header = parseHeader(records.next());
+            List<Record> chunk = new ArrayList<>(CHUNK_SIZE);
+            Record record;
+            while (failure.get() == null && (record = records.next()) != null) {
+                if (record.text().isBlank()) {
+                    continue;
+                }
+                chunk.add(record);
+                job.rowsRead.incrementAndGet();
+                if (chunk.size() == CHUNK_SIZE) {
+                    submitChunk(job, header, categoryIds, chunk, inFlight, failure);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty() && failure.get() == null) {
+                submitChunk(job, header, categoryIds, chunk, inFlight, failure);
+            }
+        } finally {
+            // Waits for the chunks in flight, even if reading failed
+            inFlight.acquireUninterruptibly(permits);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private void submitChunk(Job job, Header header, Set<Integer> categoryIds, List<Record> chunk,
+                             Semaphore inFlight, AtomicReference<Exception> failure) throws InterruptedException {
+        inFlight.acquire();
+        try {
+            workers.execute(() -> {
+                try {
+                    List<ProductImportRow> rows = new ArrayList<>(chunk.size());
+                    for (Record record : chunk) {
+                        ProductImportRow row = parseRow(job, header, categoryIds, record);
+                        if (row != null) {
+                            rows.add(row);
+                        }
+                    }
+                    iProductImportRepository.stage(job.id, rows);
+                    job.rowsStaged.addAndGet(rows.size());
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Parses and validates a record, recording the error of the job if it is rejected.
+     *
+     * @return the valid row, or {@code null} if it was rejected
+     */
+    private static ProductImportRow parseRow(Job job, Header header, Set<Integer> categoryIds, Record record) {
+        String code = null;
+        try {
+            List<String> fields = splitFields(record.text());
+            if (fields.size() != header.size()) {
+                throw new IllegalArgumentException("Número de columnas incorrecto: se esperaban " + header.size()
+                        + " y hay " + fields.size() + ".");
+            }
+            code = text(fields, header, "code");
+            String name = text(fields, header, "name");
+            if (code == null) {
+                throw new IllegalArgumentException("El código es obligatorio.");
+            }
+            if (name == null) {
+                throw new IllegalArgumentException("El nombre es obligatorio.");
+            }
+            return new ProductImportRow(record.line(), code, name, text(fields, header, "description"),
+                    text(fields, header, "url_image"), price(fields, header), categoryId(fields, header, categoryIds));
+        } catch (IllegalArgumentException e) {
+            job.reject(new ProductImportError(record.line(), code, e.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * Returns the trimmed value of a text column, or {@code null} if it is missing or blank.
+     */
+    private static String text(List<String> fields, Header header, String column) {
+        Integer index = header.indexes().get(column);
+        if (index == null) {
+            return null;
+        }
+        String value = fields.get(index).strip();
+        if (value.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("El campo " + column + " supera los " + MAX_TEXT_LENGTH + " caracteres.");
+        }
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal price(List<String> fields, Header header) {
+        String value = text(fields, header, "price");
+        if (value == null) {
+            throw new IllegalArgumentException("El precio es obligatorio.");
+        }
+        BigDecimal price;
+        try {
+            price = new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El precio no es un número válido: " + value + ".");
+        }
+        if (price.signum() < 0) {
+            throw new IllegalArgumentException("El precio no puede ser negativo.");
+        }
+        if (price.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("El precio no puede tener más de dos decimales.");
+        }
+        return price;
+    }
+
+    private static Integer categoryId(List<String> fields, Header header, Set<Integer> categoryIds) {
+        String value = text(fields, header, "category_id");
+        if (value == null) {
+            throw new IllegalArgumentException("La categoría es obligatoria.");
+        }
+        int categoryId;
+        try {
+            categoryId = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("La categoría no es un número válido: " + value + ".");
+        }
+        if (!categoryIds.contains(categoryId)) {
+            throw new IllegalArgumentException("La categoría " + categoryId + " no existe.");
+        }
+        return categoryId;
+    }
+
+    private static Header readHeader(Reader reader) throws IOException {
+        return parseHeader(new RecordReader(reader).next());
+    }
+
+    /**
+     * Maps the names of the columns to their positions, checking that the required ones are present.
+     */
+    private static Header parseHeader(Record record) {
+        if (record == null) {
+            throw new IllegalArgumentException("El fichero está vacío.");
+        }
+        // The byte order mark some editors write at the start of UTF-8 files is not part of the first name
+        String text = record.text().startsWith("\uFEFF") ? record.text().substring(1) : record.text();
+        List<String> names = splitFields(text);
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).strip().toLowerCase(Locale.ROOT);
+            if ((REQUIRED_COLUMNS.contains(name) || OPTIONAL_COLUMNS.contains(name)) && indexes.putIfAbsent(name, i) != null) {
+                throw new IllegalArgumentException("La columna " + name + " está repetida en la cabecera.");
+            }
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !indexes.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Faltan columnas obligatorias en la cabecera: "
+                    + String.join(", ", missing) + ".");
+        }
+        return new Header(indexes, names.size());
+    }
+
+    /**
+     * Splits a CSV record into its fields, unquoting the quoted ones.
+     */
+    private static List<String> splitFields(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Falta cerrar las comillas de un campo.");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private void cleanUp(Job job) {
+        try {
+            iProductImportRepository.discard(job.id);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron borrar las filas preparadas de la importación {}", job.id, e);
+        }
+        try {
+            Files.deleteIfExists(job.file);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el fichero temporal {}", job.file, e);
+        }
+    }
+
+    /**
+     * Positions of the known columns of a file, and its total number of columns.
+     */
+    private record Header(Map<String, Integer> indexes, int size) {
+    }
+
+    /**
+     * A record of the file, along with the line where it starts.
+     */
+    private record Record(long line, String text) {
+    }
+
+    /**
+     * Splits a CSV file into records. A line break inside quotes belongs to the record,
+     * so a record may span several lines; the fields are split later, by the workers.
+     */
+    private static final class RecordReader {
+
+        private final Reader reader;
+        private final StringBuilder text = new StringBuilder();
+        private long line = 1;
+
+        private RecordReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Reads the next record, without its line break.
+         *
+         * @return the record, or {@code null} at the end of the file
+         */
+        private Record next() throws IOException {
+            text.setLength(0);
+            long startLine = line;
+            boolean quoted = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (c == '\n') {
+                    line++;
+                    if (!quoted) {
+                        return new Record(startLine, stripCarriageReturn());
+                    }
+                } else if (c == '"') {
+                    quoted = !quoted;
+                }
+                text.append((char) c);
+            }
+            return text.isEmpty() ? null : new Record(startLine, stripCarriageReturn());
+        }
+
+        private String stripCarriageReturn() {
+            int length = text.length();
+            return length > 0 && text.charAt(length - 1) == '\r' ? text.substring(0, length - 1) : text.toString();
+        }
+
+    }
+
+    /**
+     * Mutable state of an import, updated by the reader and the workers and copied into
+     * a {@link ProductImport} whenever it is requested.
+     */
+    private static final class Job {
+
+        private final UUID id;
+        private final Integer userId;
+        private final Path file;
+        private final LocalDateTime dateCreated = LocalDateTime.now();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong rowsStaged = new AtomicLong();
+        private final AtomicLong rowsRejected = new AtomicLong();
+        private final List<ProductImportError> errors = new ArrayList<>();
+        private volatile ProductImport.Status status = ProductImport.Status.QUEUED;
+        private volatile ProductMergeResult result = new ProductMergeResult();
+        private volatile String error;
+        private volatile LocalDateTime dateFinished;
+
+        private Job(UUID id, Integer userId, Path file) {
+            this.id = id;
+            this.userId = userId;
+            this.file = file;
+        }
+
+        private void reject(ProductImportError rejection) {
+            rowsRejected.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(rejection);
+                }
+            }
+        }
+
+        private void finish(ProductImport.Status finalStatus, String finalError) {
+            error = finalError;
+            dateFinished = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        private ProductImport snapshot() {
+            List<ProductImportError> reportedErrors;
+            synchronized (errors) {
+                reportedErrors = new ArrayList<>(errors);
+            }
+            // Errors are reported in file order, although the workers find them in any order
+            reportedErrors.sort((a, b) -> Long.compare(a.getLine(), b.getLine()));
+            ProductMergeResult merged = result;
+            return new ProductImport(id, status, rowsRead.get(), rowsStaged.get(), rowsRejected.get(),
+                    merged.getCreated(), merged.getUpdated(), merged.getUnchanged(), reportedErrors, error,
+                    dateCreated, dateFinished);
+        }
+
+    }
+
+}
@@ -0,0 +1,721 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the name, code and description of the products.
+ * <p>
+ * Texts are split into terms on every character that is not a letter or a digit,
+ * lowercased and stripped of diacritics, so {@code "Canción"} and {@code "cancion"}
+ * match. Each term maps to the postings of the products containing it, with a weight
+ * that depends on the field it appears in. The terms are kept sorted, so the terms
+ * starting with a prefix are a contiguous range that can be read without scanning the
+ * whole vocabulary.
+ * <p>
+ * Postings are ordered by weight, from the highest, and by ascending ID within each
+ * weight, so the best candidates of a query come first: a single-term query merges the
+ * postings of its completions and stops after the requested number of products, and a
+ * longer query walks the shortest postings among its terms, checks the other terms of
+ * each candidate in the forward index and stops as soon as the remaining candidates
+ * cannot beat the results found.
+ * <p>
+ * To keep that check to a couple of memory accesses, every term has a numeric ID and
+ * the forward index is an array indexed by product ID, which is dense because the
+ * database assigns it from a sequence, holding the sorted term IDs of each product with
+ * their weights packed in a single {@code int}.
+ * <p>
+ * Reads and writes are guarded by a read-write lock: searches run concurrently and
+ * only wait for the occasional catalog change.
+ */
+public final class ProductSearchIndex {
+
+    /**
+     * Weight of a term found in the product name.
+     */
+    static final int NAME_WEIGHT = 4;
+
+    /**
+     * Weight of a term found in the product code.
+     */
+    static final int CODE_WEIGHT = 8;
+
+    /**
+     * Weight of a term found in the product description.
+     */
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    /**
+     * Maximum number of terms a prefix is expanded to, in alphabetical order.
+     */
+    static final int MAX_PREFIX_TERMS = 1024;
+
+    /**
+     * Maximum number of candidates checked by a query with several terms.
+     * <p>
+     * Only reached when every term of the query is found in more products and their
+     * scores are close; the candidates are checked by decreasing weight, so the ones
+     * left out are the least relevant.
+     */
+    static final int MAX_CANDIDATES = 1024;
+
+    /**
+     * Maximum number of terms read to suggest the completions of a prefix.
+     */
+    static final int MAX_SUGGESTION_TERMS = 1000;
+
+    /**
+     * Low bits of a forward index entry holding the weight; the rest hold the term ID.
+     */
+    private static final int WEIGHT_BITS = 5;
+    private static final int MAX_WEIGHT = (1 << WEIGHT_BITS) - 1;
+
+    private static final int[] NO_TERMS = new int[0];
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> postingsByTerm = new TreeMap<>();
+
+    /**
+     * Postings indexed by term ID; the IDs of removed terms are reused.
+     */
+    private Postings[] postingsByTermId = new Postings[1024];
+    private int[] freeTermIds = new int[16];
+    private int freeTermIdCount;
+    private int nextTermId;
+
+    /**
+     * Sorted forward index entries of each product, indexed by product ID.
+     */
+    private int[][] termsByProduct = new int[1024][];
+    private int productCount;
+
+    /**
+     * Adds a product to the index, replacing its previous version if it was indexed.
+     *
+     * @param product the product to index
+     */
+    public void put(Product product) {
+        Map<String, Integer> weights = new TreeMap<>();
+        addTerms(weights, product.getName(), NAME_WEIGHT);
+        addTerms(weights, product.getCode(), CODE_WEIGHT);
+        addTerms(weights, product.getDescription(), DESCRIPTION_WEIGHT);
+        int id = product.getId();
+
+        lock.writeLock().lock();
+        try {
+            removeProduct(id);
+            if (weights.isEmpty()) {
+                return;
+            }
+            int[] entries = new int[weights.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                Postings postings = postingsByTerm.computeIfAbsent(entry.getKey(), this::newPostings);
+                int weight = Math.min(entry.getValue(), MAX_WEIGHT);
+                postings.add(id, weight);
+                entries[i++] = postings.termId << WEIGHT_BITS | weight;
+            }
+            Arrays.sort(entries);
+            if (id >= termsByProduct.length) {
+                termsByProduct = Arrays.copyOf(termsByProduct, Math.max(id + 1, termsByProduct.length * 2));
+            }
+            termsByProduct[id] = entries;
+            productCount++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a product from the index.
+     *
+     * @param id the ID of the product
+     */
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            removeProduct(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed products.
+     *
+     * @return the number of products with at least one term
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return productCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the products containing every term of the query.
+     * <p>
+     * The last term is matched as a prefix, so results are available while the query is
+     * being typed. A term scores twice its weight when it matches exactly and its weight
+     * when it only matches as a prefix, and the scores of all the terms are added up.
+     *
+     * @param query the text typed by the customer
+     * @param limit the maximum number of IDs to return
+     * @return the IDs of the matching products, from the highest score to the lowest, and
+     * by ascending ID among equal scores
+     */
+    public List<Integer> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<String> exactTerms = tokens.subList(0, tokens.size() - 1);
+        String prefix = tokens.getLast();
+
+        lock.readLock().lock();
+        try {
+            return exactTerms.isEmpty() ? searchPrefix(prefix, limit) : searchAll(exactTerms, prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Suggests the indexed terms completing the last term of the given text.
+     *
+     * @param text  the text typed by the customer
+     * @param limit the maximum number of terms to return
+     * @return the completions, from the one found in most products to the one found in the fewest
+     */
+    public List<String> suggest(String text, int limit) {
+        List<String> tokens = tokenize(text);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Comparator<Postings> byFrequency = Comparator.<Postings>comparingInt(postings -> postings.size)
+                .thenComparing(postings -> postings.term, Comparator.reverseOrder());
+        PriorityQueue<Postings> top = new PriorityQueue<>(limit + 1, byFrequency);
+
+        lock.readLock().lock();
+        try {
+            int readTerms = 0;
+            for (Postings postings : completions(tokens.getLast()).values()) {
+                top.add(postings);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+                if (++readTerms == MAX_SUGGESTION_TERMS) {
+                    break;
+                }
+            }
+            List<Postings> suggestions = new ArrayList<>(top);
+            suggestions.sort(byFrequency.reversed());
+            return suggestions.stream().map(postings -> postings.term).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits a text into normalized terms.
+     *
+     * @param text the text to split, possibly {@code null}
+     * @return the terms of the text, in order and with repetitions
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(normalized)).filter(term -> !term.isEmpty()).toList();
+    }
+
+    /**
+     * Searches a single prefix by merging the postings of its completions.
+     * <p>
+     * The merge yields the products by decreasing score and ascending ID, each one first
+     * with its best score, so it stops once the requested number is reached.
+     */
+    private List<Integer> searchPrefix(String prefix, int limit) {
+        PriorityQueue<Cursor> cursors = cursors(prefix);
+        List<Integer> ids = new ArrayList<>(Math.min(limit, 1024));
+        Set<Integer> seen = new HashSet<>();
+        while (ids.size() < limit && !cursors.isEmpty()) {
+            Cursor cursor = cursors.poll();
+            if (seen.add(cursor.id())) {
+                ids.add(cursor.id());
+            }
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Searches several terms, walking the shortest postings: those of the rarest exact
+     * term, or those of the completions of the prefix if they are shorter.
+     * <p>
+     * The walk goes by decreasing weight and stops once the best score the remaining
+     * candidates could reach, given the highest weight of every other term, is below the
+     * last of the results kept.
+     */
+    private List<Integer> searchAll(List<String> exactTerms, String prefix, int limit) {
+        int[] exactTermIds = new int[exactTerms.size()];
+        Postings rarest = null;
+        int exactMaxScore = 0;
+        for (int i = 0; i < exactTermIds.length; i++) {
+            Postings postings = postingsByTerm.get(exactTerms.get(i));
+            if (postings == null) {
+                return List.of();
+            }
+            if (rarest == null || postings.size < rarest.size) {
+                rarest = postings;
+            }
+            exactTermIds[i] = postings.termId;
+            exactMaxScore += 2 * postings.maxWeight();
+        }
+
+        Prefix completions = new Prefix(prefix);
+        if (completions.termIds.length == 0) {
+            return List.of();
+        }
+        TopProducts top = new TopProducts(limit);
+        int candidates = 0;
+
+        if (completions.postingsSize < rarest.size) {
+            // By decreasing score of the prefix; each product is checked once, in the completion
+            // where the prefix scores best
+            for (int score = completions.maxScore; score > 0; score--) {
+                if (top.isFull() && score + exactMaxScore < top.minScore()) {
+                    break;
+                }
+                for (int i = 0; i < completions.termIds.length; i++) {
+                    Postings postings = postingsByTermId[completions.termIds[i]];
+                    int factor = completions.factor(postings.termId);
+                    if (score % factor != 0) {
+                        continue;
+                    }
+                    Block block = postings.block(score / factor);
+                    for (int j = 0; block != null && j < block.size; j++) {
+                        int id = block.ids[j];
+                        int[] entries = termsByProduct[id];
+                        if (completions.best(entries) != i) {
+                            continue;
+                        }
+                        if (candidates++ == MAX_CANDIDATES) {
+                            return top.toList();
+                        }
+                        int exactScore = exactScore(entries, exactTermIds);
+                        if (exactScore > 0) {
+                            top.offer(id, exactScore + score);
+                        }
+                    }
+                }
+            }
+            return top.toList();
+        }
+
+        int otherTermsMaxScore = exactMaxScore - 2 * rarest.maxWeight() + completions.maxScore;
+        for (Block block : rarest.blocks) {
+            int blockMaxScore = 2 * block.weight + otherTermsMaxScore;
+            for (int i = 0; i < block.size; i++) {
+                if (top.isFull() && blockMaxScore < top.minScore() || candidates++ == MAX_CANDIDATES) {
+                    return top.toList();
+                }
+                int id = block.ids[i];
+                int[] entries = termsByProduct[id];
+                int score = exactScore(entries, exactTermIds);
+                int prefixScore = score == 0 ? 0 : completions.score(entries);
+                if (prefixScore > 0) {
+                    top.offer(id, score + prefixScore);
+                }
+            }
+        }
+        return top.toList();
+    }
+
+    /**
+     * Computes the score of the exact terms in a product, or {@code 0} if any is missing.
+     */
+    private static int exactScore(int[] entries, int[] termIds) {
+        int score = 0;
+        for (int termId : termIds) {
+            // Entries of a term are above its ID shifted, whatever their weight
+            int index = -Arrays.binarySearch(entries, termId << WEIGHT_BITS) - 1;
+            if (index == entries.length || entries[index] >>> WEIGHT_BITS != termId) {
+                return 0;
+            }
+            score += 2 * (entries[index] & MAX_WEIGHT);
+        }
+        return score;
+    }
+
+    /**
+     * Opens a cursor on the postings of each completion of a prefix, ordered by their
+     * current score.
+     */
+    private PriorityQueue<Cursor> cursors(String prefix) {
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>(
+                Comparator.comparingInt((Cursor cursor) -> -cursor.score()).thenComparingInt(Cursor::id));
+        int expandedTerms = 0;
+        for (Postings postings : completions(prefix).values()) {
+            cursors.add(new Cursor(postings, postings.term.length() == prefix.length() ? 2 : 1));
+            if (++expandedTerms == MAX_PREFIX_TERMS) {
+                break;
+            }
+        }
+        return cursors;
+    }
+
+    private NavigableMap<String, Postings> completions(String prefix) {
+        return postingsByTerm.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static void addTerms(Map<String, Integer> weights, String text, int weight) {
+        for (String term : tokenize(text)) {
+            weights.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private Postings newPostings(String term) {
+        int termId = freeTermIdCount > 0 ? freeTermIds[--freeTermIdCount] : nextTermId++;
+        if (termId >= postingsByTermId.length) {
+            postingsByTermId = Arrays.copyOf(postingsByTermId, postingsByTermId.length * 2);
+        }
+        Postings postings = new Postings(term, termId);
+        postingsByTermId[termId] = postings;
+        return postings;
+    }
+
+    private void removeProduct(int id) {
+        int[] entries = id < termsByProduct.length ? termsByProduct[id] : null;
+        if (entries == null) {
+            return;
+        }
+        termsByProduct[id] = null;
+        productCount--;
+        for (int entry : entries) {
+            Postings postings = postingsByTermId[entry >>> WEIGHT_BITS];
+            postings.remove(id, entry & MAX_WEIGHT);
+            if (postings.size == 0) {
+                postingsByTerm.remove(postings.term);
+                postingsByTermId[postings.termId] = null;
+                if (freeTermIdCount == freeTermIds.length) {
+                    freeTermIds = Arrays.copyOf(freeTermIds, freeTermIdCount * 2);
+                }
+                freeTermIds[freeTermIdCount++] = postings.termId;
+            }
+        }
+    }
+
+    /**
+     * Completions of the prefix of a query, as sorted term IDs.
+     */
+    private final class Prefix {
+
+        private final int[] termIds;
+
+        /**
+         * ID of the term equal to the prefix, or {@code -1} if it is not a term.
+         */
+        private final int exactTermId;
+
+        /**
+         * Highest score of the prefix in any product.
+         */
+        private final int maxScore;
+
+        /**
+         * Total size of the postings of the completions, counting a product once per completion.
+         */
+        private final long postingsSize;
+
+        private Prefix(String prefix) {
+            int[] ids = NO_TERMS;
+            int exactId = -1;
+            int max = 0;
+            long products = 0;
+            int count = 0;
+            for (Postings postings : completions(prefix).values()) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, Math.max(8, count * 2));
+                }
+                ids[count++] = postings.termId;
+                if (postings.term.length() == prefix.length()) {
+                    exactId = postings.termId;
+                }
+                max = Math.max(max, (postings.termId == exactId ? 2 : 1) * postings.maxWeight());
+                products += postings.size;
+                if (count == MAX_PREFIX_TERMS) {
+                    break;
+                }
+            }
+            this.termIds = Arrays.copyOf(ids, count);
+            Arrays.sort(this.termIds);
+            this.exactTermId = exactId;
+            this.maxScore = max;
+            this.postingsSize = products;
+        }
+
+        private int factor(int termId) {
+            return termId == exactTermId ? 2 : 1;
+        }
+
+        /**
+         * Computes the best score of the completions in a product, or {@code 0} if it has none.
+         */
+        private int score(int[] entries) {
+            int best = 0;
+            for (int entry : entries) {
+                int termId = entry >>> WEIGHT_BITS;
+                if (Arrays.binarySearch(termIds, termId) >= 0) {
+                    best = Math.max(best, factor(termId) * (entry & MAX_WEIGHT));
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Finds the index of the completion with the best score in a product, the first one
+         * among equal scores, or {@code -1} if it has none.
+         */
+        private int best(int[] entries) {
+            int best = -1;
+            int bestScore = 0;
+            for (int entry : entries) {
+                int index = Arrays.binarySearch(termIds, entry >>> WEIGHT_BITS);
+                if (index >= 0) {
+                    int score = factor(termIds[index]) * (entry & MAX_WEIGHT);
+                    if (score > bestScore || score == bestScore && index < best) {
+                        best = index;
+                        bestScore = score;
+                    }
+                }
+            }
+            return best;
+        }
+
+    }
+
+    /**
+     * Products containing a term, grouped in blocks by the weight of the term in them.
+     */
+    private static final class Postings {
+
+        private static final Block[] NO_BLOCKS = new Block[0];
+
+        private final String term;
+
+        private final int termId;
+
+        /**
+         * Blocks ordered by decreasing weight.
+         */
+        private Block[] blocks = NO_BLOCKS;
+
+        private int size;
+
+        private Postings(String term, int termId) {
+            this.term = term;
+            this.termId = termId;
+        }
+
+        private int maxWeight() {
+            return blocks.length == 0 ? 0 : blocks[0].weight;
+        }
+
+        private Block block(int weight) {
+            for (Block block : blocks) {
+                if (block.weight == weight) {
+                    return block;
+                }
+            }
+            return null;
+        }
+
+        private void add(int id, int weight) {
+            int index = 0;
+            while (index < blocks.length && blocks[index].weight > weight) {
+                index++;
+            }
+            if (index == blocks.length || blocks[index].weight != weight) {
+                Block[] newBlocks = new Block[blocks.length + 1];
+                System.arraycopy(blocks, 0, newBlocks, 0, index);
+                System.arraycopy(blocks, index, newBlocks, index + 1, blocks.length - index);
+                newBlocks[index] = new Block(weight);
+                blocks = newBlocks;
+            }
+            if (blocks[index].add(id)) {
+                size++;
+            }
+        }
+
+        private void remove(int id, int weight) {
+            for (int index = 0; index < blocks.length; index++) {
+                Block block = blocks[index];
+                if (block.weight == weight && block.remove(id)) {
+                    size--;
+                    if (block.size == 0) {
+                        Block[] newBlocks = new Block[blocks.length - 1];
+                        System.arraycopy(blocks, 0, newBlocks, 0, index);
+                        System.arraycopy(blocks, index + 1, newBlocks, index, newBlocks.length - index);
+                        blocks = newBlocks;
+                    }
+                    return;
+                }
+            }
+        }
+
+    }
+
+    /**
+     * IDs of the products in which a term has the same weight, in ascending order.
+     * <p>
+     * Products are usually indexed by ascending ID, so adding them is an append; updates
+     * and removals shift the following IDs.
+     */
+    private static final class Block {
+
+        private final int weight;
+
+        private int[] ids = new int[2];
+
+        private int size;
+
+        private Block(int weight) {
+            this.weight = weight;
+        }
+
+        private boolean add(int id) {
+            int index = size == 0 || id > ids[size - 1] ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                index = -index - 1;
+            } else if (index < size) {
+                return false;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+            return true;
+        }
+
+        private boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+    }
+
+    /**
+     * Position in the postings of a term, walked by decreasing score and ascending ID.
+     */
+    private static final class Cursor {
+
+        private final Postings postings;
+
+        private final int factor;
+
+        private int block;
+
+        private int position;
+
+        private Cursor(Postings postings, int factor) {
+            this.postings = postings;
+            this.factor = factor;
+        }
+
+        private int id() {
+            return postings.blocks[block].ids[position];
+        }
+
+        private int score() {
+            return factor * postings.blocks[block].weight;
+        }
+
+        /**
+         * Moves to the next product, returning {@code false} if there are no more.
+         */
+        private boolean advance() {
+            if (++position < postings.blocks[block].size) {
+                return true;
+            }
+            position = 0;
+            return ++block < postings.blocks.length;
+        }
+
+    }
+
+    /**
+     * Bounded min-heap keeping the best scored products seen so far.
+     */
+    private static final class TopProducts {
+
+        private final int limit;
+
+        /**
+         * Score in the high half and inverted ID in the low half, so natural ordering
+         * ranks higher scores first and, among them, lower IDs first.
+         */
+        private final PriorityQueue<Long> heap;
+
+        private TopProducts(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(Math.min(limit, 1024) + 1);
+        }
+
+        private boolean isFull() {
+            return heap.size() == limit;
+        }
+
+        private int minScore() {
+            return (int) (heap.peek() >>> 32);
+        }
+
+        private void offer(int id, int score) {
+            long rank = ((long) score << 32) | (0xFFFFFFFFL - (id & 0xFFFFFFFFL));
+            if (heap.size() < limit) {
+                heap.add(rank);
+            } else if (rank > heap.peek()) {
+                heap.poll();
+                heap.add(rank);
+            }
+        }
+
+        private List<Integer> toList() {
+            List<Long> ranks = new ArrayList<>(heap);
+            ranks.sort(Comparator.reverseOrder());
+            return ranks.stream().map(rank -> (int) (0xFFFFFFFFL - (rank & 0xFFFFFFFFL))).toList();
+        }
+
+    }
+
+}
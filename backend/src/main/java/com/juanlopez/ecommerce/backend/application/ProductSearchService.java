@@ -0,0 +1,162 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+import com.juanlopez.ecommerce.backend.domain.port.ICatalogChangeListener;
+import com.juanlopez.ecommerce.backend.domain.port.IProductRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Application service answering full-text searches and autocomplete requests over the
+ * product catalog from a {@link ProductSearchIndex} held in memory.
+ * <p>
+ * The index is built by {@link #rebuild()}, streaming the catalog from
+ * {@link IProductRepository} so it never has to be loaded at once, and then kept up to
+ * date as a {@link ICatalogChangeListener} of {@link ProductService}. Searches return
+ * product IDs only: the products themselves are read through the product cache.
+ * <p>
+ * Changes notified while a rebuild reads the database are applied to the current index
+ * and recorded, then replayed on the new one before it is published, so none of them is
+ * lost whatever products the rebuild had already read.
+ */
+@Slf4j
+public class ProductSearchService implements ICatalogChangeListener {
+
+    /**
+     * Number of results returned when the client does not request a specific one.
+     */
+    public static final int DEFAULT_LIMIT = 20;
+
+    /**
+     * Upper bound for the number of results requested by clients.
+     */
+    public static final int MAX_LIMIT = 100;
+
+    private final IProductRepository iProductRepository;
+
+    /**
+     * Index currently used; replaced as a whole by {@link #rebuild()}.
+     */
+    private volatile ProductSearchIndex index = new ProductSearchIndex();
+
+    /**
+     * Guards the changes applied to {@link #index}, its replacement and {@link #pendingChanges}.
+     */
+    private final Object changeLock = new Object();
+
+    /**
+     * Serializes the rebuilds, so at most one records the changes at a time.
+     */
+    private final Object rebuildLock = new Object();
+
+    /**
+     * Changes applied since the running rebuild started, or {@code null} if none is running.
+     */
+    private List<Consumer<ProductSearchIndex>> pendingChanges;
+
+    /**
+     * creates a new instance of {@code ProductSearchService} with an empty index.
+     *
+     * @param iProductRepository the repository used to build the index
+     */
+    public ProductSearchService(IProductRepository iProductRepository) {
+        this.iProductRepository = iProductRepository;
+    }
+
+    /**
+     * Replaces the index with a new one built from all the persisted products.
+     * <p>
+     * Searches keep using the previous index until the new one is complete, and the
+     * changes notified meanwhile are replayed on it before it is published.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.nanoTime();
+            synchronized (changeLock) {
+                pendingChanges = new ArrayList<>();
+            }
+            ProductSearchIndex newIndex = new ProductSearchIndex();
+            try {
+                iProductRepository.forEachProduct(newIndex::put);
+            } catch (RuntimeException e) {
+                synchronized (changeLock) {
+                    pendingChanges = null;
+                }
+                throw e;
+            }
+            synchronized (changeLock) {
+                pendingChanges.forEach(change -> change.accept(newIndex));
+                pendingChanges = null;
+                index = newIndex;
+            }
+            log.info("Índice de búsqueda de productos reconstruido: {} productos en {} ms", newIndex.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Searches the products whose name, code or description contain every word of the query,
+     * the last one possibly incomplete.
+     *
+     * @param query the text typed by the customer
+     * @param limit requested number of results, or {@code null} for {@link #DEFAULT_LIMIT}
+     * @return the IDs of the matching products, from the most relevant to the least
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public List<Integer> search(String query, Integer limit) {
+        return index.search(query, resolveLimit(limit));
+    }
+
+    /**
+     * Suggests the words completing the last word of the given text.
+     *
+     * @param text  the text typed by the customer
+     * @param limit requested number of suggestions, or {@code null} for {@link #DEFAULT_LIMIT}
+     * @return the completions, from the most frequent in the catalog to the least
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public List<String> suggest(String text, Integer limit) {
+        return index.suggest(text, resolveLimit(limit));
+    }
+
+    @Override
+    public void onProductSaved(Product product) {
+        apply(current -> current.put(product));
+    }
+
+    @Override
+    public void onProductDeleted(Integer id) {
+        apply(current -> current.remove(id));
+    }
+
+    /**
+     * Rebuilds the index, since an import may change any number of products.
+     */
+    @Override
+    public void onProductsImported() {
+        rebuild();
+    }
+
+    /**
+     * Applies a change to the current index, recording it for the running rebuild if any.
+     */
+    private void apply(Consumer<ProductSearchIndex> change) {
+        synchronized (changeLock) {
+            change.accept(index);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+
+    private static int resolveLimit(Integer limit) {
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("El número de resultados debe ser mayor que cero.");
+        }
+        return limit == null ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+    }
+
+}
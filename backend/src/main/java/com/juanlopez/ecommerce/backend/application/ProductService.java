@@ -1,8 +1,19 @@
 package com.juanlopez.ecommerce.backend.application;
 
+import com.juanlopez.ecommerce.backend.domain.exception.DuplicateProductCodeException;
+import com.juanlopez.ecommerce.backend.domain.model.CursorPage;
 import com.juanlopez.ecommerce.backend.domain.model.Product;
+import com.juanlopez.ecommerce.backend.domain.model.ProductCursor;
+import com.juanlopez.ecommerce.backend.domain.model.ProductFilter;
+import com.juanlopez.ecommerce.backend.domain.model.ProductSort;
+import com.juanlopez.ecommerce.backend.domain.port.ICatalogChangeListener;
 import com.juanlopez.ecommerce.backend.domain.port.IProductRepository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Application service for managing {@link Product} operations.
  * <p>
@@ -10,18 +21,44 @@ import com.juanlopez.ecommerce.backend.domain.port.IProductRepository;
  * the infrastructure layer, delegating persistence operations to
  * {@link IProductRepository}. It contains the application use cases
  * related to product management.
+ * <p>
+ * Every product saved or deleted through this service is notified to the registered
+ * {@link ICatalogChangeListener}s once persisted, so in-memory views of the catalog
+ * stay up to date without reloading it.
  */
 public class ProductService {
 
+    /**
+     * Page size used when the client does not request a specific one.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * Upper bound for the page size requested by clients.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final IProductRepository iProductRepository;
+    private final List<ICatalogChangeListener> catalogChangeListeners;
 
     /**
-     * creates a new instance of {@code ProductService}.
+     * creates a new instance of {@code ProductService} without catalog listeners.
      *
      * @param iProductRepository the repository used for product persistence operations
      */
     public ProductService(IProductRepository iProductRepository) {
+        this(iProductRepository, List.of());
+    }
+
+    /**
+     * creates a new instance of {@code ProductService}.
+     *
+     * @param iProductRepository     the repository used for product persistence operations
+     * @param catalogChangeListeners the listeners notified after each change to the catalog
+     */
+    public ProductService(IProductRepository iProductRepository, List<ICatalogChangeListener> catalogChangeListeners) {
         this.iProductRepository = iProductRepository;
+        this.catalogChangeListeners = List.copyOf(catalogChangeListeners);
     }
 
     /**
@@ -29,9 +66,18 @@ public class ProductService {
      *
      * @param product the product to save
      * @return the persisted product
+     * @throws DuplicateProductCodeException if another product already has the same code
      */
     public Product save(Product product) {
-        return this.iProductRepository.save(product);
+        if (product.getCode() != null) {
+            Product sameCode = this.iProductRepository.findByCodes(List.of(product.getCode())).get(product.getCode());
+            if (sameCode != null && !sameCode.getId().equals(product.getId())) {
+                throw new DuplicateProductCodeException(product.getCode());
+            }
+        }
+        Product savedProduct = this.iProductRepository.save(product);
+        catalogChangeListeners.forEach(listener -> listener.onProductSaved(savedProduct));
+        return savedProduct;
     }
 
     /**
@@ -43,6 +89,35 @@ public class ProductService {
         return this.iProductRepository.findAll();
     }
 
+    /**
+     * Retrieves a page of the product catalog using keyset pagination.
+     *
+     * @param filter the criteria the products must match
+     * @param sort   the ordering of the products, or {@code null} for {@link ProductSort#NEWEST}
+     * @param cursor opaque token returned by the previous page, or {@code null} for the first page
+     * @param size   requested page size, or {@code null} for {@link #DEFAULT_PAGE_SIZE}
+     * @return the requested page, with the token of the next one if it exists
+     * @throws IllegalArgumentException if the filter is invalid, or the cursor is malformed
+     *                                  or belongs to another ordering
+     */
+    public CursorPage<Product> browse(ProductFilter filter, ProductSort sort, String cursor, Integer size) {
+        validate(filter);
+        ProductSort resolvedSort = sort == null ? ProductSort.NEWEST : sort;
+        ProductCursor after = cursor == null || cursor.isBlank() ? null : ProductCursor.decode(cursor);
+        if (after != null && after.getSort() != resolvedSort) {
+            throw new IllegalArgumentException("El cursor no corresponde a la ordenación " + resolvedSort + ".");
+        }
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // One extra product tells whether a next page exists
+        List<Product> products = this.iProductRepository.findPage(filter, resolvedSort, after, pageSize + 1);
+        if (products.size() <= pageSize) {
+            return new CursorPage<>(products, null, false);
+        }
+        List<Product> items = products.subList(0, pageSize);
+        return new CursorPage<>(items, ProductCursor.after(resolvedSort, items.get(pageSize - 1)).encode(), true);
+    }
+
     /**
      * Finds a product by its ID.
      *
@@ -54,6 +129,27 @@ public class ProductService {
         return this.iProductRepository.findById(id);
     }
 
+    /**
+     * Finds a product by its code.
+     *
+     * @param code the product code
+     * @return the product if found
+     * @throws RuntimeException if no product has the given code (as implemented by the repository)
+     */
+    public Product findByCode(String code) {
+        return this.iProductRepository.findByCode(code);
+    }
+
+    /**
+     * Finds several products by their codes.
+     *
+     * @param codes the product codes
+     * @return each existing product, keyed by code; unknown codes are absent
+     */
+    public Map<String, Product> findByCodes(Collection<String> codes) {
+        return this.iProductRepository.findByCodes(codes);
+    }
+
     /**
      * Deletes a product by its ID.
      * <p>
@@ -62,6 +158,21 @@ public class ProductService {
      */
     public void deleteById(Integer id) {
         this.iProductRepository.deleteById(id);
+        catalogChangeListeners.forEach(listener -> listener.onProductDeleted(id));
+    }
+
+    private void validate(ProductFilter filter) {
+        BigDecimal minPrice = filter.getMinPrice();
+        BigDecimal maxPrice = filter.getMaxPrice();
+        if ((minPrice != null && minPrice.signum() < 0) || (maxPrice != null && maxPrice.signum() < 0)) {
+            throw new IllegalArgumentException("Los precios del filtro no pueden ser negativos.");
+        }
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("El precio mínimo debe ser menor o igual que el precio máximo.");
+        }
+        if (filter.getName() != null && filter.getName().isBlank()) {
+            filter.setName(null);
+        }
     }
 
 }
@@ -0,0 +1,232 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.model.DailySales;
+import com.juanlopez.ecommerce.backend.domain.model.Money;
+import com.juanlopez.ecommerce.backend.domain.model.Order;
+import com.juanlopez.ecommerce.backend.domain.model.OrderProduct;
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.model.ProductSales;
+import com.juanlopez.ecommerce.backend.domain.port.ISalesAnalyticsRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Application service keeping sales analytics in memory.
+ * <p>
+ * Revenue per day, sales per product and the number of orders in each state are held
+ * in {@link LongAdder} counters, which spread concurrent updates over several cells
+ * instead of contending on a single value, so recording an order never blocks. The
+ * counters are initialized by {@link #rebuild()} from the aggregates computed by
+ * {@link ISalesAnalyticsRepository}, and then updated as orders are created and change
+ * state, so queries are answered without touching the database.
+ * <p>
+ * Revenue and product sales are gross bookings: every order created is counted,
+ * whatever its later state. The counters only reflect the writes made through this
+ * instance since the last rebuild.
+ */
+@Slf4j
+public class SalesAnalyticsService {
+
+    /**
+     * Number of products returned when the client does not request a specific one.
+     */
+    public static final int DEFAULT_TOP_PRODUCTS = 10;
+
+    /**
+     * Upper bound for the number of products requested by clients.
+     */
+    public static final int MAX_TOP_PRODUCTS = 100;
+
+    private final ISalesAnalyticsRepository iSalesAnalyticsRepository;
+    private final ConcurrentMap<LocalDate, DayCounters> salesByDay = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, ProductCounters> salesByProduct = new ConcurrentHashMap<>();
+
+    /**
+     * Orders per state; filled once on construction, so it is only read afterwards.
+     */
+    private final Map<OrderState, LongAdder> ordersByState = new EnumMap<>(OrderState.class);
+
+    /**
+     * Constructs the service with empty counters.
+     *
+     * @param iSalesAnalyticsRepository The repository used to initialize the counters.
+     */
+    public SalesAnalyticsService(ISalesAnalyticsRepository iSalesAnalyticsRepository) {
+        this.iSalesAnalyticsRepository = iSalesAnalyticsRepository;
+        for (OrderState state : OrderState.values()) {
+            ordersByState.put(state, new LongAdder());
+        }
+    }
+
+    /**
+     * Replaces the counters with the aggregates of all the persisted orders.
+     * <p>
+     * Orders written while the counters are being rebuilt may be counted twice or not
+     * at all, so this is meant to run on startup, before orders are accepted.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        salesByDay.clear();
+        salesByProduct.clear();
+        ordersByState.values().forEach(LongAdder::reset);
+
+        iSalesAnalyticsRepository.sumSalesByDay().forEach(day -> {
+            DayCounters counters = salesByDay.computeIfAbsent(day.getDate(), date -> new DayCounters());
+            counters.orders.add(day.getOrderCount());
+            counters.revenue.add(day.getRevenue().getMinorUnits());
+        });
+        iSalesAnalyticsRepository.sumSalesByProduct().forEach(product -> {
+            ProductCounters counters = salesByProduct.computeIfAbsent(product.getProductId(), id -> new ProductCounters());
+            counters.quantity.add(toHundredths(product.getQuantity()));
+            counters.revenue.add(product.getRevenue().getMinorUnits());
+        });
+        iSalesAnalyticsRepository.countOrdersByState().forEach((state, count) -> ordersByState.get(state).add(count));
+        log.info("Analítica de ventas reconstruida: {} días y {} productos en {} ms", salesByDay.size(),
+                salesByProduct.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Records a newly created order.
+     *
+     * @param order The persisted order, with its creation date and state.
+     */
+    public void recordCreated(Order order) {
+        if (order.getOrderState() != null) {
+            ordersByState.get(order.getOrderState()).increment();
+        }
+        if (order.getDateCreated() != null) {
+            DayCounters day = salesByDay.computeIfAbsent(order.getDateCreated().toLocalDate(), date -> new DayCounters());
+            day.orders.increment();
+            day.revenue.add(order.getTotalOrderPrice().getMinorUnits());
+        }
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            ProductCounters product = salesByProduct.computeIfAbsent(orderProduct.getProductId(),
+                    id -> new ProductCounters());
+            product.quantity.add(toHundredths(orderProduct.getQuantity()));
+            product.revenue.add(orderProduct.getTotalItem().getMinorUnits());
+        }
+    }
+
+    /**
+     * Records that some orders moved from one state to another.
+     *
+     * @param from  The previous state of the orders.
+     * @param to    The new state of the orders.
+     * @param count The number of orders that changed.
+     */
+    public void recordTransition(OrderState from, OrderState to, long count) {
+        if (count == 0) {
+            return;
+        }
+        ordersByState.get(from).add(-count);
+        ordersByState.get(to).add(count);
+    }
+
+    /**
+     * Retrieves the sales of each day within a date range.
+     *
+     * @param from First day of the range (inclusive), or {@code null} for no lower bound.
+     * @param to   Last day of the range (inclusive), or {@code null} for no upper bound.
+     * @return The sales of the days with orders, from the oldest to the newest.
+     */
+    public List<DailySales> findSalesByDay(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("La fecha inicial debe ser anterior a la fecha final.");
+        }
+        List<DailySales> days = new ArrayList<>();
+        salesByDay.forEach((date, counters) -> {
+            if ((from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to))) {
+                days.add(new DailySales(date, counters.orders.sum(), Money.ofMinor(counters.revenue.sum())));
+            }
+        });
+        days.sort(Comparator.comparing(DailySales::getDate));
+        return days;
+    }
+
+    /**
+     * Retrieves the products with the highest revenue.
+     *
+     * @param limit Requested number of products (optional, capped at {@link #MAX_TOP_PRODUCTS}).
+     * @return The best-selling products, from the highest revenue to the lowest.
+     */
+    public List<ProductSales> findTopProducts(Integer limit) {
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("El número de productos debe ser mayor que cero.");
+        }
+        int size = limit == null ? DEFAULT_TOP_PRODUCTS : Math.min(limit, MAX_TOP_PRODUCTS);
+
+        // Min-heap holding the best products seen so far, so only `size` of them are kept
+        Comparator<ProductSales> byRevenue = Comparator.comparing(ProductSales::getRevenue);
+        PriorityQueue<ProductSales> top = new PriorityQueue<>(size + 1, byRevenue);
+        salesByProduct.forEach((productId, counters) -> {
+            long revenue = counters.revenue.sum();
+            if (top.size() == size && revenue <= top.peek().getRevenue().getMinorUnits()) {
+                return;
+            }
+            top.add(new ProductSales(productId, BigDecimal.valueOf(counters.quantity.sum(), Money.SCALE),
+                    Money.ofMinor(revenue)));
+            if (top.size() > size) {
+                top.poll();
+            }
+        });
+        List<ProductSales> products = new ArrayList<>(top);
+        products.sort(byRevenue.reversed());
+        return products;
+    }
+
+    /**
+     * Retrieves the number of orders in each state.
+     *
+     * @return The number of orders of every state, including those without orders.
+     */
+    public Map<OrderState, Long> countOrdersByState() {
+        Map<OrderState, Long> counts = new EnumMap<>(OrderState.class);
+        ordersByState.forEach((state, count) -> counts.put(state, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Converts a quantity into hundredths, the precision of the quantity column.
+     */
+    private static long toHundredths(BigDecimal quantity) {
+        return quantity.movePointRight(Money.SCALE).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+
+    /**
+     * Counters of the orders created on a day.
+     */
+    private static final class DayCounters {
+
+        private final LongAdder orders = new LongAdder();
+
+        private final LongAdder revenue = new LongAdder();
+
+    }
+
+    /**
+     * Counters of the order lines of a product.
+     */
+    private static final class ProductCounters {
+
+        /**
+         * Ordered quantity, in hundredths.
+         */
+        private final LongAdder quantity = new LongAdder();
+
+        private final LongAdder revenue = new LongAdder();
+
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.juanlopez.ecommerce.backend.domain.exception;
+
+/**
+ * Thrown when a product is saved with a code that already belongs to another product.
+ */
+public class DuplicateProductCodeException extends RuntimeException {
+
+    /**
+     * Constructs the exception for the given code.
+     *
+     * @param code The code already in use.
+     */
+    public DuplicateProductCodeException(String code) {
+        super("Ya existe otro producto con el código " + code + ".");
+    }
+
+}
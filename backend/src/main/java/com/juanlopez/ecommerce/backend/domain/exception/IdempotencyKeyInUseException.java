@@ -0,0 +1,20 @@
+package com.juanlopez.ecommerce.backend.domain.exception;
+
+/**
+ * Thrown when an order is created with an idempotency key whose first request is still
+ * creating its order, so the outcome to return is not known yet.
+ * <p>
+ * The client may retry the request later with the same key.
+ */
+public class IdempotencyKeyInUseException extends RuntimeException {
+
+    /**
+     * Constructs the exception for the given key.
+     *
+     * @param key The idempotency key in use.
+     */
+    public IdempotencyKeyInUseException(String key) {
+        super("Ya se está creando una orden con la clave de idempotencia " + key + ".");
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.juanlopez.ecommerce.backend.domain.exception;
+
+/**
+ * Thrown when an idempotency key is reused with a request that differs from the one that
+ * first used it, which would otherwise get an order that does not match what it asks for.
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    /**
+     * Constructs the exception for the given key.
+     *
+     * @param key The reused idempotency key.
+     */
+    public IdempotencyKeyMismatchException(String key) {
+        super("La clave de idempotencia " + key + " ya se usó con una petición distinta.");
+    }
+
+}
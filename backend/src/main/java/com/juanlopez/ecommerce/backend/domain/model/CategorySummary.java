@@ -0,0 +1,33 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Domain model of a category as shown in the storefront navigation, along with its
+ * number of products.
+ * <p>
+ * Only the products that can be listed, those with a name and a price, are counted.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategorySummary {
+
+    /**
+     * Identifier of the category.
+     */
+    private Integer id;
+
+    /**
+     * Name of the category.
+     */
+    private String name;
+
+    /**
+     * Number of listable products of the category.
+     */
+    private long productCount;
+
+}
@@ -0,0 +1,38 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Domain model representing a single page of results obtained through keyset (cursor) pagination.
+ * <p>
+ * Instead of numeric offsets, each page carries an opaque continuation token that encodes
+ * the position of its last element. Passing that token back returns the next page, so the
+ * cost of each call depends only on the page size and not on the size of the underlying table.
+ *
+ * @param <T> Type of the elements contained in the page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+
+    /**
+     * Elements of the current page, in the order defined by the query.
+     */
+    private List<T> items;
+
+    /**
+     * Opaque token to request the next page, or {@code null} when this is the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Indicates whether there are more elements after this page.
+     */
+    private boolean hasNext;
+
+}
@@ -0,0 +1,35 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Domain model representing the sales of a single day.
+ * <p>
+ * Every order placed on the day is counted, whatever its current state, so the
+ * figures are gross bookings; cancellations are reflected in the order counts per state.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailySales {
+
+    /**
+     * Day on which the orders were created.
+     */
+    private LocalDate date;
+
+    /**
+     * Number of orders created on the day.
+     */
+    private long orderCount;
+
+    /**
+     * Sum of the total prices of the orders created on the day.
+     */
+    private Money revenue;
+
+}
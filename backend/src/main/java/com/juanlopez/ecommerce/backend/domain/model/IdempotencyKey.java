@@ -0,0 +1,40 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Domain model representing the idempotency key used by a user to create an order.
+ * <p>
+ * Keys are scoped to the user sending them, so different users may use the same key.
+ * Each key records the hash of the request that reserved it, to tell a retry of that
+ * request from a different request reusing the key.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdempotencyKey {
+
+    /**
+     * Identifier of the user who sent the key.
+     */
+    private Integer userId;
+
+    /**
+     * Key sent by the client in the {@code Idempotency-Key} header.
+     */
+    private String idempotencyKey;
+
+    /**
+     * Hash of the request that reserved the key, or {@code null} for keys recorded
+     * before hashes were stored.
+     */
+    private String requestHash;
+
+    /**
+     * Identifier of the order created with the key, or {@code null} while it is being created.
+     */
+    private Integer orderId;
+
+}
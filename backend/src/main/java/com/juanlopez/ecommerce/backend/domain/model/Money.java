@@ -0,0 +1,181 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Domain value object representing an amount of money with a fixed number of decimals.
+ * <p>
+ * The amount is held as a {@code long} number of minor units (hundredths) of its
+ * currency, so sums and products are plain integer operations instead of
+ * {@link BigDecimal} ones. Every operation checks for overflow and fails with an
+ * {@link ArithmeticException} rather than returning a wrong amount. Conversions from
+ * and to {@link BigDecimal} happen only at the edges of the application (persistence
+ * and JSON) and are exact: amounts with more than {@link #SCALE} decimals are rejected.
+ * <p>
+ * Prices are stored without currency, so amounts read from the database or from
+ * requests are expressed in {@link #DEFAULT_CURRENCY}.
+ */
+@Value
+public class Money implements Comparable<Money> {
+
+    /**
+     * Number of decimals of every amount, matching the {@code NUMERIC(38, 2)} price columns.
+     */
+    public static final int SCALE = 2;
+
+    /**
+     * ISO 4217 code of the currency of the platform.
+     */
+    public static final String DEFAULT_CURRENCY = "USD";
+
+    /**
+     * Zero amount in the default currency.
+     */
+    public static final Money ZERO = new Money(0, DEFAULT_CURRENCY);
+
+    /**
+     * Maximum number of digits of an integer quantity that is always representable as a {@code long}.
+     */
+    private static final int MAX_COMPACT_PRECISION = 18;
+
+    /**
+     * Amount expressed in minor units (hundredths) of the currency.
+     */
+    long minorUnits;
+
+    /**
+     * ISO 4217 code of the currency.
+     */
+    String currency;
+
+    /**
+     * Converts a decimal amount in the default currency.
+     *
+     * @param amount The amount, with at most {@link #SCALE} decimals.
+     * @return The equivalent money amount.
+     * @throws ArithmeticException If the amount has more decimals or does not fit in a {@code long}.
+     */
+    public static Money of(BigDecimal amount) {
+        return of(amount, DEFAULT_CURRENCY);
+    }
+
+    /**
+     * Converts a decimal amount in the given currency.
+     *
+     * @param amount   The amount, with at most {@link #SCALE} decimals.
+     * @param currency The ISO 4217 code of the currency.
+     * @return The equivalent money amount.
+     * @throws ArithmeticException If the amount has more decimals or does not fit in a {@code long}.
+     */
+    public static Money of(BigDecimal amount, String currency) {
+        return new Money(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact(), currency);
+    }
+
+    /**
+     * Builds an amount from its minor units in the default currency.
+     *
+     * @param minorUnits The amount in hundredths.
+     * @return The money amount.
+     */
+    public static Money ofMinor(long minorUnits) {
+        return new Money(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    /**
+     * Adds another amount of the same currency.
+     *
+     * @param other The amount to add.
+     * @return The sum.
+     * @throws ArithmeticException      If the sum overflows.
+     * @throws IllegalArgumentException If the currencies differ.
+     */
+    public Money plus(Money other) {
+        checkSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    /**
+     * Multiplies this amount by an integer factor.
+     *
+     * @param factor The factor.
+     * @return The product.
+     * @throws ArithmeticException If the product overflows.
+     */
+    public Money times(long factor) {
+        return new Money(Math.multiplyExact(minorUnits, factor), currency);
+    }
+
+    /**
+     * Multiplies this amount by a quantity, rounding half-even to the minor unit when
+     * the quantity has decimals.
+     * <p>
+     * Integer quantities with scale zero, the usual case, are multiplied without
+     * creating intermediate {@link BigDecimal} instances.
+     *
+     * @param quantity The quantity.
+     * @return The product.
+     * @throws ArithmeticException If the product overflows.
+     */
+    public Money times(BigDecimal quantity) {
+        return new Money(timesMinorUnits(quantity), currency);
+    }
+
+    /**
+     * Multiplies this amount by a quantity like {@link #times(BigDecimal)}, returning the
+     * minor units of the product, so callers accumulating many products do not create
+     * an instance per product.
+     */
+    long timesMinorUnits(BigDecimal quantity) {
+        if (quantity.scale() == 0 && quantity.precision() <= MAX_COMPACT_PRECISION) {
+            return Math.multiplyExact(minorUnits, quantity.longValue());
+        }
+        return BigDecimal.valueOf(minorUnits).multiply(quantity).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+
+    /**
+     * Returns the sign of this amount.
+     *
+     * @return -1, 0 or 1 as this amount is negative, zero or positive.
+     */
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    /**
+     * Converts this amount into a decimal with {@link #SCALE} decimals.
+     *
+     * @return The exact decimal amount.
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Compares two amounts of the same currency.
+     *
+     * @param other The amount to compare with.
+     * @return A negative number, zero or a positive number as this amount is lower, equal or greater.
+     * @throws IllegalArgumentException If the currencies differ.
+     */
+    @Override
+    public int compareTo(Money other) {
+        checkSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+
+    void checkSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("No se pueden combinar importes en " + currency
+                    + " y " + other.currency + ".");
+        }
+    }
+
+}
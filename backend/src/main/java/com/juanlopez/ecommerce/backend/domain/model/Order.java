@@ -3,7 +3,6 @@ package com.juanlopez.ecommerce.backend.domain.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -58,10 +57,21 @@ public class Order {
      * {@link OrderProduct} included in the order.
      *
      * @return Total aggregated price of all products in the order.
+     * @throws ArithmeticException      If the total overflows.
+     * @throws IllegalArgumentException If the products are priced in different currencies.
      */
-    public BigDecimal getTotalOrderPrice() {
-        return this.orderProducts.stream().map(OrderProduct::getTotalItem)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public Money getTotalOrderPrice() {
+        if (this.orderProducts.isEmpty()) {
+            return Money.ZERO;
+        }
+        // Line totals are accumulated as minor units, so only the result is allocated
+        Money firstPrice = this.orderProducts.get(0).getPrice();
+        long total = 0;
+        for (OrderProduct orderProduct : this.orderProducts) {
+            firstPrice.checkSameCurrency(orderProduct.getPrice());
+            total = Math.addExact(total, orderProduct.getPrice().timesMinorUnits(orderProduct.getQuantity()));
+        }
+        return new Money(total, firstPrice.getCurrency());
     }
 
 }
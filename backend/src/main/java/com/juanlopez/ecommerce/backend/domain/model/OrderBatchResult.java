@@ -0,0 +1,65 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Domain model describing the outcome of a single order within a batch ingestion.
+ * <p>
+ * Each result refers to the position of the order in the submitted batch and holds
+ * either the identifier of the created order or the reason why it was rejected, so
+ * that one invalid order never causes the whole batch to fail.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderBatchResult {
+
+    /**
+     * Zero-based position of the order in the submitted batch.
+     */
+    private int index;
+
+    /**
+     * Identifier assigned to the created order, or {@code null} if it was rejected.
+     */
+    private Integer orderId;
+
+    /**
+     * Reason why the order was rejected, or {@code null} if it was created.
+     */
+    private String error;
+
+    /**
+     * Builds the result of an order that was persisted successfully.
+     *
+     * @param index   Position of the order in the batch.
+     * @param orderId Identifier assigned to the order.
+     * @return The successful result.
+     */
+    public static OrderBatchResult created(int index, Integer orderId) {
+        return new OrderBatchResult(index, orderId, null);
+    }
+
+    /**
+     * Builds the result of an order that was rejected.
+     *
+     * @param index Position of the order in the batch.
+     * @param error Reason of the rejection.
+     * @return The failed result.
+     */
+    public static OrderBatchResult failed(int index, String error) {
+        return new OrderBatchResult(index, null, error);
+    }
+
+    /**
+     * Indicates whether the order was persisted.
+     *
+     * @return {@code true} if the order was created.
+     */
+    public boolean isCreated() {
+        return error == null;
+    }
+
+}
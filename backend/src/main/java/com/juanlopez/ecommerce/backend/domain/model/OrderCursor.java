@@ -0,0 +1,87 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Domain model representing the position of an order within the keyset ordering
+ * used to paginate orders ({@code dateCreated DESC, id DESC}).
+ * <p>
+ * The cursor is exposed to clients as an opaque, URL-safe token. Its internal format
+ * is an implementation detail and may change without notice, so clients must only
+ * pass back tokens previously returned by the API.
+ */
+@Data
+@AllArgsConstructor
+public class OrderCursor {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Creation date of the last order returned in the previous page.
+     */
+    private LocalDateTime dateCreated;
+
+    /**
+     * Identifier of the last order returned in the previous page, used as tie-breaker
+     * between orders created at the same instant.
+     */
+    private Integer id;
+
+    /**
+     * Builds the cursor pointing right after the given order.
+     *
+     * @param order The last order of a page.
+     * @return The cursor positioned after that order.
+     */
+    public static OrderCursor after(Order order) {
+        return new OrderCursor(order.getDateCreated(), order.getId());
+    }
+
+    /**
+     * Builds the cursor pointing right after the order of the given summary.
+     * Summaries share the ordering of orders, so both kinds of pages accept the same tokens.
+     *
+     * @param orderSummary The last summary of a page.
+     * @return The cursor positioned after that order.
+     */
+    public static OrderCursor after(OrderSummary orderSummary) {
+        return new OrderCursor(orderSummary.getDateCreated(), orderSummary.getId());
+    }
+
+    /**
+     * Encodes this cursor into an opaque URL-safe token.
+     *
+     * @return The encoded token.
+     */
+    public String encode() {
+        String raw = dateCreated + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @param token The opaque token received from the client.
+     * @return The decoded cursor.
+     * @throws IllegalArgumentException If the token is malformed.
+     */
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new OrderCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.valueOf(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + token, e);
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain model representing a change to an order that must be notified to other
+ * systems (warehouse, email, ERP...).
+ * <p>
+ * Events are recorded in the same transaction as the change they describe and
+ * delivered afterwards, at least once, so consumers must tolerate duplicates; the
+ * event {@link #id} identifies them. Events only carry the identity and the new
+ * state of the order: consumers needing its details read them from the order API.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderEvent {
+
+    /**
+     * Identifier of the event, increasing in the order the events were recorded.
+     */
+    private Long id;
+
+    /**
+     * Identifier of the order that changed.
+     */
+    private Integer orderId;
+
+    /**
+     * Kind of change.
+     */
+    private OrderEventType eventType;
+
+    /**
+     * State of the order after the change.
+     */
+    private OrderState orderState;
+
+    /**
+     * Date and time when the change was made.
+     */
+    private LocalDateTime dateCreated;
+
+}
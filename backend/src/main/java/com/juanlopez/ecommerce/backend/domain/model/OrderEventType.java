@@ -0,0 +1,24 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+/**
+ * Enumeration of the changes to an order that are notified to other systems
+ * through {@link OrderEvent} instances.
+ */
+public enum OrderEventType {
+
+    /**
+     * The order has been created.
+     */
+    CREATED,
+
+    /**
+     * An existing order has been saved again as a whole.
+     */
+    UPDATED,
+
+    /**
+     * The order has moved to a new {@link OrderState}.
+     */
+    STATE_CHANGED
+
+}
@@ -0,0 +1,63 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Domain model tracking an order submitted for asynchronous placement.
+ * <p>
+ * The placement is identified by a token handed to the client as soon as the order
+ * is accepted, before it is persisted. Once written, the placement holds either the
+ * identifier of the created order or the reason why it was rejected.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderPlacement {
+
+    /**
+     * Token identifying the placement, returned to the client on submission.
+     */
+    private UUID token;
+
+    /**
+     * Current status of the placement.
+     */
+    private Status status;
+
+    /**
+     * Identifier of the created order, available once the placement is {@link Status#CREATED}.
+     */
+    private Integer orderId;
+
+    /**
+     * Reason why the order was rejected, available once the placement is {@link Status#FAILED}.
+     */
+    private String error;
+
+    /**
+     * Lifecycle of a placement.
+     */
+    public enum Status {
+
+        /**
+         * The order is waiting to be written.
+         */
+        PENDING,
+
+        /**
+         * The order was persisted.
+         */
+        CREATED,
+
+        /**
+         * The order could not be persisted.
+         */
+        FAILED
+
+    }
+
+}
@@ -32,7 +32,7 @@ public class OrderProduct {
     /**
      * Unit price of the product at the moment the order was created.
      */
-    private BigDecimal price;
+    private Money price;
 
     /**
      * Identifier of the product to which this entry refers.
@@ -44,9 +44,10 @@ public class OrderProduct {
      * multiplied by the quantity.
      *
      * @return Total cost for this specific product within the order.
+     * @throws ArithmeticException If the total overflows.
      */
-    public BigDecimal getTotalItem() {
-        return this.price.multiply(quantity);
+    public Money getTotalItem() {
+        return this.price.times(quantity);
     }
 
 }
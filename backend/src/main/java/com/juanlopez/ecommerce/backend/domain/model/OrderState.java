@@ -1,5 +1,8 @@
 package com.juanlopez.ecommerce.backend.domain.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Enumeration representing the possible processing states of an order
  * within the e-commerce platform.
@@ -8,6 +11,14 @@ package com.juanlopez.ecommerce.backend.domain.model;
  * throughout the domain layer to control business logic related to order
  * transitions. Being part of the domain model, this enum is intentionally kept
  * free from infrastructure or framework dependencies.
+ * <p>
+ * The allowed transitions form the following graph, where CANCELLED and
+ * DELIVERED are final states:
+ * <pre>
+ * CONFIRMED ──► PAID ──► SHIPPED ──► DELIVERED
+ *     │          │
+ *     └──────────┴──► CANCELLED
+ * </pre>
  */
 public enum OrderState {
 
@@ -21,5 +32,60 @@ public enum OrderState {
      * Indicates that the order has been confirmed and is valid for continued
      * processing (e.g., payment, preparation, shipment).
      */
-    CONFIRMED
+    CONFIRMED,
+
+    /**
+     * Indicates that the payment of the order has been received.
+     */
+    PAID,
+
+    /**
+     * Indicates that the order has been handed over to the carrier.
+     */
+    SHIPPED,
+
+    /**
+     * Indicates that the order has reached the customer.
+     */
+    DELIVERED;
+
+    /**
+     * Returns the states this state can move to.
+     *
+     * @return The possible next states, empty for final states.
+     */
+    public Set<OrderState> nextStates() {
+        return switch (this) {
+            case CONFIRMED -> EnumSet.of(PAID, CANCELLED);
+            case PAID -> EnumSet.of(SHIPPED, CANCELLED);
+            case SHIPPED -> EnumSet.of(DELIVERED);
+            case CANCELLED, DELIVERED -> EnumSet.noneOf(OrderState.class);
+        };
+    }
+
+    /**
+     * Checks whether an order in this state may move to the given state.
+     *
+     * @param next The candidate next state.
+     * @return {@code true} if the transition is allowed.
+     */
+    public boolean canTransitionTo(OrderState next) {
+        return nextStates().contains(next);
+    }
+
+    /**
+     * Returns the states from which an order may move to this state.
+     *
+     * @return The possible previous states, empty for the initial state.
+     */
+    public Set<OrderState> previousStates() {
+        Set<OrderState> previous = EnumSet.noneOf(OrderState.class);
+        for (OrderState state : values()) {
+            if (state.canTransitionTo(this)) {
+                previous.add(state);
+            }
+        }
+        return previous;
+    }
+
 }
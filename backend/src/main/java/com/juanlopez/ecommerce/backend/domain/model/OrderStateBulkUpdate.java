@@ -0,0 +1,47 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Domain model describing a state transition applied to many orders at once.
+ * <p>
+ * The target orders are selected either by an explicit list of identifiers or, when
+ * no identifiers are given, by a filter combining their current state and a creation
+ * date range ({@code dateFrom} inclusive, {@code dateTo} exclusive).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderStateBulkUpdate {
+
+    /**
+     * Identifiers of the orders to update, or {@code null} to select them by filter.
+     */
+    private List<Integer> ids;
+
+    /**
+     * Current state the orders must have to be selected by the filter.
+     */
+    private OrderState currentState;
+
+    /**
+     * Lower bound (inclusive) of the creation date of the orders selected by the filter.
+     */
+    private LocalDateTime dateFrom;
+
+    /**
+     * Upper bound (exclusive) of the creation date of the orders selected by the filter.
+     */
+    private LocalDateTime dateTo;
+
+    /**
+     * New state to be applied to the selected orders.
+     */
+    private OrderState state;
+
+}
@@ -0,0 +1,20 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Domain model reporting the outcome of an {@link OrderStateBulkUpdate}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderStateBulkUpdateResult {
+
+    /**
+     * Number of orders whose state was actually changed.
+     */
+    private int updated;
+
+}
@@ -0,0 +1,60 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Domain model reporting the outcome of a state transition requested for a single order.
+ * <p>
+ * Transitions are applied with a compare-and-set on the current state, so when two
+ * writers race for the same order only one of them succeeds and the other receives a
+ * {@link Outcome#CONFLICT} instead of blocking or silently overwriting the state.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderStateTransitionResult {
+
+    /**
+     * Possible outcomes of a state transition.
+     */
+    public enum Outcome {
+
+        /**
+         * The transition was applied.
+         */
+        APPLIED,
+
+        /**
+         * The order changed concurrently and no longer has the expected state.
+         */
+        CONFLICT,
+
+        /**
+         * The transition is not allowed from the current state of the order.
+         */
+        INVALID_TRANSITION,
+
+        /**
+         * The order does not exist.
+         */
+        NOT_FOUND
+    }
+
+    /**
+     * Identifier of the order.
+     */
+    private Integer orderId;
+
+    /**
+     * Outcome of the transition.
+     */
+    private Outcome outcome;
+
+    /**
+     * State of the order after the operation, or {@code null} if it does not exist.
+     */
+    private OrderState currentState;
+
+}
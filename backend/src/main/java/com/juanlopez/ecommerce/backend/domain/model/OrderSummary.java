@@ -0,0 +1,52 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain model representing the denormalized summary of an order.
+ * <p>
+ * Summaries hold the figures shown in order listings, including the precomputed
+ * number of lines and total price, so listings can be served without loading the
+ * {@link OrderProduct} items of each order. The full {@link Order} remains the
+ * source of truth and is only needed for detail views.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderSummary {
+
+    /**
+     * Identifier of the summarized order.
+     */
+    private Integer id;
+
+    /**
+     * Identifier of the user who owns the order.
+     */
+    private Integer userId;
+
+    /**
+     * Current processing state of the order.
+     */
+    private OrderState orderState;
+
+    /**
+     * Number of products (lines) included in the order.
+     */
+    private int lineCount;
+
+    /**
+     * Total price of the order, as returned by {@link Order#getTotalOrderPrice()}.
+     */
+    private Money totalPrice;
+
+    /**
+     * Date and time when the order was created.
+     */
+    private LocalDateTime dateCreated;
+
+}
@@ -0,0 +1,98 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Domain model representing the position of a product within one of the
+ * {@link ProductSort} orderings used to paginate the catalog.
+ * <p>
+ * Like {@link OrderCursor}, it is exposed to clients as an opaque, URL-safe token.
+ * The token records the ordering it belongs to, so it cannot be reused with another one.
+ */
+@Data
+@AllArgsConstructor
+public class ProductCursor {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Ordering of the pages the cursor belongs to.
+     */
+    private ProductSort sort;
+
+    /**
+     * Price of the last product returned in the previous page, for the price orderings.
+     */
+    private BigDecimal price;
+
+    /**
+     * Name of the last product returned in the previous page, for the name ordering.
+     */
+    private String name;
+
+    /**
+     * Identifier of the last product returned in the previous page.
+     */
+    private Integer id;
+
+    /**
+     * Builds the cursor pointing right after the given product.
+     *
+     * @param sort    the ordering of the page
+     * @param product the last product of the page
+     * @return the cursor positioned after that product
+     */
+    public static ProductCursor after(ProductSort sort, Product product) {
+        return switch (sort) {
+            case NEWEST -> new ProductCursor(sort, null, null, product.getId());
+            case PRICE_ASC, PRICE_DESC -> new ProductCursor(sort, product.getPrice(), null, product.getId());
+            case NAME_ASC -> new ProductCursor(sort, null, product.getName(), product.getId());
+        };
+    }
+
+    /**
+     * Encodes this cursor into an opaque URL-safe token.
+     *
+     * @return the encoded token
+     */
+    public String encode() {
+        String key = switch (sort) {
+            case NEWEST -> "";
+            case PRICE_ASC, PRICE_DESC -> price.toPlainString();
+            case NAME_ASC -> name;
+        };
+        String raw = sort + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @param token the opaque token received from the client
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int last = raw.lastIndexOf(SEPARATOR);
+            ProductSort sort = ProductSort.valueOf(raw.substring(0, first));
+            String key = raw.substring(first + 1, last);
+            Integer id = Integer.valueOf(raw.substring(last + 1));
+            return switch (sort) {
+                case NEWEST -> new ProductCursor(sort, null, null, id);
+                case PRICE_ASC, PRICE_DESC -> new ProductCursor(sort, new BigDecimal(key), null, id);
+                case NAME_ASC -> new ProductCursor(sort, null, key, id);
+            };
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + token, e);
+        }
+    }
+
+}
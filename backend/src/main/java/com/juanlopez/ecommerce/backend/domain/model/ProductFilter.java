@@ -0,0 +1,39 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Domain model holding the criteria used to browse the product catalog.
+ * <p>
+ * Every criterion is optional; {@code null} values do not restrict the result.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductFilter {
+
+    /**
+     * Identifier of the category the products must belong to.
+     */
+    private Integer categoryId;
+
+    /**
+     * Lowest price (inclusive) of the products.
+     */
+    private BigDecimal minPrice;
+
+    /**
+     * Highest price (inclusive) of the products.
+     */
+    private BigDecimal maxPrice;
+
+    /**
+     * Text the name of the products must start with, ignoring case.
+     */
+    private String name;
+
+}
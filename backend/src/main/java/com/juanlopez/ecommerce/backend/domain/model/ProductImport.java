@@ -0,0 +1,118 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Domain model reporting the progress of a bulk product import.
+ * <p>
+ * An import loads a CSV file of products in the background: its rows are validated
+ * and staged as they are read, and then merged into the catalog at once, creating the
+ * products whose code is new and updating the rest. Each instance is a snapshot of the
+ * import at the moment it was requested.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductImport {
+
+    /**
+     * Identifier of the import, returned to the client on submission.
+     */
+    private UUID id;
+
+    /**
+     * Current status of the import.
+     */
+    private Status status;
+
+    /**
+     * Number of data rows read from the file so far.
+     */
+    private long rowsRead;
+
+    /**
+     * Number of valid rows staged so far.
+     */
+    private long rowsStaged;
+
+    /**
+     * Number of rows rejected by the validation so far.
+     */
+    private long rowsRejected;
+
+    /**
+     * Number of products created, available once the import is {@link Status#COMPLETED}.
+     */
+    private long productsCreated;
+
+    /**
+     * Number of products whose data changed, available once the import is {@link Status#COMPLETED}.
+     */
+    private long productsUpdated;
+
+    /**
+     * Number of products that already had the imported data, available once the import is
+     * {@link Status#COMPLETED}.
+     */
+    private long productsUnchanged;
+
+    /**
+     * The rejected rows, in file order, with the reason of each rejection; at most a
+     * fixed number of them are reported, even if more are counted in {@link #rowsRejected}.
+     */
+    private List<ProductImportError> errors;
+
+    /**
+     * Reason why the import failed as a whole, available once it is {@link Status#FAILED}.
+     */
+    private String error;
+
+    /**
+     * Timestamp of when the import was submitted.
+     */
+    private LocalDateTime dateCreated;
+
+    /**
+     * Timestamp of when the import finished, or {@code null} while it is in progress.
+     */
+    private LocalDateTime dateFinished;
+
+    /**
+     * Lifecycle of an import.
+     */
+    public enum Status {
+
+        /**
+         * The file is waiting for the imports submitted before it.
+         */
+        QUEUED,
+
+        /**
+         * The rows are being read, validated and staged.
+         */
+        STAGING,
+
+        /**
+         * The staged rows are being merged into the catalog.
+         */
+        MERGING,
+
+        /**
+         * The valid rows were merged into the catalog.
+         */
+        COMPLETED,
+
+        /**
+         * The import stopped without changing the catalog.
+         */
+        FAILED
+
+    }
+
+}
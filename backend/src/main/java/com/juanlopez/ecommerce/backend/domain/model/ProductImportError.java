@@ -0,0 +1,30 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Domain model describing a row rejected by a bulk product import.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductImportError {
+
+    /**
+     * Line of the file where the row starts, the header being line 1.
+     */
+    private long line;
+
+    /**
+     * Code of the product in the row, or {@code null} if it could not be read.
+     */
+    private String code;
+
+    /**
+     * Reason why the row was rejected.
+     */
+    private String message;
+
+}
@@ -0,0 +1,38 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Domain model holding a validated row of a bulk product import, waiting to be merged
+ * into the catalog.
+ * <p>
+ * The product is identified by its code; when several rows of a file share a code,
+ * the one on the last line wins.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductImportRow {
+
+    /**
+     * Line of the file where the row starts.
+     */
+    private long line;
+
+    private String code;
+
+    private String name;
+
+    private String description;
+
+    private String urlImage;
+
+    private BigDecimal price;
+
+    private Integer categoryId;
+
+}
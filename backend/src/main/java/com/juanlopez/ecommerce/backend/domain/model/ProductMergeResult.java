@@ -0,0 +1,30 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Domain model counting the products affected by merging the staged rows of an import.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductMergeResult {
+
+    /**
+     * Number of products created, for codes that did not exist.
+     */
+    private long created;
+
+    /**
+     * Number of existing products whose data changed.
+     */
+    private long updated;
+
+    /**
+     * Number of existing products that already had the imported data, and were left untouched.
+     */
+    private long unchanged;
+
+}
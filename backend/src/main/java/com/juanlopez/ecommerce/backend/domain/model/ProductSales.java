@@ -0,0 +1,34 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Domain model representing the accumulated sales of a product.
+ * <p>
+ * Like {@link DailySales}, every order line is counted whatever the current state of its order.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSales {
+
+    /**
+     * Identifier of the product.
+     */
+    private Integer productId;
+
+    /**
+     * Total quantity of the product ordered.
+     */
+    private BigDecimal quantity;
+
+    /**
+     * Sum of the totals of the order lines of the product.
+     */
+    private Money revenue;
+
+}
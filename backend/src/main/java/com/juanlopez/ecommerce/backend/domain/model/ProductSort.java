@@ -0,0 +1,32 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+/**
+ * Orderings available when browsing the product catalog.
+ * <p>
+ * Every ordering uses the product ID as tie-breaker, in the same direction as the
+ * main key, so the position of a product within a page sequence is always unique
+ * and can be encoded in a {@link ProductCursor}.
+ */
+public enum ProductSort {
+
+    /**
+     * Most recently created products first ({@code id DESC}, since IDs are increasing).
+     */
+    NEWEST,
+
+    /**
+     * Cheapest products first ({@code price ASC, id ASC}).
+     */
+    PRICE_ASC,
+
+    /**
+     * Most expensive products first ({@code price DESC, id DESC}).
+     */
+    PRICE_DESC,
+
+    /**
+     * Alphabetical order by name ({@code name ASC, id ASC}).
+     */
+    NAME_ASC
+
+}
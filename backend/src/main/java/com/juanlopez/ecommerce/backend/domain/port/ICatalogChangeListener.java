@@ -0,0 +1,55 @@
+package com.juanlopez.ecommerce.backend.domain.port;
+
+import com.juanlopez.ecommerce.backend.domain.model.Category;
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+
+/**
+ * Listener notified of the changes made to the product catalog.
+ * <p>
+ * Components that keep derived views of the catalog in memory (search indexes,
+ * caches, snapshots...) implement this interface to update those views
+ * incrementally instead of reloading the whole catalog. Notifications are sent
+ * synchronously, after the change has been persisted.
+ */
+public interface ICatalogChangeListener {
+
+    /**
+     * Called after a product has been created or updated.
+     *
+     * @param product the persisted product
+     */
+    void onProductSaved(Product product);
+
+    /**
+     * Called after a product has been deleted.
+     *
+     * @param id the ID of the deleted product
+     */
+    void onProductDeleted(Integer id);
+
+    /**
+     * Called after many products have been created or updated at once, by a bulk import.
+     * <p>
+     * The changed products are not listed, since there may be too many of them to hold
+     * in memory: listeners rebuild or drop their views of the products instead.
+     */
+    default void onProductsImported() {
+    }
+
+    /**
+     * Called after a category has been created or updated.
+     *
+     * @param category the persisted category
+     */
+    default void onCategorySaved(Category category) {
+    }
+
+    /**
+     * Called after a category has been deleted.
+     *
+     * @param id the ID of the deleted category
+     */
+    default void onCategoryDeleted(Integer id) {
+    }
+
+}
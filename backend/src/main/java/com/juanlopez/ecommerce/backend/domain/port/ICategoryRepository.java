@@ -1,6 +1,9 @@
 package com.juanlopez.ecommerce.backend.domain.port;
 
 import com.juanlopez.ecommerce.backend.domain.model.Category;
+import com.juanlopez.ecommerce.backend.domain.model.CategorySummary;
+
+import java.util.List;
 
 /**
  * Repository interface for managing {@link Category} persistence operations.
@@ -25,6 +28,24 @@ public interface ICategoryRepository {
      */
     Iterable<Category> findAll();
 
+    /**
+     * Retrieves all categories along with their number of listable products.
+     * <p>
+     * The numbers come from counters maintained on every product write, so this does
+     * not count the products of each category.
+     *
+     * @return the categories with their number of products, ordered by name
+     */
+    List<CategorySummary> findAllWithProductCounts();
+
+    /**
+     * Recomputes the number of products of every category and corrects the maintained
+     * counters that drifted from it.
+     *
+     * @return the number of counters corrected
+     */
+    int reconcileProductCounts();
+
     /**
      * Finds a category by its ID.
      *
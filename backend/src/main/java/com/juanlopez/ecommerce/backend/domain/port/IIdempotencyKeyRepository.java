@@ -0,0 +1,51 @@
+package com.juanlopez.ecommerce.backend.domain.port;
+
+import com.juanlopez.ecommerce.backend.domain.model.IdempotencyKey;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for the idempotency keys of order creations.
+ * <p>
+ * Keys are scoped to the user who sends them. Each key is first reserved by the request
+ * that uses it, and then either completed with the ID of the order it created, in the
+ * same transaction as the order (see {@link IOrderRepository#save(com.juanlopez.ecommerce.backend.domain.model.Order, String)}),
+ * or released if the order could not be created. Keys are stored durably, so a request
+ * repeated after a restart, or sent to another instance, still gets the original order.
+ */
+public interface IIdempotencyKeyRepository {
+
+    /**
+     * Reserves a key of a user for a request about to create an order.
+     * <p>
+     * The reservation succeeds if the user has not used the key, or if it was reserved
+     * before {@code staleBefore} and never completed, which happens when the request
+     * holding it did not finish (e.g. the process stopped).
+     *
+     * @param userId      The identifier of the user sending the key.
+     * @param key         The idempotency key.
+     * @param requestHash The hash of the request, recorded with the reservation.
+     * @param staleBefore The date before which an uncompleted reservation is considered abandoned.
+     * @return {@code true} if the key was reserved for the caller, {@code false} if it is already in use.
+     */
+    boolean reserve(Integer userId, String key, String requestHash, LocalDateTime staleBefore);
+
+    /**
+     * Retrieves a key of a user.
+     *
+     * @param userId The identifier of the user who sent the key.
+     * @param key    The idempotency key.
+     * @return The key, with the order it created if any, or {@code null} if the user has not used it.
+     */
+    IdempotencyKey findByUserIdAndKey(Integer userId, String key);
+
+    /**
+     * Releases a reserved key whose order could not be created, so it can be used again.
+     * Completed keys are not affected.
+     *
+     * @param userId The identifier of the user who sent the key.
+     * @param key    The idempotency key.
+     */
+    void release(Integer userId, String key);
+
+}
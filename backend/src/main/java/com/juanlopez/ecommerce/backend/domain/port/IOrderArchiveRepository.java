@@ -0,0 +1,62 @@
+package com.juanlopez.ecommerce.backend.domain.port;
+
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface managing the monthly partitions of the order storage.
+ * <p>
+ * Orders and their lines are stored in one partition per month of creation. Recent
+ * months are kept in the hot storage queried by the application; old months can be
+ * moved, as a whole, to a cold archive that the application no longer reads.
+ */
+public interface IOrderArchiveRepository {
+
+    /**
+     * Runs a maintenance of the partitions unless another instance is already running one.
+     * <p>
+     * A lock shared by every instance is held while the maintenance runs, so the
+     * partitions are never created or archived by two instances at the same time.
+     *
+     * @param maintenance The maintenance to run.
+     * @return {@code true} if the maintenance was run, {@code false} if another instance holds the lock.
+     */
+    boolean runExclusively(Runnable maintenance);
+
+    /**
+     * Creates the partitions of the given months that do not exist yet.
+     *
+     * @param firstMonth The first month to create.
+     * @param months     The number of consecutive months to create.
+     */
+    void createPartitions(YearMonth firstMonth, int months);
+
+    /**
+     * Retrieves the months that have a partition in the hot storage.
+     *
+     * @return The months of the hot partitions, from the oldest to the newest.
+     */
+    List<YearMonth> findPartitionMonths();
+
+    /**
+     * Checks whether a month has orders in any of the given states.
+     *
+     * @param month  The month of the partition.
+     * @param states The states to look for.
+     * @return {@code true} if at least one order of the month has one of the states.
+     */
+    boolean hasOrders(YearMonth month, Collection<OrderState> states);
+
+    /**
+     * Moves the partition of a month, with its orders and their lines, to the cold archive.
+     * <p>
+     * The orders of the month are no longer returned by {@link IOrderRepository}.
+     *
+     * @param month The month of the partition.
+     */
+    void archivePartition(YearMonth month);
+
+}
@@ -0,0 +1,24 @@
+package com.juanlopez.ecommerce.backend.domain.port;
+
+import com.juanlopez.ecommerce.backend.domain.model.OrderEvent;
+
+import java.util.List;
+
+/**
+ * Domain port delivering order events to the systems interested in them
+ * (message broker, webhook, file...).
+ */
+public interface IOrderEventPublisher {
+
+    /**
+     * Delivers a batch of events.
+     * <p>
+     * The events are only considered delivered when this method returns normally;
+     * if it throws, the whole batch is delivered again later, so implementations may
+     * send some events more than once.
+     *
+     * @param events The events to deliver, in the order they were recorded.
+     */
+    void publish(List<OrderEvent> events);
+
+}
@@ -0,0 +1,33 @@
+package com.juanlopez.ecommerce.backend.domain.port;
+
+import com.juanlopez.ecommerce.backend.domain.model.OrderEvent;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Repository interface for the outbox of order events.
+ * <p>
+ * {@link IOrderRepository} implementations record an {@link OrderEvent} in the outbox
+ * within the same transaction as every change to an order, so an event exists if and
+ * only if its change was committed. This port reads the pending events back to
+ * deliver them.
+ */
+public interface IOrderOutboxRepository {
+
+    /**
+     * Hands the oldest pending events to the publisher and removes them from the outbox
+     * once it returns.
+     * <p>
+     * The events are locked while they are being published, and events locked by
+     * another relay are skipped, so several relays can run concurrently without
+     * delivering the same event twice. If the publisher throws, the events are kept
+     * and the exception is propagated.
+     *
+     * @param batchSize The maximum number of events to publish.
+     * @param publisher The action delivering the events.
+     * @return The number of events published.
+     */
+    int publishNextBatch(int batchSize, Consumer<List<OrderEvent>> publisher);
+
+}
@@ -1,6 +1,16 @@
 package com.juanlopez.ecommerce.backend.domain.port;
 
+import com.juanlopez.ecommerce.backend.domain.exception.IdempotencyKeyInUseException;
 import com.juanlopez.ecommerce.backend.domain.model.Order;
+import com.juanlopez.ecommerce.backend.domain.model.OrderCursor;
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.model.OrderSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Domain port defining the contract for interacting with the order persistence mechanism.
@@ -21,6 +31,32 @@ public interface IOrderRepository {
      */
     Order save(Order order);
 
+    /**
+     * Persists a new order created with an idempotency key and completes the key in the
+     * same transaction, so the key records its order if and only if the order is committed.
+     * <p>
+     * The key must have been reserved for the user of the order through
+     * {@link IIdempotencyKeyRepository#reserve}.
+     *
+     * @param order          The domain order instance to be saved.
+     * @param idempotencyKey The key reserved by the user of the order for this creation.
+     * @return The persisted order, with its generated identifier.
+     * @throws IdempotencyKeyInUseException If the key is no longer reserved, e.g. because
+     *                                      another request took over its reservation and completed it.
+     */
+    Order save(Order order, String idempotencyKey);
+
+    /**
+     * Persists several new orders within a single transaction.
+     * <p>
+     * Either all the orders are stored or none of them is, which allows callers to
+     * group writes into chunks and retry them individually when a chunk fails.
+     *
+     * @param orders The domain orders to be saved.
+     * @return The persisted orders, in the same order, with their generated identifiers.
+     */
+    List<Order> saveAll(List<Order> orders);
+
     /**
      * Retrieves an order by its unique identifier.
      *
@@ -30,26 +66,130 @@ public interface IOrderRepository {
     Order findById(Integer id);
 
     /**
-     * Retrieves all orders stored in the system.
+     * Retrieves a page of orders using keyset pagination, ordered from the newest
+     * to the oldest ({@code dateCreated DESC, id DESC}).
      *
-     * @return An iterable collection containing all orders.
+     * @param after The position after which the page starts, or {@code null} for the first page.
+     * @param limit The maximum number of orders to return.
+     * @return The orders of the page, at most {@code limit} elements.
      */
-    Iterable<Order> findAll();
+    List<Order> findAll(OrderCursor after, int limit);
 
     /**
-     * Retrieves all orders associated with a specific user.
+     * Retrieves a page of the orders associated with a specific user using keyset
+     * pagination, ordered from the newest to the oldest ({@code dateCreated DESC, id DESC}).
      *
      * @param userId The identifier of the user whose orders are to be fetched.
-     * @return An iterable collection of the user's orders.
+     * @param after  The position after which the page starts, or {@code null} for the first page.
+     * @param limit  The maximum number of orders to return.
+     * @return The user's orders of the page, at most {@code limit} elements.
+     */
+    List<Order> findByUserId(Integer userId, OrderCursor after, int limit);
+
+    /**
+     * Retrieves a page of order summaries using keyset pagination, in the same order
+     * as {@link #findAll(OrderCursor, int)}.
+     * <p>
+     * Summaries are maintained on every write of an order, so this method does not
+     * need to load any order product.
+     *
+     * @param after The position after which the page starts, or {@code null} for the first page.
+     * @param limit The maximum number of summaries to return.
+     * @return The summaries of the page, at most {@code limit} elements.
+     */
+    List<OrderSummary> findSummaries(OrderCursor after, int limit);
+
+    /**
+     * Retrieves a page of the order summaries of a specific user using keyset pagination,
+     * in the same order as {@link #findByUserId(Integer, OrderCursor, int)}.
+     *
+     * @param userId The identifier of the user whose order summaries are to be fetched.
+     * @param after  The position after which the page starts, or {@code null} for the first page.
+     * @param limit  The maximum number of summaries to return.
+     * @return The user's order summaries of the page, at most {@code limit} elements.
+     */
+    List<OrderSummary> findSummariesByUserId(Integer userId, OrderCursor after, int limit);
+
+    /**
+     * Reads every order matching the given filters, in creation order, and hands them
+     * one by one to the given consumer.
+     * <p>
+     * Orders are read through a forward-only cursor and released once consumed, so the
+     * memory used does not depend on the number of matching orders. The consumer is
+     * called while the read is in progress and must not keep references to the orders.
+     *
+     * @param state    The state the orders must have, or {@code null} for any state.
+     * @param dateFrom Lower bound (inclusive) of the creation date, or {@code null} for no bound.
+     * @param dateTo   Upper bound (exclusive) of the creation date, or {@code null} for no bound.
+     * @param consumer The action applied to each order, with its order products.
+     */
+    void forEachOrder(OrderState state, LocalDateTime dateFrom, LocalDateTime dateTo, Consumer<Order> consumer);
+
+    /**
+     * Retrieves the current state of an order.
+     *
+     * @param id The identifier of the order.
+     * @return The current state, or {@code null} if the order does not exist.
+     */
+    OrderState findStateById(Integer id);
+
+    /**
+     * Atomically moves an order from an expected state to a new one.
+     * <p>
+     * The update only takes effect if the order still has the expected state, which
+     * lets concurrent writers detect conflicts without holding locks.
+     *
+     * @param id       The identifier of the order to update.
+     * @param expected The state the order must currently have.
+     * @param state    The new state to be applied.
+     * @return {@code true} if the state was changed, {@code false} if the order does
+     *         not exist or no longer has the expected state.
+     */
+    boolean compareAndSetState(Integer id, OrderState expected, OrderState state);
+
+    /**
+     * Applies a new state to the given orders with a single set-based update.
+     * <p>
+     * Only orders whose current state allows the transition, as defined by
+     * {@link OrderState#previousStates()}, are changed; the rest are left untouched
+     * and not reported.
+     *
+     * @param ids   The identifiers of the orders to update.
+     * @param state The new state to be applied.
+     * @return The state every changed order had before the update, keyed by its identifier.
+     */
+    Map<Integer, OrderState> updateStateByIds(Collection<Integer> ids, OrderState state);
+
+    /**
+     * Applies a new state to those of the given orders that currently have the expected
+     * state, with a single set-based update.
+     * <p>
+     * This is the bulk counterpart of {@link #compareAndSetState(Integer, OrderState, OrderState)}:
+     * callers learn exactly which orders moved from {@code expected} to {@code state}.
+     *
+     * @param ids      The identifiers of the orders to update.
+     * @param expected The state the orders must currently have.
+     * @param state    The new state to be applied.
+     * @return The identifiers of the orders whose state was changed; empty if the
+     *         transition is not allowed.
      */
-    Iterable<Order> findByUserId(Integer userId);
+    List<Integer> updateStateByIds(Collection<Integer> ids, OrderState expected, OrderState state);
 
     /**
-     * Updates the state of an order identified by its ID.
+     * Applies a new state to, at most, {@code limit} orders matching the given current
+     * state and creation date range, with a single set-based update.
+     * <p>
+     * Callers process the whole filter by invoking this method repeatedly until it
+     * returns an empty list, since updated orders no longer match the filter.
      *
-     * @param id    The identifier of the order to update.
-     * @param state The new state to be applied to the order.
+     * @param currentState The state the orders must currently have.
+     * @param dateFrom     Lower bound (inclusive) of the creation date.
+     * @param dateTo       Upper bound (exclusive) of the creation date.
+     * @param state        The new state to be applied; it must differ from {@code currentState}.
+     * @param limit        The maximum number of orders to update.
+     * @return The identifiers of the orders whose state was changed.
      */
-    void updateStateById(Integer id, String state);
+    List<Integer> updateStateByFilter(OrderState currentState, LocalDateTime dateFrom, LocalDateTime dateTo,
+                                      OrderState state, int limit);
 
 }
@@ -0,0 +1,46 @@
+package com.juanlopez.ecommerce.backend.domain.port;
+
+import com.juanlopez.ecommerce.backend.domain.model.ProductImportRow;
+import com.juanlopez.ecommerce.backend.domain.model.ProductMergeResult;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for loading products in bulk.
+ * <p>
+ * The rows of an import are first staged apart from the catalog, in any order and
+ * possibly from several threads, and then merged into it with set-based statements,
+ * so the catalog only changes once the whole file has been validated.
+ */
+public interface IProductImportRepository {
+
+    /**
+     * Stages a chunk of validated rows of an import.
+     *
+     * @param importId the identifier of the import
+     * @param rows     the rows to stage
+     */
+    void stage(UUID importId, List<ProductImportRow> rows);
+
+    /**
+     * Merges the staged rows of an import into the catalog, in a single transaction.
+     * <p>
+     * Rows whose code is new create a product owned by the given user; the rest update
+     * the name, description, image, price and category of the product with their code,
+     * unless it already has them. When several rows share a code, the last line wins.
+     *
+     * @param importId the identifier of the import
+     * @param userId   the ID of the user owning the created products
+     * @return the number of products created, updated and left unchanged
+     */
+    ProductMergeResult merge(UUID importId, Integer userId);
+
+    /**
+     * Deletes the staged rows of an import.
+     *
+     * @param importId the identifier of the import
+     */
+    void discard(UUID importId);
+
+}
@@ -1,6 +1,15 @@
 package com.juanlopez.ecommerce.backend.domain.port;
 
 import com.juanlopez.ecommerce.backend.domain.model.Product;
+import com.juanlopez.ecommerce.backend.domain.model.ProductCursor;
+import com.juanlopez.ecommerce.backend.domain.model.ProductFilter;
+import com.juanlopez.ecommerce.backend.domain.model.ProductSort;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Repository interface for managing {@link Product} persistence operations.
@@ -34,6 +43,69 @@ public interface IProductRepository {
      */
     Product findById(Integer id);
 
+    /**
+     * Finds a product by its unique code.
+     *
+     * @param code the product code
+     * @return the product if found
+     * @throws RuntimeException if no product has the given code (implementation-specific)
+     */
+    Product findByCode(String code);
+
+    /**
+     * Finds several products by their codes at once.
+     * <p>
+     * Implementations resolve all the codes with a single query, whatever their number.
+     *
+     * @param codes the product codes
+     * @return each existing product, keyed by code; unknown codes are absent
+     */
+    Map<String, Product> findByCodes(Collection<String> codes);
+
+    /**
+     * Retrieves the ID of every product that has a code.
+     * <p>
+     * Only the code and ID columns are read, so the whole catalog can be resolved at once.
+     *
+     * @return the product IDs, keyed by code
+     */
+    Map<String, Integer> findIdsByCode();
+
+    /**
+     * Reads every product, in ID order, handing them one by one to the consumer.
+     * <p>
+     * Unlike {@link #findAll()}, products are streamed from the database, so the memory
+     * used does not depend on the size of the catalog.
+     *
+     * @param consumer the action applied to each product
+     */
+    void forEachProduct(Consumer<Product> consumer);
+
+    /**
+     * Retrieves a page of the products matching a filter, using keyset pagination.
+     * <p>
+     * Only products with a name and a price are listed, since they are the ones that
+     * can be shown and ordered.
+     *
+     * @param filter the criteria the products must match
+     * @param sort   the ordering of the products
+     * @param after  the position after which the page starts, or {@code null} for the first page;
+     *               it must belong to the same ordering
+     * @param limit  the maximum number of products to return
+     * @return the products of the page, in the requested order
+     */
+    List<Product> findPage(ProductFilter filter, ProductSort sort, ProductCursor after, int limit);
+
+    /**
+     * Retrieves the current prices of several products at once.
+     * <p>
+     * Implementations resolve all the IDs with a single query, whatever their number.
+     *
+     * @param ids the product IDs
+     * @return the price of each existing product, keyed by ID; unknown IDs are absent
+     */
+    Map<Integer, BigDecimal> findPricesByIds(Collection<Integer> ids);
+
     /**
      * Deletes a product by its ID.
      * <p>
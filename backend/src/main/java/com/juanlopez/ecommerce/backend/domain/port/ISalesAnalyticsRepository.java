@@ -0,0 +1,39 @@
+package com.juanlopez.ecommerce.backend.domain.port;
+
+import com.juanlopez.ecommerce.backend.domain.model.DailySales;
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.model.ProductSales;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository interface computing sales aggregates over all the persisted orders.
+ * <p>
+ * The aggregates are computed by the storage in a single pass each, and are used to
+ * initialize the in-memory analytics, which are kept up to date incrementally afterwards.
+ */
+public interface ISalesAnalyticsRepository {
+
+    /**
+     * Aggregates the orders by creation day.
+     *
+     * @return The sales of every day with at least one order, in no particular order.
+     */
+    List<DailySales> sumSalesByDay();
+
+    /**
+     * Aggregates the order lines by product.
+     *
+     * @return The sales of every product ever ordered, in no particular order.
+     */
+    List<ProductSales> sumSalesByProduct();
+
+    /**
+     * Counts the orders in each state.
+     *
+     * @return The number of orders per state; states without orders may be absent.
+     */
+    Map<OrderState, Long> countOrdersByState();
+
+}
@@ -0,0 +1,149 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.application.SalesAnalyticsService;
+import com.juanlopez.ecommerce.backend.domain.model.Order;
+import com.juanlopez.ecommerce.backend.domain.model.OrderCursor;
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.model.OrderSummary;
+import com.juanlopez.ecommerce.backend.domain.port.IOrderRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Decorator of {@link IOrderRepository} that records every successful write in the
+ * {@link SalesAnalyticsService}.
+ * <p>
+ * Only orders saved without an ID are recorded, as new orders. State transitions are
+ * recorded with their previous state: bulk updates by ID towards a state reachable from
+ * several others report the previous state of every order changed, so the number of
+ * orders leaving each state is known. Reads are delegated as is.
+ */
+public class AnalyticsOrderRepository implements IOrderRepository {
+
+    private final IOrderRepository delegate;
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    /**
+     * Constructs the recording decorator.
+     *
+     * @param delegate              The repository that actually reads and writes the orders.
+     * @param salesAnalyticsService The analytics updated after each write.
+     */
+    public AnalyticsOrderRepository(IOrderRepository delegate, SalesAnalyticsService salesAnalyticsService) {
+        this.delegate = delegate;
+        this.salesAnalyticsService = salesAnalyticsService;
+    }
+
+    @Override
+    public Order save(Order order) {
+        boolean isNew = order.getId() == null;
+        Order savedOrder = delegate.save(order);
+        if (isNew) {
+            salesAnalyticsService.recordCreated(savedOrder);
+        }
+        return savedOrder;
+    }
+
+    @Override
+    public Order save(Order order, String idempotencyKey) {
+        Order savedOrder = delegate.save(order, idempotencyKey);
+        salesAnalyticsService.recordCreated(savedOrder);
+        return savedOrder;
+    }
+
+    @Override
+    public List<Order> saveAll(List<Order> orders) {
+        boolean[] isNew = new boolean[orders.size()];
+        for (int i = 0; i < orders.size(); i++) {
+            isNew[i] = orders.get(i).getId() == null;
+        }
+        List<Order> savedOrders = delegate.saveAll(orders);
+        for (int i = 0; i < savedOrders.size(); i++) {
+            if (isNew[i]) {
+                salesAnalyticsService.recordCreated(savedOrders.get(i));
+            }
+        }
+        return savedOrders;
+    }
+
+    @Override
+    public Order findById(Integer id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Order> findAll(OrderCursor after, int limit) {
+        return delegate.findAll(after, limit);
+    }
+
+    @Override
+    public List<Order> findByUserId(Integer userId, OrderCursor after, int limit) {
+        return delegate.findByUserId(userId, after, limit);
+    }
+
+    @Override
+    public List<OrderSummary> findSummaries(OrderCursor after, int limit) {
+        return delegate.findSummaries(after, limit);
+    }
+
+    @Override
+    public List<OrderSummary> findSummariesByUserId(Integer userId, OrderCursor after, int limit) {
+        return delegate.findSummariesByUserId(userId, after, limit);
+    }
+
+    @Override
+    public void forEachOrder(OrderState state, LocalDateTime dateFrom, LocalDateTime dateTo, Consumer<Order> consumer) {
+        delegate.forEachOrder(state, dateFrom, dateTo, consumer);
+    }
+
+    @Override
+    public OrderState findStateById(Integer id) {
+        return delegate.findStateById(id);
+    }
+
+    @Override
+    public boolean compareAndSetState(Integer id, OrderState expected, OrderState state) {
+        boolean applied = delegate.compareAndSetState(id, expected, state);
+        if (applied) {
+            salesAnalyticsService.recordTransition(expected, state, 1);
+        }
+        return applied;
+    }
+
+    /**
+     * Applies a new state to the given orders and records one transition per previous state.
+     *
+     * @param ids   The identifiers of the orders to update.
+     * @param state The new state to be applied.
+     * @return The state every changed order had before the update, keyed by its identifier.
+     */
+    @Override
+    public Map<Integer, OrderState> updateStateByIds(Collection<Integer> ids, OrderState state) {
+        Map<Integer, OrderState> previousStates = delegate.updateStateByIds(ids, state);
+        Map<OrderState, Long> counts = new EnumMap<>(OrderState.class);
+        previousStates.values().forEach(previous -> counts.merge(previous, 1L, Long::sum));
+        counts.forEach((previous, count) -> salesAnalyticsService.recordTransition(previous, state, count));
+        return previousStates;
+    }
+
+    @Override
+    public List<Integer> updateStateByIds(Collection<Integer> ids, OrderState expected, OrderState state) {
+        List<Integer> updatedIds = delegate.updateStateByIds(ids, expected, state);
+        salesAnalyticsService.recordTransition(expected, state, updatedIds.size());
+        return updatedIds;
+    }
+
+    @Override
+    public List<Integer> updateStateByFilter(OrderState currentState, LocalDateTime dateFrom, LocalDateTime dateTo,
+                                             OrderState state, int limit) {
+        List<Integer> updatedIds = delegate.updateStateByFilter(currentState, dateFrom, dateTo, state, limit);
+        salesAnalyticsService.recordTransition(currentState, state, updatedIds.size());
+        return updatedIds;
+    }
+
+}
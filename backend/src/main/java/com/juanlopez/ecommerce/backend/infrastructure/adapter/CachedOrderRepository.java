@@ -0,0 +1,298 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import com.juanlopez.ecommerce.backend.domain.model.Order;
+import com.juanlopez.ecommerce.backend.domain.model.OrderCursor;
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.model.OrderSummary;
+import com.juanlopez.ecommerce.backend.domain.port.IOrderRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Decorator of {@link IOrderRepository} that caches the order history of each user.
+ * <p>
+ * Pages returned by {@link #findByUserId(Integer, OrderCursor, int)} are kept in a
+ * bounded cache with one entry per user, so a write affecting a user invalidates all
+ * of the user's pages at once. The size of the cache is measured in cached orders and
+ * entries expire a fixed time after being written. Every other operation is delegated
+ * as is; writes then invalidate the users that own the affected orders, found through
+ * an index of the owner of every cached order.
+ * <p>
+ * A page read from the database while a write affecting it is in progress is not
+ * cached, since it may reflect the state prior to the write. Cached orders are shared
+ * between callers and must not be modified.
+ */
+public class CachedOrderRepository implements IOrderRepository {
+
+    /**
+     * Number of stripes of the per-user write counters.
+     */
+    private static final int WRITE_STRIPES = 64;
+
+    private final IOrderRepository delegate;
+    private final Cache<Integer, UserOrderHistory> cache;
+    private final StatsCounter statsCounter = new ConcurrentStatsCounter();
+
+    /**
+     * Owner of every order contained in a cached history, updated along with the history
+     * while holding the lock of its cache entry.
+     */
+    private final Map<Integer, Integer> ownerByOrderId = new ConcurrentHashMap<>();
+
+    /**
+     * Writes per stripe of users, used to discard pages loaded concurrently with a save.
+     */
+    private final AtomicLongArray userWrites = new AtomicLongArray(WRITE_STRIPES);
+
+    /**
+     * State changes of any order, used to discard pages loaded concurrently with a
+     * transition whose owner is not known.
+     */
+    private final AtomicLong stateWrites = new AtomicLong();
+
+    /**
+     * Constructs the caching decorator.
+     *
+     * @param delegate         The repository that actually reads and writes the orders.
+     * @param maximumOrders    The maximum number of orders kept in the cache, over all users.
+     * @param expireAfterWrite The time after which a cached history is discarded.
+     */
+    public CachedOrderRepository(IOrderRepository delegate, long maximumOrders, Duration expireAfterWrite) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumOrders)
+                .weigher((Integer userId, UserOrderHistory history) -> Math.max(1, history.orderIds().size()))
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats(() -> statsCounter)
+                .evictionListener((Integer userId, UserOrderHistory history, RemovalCause cause) -> {
+                    if (history != null) {
+                        unindex(userId, history);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Returns the underlying cache, so its statistics can be exposed as metrics.
+     * <p>
+     * Hits and misses are recorded per page, not per user.
+     *
+     * @return The cache of order histories, keyed by user ID.
+     */
+    public Cache<Integer, UserOrderHistory> getCache() {
+        return cache;
+    }
+
+    @Override
+    public Order save(Order order) {
+        Order savedOrder = delegate.save(order);
+        if (order.getId() != null) {
+            invalidateOwners(Set.of(order.getId()));
+        }
+        invalidateUser(savedOrder.getUserId());
+        return savedOrder;
+    }
+
+    @Override
+    public Order save(Order order, String idempotencyKey) {
+        Order savedOrder = delegate.save(order, idempotencyKey);
+        invalidateUser(savedOrder.getUserId());
+        return savedOrder;
+    }
+
+    @Override
+    public List<Order> saveAll(List<Order> orders) {
+        List<Order> savedOrders = delegate.saveAll(orders);
+        invalidateOwners(orders.stream().map(Order::getId).filter(Objects::nonNull).collect(Collectors.toSet()));
+        savedOrders.stream().map(Order::getUserId).distinct().forEach(this::invalidateUser);
+        return savedOrders;
+    }
+
+    @Override
+    public Order findById(Integer id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Order> findAll(OrderCursor after, int limit) {
+        return delegate.findAll(after, limit);
+    }
+
+    /**
+     * Retrieves a page of the orders of a user, from the cache when possible.
+     *
+     * @param userId The identifier of the user whose orders are to be fetched.
+     * @param after  The position after which the page starts, or {@code null} for the first page.
+     * @param limit  The maximum number of orders to return.
+     * @return The user's orders of the page.
+     */
+    @Override
+    public List<Order> findByUserId(Integer userId, OrderCursor after, int limit) {
+        PageKey pageKey = new PageKey(after, limit);
+        UserOrderHistory history = cache.asMap().get(userId);
+        List<Order> page = history == null ? null : history.pages().get(pageKey);
+        if (page != null) {
+            statsCounter.recordHits(1);
+            return page;
+        }
+        statsCounter.recordMisses(1);
+
+        int stripe = stripe(userId);
+        long userWritesBefore = userWrites.get(stripe);
+        long stateWritesBefore = stateWrites.get();
+        List<Order> loadedPage = List.copyOf(delegate.findByUserId(userId, after, limit));
+        cache.asMap().compute(userId, (key, current) -> {
+            if (userWrites.get(stripe) != userWritesBefore || stateWrites.get() != stateWritesBefore) {
+                return current;
+            }
+            loadedPage.forEach(order -> ownerByOrderId.put(order.getId(), userId));
+            return current == null ? UserOrderHistory.of(pageKey, loadedPage) : current.with(pageKey, loadedPage);
+        });
+        return loadedPage;
+    }
+
+    @Override
+    public List<OrderSummary> findSummaries(OrderCursor after, int limit) {
+        return delegate.findSummaries(after, limit);
+    }
+
+    @Override
+    public List<OrderSummary> findSummariesByUserId(Integer userId, OrderCursor after, int limit) {
+        return delegate.findSummariesByUserId(userId, after, limit);
+    }
+
+    @Override
+    public void forEachOrder(OrderState state, LocalDateTime dateFrom, LocalDateTime dateTo, Consumer<Order> consumer) {
+        delegate.forEachOrder(state, dateFrom, dateTo, consumer);
+    }
+
+    @Override
+    public OrderState findStateById(Integer id) {
+        return delegate.findStateById(id);
+    }
+
+    @Override
+    public boolean compareAndSetState(Integer id, OrderState expected, OrderState state) {
+        boolean applied = delegate.compareAndSetState(id, expected, state);
+        if (applied) {
+            invalidateOwners(Set.of(id));
+        }
+        return applied;
+    }
+
+    @Override
+    public Map<Integer, OrderState> updateStateByIds(Collection<Integer> ids, OrderState state) {
+        Map<Integer, OrderState> previousStates = delegate.updateStateByIds(ids, state);
+        invalidateOwners(previousStates.keySet());
+        return previousStates;
+    }
+
+    @Override
+    public List<Integer> updateStateByIds(Collection<Integer> ids, OrderState expected, OrderState state) {
+        List<Integer> updatedIds = delegate.updateStateByIds(ids, expected, state);
+        invalidateOwners(new HashSet<>(updatedIds));
+        return updatedIds;
+    }
+
+    @Override
+    public List<Integer> updateStateByFilter(OrderState currentState, LocalDateTime dateFrom, LocalDateTime dateTo,
+                                             OrderState state, int limit) {
+        List<Integer> updatedIds = delegate.updateStateByFilter(currentState, dateFrom, dateTo, state, limit);
+        invalidateOwners(new HashSet<>(updatedIds));
+        return updatedIds;
+    }
+
+    /**
+     * Discards the cached history of a user after one of the user's orders was written.
+     */
+    private void invalidateUser(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        userWrites.incrementAndGet(stripe(userId));
+        cache.asMap().computeIfPresent(userId, (key, history) -> {
+            unindex(key, history);
+            return null;
+        });
+    }
+
+    /**
+     * Discards the cached histories containing any of the given orders.
+     * <p>
+     * Orders not present in any cached page cannot make a cached page stale, so only
+     * the users whose history contains one of them, as recorded in the owner index, are
+     * invalidated. Pages being loaded meanwhile are not cached, whoever their user is.
+     */
+    private void invalidateOwners(Set<Integer> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        stateWrites.incrementAndGet();
+        orderIds.stream()
+                .map(ownerByOrderId::get)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(this::invalidateUser);
+    }
+
+    /**
+     * Removes the orders of a history that is no longer cached from the owner index.
+     */
+    private void unindex(Integer userId, UserOrderHistory history) {
+        history.orderIds().forEach(orderId -> ownerByOrderId.remove(orderId, userId));
+    }
+
+    private int stripe(Integer userId) {
+        return Math.floorMod(userId.hashCode(), WRITE_STRIPES);
+    }
+
+    /**
+     * Identifies a page of a user's order history.
+     *
+     * @param after The position after which the page starts, or {@code null} for the first page.
+     * @param limit The maximum number of orders of the page.
+     */
+    public record PageKey(OrderCursor after, int limit) {
+    }
+
+    /**
+     * Immutable set of cached pages of a user, along with the IDs of the orders they contain.
+     *
+     * @param pages    The cached pages.
+     * @param orderIds The IDs of every order contained in the pages.
+     */
+    public record UserOrderHistory(Map<PageKey, List<Order>> pages, Set<Integer> orderIds) {
+
+        static UserOrderHistory of(PageKey pageKey, List<Order> page) {
+            return new UserOrderHistory(Map.of(), Set.of()).with(pageKey, page);
+        }
+
+        UserOrderHistory with(PageKey pageKey, List<Order> page) {
+            Map<PageKey, List<Order>> newPages = new HashMap<>(pages);
+            newPages.put(pageKey, page);
+            Set<Integer> newOrderIds = new HashSet<>(orderIds);
+            page.forEach(order -> newOrderIds.add(order.getId()));
+            return new UserOrderHistory(Map.copyOf(newPages), Set.copyOf(newOrderIds));
+        }
+
+    }
+
+}
@@ -0,0 +1,378 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+import com.juanlopez.ecommerce.backend.domain.model.ProductCursor;
+import com.juanlopez.ecommerce.backend.domain.model.ProductFilter;
+import com.juanlopez.ecommerce.backend.domain.model.ProductSort;
+import com.juanlopez.ecommerce.backend.domain.port.ICatalogChangeListener;
+import com.juanlopez.ecommerce.backend.domain.port.IProductRepository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.StreamSupport;
+
+/**
+ * Read-through cache decorator of {@link IProductRepository}.
+ * <p>
+ * Products read by ID, and the full list returned by {@link #findAll()}, are kept in
+ * Caffeine caches bounded by size. Entries expire a fixed time after being loaded and,
+ * once older than the refresh interval, are reloaded in the background on their next
+ * read while the current value keeps being served, so hot products never wait for the
+ * database. Concurrent misses for the same key wait for a single load.
+ * <p>
+ * {@link #save(Product)} and {@link #deleteById(Integer)} evict the affected product and
+ * the cached list once the delegate returns; a load in progress for the same key is
+ * awaited and discarded. Filtered pages are not cached, since they are served by
+ * indexed queries. Cached products are shared between callers and must not be modified.
+ * <p>
+ * The prices used to price orders are kept in an index of their own, loaded with a
+ * single query for all the products missing from it. Since orders must be priced with
+ * the current prices, the entries of a product are evicted on every write through this
+ * repository, and expire after the refresh interval so that writes made by other
+ * instances are picked up within it. A load that overlaps a write is not cached.
+ * <p>
+ * Codes are resolved to IDs through a map holding the code of every product, loaded
+ * by {@link #rebuildCodeIndex()} and updated on every save and delete, so a lookup by
+ * code is a lookup by ID in the product cache. Codes missing from the map, or mapped
+ * to a product that no longer has them, are looked up in the delegate.
+ * <p>
+ * Products imported in bulk do not go through this decorator: as a
+ * {@link ICatalogChangeListener} it empties the caches and reloads the code map once
+ * an import has been merged.
+ */
+public class CachedProductRepository implements IProductRepository, ICatalogChangeListener {
+
+    private static final Boolean CATALOG_KEY = Boolean.TRUE;
+
+    private final IProductRepository delegate;
+    private final LoadingCache<Integer, Product> products;
+    private final LoadingCache<Boolean, List<Product>> catalog;
+    private final Cache<Integer, BigDecimal> prices;
+
+    /**
+     * Writes through this repository, used to discard prices loaded concurrently with one.
+     */
+    private final AtomicLong priceWrites = new AtomicLong();
+    private final ConcurrentMap<String, Integer> idsByCode = new ConcurrentHashMap<>();
+
+    /**
+     * Reverse of {@link #idsByCode}, to unmap the previous code of a product; only
+     * accessed while holding its lock.
+     */
+    private final Map<Integer, String> codesById = new HashMap<>();
+
+    /**
+     * Constructs the caching decorator.
+     *
+     * @param delegate          the repository that actually reads and writes the products
+     * @param maximumProducts   the maximum number of products cached by ID
+     * @param expireAfterWrite  the time after which a cached entry is discarded
+     * @param refreshAfterWrite the time after which a cached entry is reloaded on its next read
+     */
+    public CachedProductRepository(IProductRepository delegate, long maximumProducts, Duration expireAfterWrite,
+                                   Duration refreshAfterWrite) {
+        this(delegate, maximumProducts, expireAfterWrite, refreshAfterWrite, Ticker.systemTicker(),
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs the caching decorator with the given time source and refresh executor.
+     *
+     * @param delegate          the repository that actually reads and writes the products
+     * @param maximumProducts   the maximum number of products cached by ID
+     * @param expireAfterWrite  the time after which a cached entry is discarded
+     * @param refreshAfterWrite the time after which a cached entry is reloaded on its next read
+     * @param ticker            the time source of the caches
+     * @param executor          the executor running the background reloads
+     */
+    CachedProductRepository(IProductRepository delegate, long maximumProducts, Duration expireAfterWrite,
+                            Duration refreshAfterWrite, Ticker ticker, Executor executor) {
+        this.delegate = delegate;
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maximumProducts)
+                .expireAfterWrite(expireAfterWrite)
+                .refreshAfterWrite(refreshAfterWrite)
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build(delegate::findById);
+        this.catalog = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(expireAfterWrite)
+                .refreshAfterWrite(refreshAfterWrite)
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build(key -> StreamSupport.stream(delegate.findAll().spliterator(), false).toList());
+        this.prices = Caffeine.newBuilder()
+                .maximumSize(maximumProducts)
+                .expireAfterWrite(refreshAfterWrite)
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cache of products by ID, so its statistics can be exposed as metrics.
+     *
+     * @return the cache of products, keyed by ID
+     */
+    public LoadingCache<Integer, Product> getProductCache() {
+        return products;
+    }
+
+    /**
+     * Returns the cache of the full product list, so its statistics can be exposed as metrics.
+     *
+     * @return the cache holding the result of {@link #findAll()} under a single key
+     */
+    public LoadingCache<Boolean, List<Product>> getCatalogCache() {
+        return catalog;
+    }
+
+    /**
+     * Returns the price index, so its statistics can be exposed as metrics.
+     *
+     * @return the cache of product prices, keyed by ID
+     */
+    public Cache<Integer, BigDecimal> getPriceCache() {
+        return prices;
+    }
+
+    /**
+     * Replaces the code map with the codes of all the persisted products.
+     */
+    public void rebuildCodeIndex() {
+        Map<String, Integer> ids = delegate.findIdsByCode();
+        synchronized (codesById) {
+            idsByCode.clear();
+            codesById.clear();
+            ids.forEach((code, id) -> {
+                idsByCode.put(code, id);
+                codesById.put(id, code);
+            });
+        }
+    }
+
+    /**
+     * Saves a product and evicts it, along with the cached product list, and maps its code.
+     *
+     * @param product the product to save
+     * @return the persisted product
+     */
+    @Override
+    public Product save(Product product) {
+        Product savedProduct = delegate.save(product);
+        evict(savedProduct.getId());
+        mapCode(savedProduct);
+        return savedProduct;
+    }
+
+    /**
+     * Retrieves all products, from the cache when possible.
+     *
+     * @return an unmodifiable list of products
+     */
+    @Override
+    public Iterable<Product> findAll() {
+        return catalog.get(CATALOG_KEY);
+    }
+
+    /**
+     * Finds a product by its ID, from the cache when possible.
+     * <p>
+     * Unknown IDs are not cached: the exception of the delegate is propagated.
+     *
+     * @param id the product ID
+     * @return the product
+     */
+    @Override
+    public Product findById(Integer id) {
+        return products.get(id);
+    }
+
+    /**
+     * Finds a product by its code, resolving the code to its ID in memory and reading
+     * the product from the cache when possible.
+     *
+     * @param code the product code
+     * @return the product
+     */
+    @Override
+    public Product findByCode(String code) {
+        Integer id = idsByCode.get(code);
+        if (id != null) {
+            Product product = products.get(id);
+            if (code.equals(product.getCode())) {
+                return product;
+            }
+        }
+        Product product = delegate.findByCode(code);
+        mapCode(product);
+        return product;
+    }
+
+    /**
+     * Finds several products by their codes, reading the cached ones from memory and the
+     * rest from the delegate with a single query.
+     *
+     * @param codes the product codes
+     * @return each existing product, keyed by code
+     */
+    @Override
+    public Map<String, Product> findByCodes(Collection<String> codes) {
+        Map<String, Product> found = new HashMap<>();
+        List<String> missingCodes = new ArrayList<>();
+        for (String code : codes) {
+            Integer id = idsByCode.get(code);
+            Product product = id == null ? null : products.getIfPresent(id);
+            if (product != null && code.equals(product.getCode())) {
+                found.put(code, product);
+            } else {
+                missingCodes.add(code);
+            }
+        }
+        if (!missingCodes.isEmpty()) {
+            delegate.findByCodes(missingCodes).forEach((code, product) -> {
+                found.put(code, product);
+                mapCode(product);
+            });
+        }
+        return found;
+    }
+
+    /**
+     * Retrieves the ID of every product that has a code, from memory.
+     *
+     * @return an unmodifiable copy of the code map
+     */
+    @Override
+    public Map<String, Integer> findIdsByCode() {
+        return Map.copyOf(idsByCode);
+    }
+
+    @Override
+    public void forEachProduct(Consumer<Product> consumer) {
+        delegate.forEachProduct(consumer);
+    }
+
+    @Override
+    public List<Product> findPage(ProductFilter filter, ProductSort sort, ProductCursor after, int limit) {
+        return delegate.findPage(filter, sort, after, limit);
+    }
+
+    /**
+     * Finds the current prices of several products, from the price index when possible
+     * and with a single query for the rest.
+     *
+     * @param ids the product IDs
+     * @return the price of each existing product with a price, keyed by ID
+     */
+    @Override
+    public Map<Integer, BigDecimal> findPricesByIds(Collection<Integer> ids) {
+        Map<Integer, BigDecimal> found = new HashMap<>(prices.getAllPresent(ids));
+        if (found.size() < ids.size()) {
+            List<Integer> missingIds = ids.stream().filter(id -> !found.containsKey(id)).distinct().toList();
+            long writesBefore = priceWrites.get();
+            Map<Integer, BigDecimal> loaded = delegate.findPricesByIds(missingIds);
+            if (priceWrites.get() == writesBefore) {
+                prices.putAll(loaded);
+            }
+            found.putAll(loaded);
+        }
+        return found;
+    }
+
+    /**
+     * Deletes a product and evicts it, along with the cached product list.
+     *
+     * @param id the ID of the product to delete
+     */
+    @Override
+    public void deleteById(Integer id) {
+        delegate.deleteById(id);
+        evict(id);
+        synchronized (codesById) {
+            String code = codesById.remove(id);
+            if (code != null) {
+                idsByCode.remove(code, id);
+            }
+        }
+    }
+
+    /**
+     * Does nothing: the products saved through this repository are already evicted.
+     *
+     * @param product the persisted product
+     */
+    @Override
+    public void onProductSaved(Product product) {
+    }
+
+    /**
+     * Does nothing: the products deleted through this repository are already evicted.
+     *
+     * @param id the ID of the deleted product
+     */
+    @Override
+    public void onProductDeleted(Integer id) {
+    }
+
+    /**
+     * Empties the caches and reloads the code map, since any number of products may have changed.
+     */
+    @Override
+    public void onProductsImported() {
+        priceWrites.incrementAndGet();
+        prices.invalidateAll();
+        products.invalidateAll();
+        catalog.invalidateAll();
+        rebuildCodeIndex();
+    }
+
+    /**
+     * Maps the code of a product to its ID, unmapping its previous code.
+     */
+    private void mapCode(Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+        synchronized (codesById) {
+            String previousCode = product.getCode() == null
+                    ? codesById.remove(product.getId())
+                    : codesById.put(product.getId(), product.getCode());
+            if (previousCode != null && !previousCode.equals(product.getCode())) {
+                idsByCode.remove(previousCode, product.getId());
+            }
+            if (product.getCode() != null) {
+                idsByCode.put(product.getCode(), product.getId());
+            }
+        }
+    }
+
+    private void evict(Integer id) {
+        if (id != null) {
+            priceWrites.incrementAndGet();
+            prices.invalidate(id);
+            products.invalidate(id);
+        }
+        catalog.invalidate(CATALOG_KEY);
+    }
+
+}
@@ -1,9 +1,13 @@
 package com.juanlopez.ecommerce.backend.infrastructure.adapter;
 
 import com.juanlopez.ecommerce.backend.domain.model.Category;
+import com.juanlopez.ecommerce.backend.domain.model.CategorySummary;
 import com.juanlopez.ecommerce.backend.domain.port.ICategoryRepository;
 import com.juanlopez.ecommerce.backend.infrastructure.mapper.ICategoryMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 /**
  * Implementation of {@link ICategoryRepository} using Spring Data JPA.
@@ -11,12 +15,16 @@ import org.springframework.stereotype.Repository;
  * Acts as an adapter between the domain layer and the persistence layer.
  * Handles CRUD operations for {@link Category} entities and maps them
  * between domain and database representations using {@link ICategoryMapper}.
+ * <p>
+ * The number of products of each category is read from the counters kept by
+ * {@link ICategoryProductCountCrudRepository}.
  */
 @Repository
 public class CategoryCrudRepositoryImpl implements ICategoryRepository {
 
     private final ICategoryCrudRepository iCategoryCrudRepository;
     private final ICategoryMapper iCategoryMapper;
+    private final ICategoryProductCountCrudRepository iCategoryProductCountCrudRepository;
 
     /**
      * Constructs a new {@code CategoryCrudRepositoryImpl} with the given
@@ -24,10 +32,13 @@ public class CategoryCrudRepositoryImpl implements ICategoryRepository {
      *
      * @param iCategoryCrudRepository the Spring Data repository for Category entities
      * @param iCategoryMapper the mapper to convert between domain and entity objects
+     * @param iCategoryProductCountCrudRepository the repository of the per-category product counters
      */
-    public CategoryCrudRepositoryImpl(ICategoryCrudRepository iCategoryCrudRepository, ICategoryMapper iCategoryMapper) {
+    public CategoryCrudRepositoryImpl(ICategoryCrudRepository iCategoryCrudRepository, ICategoryMapper iCategoryMapper,
+                                      ICategoryProductCountCrudRepository iCategoryProductCountCrudRepository) {
         this.iCategoryCrudRepository = iCategoryCrudRepository;
         this.iCategoryMapper = iCategoryMapper;
+        this.iCategoryProductCountCrudRepository = iCategoryProductCountCrudRepository;
     }
 
     /**
@@ -51,6 +62,31 @@ public class CategoryCrudRepositoryImpl implements ICategoryRepository {
         return iCategoryMapper.toCategories(iCategoryCrudRepository.findAll());
     }
 
+    /**
+     * Retrieves all categories along with their number of products, joining the counters
+     * in a single query.
+     *
+     * @return the categories with their number of products, ordered by name
+     */
+    @Override
+    public List<CategorySummary> findAllWithProductCounts() {
+        return iCategoryCrudRepository.findAllWithProductCounts().stream()
+                .map(category -> new CategorySummary(category.getId(), category.getName(), category.getProductCount()))
+                .toList();
+    }
+
+    /**
+     * Recomputes the counters from the {@code products} table in a single transaction,
+     * blocking the counter updates of concurrent product writes until it commits.
+     *
+     * @return the number of counters corrected
+     */
+    @Override
+    @Transactional
+    public int reconcileProductCounts() {
+        return iCategoryProductCountCrudRepository.reconcile();
+    }
+
     /**
      * Finds a category by its ID.
      *
@@ -82,5 +118,5 @@ public class CategoryCrudRepositoryImpl implements ICategoryRepository {
         );
         iCategoryCrudRepository.deleteById(id);
     }
-    
+
 }
@@ -1,8 +1,11 @@
 package com.juanlopez.ecommerce.backend.infrastructure.adapter;
 
 import com.juanlopez.ecommerce.backend.infrastructure.entity.CategoryEntity;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.List;
+
 /**
  * Spring Data JPA repository interface for {@link CategoryEntity}.
  * <p>
@@ -12,4 +15,32 @@ import org.springframework.data.repository.CrudRepository;
  * methods are required unless custom queries are needed.
  */
 public interface ICategoryCrudRepository extends CrudRepository<CategoryEntity, Integer> {
+
+    /**
+     * Retrieves every category along with its number of listable products, with a single query.
+     * <p>
+     * The numbers are read from the maintained counters instead of being counted on the
+     * {@code products} table; categories without a counter have no products.
+     *
+     * @return the ID, name and number of products of each category, ordered by name
+     */
+    @Query("""
+            SELECT c.id AS id, c.name AS name, COALESCE(pc.productCount, 0L) AS productCount
+            FROM CategoryEntity c LEFT JOIN CategoryProductCountEntity pc ON pc.categoryId = c.id
+            ORDER BY c.name, c.id""")
+    List<CategoryProductCount> findAllWithProductCounts();
+
+    /**
+     * Projection holding a category and its number of products.
+     */
+    interface CategoryProductCount {
+
+        Integer getId();
+
+        String getName();
+
+        Long getProductCount();
+
+    }
+
 }
@@ -0,0 +1,89 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.infrastructure.entity.CategoryProductCountEntity;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Spring Data JPA repository maintaining the {@link CategoryProductCountEntity} counters.
+ * <p>
+ * Counters are changed with relative, atomic updates, so concurrent writers never
+ * overwrite each other's changes. Every method must run within the transaction of the
+ * product writes that cause the change.
+ */
+public interface ICategoryProductCountCrudRepository extends CrudRepository<CategoryProductCountEntity, Integer> {
+
+    /**
+     * Adds a quantity to the counter of a category, creating it if it does not exist.
+     *
+     * @param categoryId the ID of the category
+     * @param delta      the quantity to add, negative to subtract
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO category_product_counts (category_id, product_count) VALUES (:categoryId, :delta)
+            ON CONFLICT (category_id)
+                DO UPDATE SET product_count = category_product_counts.product_count + EXCLUDED.product_count""",
+            nativeQuery = true)
+    void add(@Param("categoryId") Integer categoryId, @Param("delta") long delta);
+
+    /**
+     * Recomputes every counter from the {@code products} table and fixes those that differ.
+     * <p>
+     * The table is locked first, so product writers wait for the recount to commit
+     * before adjusting a counter, and their changes are applied on top of it: writes
+     * committed before the lock are included in the recount, and later ones are not.
+     *
+     * @return the number of counters corrected
+     */
+    default int reconcile() {
+        lockForReconciliation();
+        return correctCounts() + createMissingCounts();
+    }
+
+    /**
+     * Locks the counters against concurrent changes until the end of the transaction;
+     * reads are not blocked.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE category_product_counts IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForReconciliation();
+
+    /**
+     * Sets every existing counter that differs to the actual number of listable products
+     * of its category, which is zero for the categories left without any.
+     *
+     * @return the number of counters changed
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE category_product_counts c
+            SET product_count = (SELECT COUNT(*) FROM products p
+                                 WHERE p.category_entity_id = c.category_id AND p.name IS NOT NULL AND p.price IS NOT NULL)
+            WHERE c.product_count <> (SELECT COUNT(*) FROM products p
+                                      WHERE p.category_entity_id = c.category_id AND p.name IS NOT NULL AND p.price IS NOT NULL)""",
+            nativeQuery = true)
+    int correctCounts();
+
+    /**
+     * Creates the missing counters of the categories with listable products.
+     * <p>
+     * Counters are only created by this method and by {@link #add(Integer, long)}, which
+     * waits for the lock taken by {@link #reconcile()}, so no counter can appear meanwhile.
+     *
+     * @return the number of counters created
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO category_product_counts (category_id, product_count)
+            SELECT p.category_entity_id, COUNT(*)
+            FROM products p
+            WHERE p.category_entity_id IS NOT NULL AND p.name IS NOT NULL AND p.price IS NOT NULL
+              AND NOT EXISTS (SELECT 1 FROM category_product_counts c WHERE c.category_id = p.category_entity_id)
+            GROUP BY p.category_entity_id""",
+            nativeQuery = true)
+    int createMissingCounts();
+
+}
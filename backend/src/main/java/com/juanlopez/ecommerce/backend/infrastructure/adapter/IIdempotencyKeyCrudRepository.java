@@ -0,0 +1,94 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.infrastructure.entity.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Spring Data JPA repository for {@link IdempotencyKeyEntity}.
+ * <p>
+ * Reservations are taken with conditional statements, so concurrent requests with
+ * the same key, even on different instances, cannot both reserve it.
+ */
+public interface IIdempotencyKeyCrudRepository extends CrudRepository<IdempotencyKeyEntity, IdempotencyKeyEntity.Key> {
+
+    /**
+     * Inserts a reservation for a key of a user unless the user already has the key.
+     *
+     * @param userId      The identifier of the user.
+     * @param key         The idempotency key.
+     * @param requestHash The hash of the request reserving the key.
+     * @param now         The reservation date.
+     * @return 1 if the key was reserved, 0 if it already exists.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO order_idempotency_key (user_id, idempotency_key, request_hash, order_id, date_created)
+            VALUES (:userId, :key, :requestHash, NULL, :now)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Integer userId, @Param("key") String key,
+                       @Param("requestHash") String requestHash, @Param("now") LocalDateTime now);
+
+    /**
+     * Takes over a reservation that was never completed and is older than the given date.
+     * <p>
+     * The condition is checked again on the locked row, so concurrent requests cannot
+     * take over the same reservation.
+     *
+     * @param userId      The identifier of the user.
+     * @param key         The idempotency key.
+     * @param requestHash The hash of the request taking over the key.
+     * @param now         The new reservation date.
+     * @param staleBefore The date before which an uncompleted reservation is considered abandoned.
+     * @return 1 if the reservation was taken over, 0 otherwise.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE IdempotencyKeyEntity k SET k.dateCreated = :now, k.requestHash = :requestHash
+            WHERE k.userId = :userId AND k.idempotencyKey = :key
+              AND k.orderId IS NULL AND k.dateCreated < :staleBefore
+            """)
+    int takeOverReservation(@Param("userId") Integer userId, @Param("key") String key,
+                            @Param("requestHash") String requestHash, @Param("now") LocalDateTime now,
+                            @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Sets the order created with a reserved key, unless the key was already completed.
+     * <p>
+     * Runs within the transaction of the caller, if any, so the key is completed if and
+     * only if its order is committed.
+     *
+     * @param userId  The identifier of the user.
+     * @param key     The idempotency key.
+     * @param orderId The ID of the created order.
+     * @return 1 if the key was completed, 0 if it is not reserved.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE IdempotencyKeyEntity k SET k.orderId = :orderId
+            WHERE k.userId = :userId AND k.idempotencyKey = :key AND k.orderId IS NULL
+            """)
+    int updateOrderId(@Param("userId") Integer userId, @Param("key") String key, @Param("orderId") Integer orderId);
+
+    /**
+     * Deletes a key of a user if it has not been completed.
+     *
+     * @param userId The identifier of the user.
+     * @param key    The idempotency key.
+     * @return The number of deleted keys.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.userId = :userId AND k.idempotencyKey = :key AND k.orderId IS NULL")
+    int deleteReservation(@Param("userId") Integer userId, @Param("key") String key);
+
+}
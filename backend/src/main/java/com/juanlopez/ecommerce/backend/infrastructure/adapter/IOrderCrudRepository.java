@@ -2,13 +2,20 @@ package com.juanlopez.ecommerce.backend.infrastructure.adapter;
 
 import com.juanlopez.ecommerce.backend.domain.model.OrderState;
 import com.juanlopez.ecommerce.backend.infrastructure.entity.OrderEntity;
-import com.juanlopez.ecommerce.backend.infrastructure.entity.UserEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Spring Data JPA repository for performing CRUD and custom operations
  * on {@link OrderEntity} instances.
@@ -18,31 +25,168 @@ import org.springframework.transaction.annotation.Transactional;
  * that satisfies the requirements of the domain port responsible for order
  * persistence. Custom queries and transactional behavior are implemented
  * following Spring Data best practices.
+ * <p>
+ * Read paths follow an explicit fetch plan: keyset queries only select order IDs,
+ * and the orders of a page are then loaded together with their order products in
+ * a single fetch-join query. The user association is never fetched because the
+ * domain only needs its foreign key, so a page costs a constant number of queries
+ * regardless of its size.
  */
 public interface IOrderCrudRepository extends CrudRepository<OrderEntity, Integer> {
 
     /**
-     * Updates the state of an existing order identified by its ID.
+     * Retrieves the current state of an order without loading the entity.
+     *
+     * @param id The identifier of the order.
+     * @return The current state, if the order exists.
+     */
+    @Query("SELECT o.orderState FROM OrderEntity o WHERE o.id = :id")
+    Optional<OrderState> findStateById(@Param("id") Integer id);
+
+    /**
+     * Moves an order to a new state only if it still has the expected one.
      * <p>
-     * This method uses a JPQL update query to modify only the specific
-     * state field without requiring a full entity merge. The operation
-     * runs inside a transactional context and is marked as modifying.
+     * This conditional JPQL update acts as a compare-and-set: concurrent writers do
+     * not need to lock the row beforehand, and the one that loses the race simply
+     * updates zero rows. The operation runs inside a transactional context and is
+     * marked as modifying.
      *
-     * @param id    The identifier of the order to update.
-     * @param state The new {@link OrderState} to be applied.
+     * @param id       The identifier of the order to update.
+     * @param expected The {@link OrderState} the order must currently have.
+     * @param state    The new {@link OrderState} to be applied.
+     * @return The number of updated rows, {@code 1} if applied or {@code 0} otherwise.
      * Note: @Param annotations are used to bind method parameters to JPQL named parameters.
      */
     @Transactional
     @Modifying
-    @Query("UPDATE OrderEntity o SET o.orderState = :state WHERE o.id = :id")
-    void updateStateById(@Param("id") Integer id, @Param("state") OrderState state);
+    @Query("UPDATE OrderEntity o SET o.orderState = :state WHERE o.id = :id AND o.orderState = :expected")
+    int compareAndSetState(@Param("id") Integer id, @Param("expected") OrderState expected,
+                           @Param("state") OrderState state);
+
+    /**
+     * Retrieves an order by its identifier together with its order products.
+     *
+     * @param id The identifier of the order.
+     * @return The order with its order products initialized, if it exists.
+     */
+    @Override
+    @EntityGraph(attributePaths = "orderProducts")
+    Optional<OrderEntity> findById(Integer id);
+
+    /**
+     * Loads the given orders together with their order products in a single query,
+     * ordered from the newest to the oldest.
+     *
+     * @param ids The identifiers of the orders to load.
+     * @return The orders with their order products initialized.
+     */
+    @Query("""
+            SELECT o FROM OrderEntity o LEFT JOIN FETCH o.orderProducts
+            WHERE o.id IN :ids
+            ORDER BY o.dateCreated DESC, o.id DESC""")
+    List<OrderEntity> findAllWithOrderProductsByIdIn(@Param("ids") Collection<Integer> ids);
 
     /**
-     * Retrieves all orders associated with the given user entity.
+     * Loads the given orders together with their order products in a single query,
+     * knowing that all of them were created within the given range.
+     * <p>
+     * The range is applied to the orders, so only the partitions of the months it covers
+     * are read instead of the index of every partition, and to their lines, which does
+     * not drop any of them since every line has the creation date of its order. The lines
+     * are joined with an outer join, so orders without lines are returned too; Hibernate
+     * does not allow a condition in the clause of a fetch join, so the range of the lines
+     * is checked in the WHERE clause along with the orders that have none.
      *
-     * @param userEntity The user whose orders are to be returned.
-     * @return An iterable collection of orders owned by the user.
+     * @param ids      The identifiers of the orders to load.
+     * @param dateFrom The creation date of the oldest order (inclusive).
+     * @param dateTo   The creation date of the newest order (inclusive).
+     * @return The orders with their order products initialized, in no particular order.
      */
-    Iterable<OrderEntity> findByUserEntity(UserEntity userEntity);
+    @Query("""
+            SELECT o FROM OrderEntity o LEFT JOIN FETCH o.orderProducts op
+            WHERE o.id IN :ids
+              AND o.dateCreated BETWEEN :dateFrom AND :dateTo
+              AND (op IS NULL OR op.orderDateCreated BETWEEN :dateFrom AND :dateTo)""")
+    List<OrderEntity> findAllWithOrderProductsByIdInAndDateCreatedBetween(@Param("ids") Collection<Integer> ids,
+                                                                          @Param("dateFrom") LocalDateTime dateFrom,
+                                                                          @Param("dateTo") LocalDateTime dateTo);
+
+    /**
+     * Retrieves the IDs of the first page of orders, ordered from the newest to the oldest.
+     *
+     * @param limit The maximum number of IDs to return.
+     * @return The IDs of the newest orders, at most {@code limit} elements.
+     */
+    @Query("SELECT o.id FROM OrderEntity o ORDER BY o.dateCreated DESC, o.id DESC")
+    List<Integer> findFirstPageIds(Limit limit);
+
+    /**
+     * Retrieves the IDs of the page of orders placed right after the given keyset position.
+     * <p>
+     * The seek predicate lets the database jump straight to the position through the
+     * {@code (date_created, id)} index instead of scanning and discarding previous rows.
+     *
+     * @param dateCreated Creation date of the last order of the previous page.
+     * @param id          Identifier of the last order of the previous page.
+     * @param limit       The maximum number of IDs to return.
+     * @return The IDs of the next orders, at most {@code limit} elements.
+     */
+    @Query("""
+            SELECT o.id FROM OrderEntity o
+            WHERE o.dateCreated < :dateCreated OR (o.dateCreated = :dateCreated AND o.id < :id)
+            ORDER BY o.dateCreated DESC, o.id DESC""")
+    List<Integer> findPageIdsAfter(@Param("dateCreated") LocalDateTime dateCreated, @Param("id") Integer id, Limit limit);
+
+    /**
+     * Retrieves the IDs of the first page of orders owned by the given user, ordered from the newest to the oldest.
+     *
+     * @param userId The identifier of the user whose orders are to be returned.
+     * @param limit  The maximum number of IDs to return.
+     * @return The IDs of the user's newest orders, at most {@code limit} elements.
+     */
+    @Query("SELECT o.id FROM OrderEntity o WHERE o.userEntity.id = :userId ORDER BY o.dateCreated DESC, o.id DESC")
+    List<Integer> findFirstPageIdsByUserId(@Param("userId") Integer userId, Limit limit);
+
+    /**
+     * Retrieves the IDs of the page of orders owned by the given user placed right after the given keyset position.
+     *
+     * @param userId      The identifier of the user whose orders are to be returned.
+     * @param dateCreated Creation date of the last order of the previous page.
+     * @param id          Identifier of the last order of the previous page.
+     * @param limit       The maximum number of IDs to return.
+     * @return The IDs of the user's next orders, at most {@code limit} elements.
+     */
+    @Query("""
+            SELECT o.id FROM OrderEntity o
+            WHERE o.userEntity.id = :userId
+              AND (o.dateCreated < :dateCreated OR (o.dateCreated = :dateCreated AND o.id < :id))
+            ORDER BY o.dateCreated DESC, o.id DESC""")
+    List<Integer> findPageIdsAfterByUserId(@Param("userId") Integer userId,
+                                           @Param("dateCreated") LocalDateTime dateCreated,
+                                           @Param("id") Integer id, Limit limit);
+
+    /**
+     * Aggregates the lines of all orders by product.
+     *
+     * @return The ordered quantity and the summed line totals of every product ever ordered.
+     */
+    @Query("""
+            SELECT op.productId AS productId, SUM(op.quantity) AS quantity, SUM(op.price * op.quantity) AS revenue
+            FROM OrderProductEntity op
+            GROUP BY op.productId""")
+    List<ProductTotals> sumByProduct();
+
+    /**
+     * Projection holding the aggregated order lines of a product.
+     */
+    interface ProductTotals {
+
+        Integer getProductId();
+
+        BigDecimal getQuantity();
+
+        BigDecimal getRevenue();
+
+    }
 
 }
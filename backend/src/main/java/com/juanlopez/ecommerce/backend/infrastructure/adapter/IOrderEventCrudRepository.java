@@ -0,0 +1,49 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.infrastructure.entity.OrderEventEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the {@link OrderEventEntity} rows of the order outbox.
+ */
+public interface IOrderEventCrudRepository extends CrudRepository<OrderEventEntity, Long> {
+
+    /**
+     * Locks, at most, {@code limit} of the events with the lowest IDs not locked by another transaction.
+     * <p>
+     * A lock timeout of {@code -2} makes Hibernate render {@code FOR UPDATE SKIP LOCKED},
+     * so concurrent relays take disjoint batches instead of waiting for each other.
+     * <p>
+     * IDs are handed to each instance in blocks, so a lower ID does not mean an older
+     * event, not even for the same order.
+     *
+     * @param limit The maximum number of events to lock.
+     * @return The locked events, by ascending ID.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OrderEventEntity e ORDER BY e.id")
+    List<OrderEventEntity> lockNextBatch(Limit limit);
+
+    /**
+     * Deletes the given events in a single statement.
+     *
+     * @param ids The identifiers of the events to delete.
+     * @return The number of deleted rows.
+     */
+    @Modifying
+    @Query("DELETE FROM OrderEventEntity e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+}
@@ -0,0 +1,132 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.OrderSummaryEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the {@link OrderSummaryEntity} read model.
+ * <p>
+ * Listing queries use the same keyset ordering as orders ({@code dateCreated DESC, id DESC})
+ * and read only the {@code order_summary} table.
+ */
+public interface IOrderSummaryCrudRepository extends CrudRepository<OrderSummaryEntity, Integer> {
+
+    /**
+     * Retrieves the first page of summaries, from the newest order to the oldest.
+     *
+     * @param limit The maximum number of summaries to return.
+     * @return The summaries of the newest orders.
+     */
+    @Query("SELECT s FROM OrderSummaryEntity s ORDER BY s.dateCreated DESC, s.id DESC")
+    List<OrderSummaryEntity> findFirstPage(Limit limit);
+
+    /**
+     * Retrieves the page of summaries right after the given keyset position.
+     *
+     * @param dateCreated Creation date of the last order of the previous page.
+     * @param id          Identifier of the last order of the previous page.
+     * @param limit       The maximum number of summaries to return.
+     * @return The summaries of the next orders.
+     */
+    @Query("""
+            SELECT s FROM OrderSummaryEntity s
+            WHERE s.dateCreated < :dateCreated OR (s.dateCreated = :dateCreated AND s.id < :id)
+            ORDER BY s.dateCreated DESC, s.id DESC""")
+    List<OrderSummaryEntity> findPageAfter(@Param("dateCreated") LocalDateTime dateCreated,
+                                           @Param("id") Integer id, Limit limit);
+
+    /**
+     * Retrieves the first page of summaries of a user, from the newest order to the oldest.
+     *
+     * @param userId The identifier of the user.
+     * @param limit  The maximum number of summaries to return.
+     * @return The summaries of the user's newest orders.
+     */
+    @Query("SELECT s FROM OrderSummaryEntity s WHERE s.userId = :userId ORDER BY s.dateCreated DESC, s.id DESC")
+    List<OrderSummaryEntity> findFirstPageByUserId(@Param("userId") Integer userId, Limit limit);
+
+    /**
+     * Retrieves the page of summaries of a user right after the given keyset position.
+     *
+     * @param userId      The identifier of the user.
+     * @param dateCreated Creation date of the last order of the previous page.
+     * @param id          Identifier of the last order of the previous page.
+     * @param limit       The maximum number of summaries to return.
+     * @return The summaries of the user's next orders.
+     */
+    @Query("""
+            SELECT s FROM OrderSummaryEntity s
+            WHERE s.userId = :userId
+              AND (s.dateCreated < :dateCreated OR (s.dateCreated = :dateCreated AND s.id < :id))
+            ORDER BY s.dateCreated DESC, s.id DESC""")
+    List<OrderSummaryEntity> findPageAfterByUserId(@Param("userId") Integer userId,
+                                                   @Param("dateCreated") LocalDateTime dateCreated,
+                                                   @Param("id") Integer id, Limit limit);
+
+    /**
+     * Propagates a state change to the summaries of the given orders.
+     *
+     * @param ids   The identifiers of the orders whose state changed.
+     * @param state The new state of the orders.
+     * @return The number of updated summaries.
+     */
+    @Modifying
+    @Query("UPDATE OrderSummaryEntity s SET s.orderState = :state WHERE s.id IN :ids")
+    int updateStateByIdIn(@Param("ids") Collection<Integer> ids, @Param("state") OrderState state);
+
+    /**
+     * Aggregates the summaries by creation day.
+     *
+     * @return The number of orders and their summed totals for every day with orders.
+     */
+    @Query("""
+            SELECT CAST(s.dateCreated AS LocalDate) AS date, COUNT(s) AS orderCount, SUM(s.totalPrice) AS revenue
+            FROM OrderSummaryEntity s
+            GROUP BY CAST(s.dateCreated AS LocalDate)
+            """)
+    List<DailyTotals> sumByDay();
+
+    /**
+     * Counts the summaries in each state.
+     *
+     * @return The number of orders of every state with orders.
+     */
+    @Query("SELECT s.orderState AS orderState, COUNT(s) AS orderCount FROM OrderSummaryEntity s GROUP BY s.orderState")
+    List<StateCount> countByState();
+
+    /**
+     * Projection holding the aggregated orders of a day.
+     */
+    interface DailyTotals {
+
+        LocalDate getDate();
+
+        long getOrderCount();
+
+        BigDecimal getRevenue();
+
+    }
+
+    /**
+     * Projection holding the number of orders in a state.
+     */
+    interface StateCount {
+
+        OrderState getOrderState();
+
+        long getOrderCount();
+
+    }
+
+}
@@ -1,7 +1,17 @@
 package com.juanlopez.ecommerce.backend.infrastructure.adapter;
 
 import com.juanlopez.ecommerce.backend.infrastructure.entity.ProductEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Spring Data repository interface for performing CRUD operations on products.
@@ -11,6 +21,97 @@ import org.springframework.data.repository.CrudRepository;
  * <p>
  * this interface belongs to the infrastructure layer and acts as the data access
  * adapter used by the application to interact with the underlying database.
+ * <p>
+ * Catalog browsing builds its queries from {@link org.springframework.data.jpa.domain.Specification}
+ * instances, since every filter is optional.
+ * <p>
+ * Lookups by code are served by the unique index on {@code code}.
  */
-public interface IProductCrudRepository extends CrudRepository<ProductEntity, Integer> {
+public interface IProductCrudRepository extends CrudRepository<ProductEntity, Integer>,
+        JpaSpecificationExecutor<ProductEntity> {
+
+    /**
+     * Retrieves the ID and price of the given products with a single query,
+     * without loading the rest of their columns.
+     *
+     * @param ids the product IDs
+     * @return the ID and price of each existing product
+     */
+    @Query("SELECT p.id AS id, p.price AS price FROM ProductEntity p WHERE p.id IN :ids")
+    List<ProductPrice> findPricesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Retrieves a product by its unique code.
+     *
+     * @param code the product code
+     * @return the product, if it exists
+     */
+    Optional<ProductEntity> findByCode(String code);
+
+    /**
+     * Retrieves the products with the given codes with a single query.
+     *
+     * @param codes the product codes
+     * @return the existing products, in no particular order
+     */
+    List<ProductEntity> findByCodeIn(Collection<String> codes);
+
+    /**
+     * Retrieves the code and ID of every product with a code, without loading the rest of their columns.
+     *
+     * @return the code and ID of each product with a code
+     */
+    @Query("SELECT p.id AS id, p.code AS code FROM ProductEntity p WHERE p.code IS NOT NULL")
+    List<ProductCode> findAllCodes();
+
+    /**
+     * Locks a product and retrieves the columns that decide in which category it is counted,
+     * without loading the rest of its columns.
+     * <p>
+     * Locking the row before changing it guarantees that concurrent writes of the same
+     * product adjust the category counters one after another, each from the state left
+     * by the previous one.
+     *
+     * @param id the product ID
+     * @return the category, name and price of the product, if it exists
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.categoryEntity.id AS categoryId, p.name AS name, p.price AS price FROM ProductEntity p WHERE p.id = :id")
+    Optional<ProductListing> lockListingById(@Param("id") Integer id);
+
+    /**
+     * Projection holding the price of a product.
+     */
+    interface ProductPrice {
+
+        Integer getId();
+
+        BigDecimal getPrice();
+
+    }
+
+    /**
+     * Projection holding the code of a product.
+     */
+    interface ProductCode {
+
+        Integer getId();
+
+        String getCode();
+
+    }
+
+    /**
+     * Projection holding the columns that decide in which category a product is counted.
+     */
+    interface ProductListing {
+
+        Integer getCategoryId();
+
+        String getName();
+
+        BigDecimal getPrice();
+
+    }
+
 }
@@ -0,0 +1,56 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.domain.model.IdempotencyKey;
+import com.juanlopez.ecommerce.backend.domain.port.IIdempotencyKeyRepository;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.IdempotencyKeyEntity;
+import com.juanlopez.ecommerce.backend.infrastructure.mapper.IIdempotencyKeyMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Implementation of {@link IIdempotencyKeyRepository} using Spring Data JPA.
+ * <p>
+ * Each statement runs in its own transaction. A reservation first tries to insert the
+ * key and, if it already exists, to take over an abandoned reservation of it. Keys are
+ * completed by {@link OrderCrudRepositoryImpl} along with the order they created.
+ */
+@Repository
+public class IdempotencyKeyCrudRepositoryImpl implements IIdempotencyKeyRepository {
+
+    private final IIdempotencyKeyCrudRepository iIdempotencyKeyCrudRepository;
+    private final IIdempotencyKeyMapper iIdempotencyKeyMapper;
+
+    /**
+     * Constructs the adapter with the given JPA repository.
+     *
+     * @param iIdempotencyKeyCrudRepository the Spring Data repository for idempotency keys
+     * @param iIdempotencyKeyMapper         the mapper converting the keys into domain objects
+     */
+    public IdempotencyKeyCrudRepositoryImpl(IIdempotencyKeyCrudRepository iIdempotencyKeyCrudRepository,
+                                            IIdempotencyKeyMapper iIdempotencyKeyMapper) {
+        this.iIdempotencyKeyCrudRepository = iIdempotencyKeyCrudRepository;
+        this.iIdempotencyKeyMapper = iIdempotencyKeyMapper;
+    }
+
+    @Override
+    public boolean reserve(Integer userId, String key, String requestHash, LocalDateTime staleBefore) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        return iIdempotencyKeyCrudRepository.insertIfAbsent(userId, key, requestHash, now) > 0
+                || iIdempotencyKeyCrudRepository.takeOverReservation(userId, key, requestHash, now, staleBefore) > 0;
+    }
+
+    @Override
+    public IdempotencyKey findByUserIdAndKey(Integer userId, String key) {
+        return iIdempotencyKeyCrudRepository.findById(new IdempotencyKeyEntity.Key(userId, key))
+                .map(iIdempotencyKeyMapper::toIdempotencyKey)
+                .orElse(null);
+    }
+
+    @Override
+    public void release(Integer userId, String key) {
+        iIdempotencyKeyCrudRepository.deleteReservation(userId, key);
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juanlopez.ecommerce.backend.domain.model.OrderEvent;
+import com.juanlopez.ecommerce.backend.domain.port.IOrderEventPublisher;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * {@link IOrderEventPublisher} appending each event as a JSON line to a local file.
+ * <p>
+ * Stand-in for a message broker: other processes can tail the file, and each batch
+ * is written and flushed with a single write, so a publication either completes or
+ * throws and is retried. Retried batches may leave duplicated lines.
+ */
+public class JsonLinesOrderEventPublisher implements IOrderEventPublisher {
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    /**
+     * Constructs the publisher.
+     *
+     * @param objectMapper The mapper serializing the events.
+     * @param file         The file the events are appended to; created if it does not exist.
+     */
+    public JsonLinesOrderEventPublisher(ObjectMapper objectMapper, Path file) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void publish(List<OrderEvent> events) {
+        try {
+            StringBuilder lines = new StringBuilder();
+            for (OrderEvent event : events) {
+                lines.append(objectMapper.writeValueAsString(event)).append('\n');
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(lines.toString());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron escribir los eventos en " + file, e);
+        }
+    }
+
+}
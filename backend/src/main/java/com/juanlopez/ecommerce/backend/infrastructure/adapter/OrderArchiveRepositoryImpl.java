@@ -0,0 +1,176 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.port.IOrderArchiveRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PostgreSQL implementation of {@link IOrderArchiveRepository}.
+ * <p>
+ * The {@code orders} and {@code order_products} tables are range-partitioned by month
+ * (see the {@code V7} migration), with partitions named {@code orders_pYYYYMM} and
+ * {@code order_products_pYYYYMM}. Archiving a month detaches both partitions and moves
+ * them to the {@code orders_archive} schema, so the data stays available to SQL but the
+ * hot tables, their indexes and their vacuuming no longer include it.
+ * <p>
+ * Maintenance runs are serialized across instances with a PostgreSQL advisory lock.
+ */
+@Repository
+public class OrderArchiveRepositoryImpl implements IOrderArchiveRepository {
+
+    /**
+     * Schema holding the archived partitions.
+     */
+    public static final String ARCHIVE_SCHEMA = "orders_archive";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern ORDER_PARTITION = Pattern.compile("orders_p(\\d{6})");
+
+    /**
+     * Key of the advisory lock held by the instance maintaining the partitions.
+     */
+    private static final String MAINTENANCE_LOCK_KEY = "hashtext('order_partition_maintenance')";
+
+    private final EntityManager entityManager;
+    private final DataSource dataSource;
+
+    /**
+     * Constructs the adapter.
+     *
+     * @param entityManager the entity manager used to run the native statements
+     * @param dataSource    the data source of the connection holding the maintenance lock
+     */
+    public OrderArchiveRepositoryImpl(EntityManager entityManager, DataSource dataSource) {
+        this.entityManager = entityManager;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Runs a maintenance while holding a session-level advisory lock.
+     * <p>
+     * The lock is taken on a connection of its own, kept open until the maintenance
+     * ends, since each step of the maintenance runs in its own transaction. It is
+     * released when the connection is closed even if the unlock fails.
+     */
+    @Override
+    public boolean runExclusively(Runnable maintenance) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet locked = statement.executeQuery("SELECT pg_try_advisory_lock(" + MAINTENANCE_LOCK_KEY + ")")) {
+                if (!locked.next() || !locked.getBoolean(1)) {
+                    return false;
+                }
+            }
+            try {
+                maintenance.run();
+            } finally {
+                statement.execute("SELECT pg_advisory_unlock(" + MAINTENANCE_LOCK_KEY + ")");
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo obtener el bloqueo de mantenimiento de las particiones.", e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void createPartitions(YearMonth firstMonth, int months) {
+        entityManager.createNativeQuery("SELECT 1 FROM create_order_partitions(:firstMonth, :months)")
+                .setParameter("firstMonth", firstMonth.atDay(1))
+                .setParameter("months", months)
+                .getSingleResult();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<YearMonth> findPartitionMonths() {
+        List<?> partitionNames = entityManager.createNativeQuery("""
+                        SELECT c.relname
+                        FROM pg_inherits i
+                        JOIN pg_class c ON c.oid = i.inhrelid
+                        JOIN pg_class p ON p.oid = i.inhparent
+                        JOIN pg_namespace n ON n.oid = p.relnamespace
+                        WHERE p.relname = 'orders' AND n.nspname = current_schema()""")
+                .getResultList();
+        return partitionNames.stream()
+                .map(name -> ORDER_PARTITION.matcher(name.toString()))
+                .filter(Matcher::matches)
+                .map(matcher -> YearMonth.parse(matcher.group(1), PARTITION_SUFFIX))
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Checks whether a month has orders in any of the given states.
+     * <p>
+     * The creation date range restricts the query to the partition of the month.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public boolean hasOrders(YearMonth month, Collection<OrderState> states) {
+        if (states.isEmpty()) {
+            return false;
+        }
+        return !entityManager.createNativeQuery("""
+                        SELECT 1 FROM orders
+                        WHERE date_created >= :dateFrom AND date_created < :dateTo AND order_state IN (:states)
+                        LIMIT 1""")
+                .setParameter("dateFrom", month.atDay(1).atStartOfDay())
+                .setParameter("dateTo", month.plusMonths(1).atDay(1).atStartOfDay())
+                .setParameter("states", states.stream().map(OrderState::name).toList())
+                .getResultList()
+                .isEmpty();
+    }
+
+    /**
+     * Moves the partitions of a month to the archive schema, in a single transaction.
+     * <p>
+     * The lines are detached first, and their foreign key to {@code orders} is dropped,
+     * since PostgreSQL does not allow detaching a partition that is still referenced.
+     * The summaries of the archived orders and the idempotency keys up to the end of
+     * the month are deleted as well. Detaching takes an exclusive lock on both tables
+     * for the duration of the transaction.
+     */
+    @Override
+    @Transactional
+    public void archivePartition(YearMonth month) {
+        String suffix = month.format(PARTITION_SUFFIX);
+        String orders = "orders_p" + suffix;
+        String orderProducts = "order_products_p" + suffix;
+        execute("ALTER TABLE order_products DETACH PARTITION " + orderProducts);
+        execute("ALTER TABLE " + orderProducts + " DROP CONSTRAINT IF EXISTS fk_order_products_order");
+        execute("ALTER TABLE orders DETACH PARTITION " + orders);
+        execute("ALTER TABLE " + orderProducts + " SET SCHEMA " + ARCHIVE_SCHEMA);
+        execute("ALTER TABLE " + orders + " SET SCHEMA " + ARCHIVE_SCHEMA);
+
+        LocalDate monthEnd = month.plusMonths(1).atDay(1);
+        entityManager.createNativeQuery(
+                        "DELETE FROM order_summary WHERE date_created >= :dateFrom AND date_created < :dateTo")
+                .setParameter("dateFrom", month.atDay(1).atStartOfDay())
+                .setParameter("dateTo", monthEnd.atStartOfDay())
+                .executeUpdate();
+        entityManager.createNativeQuery("DELETE FROM order_idempotency_key WHERE date_created < :dateTo")
+                .setParameter("dateTo", monthEnd.atStartOfDay())
+                .executeUpdate();
+    }
+
+    private void execute(String statement) {
+        entityManager.createNativeQuery(statement).executeUpdate();
+    }
+
+}
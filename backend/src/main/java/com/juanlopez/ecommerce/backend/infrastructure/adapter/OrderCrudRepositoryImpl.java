@@ -1,12 +1,41 @@
 package com.juanlopez.ecommerce.backend.infrastructure.adapter;
 
+import com.juanlopez.ecommerce.backend.domain.exception.IdempotencyKeyInUseException;
 import com.juanlopez.ecommerce.backend.domain.model.Order;
+import com.juanlopez.ecommerce.backend.domain.model.OrderCursor;
+import com.juanlopez.ecommerce.backend.domain.model.OrderEventType;
 import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.model.OrderSummary;
 import com.juanlopez.ecommerce.backend.domain.port.IOrderRepository;
 import com.juanlopez.ecommerce.backend.infrastructure.entity.OrderEntity;
-import com.juanlopez.ecommerce.backend.infrastructure.entity.UserEntity;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.OrderEventEntity;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.OrderSummaryEntity;
 import com.juanlopez.ecommerce.backend.infrastructure.mapper.IOrderMapper;
+import com.juanlopez.ecommerce.backend.infrastructure.mapper.IOrderSummaryMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Infrastructure adapter implementing the {@link IOrderRepository} port using
@@ -15,22 +44,87 @@ import org.springframework.stereotype.Repository;
  * This class acts as the concrete bridge between the domain layer and the database.
  * It uses MapStruct mappers to convert between domain models and JPA entities,
  * ensuring that the domain remains decoupled from persistence concerns.
+ * <p>
+ * Every write to an order is also applied to its {@link OrderSummaryEntity} within
+ * the same transaction, so the summaries read by listings never diverge from the orders.
+ * Likewise, every change is recorded as an {@link OrderEventEntity} in the outbox read by
+ * {@link OrderOutboxRepositoryImpl}, so an event is published if and only if its change
+ * was committed.
  */
 @Repository
 public class OrderCrudRepositoryImpl implements IOrderRepository {
 
+    /**
+     * Number of orders read from the database per round trip, and released from the
+     * persistence context at once, while iterating over all the orders.
+     */
+    private static final int SCROLL_WINDOW_SIZE = 500;
+
+    /**
+     * Moves the given orders ({@code id = ANY}) that are in one of the given states to a
+     * new state, returning the ID and the previous state of every order moved. The rows
+     * are locked by the subquery, so the state it reads is the one being replaced.
+     */
+    private static final String UPDATE_STATE_RETURNING_PREVIOUS_SQL = """
+            UPDATE orders o SET order_state = ?
+            FROM (SELECT id AS locked_id, order_state AS previous_state FROM orders
+                  WHERE id = ANY (?) AND order_state = ANY (?)
+                  FOR UPDATE) locked
+            WHERE o.id = locked.locked_id
+            RETURNING o.id, locked.previous_state""";
+
+    /**
+     * Moves the given orders ({@code id = ANY}) that are in one of the given states to a new state.
+     */
+    private static final String UPDATE_STATE_BY_IDS_SQL = """
+            UPDATE orders SET order_state = ?
+            WHERE id = ANY (?) AND order_state = ANY (?)""";
+
+    /**
+     * Moves, at most, a given number of orders in a state and creation date range to a
+     * new state, from the lowest ID. The date range is repeated outside the subquery so
+     * that only the partitions of the range are updated.
+     */
+    private static final String UPDATE_STATE_BY_FILTER_SQL = """
+            UPDATE orders SET order_state = ?
+            WHERE order_state = ? AND date_created >= ? AND date_created < ?
+              AND id IN (SELECT id FROM orders
+                         WHERE order_state = ? AND date_created >= ? AND date_created < ?
+                         ORDER BY id
+                         LIMIT ?)""";
+
+    private final EntityManager entityManager;
     private final IOrderMapper iOrderMapper;
     private final IOrderCrudRepository iOrderCrudRepository;
+    private final IOrderSummaryMapper iOrderSummaryMapper;
+    private final IOrderSummaryCrudRepository iOrderSummaryCrudRepository;
+    private final IOrderEventCrudRepository iOrderEventCrudRepository;
+    private final IIdempotencyKeyCrudRepository iIdempotencyKeyCrudRepository;
 
     /**
      * Constructs the repository adapter with its required dependencies.
      *
-     * @param iOrderMapper          Mapper responsible for converting between domain and entity objects.
-     * @param iOrderCrudRepository  Spring Data JPA repository for order entities.
+     * @param iOrderMapper                  Mapper responsible for converting between domain and entity objects.
+     * @param iOrderCrudRepository          Spring Data JPA repository for order entities.
+     * @param iOrderSummaryMapper           Mapper converting order summary entities into domain objects.
+     * @param iOrderSummaryCrudRepository   Spring Data JPA repository for the order summaries.
+     * @param iOrderEventCrudRepository     Spring Data JPA repository for the outbox of order events.
+     * @param iIdempotencyKeyCrudRepository Spring Data JPA repository for the idempotency keys of new orders.
+     * @param entityManager                 Entity manager used for the queries that need a scrollable cursor.
      */
-    public OrderCrudRepositoryImpl(IOrderMapper iOrderMapper, IOrderCrudRepository iOrderCrudRepository) {
+    public OrderCrudRepositoryImpl(IOrderMapper iOrderMapper, IOrderCrudRepository iOrderCrudRepository,
+                                   IOrderSummaryMapper iOrderSummaryMapper,
+                                   IOrderSummaryCrudRepository iOrderSummaryCrudRepository,
+                                   IOrderEventCrudRepository iOrderEventCrudRepository,
+                                   IIdempotencyKeyCrudRepository iIdempotencyKeyCrudRepository,
+                                   EntityManager entityManager) {
+        this.entityManager = entityManager;
         this.iOrderMapper = iOrderMapper;
         this.iOrderCrudRepository = iOrderCrudRepository;
+        this.iOrderSummaryMapper = iOrderSummaryMapper;
+        this.iOrderSummaryCrudRepository = iOrderSummaryCrudRepository;
+        this.iOrderEventCrudRepository = iOrderEventCrudRepository;
+        this.iIdempotencyKeyCrudRepository = iIdempotencyKeyCrudRepository;
     }
 
     /**
@@ -38,75 +132,480 @@ public class OrderCrudRepositoryImpl implements IOrderRepository {
      * <p>
      * Before saving, this method assigns the parent {@link OrderEntity} reference
      * to each contained {@code OrderProductEntity}, ensuring proper bidirectional
-     * relationship handling by JPA.
+     * relationship handling by JPA. The summary of the order and its event are written along with it.
      *
      * @param order Domain model to be saved.
      * @return The persisted order mapped back to its domain representation.
      */
     @Override
+    @Transactional
     public Order save(Order order) {
-        OrderEntity orderEntity = iOrderMapper.toOrderEntity(order);
+        boolean isNew = order.getId() == null;
+        Order savedOrder = iOrderMapper.toOrder(iOrderCrudRepository.save(toOrderEntity(order)));
+        iOrderSummaryCrudRepository.save(toOrderSummaryEntity(savedOrder, isNew));
+        iOrderEventCrudRepository.save(toOrderEventEntity(
+                savedOrder.getId(), isNew ? OrderEventType.CREATED : OrderEventType.UPDATED, savedOrder.getOrderState()));
+        return savedOrder;
+    }
 
-        // Set bidirectional relationship for JPA
-        orderEntity.getOrderProducts().forEach(
-                orderProductEntity -> orderProductEntity.setOrderEntity(orderEntity)
-        );
+    /**
+     * Persists a new order, like {@link #save(Order)}, and completes the idempotency key
+     * it was created with in the same transaction.
+     * <p>
+     * If the key is not reserved anymore, the transaction is rolled back and no order is created.
+     *
+     * @param order          Domain model to be saved.
+     * @param idempotencyKey The key reserved by the user of the order.
+     * @return The persisted order mapped back to its domain representation.
+     * @throws IdempotencyKeyInUseException If the key is not reserved by the user.
+     */
+    @Override
+    @Transactional
+    public Order save(Order order, String idempotencyKey) {
+        Order savedOrder = save(order);
+        if (iIdempotencyKeyCrudRepository.updateOrderId(savedOrder.getUserId(), idempotencyKey, savedOrder.getId()) != 1) {
+            throw new IdempotencyKeyInUseException(idempotencyKey);
+        }
+        return savedOrder;
+    }
+
+    /**
+     * Persists several orders within a single transaction.
+     * <p>
+     * Since identifiers come from pooled sequences, Hibernate defers the inserts to
+     * the flush and sends the rows of every order and order line as JDBC batches.
+     *
+     * @param orders Domain models to be saved.
+     * @return The persisted orders mapped back to their domain representation.
+     */
+    @Override
+    @Transactional
+    public List<Order> saveAll(List<Order> orders) {
+        List<OrderEntity> orderEntities = orders.stream().map(this::toOrderEntity).toList();
+        List<OrderEntity> savedEntities = new ArrayList<>(orders.size());
+        iOrderCrudRepository.saveAll(orderEntities).forEach(savedEntities::add);
+        List<Order> savedOrders = iOrderMapper.toOrderList(savedEntities);
 
-        return iOrderMapper.toOrder(iOrderCrudRepository.save(orderEntity));
+        List<OrderSummaryEntity> summaries = new ArrayList<>(orders.size());
+        List<OrderEventEntity> events = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            Order savedOrder = savedOrders.get(i);
+            boolean isNew = orders.get(i).getId() == null;
+            summaries.add(toOrderSummaryEntity(savedOrder, isNew));
+            events.add(toOrderEventEntity(
+                    savedOrder.getId(), isNew ? OrderEventType.CREATED : OrderEventType.UPDATED, savedOrder.getOrderState()));
+        }
+        iOrderSummaryCrudRepository.saveAll(summaries);
+        iOrderEventCrudRepository.saveAll(events);
+        return savedOrders;
     }
 
     /**
      * Retrieves an order by its identifier.
+     * <p>
+     * The order products are fetched in the same query through an entity graph.
      *
      * @param id The ID of the order to fetch.
      * @return The corresponding domain order.
      * @throws RuntimeException If no order exists with the given ID.
      */
     @Override
+    @Transactional(readOnly = true)
     public Order findById(Integer id) {
         return iOrderMapper.toOrder(iOrderCrudRepository.findById(id).orElseThrow(
-                () -> new RuntimeException("Orden con Id: " + " no existe.")
+                () -> new RuntimeException("Orden con Id: " + id + " no existe.")
         ));
     }
 
     /**
-     * Retrieves all orders stored in the system.
+     * Retrieves a page of orders using keyset pagination.
+     * <p>
+     * The page is resolved in two queries: one seeking the IDs of the page and one
+     * loading those orders with their order products.
      *
-     * @return An iterable collection of domain orders.
+     * @param after The position after which the page starts, or {@code null} for the first page.
+     * @param limit The maximum number of orders to return.
+     * @return The domain orders of the page.
      */
     @Override
-    public Iterable<Order> findAll() {
-        return iOrderMapper.toOrders(iOrderCrudRepository.findAll());
+    @Transactional(readOnly = true)
+    public List<Order> findAll(OrderCursor after, int limit) {
+        List<Integer> ids = after == null
+                ? iOrderCrudRepository.findFirstPageIds(Limit.of(limit))
+                : iOrderCrudRepository.findPageIdsAfter(after.getDateCreated(), after.getId(), Limit.of(limit));
+        return loadPage(ids);
     }
 
     /**
-     * Retrieves all orders associated with a specific user.
+     * Retrieves a page of the orders associated with a specific user using keyset pagination.
      * <p>
-     * A lightweight {@link UserEntity} instance is created containing only the ID,
-     * allowing Spring Data JPA to perform the lookup without loading the full entity.
+     * The user is filtered by its foreign key, so the user entity is never loaded.
      *
      * @param userId The ID of the user whose orders are to be retrieved.
-     * @return Iterable collection of domain orders for the user.
+     * @param after  The position after which the page starts, or {@code null} for the first page.
+     * @param limit  The maximum number of orders to return.
+     * @return The domain orders of the page for the user.
      */
     @Override
-    public Iterable<Order> findByUserId(Integer userId) {
-        UserEntity userEntity = new UserEntity();
-        userEntity.setId(userId);
-        return iOrderMapper.toOrders(iOrderCrudRepository.findByUserEntity(userEntity));
+    @Transactional(readOnly = true)
+    public List<Order> findByUserId(Integer userId, OrderCursor after, int limit) {
+        List<Integer> ids = after == null
+                ? iOrderCrudRepository.findFirstPageIdsByUserId(userId, Limit.of(limit))
+                : iOrderCrudRepository.findPageIdsAfterByUserId(
+                        userId, after.getDateCreated(), after.getId(), Limit.of(limit));
+        return loadPage(ids);
     }
 
     /**
-     * Updates the processing state of an order.
+     * Retrieves a page of order summaries using keyset pagination.
      * <p>
-     * The provided string is converted to the corresponding {@link OrderState}
-     * enum before delegating the update to the underlying JPA repository.
+     * The page is read from the {@code order_summary} table alone.
      *
-     * @param id    The ID of the order to update.
-     * @param state The new state as a string matching the {@link OrderState} values.
+     * @param after The position after which the page starts, or {@code null} for the first page.
+     * @param limit The maximum number of summaries to return.
+     * @return The domain summaries of the page.
      */
     @Override
-    public void updateStateById(Integer id, String state) {
-        OrderState orderState = OrderState.valueOf(state);
-        iOrderCrudRepository.updateStateById(id, orderState);
+    @Transactional(readOnly = true)
+    public List<OrderSummary> findSummaries(OrderCursor after, int limit) {
+        return iOrderSummaryMapper.toOrderSummaries(after == null
+                ? iOrderSummaryCrudRepository.findFirstPage(Limit.of(limit))
+                : iOrderSummaryCrudRepository.findPageAfter(after.getDateCreated(), after.getId(), Limit.of(limit)));
     }
+
+    /**
+     * Retrieves a page of the order summaries of a specific user using keyset pagination.
+     *
+     * @param userId The ID of the user whose order summaries are to be retrieved.
+     * @param after  The position after which the page starts, or {@code null} for the first page.
+     * @param limit  The maximum number of summaries to return.
+     * @return The domain summaries of the page for the user.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderSummary> findSummariesByUserId(Integer userId, OrderCursor after, int limit) {
+        return iOrderSummaryMapper.toOrderSummaries(after == null
+                ? iOrderSummaryCrudRepository.findFirstPageByUserId(userId, Limit.of(limit))
+                : iOrderSummaryCrudRepository.findPageAfterByUserId(
+                        userId, after.getDateCreated(), after.getId(), Limit.of(limit)));
+    }
+
+    /**
+     * Reads every order matching the filters through a forward-only cursor.
+     * <p>
+     * The driver fetches {@link #SCROLL_WINDOW_SIZE} rows per round trip (PostgreSQL
+     * only honors the fetch size inside a transaction). The order products of each
+     * window of orders are loaded with a single query, then the window is mapped,
+     * handed to the consumer and evicted from the persistence context, which keeps
+     * the memory used constant whatever the number of orders.
+     *
+     * @param state    The state the orders must have, or {@code null} for any state.
+     * @param dateFrom Lower bound (inclusive) of the creation date, or {@code null} for no bound.
+     * @param dateTo   Upper bound (exclusive) of the creation date, or {@code null} for no bound.
+     * @param consumer The action applied to each domain order.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachOrder(OrderState state, LocalDateTime dateFrom, LocalDateTime dateTo,
+                             Consumer<Order> consumer) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderEntity> query = criteriaBuilder.createQuery(OrderEntity.class);
+        Root<OrderEntity> order = query.from(OrderEntity.class);
+        List<Predicate> predicates = new ArrayList<>();
+        if (state != null) {
+            predicates.add(criteriaBuilder.equal(order.get("orderState"), state));
+        }
+        if (dateFrom != null) {
+            predicates.add(criteriaBuilder.greaterThanOrEqualTo(order.get("dateCreated"), dateFrom));
+        }
+        if (dateTo != null) {
+            predicates.add(criteriaBuilder.lessThan(order.get("dateCreated"), dateTo));
+        }
+        query.where(predicates.toArray(Predicate[]::new))
+                .orderBy(criteriaBuilder.asc(order.get("dateCreated")), criteriaBuilder.asc(order.get("id")));
+
+        try (ScrollableResults<OrderEntity> results = entityManager.unwrap(Session.class).createQuery(query)
+                .setFetchSize(SCROLL_WINDOW_SIZE)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            List<OrderEntity> window = new ArrayList<>(SCROLL_WINDOW_SIZE);
+            while (results.next()) {
+                window.add(results.get());
+                if (window.size() == SCROLL_WINDOW_SIZE) {
+                    consumeWindow(window, consumer);
+                }
+            }
+            consumeWindow(window, consumer);
+        }
+    }
+
+    /**
+     * Retrieves the current state of an order.
+     *
+     * @param id The ID of the order.
+     * @return The current state, or {@code null} if the order does not exist.
+     */
+    @Override
+    public OrderState findStateById(Integer id) {
+        return iOrderCrudRepository.findStateById(id).orElse(null);
+    }
+
+    /**
+     * Moves an order from an expected state to a new one with a conditional update.
+     * <p>
+     * The summary of the order is only updated, and the event only recorded, when the
+     * transition was applied.
+     *
+     * @param id       The ID of the order to update.
+     * @param expected The state the order must currently have.
+     * @param state    The new state to be applied.
+     * @return {@code true} if the state was changed.
+     */
+    @Override
+    @Transactional
+    public boolean compareAndSetState(Integer id, OrderState expected, OrderState state) {
+        if (iOrderCrudRepository.compareAndSetState(id, expected, state) != 1) {
+            return false;
+        }
+        iOrderSummaryCrudRepository.updateStateByIdIn(List.of(id), state);
+        iOrderEventCrudRepository.save(toOrderEventEntity(id, OrderEventType.STATE_CHANGED, state));
+        return true;
+    }
+
+    /**
+     * Applies a new state to the given orders.
+     * <p>
+     * Only orders in one of the states allowed to reach the new state are changed, with
+     * a single statement that locks them, updates them and returns the state each of
+     * them had, whatever the number of states the new one can be reached from.
+     *
+     * @param ids   The IDs of the orders to update.
+     * @param state The new state to be applied.
+     * @return The previous state of every order whose state was changed, by ID.
+     */
+    @Override
+    @Transactional
+    public Map<Integer, OrderState> updateStateByIds(Collection<Integer> ids, OrderState state) {
+        Set<OrderState> sourceStates = state.previousStates();
+        if (sourceStates.isEmpty()) {
+            return Map.of();
+        }
+        Session session = entityManager.unwrap(Session.class);
+        // The statement bypasses Hibernate, so pending changes must reach the database first
+        session.flush();
+        Map<Integer, OrderState> previousStates = session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_STATE_RETURNING_PREVIOUS_SQL)) {
+                statement.setString(1, state.name());
+                statement.setArray(2, connection.createArrayOf("integer", ids.toArray()));
+                statement.setArray(3, connection.createArrayOf("varchar", sourceStates.stream().map(Enum::name).toArray()));
+                Map<Integer, OrderState> updated = new HashMap<>();
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        updated.put(rows.getInt(1), OrderState.valueOf(rows.getString(2)));
+                    }
+                }
+                return updated;
+            }
+        });
+        applyStateChange(List.copyOf(previousStates.keySet()), state);
+        return previousStates;
+    }
+
+    /**
+     * Applies a new state to the given orders that currently have the expected state,
+     * with a single conditional UPDATE that returns the IDs of the rows it modified.
+     *
+     * @param ids      The IDs of the orders to update.
+     * @param expected The state the orders must currently have.
+     * @param state    The new state to be applied.
+     * @return The IDs of the orders whose state was changed.
+     */
+    @Override
+    @Transactional
+    public List<Integer> updateStateByIds(Collection<Integer> ids, OrderState expected, OrderState state) {
+        if (!expected.canTransitionTo(state)) {
+            return List.of();
+        }
+        return updateStateReturningIds(UPDATE_STATE_BY_IDS_SQL, state, (connection, statement) -> {
+            statement.setArray(2, connection.createArrayOf("integer", ids.toArray()));
+            statement.setArray(3, connection.createArrayOf("varchar", new Object[]{expected.name()}));
+        });
+    }
+
+    /**
+     * Applies a new state to, at most, {@code limit} orders matching the filter.
+     * <p>
+     * The orders are chosen and updated by the same statement. The filter is checked
+     * again on every row being updated, so an order changed concurrently after being
+     * chosen is skipped instead of being moved from a state other than the expected one.
+     *
+     * @param currentState The state the orders must currently have.
+     * @param dateFrom     Lower bound (inclusive) of the creation date.
+     * @param dateTo       Upper bound (exclusive) of the creation date.
+     * @param state        The new state to be applied.
+     * @param limit        The maximum number of orders to update.
+     * @return The IDs of the orders whose state was changed.
+     */
+    @Override
+    @Transactional
+    public List<Integer> updateStateByFilter(OrderState currentState, LocalDateTime dateFrom, LocalDateTime dateTo,
+                                             OrderState state, int limit) {
+        return updateStateReturningIds(UPDATE_STATE_BY_FILTER_SQL, state, (connection, statement) -> {
+            statement.setString(2, currentState.name());
+            statement.setObject(3, dateFrom);
+            statement.setObject(4, dateTo);
+            statement.setString(5, currentState.name());
+            statement.setObject(6, dateFrom);
+            statement.setObject(7, dateTo);
+            statement.setInt(8, limit);
+        });
+    }
+
+    /**
+     * Runs a conditional update of the state of the orders, whose first parameter is the
+     * new state, and applies the change to the summaries and the outbox of the orders
+     * actually modified.
+     * <p>
+     * The statement is sent through JDBC asking for the generated {@code id} column, which
+     * the PostgreSQL driver turns into a {@code RETURNING id} clause: the modified IDs come
+     * back with the update itself, without locking the rows beforehand in another round trip.
+     *
+     * @param sql    The UPDATE statement.
+     * @param state  The new state to be applied.
+     * @param binder Binds the rest of the parameters of the statement.
+     * @return The IDs of the orders whose state was changed.
+     */
+    private List<Integer> updateStateReturningIds(String sql, OrderState state, StatementBinder binder) {
+        Session session = entityManager.unwrap(Session.class);
+        // The statement bypasses Hibernate, so pending changes must reach the database first
+        session.flush();
+        List<Integer> updatedIds = session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql, new String[]{"id"})) {
+                statement.setString(1, state.name());
+                binder.bind(connection, statement);
+                statement.executeUpdate();
+                List<Integer> ids = new ArrayList<>();
+                try (ResultSet generatedIds = statement.getGeneratedKeys()) {
+                    while (generatedIds.next()) {
+                        ids.add(generatedIds.getInt(1));
+                    }
+                }
+                return ids;
+            }
+        });
+        applyStateChange(updatedIds, state);
+        return updatedIds;
+    }
+
+    /**
+     * Applies a change of state of the orders to their summaries and records it in the outbox.
+     *
+     * @param updatedIds The IDs of the orders whose state was changed.
+     * @param state      The new state of the orders.
+     */
+    private void applyStateChange(List<Integer> updatedIds, OrderState state) {
+        if (!updatedIds.isEmpty()) {
+            iOrderSummaryCrudRepository.updateStateByIdIn(updatedIds, state);
+            iOrderEventCrudRepository.saveAll(updatedIds.stream()
+                    .map(id -> toOrderEventEntity(id, OrderEventType.STATE_CHANGED, state))
+                    .toList());
+        }
+    }
+
+    /**
+     * Maps a domain order to its entity, assigning the parent {@link OrderEntity}
+     * reference to each contained {@code OrderProductEntity}.
+     *
+     * @param order Domain model to be mapped.
+     * @return The entity ready to be persisted.
+     */
+    private OrderEntity toOrderEntity(Order order) {
+        OrderEntity orderEntity = iOrderMapper.toOrderEntity(order);
+
+        // Set bidirectional relationship for JPA
+        orderEntity.getOrderProducts().forEach(
+                orderProductEntity -> orderProductEntity.setOrderEntity(orderEntity)
+        );
+        return orderEntity;
+    }
+
+    /**
+     * Builds the summary of a persisted order.
+     *
+     * @param order The persisted order, with its generated identifier and creation date.
+     * @param isNew Whether the order has just been created, so its summary must be inserted.
+     * @return The summary entity ready to be persisted.
+     */
+    private OrderSummaryEntity toOrderSummaryEntity(Order order, boolean isNew) {
+        OrderSummaryEntity orderSummaryEntity = new OrderSummaryEntity();
+        orderSummaryEntity.setId(order.getId());
+        orderSummaryEntity.setUserId(order.getUserId());
+        orderSummaryEntity.setOrderState(order.getOrderState());
+        orderSummaryEntity.setLineCount(order.getOrderProducts().size());
+        orderSummaryEntity.setTotalPrice(order.getTotalOrderPrice().toBigDecimal());
+        orderSummaryEntity.setDateCreated(order.getDateCreated());
+        orderSummaryEntity.setNew(isNew);
+        return orderSummaryEntity;
+    }
+
+    /**
+     * Builds the outbox event of a change to an order.
+     *
+     * @param orderId    The ID of the changed order.
+     * @param eventType  The kind of change.
+     * @param orderState The state of the order after the change.
+     * @return The event entity ready to be persisted.
+     */
+    private OrderEventEntity toOrderEventEntity(Integer orderId, OrderEventType eventType, OrderState orderState) {
+        OrderEventEntity orderEventEntity = new OrderEventEntity();
+        orderEventEntity.setOrderId(orderId);
+        orderEventEntity.setEventType(eventType);
+        orderEventEntity.setOrderState(orderState);
+        return orderEventEntity;
+    }
+
+    /**
+     * Initializes the order products of a window of scrolled orders with a single query,
+     * hands the mapped orders to the consumer and evicts them from the persistence context.
+     *
+     * @param window   The managed orders read from the cursor; emptied on return.
+     * @param consumer The action applied to each domain order.
+     */
+    private void consumeWindow(List<OrderEntity> window, Consumer<Order> consumer) {
+        if (window.isEmpty()) {
+            return;
+        }
+        // The fetch join initializes the collections of the orders already in the persistence context.
+        // The window is sorted by creation date, so its bounds restrict the query to their partitions.
+        iOrderCrudRepository.findAllWithOrderProductsByIdInAndDateCreatedBetween(
+                window.stream().map(OrderEntity::getId).toList(),
+                window.getFirst().getDateCreated(), window.getLast().getDateCreated());
+        window.forEach(orderEntity -> consumer.accept(iOrderMapper.toOrder(orderEntity)));
+        window.clear();
+        entityManager.clear();
+    }
+
+    /**
+     * Loads the orders of a page, with their order products, in a single query.
+     *
+     * @param ids The IDs of the orders of the page, as returned by a keyset query.
+     * @return The domain orders of the page.
+     */
+    private List<Order> loadPage(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return iOrderMapper.toOrderList(iOrderCrudRepository.findAllWithOrderProductsByIdIn(ids));
+    }
+
+    /**
+     * Binds the parameters of a JDBC statement, which may need the connection to create arrays.
+     */
+    @FunctionalInterface
+    private interface StatementBinder {
+
+        void bind(Connection connection, PreparedStatement statement) throws SQLException;
+
+    }
+
 }
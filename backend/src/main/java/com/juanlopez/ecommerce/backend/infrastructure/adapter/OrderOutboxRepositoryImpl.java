@@ -0,0 +1,60 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.domain.model.OrderEvent;
+import com.juanlopez.ecommerce.backend.domain.port.IOrderOutboxRepository;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.OrderEventEntity;
+import com.juanlopez.ecommerce.backend.infrastructure.mapper.IOrderEventMapper;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Infrastructure adapter implementing the {@link IOrderOutboxRepository} port on the
+ * {@code order_events} table, which {@link OrderCrudRepositoryImpl} writes to.
+ */
+@Repository
+public class OrderOutboxRepositoryImpl implements IOrderOutboxRepository {
+
+    private final IOrderEventCrudRepository iOrderEventCrudRepository;
+    private final IOrderEventMapper iOrderEventMapper;
+
+    /**
+     * Constructs the repository adapter with its required dependencies.
+     *
+     * @param iOrderEventCrudRepository Spring Data JPA repository for the outbox rows.
+     * @param iOrderEventMapper         Mapper converting the outbox rows into domain events.
+     */
+    public OrderOutboxRepositoryImpl(IOrderEventCrudRepository iOrderEventCrudRepository,
+                                     IOrderEventMapper iOrderEventMapper) {
+        this.iOrderEventCrudRepository = iOrderEventCrudRepository;
+        this.iOrderEventMapper = iOrderEventMapper;
+    }
+
+    /**
+     * Locks the next batch of events, publishes it and deletes it, in a single transaction.
+     * <p>
+     * The rows stay locked while the publisher runs; if it throws, the transaction is
+     * rolled back and the events are published again by a later call. If the commit
+     * fails after a successful publication, the events are published twice, which is
+     * why delivery is at least once.
+     *
+     * @param batchSize The maximum number of events to publish.
+     * @param publisher The action delivering the events.
+     * @return The number of events published.
+     */
+    @Override
+    @Transactional
+    public int publishNextBatch(int batchSize, Consumer<List<OrderEvent>> publisher) {
+        List<OrderEventEntity> batch = iOrderEventCrudRepository.lockNextBatch(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        publisher.accept(iOrderEventMapper.toOrderEvents(batch));
+        iOrderEventCrudRepository.deleteByIdIn(batch.stream().map(OrderEventEntity::getId).toList());
+        return batch.size();
+    }
+
+}
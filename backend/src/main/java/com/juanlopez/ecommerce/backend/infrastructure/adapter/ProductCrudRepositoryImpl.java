@@ -1,9 +1,34 @@
 package com.juanlopez.ecommerce.backend.infrastructure.adapter;
 
 import com.juanlopez.ecommerce.backend.domain.model.Product;
+import com.juanlopez.ecommerce.backend.domain.model.ProductCursor;
+import com.juanlopez.ecommerce.backend.domain.model.ProductFilter;
+import com.juanlopez.ecommerce.backend.domain.model.ProductSort;
 import com.juanlopez.ecommerce.backend.domain.port.IProductRepository;
+import com.juanlopez.ecommerce.backend.infrastructure.adapter.IProductCrudRepository.ProductListing;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.ProductEntity;
 import com.juanlopez.ecommerce.backend.infrastructure.mapper.IProductMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * Infrastructure adapter that implements the domain {@link IProductRepository} port.
@@ -13,23 +38,40 @@ import org.springframework.stereotype.Repository;
  * {@link IProductMapper} to map between domain models and JPA entities, ensuring a clear
  * separation of concerns in alignment with the hexagonal architecture.
  * <p>
+ * Every write also keeps the per-category product counters up to date, in the same
+ * transaction, through {@link ICategoryProductCountCrudRepository}.
+ * <p>
  * This class is registered as a Spring {@code @Repository} component.
  */
 @Repository
 public class ProductCrudRepositoryImpl implements IProductRepository {
 
+    /**
+     * Number of products read from the database per round trip, and released from the
+     * persistence context at once, while iterating over the whole catalog.
+     */
+    private static final int SCROLL_WINDOW_SIZE = 1000;
+
     private final IProductCrudRepository iProductCrudRepository;
     private final IProductMapper iProductMapper;
+    private final EntityManager entityManager;
+    private final ICategoryProductCountCrudRepository iCategoryProductCountCrudRepository;
 
     /**
      * Constructs a new repository implementation.
      *
      * @param iProductCrudRepository the Spring Data CRUD repository for products
      * @param iProductMapper the mapper responsible for converting between domain and entity models
+     * @param entityManager the entity manager used for the queries that need a scrollable cursor
+     * @param iCategoryProductCountCrudRepository the repository of the per-category product counters
      */
-    public ProductCrudRepositoryImpl(IProductCrudRepository iProductCrudRepository, IProductMapper iProductMapper) {
+    public ProductCrudRepositoryImpl(IProductCrudRepository iProductCrudRepository, IProductMapper iProductMapper,
+                                     EntityManager entityManager,
+                                     ICategoryProductCountCrudRepository iCategoryProductCountCrudRepository) {
         this.iProductCrudRepository = iProductCrudRepository;
         this.iProductMapper = iProductMapper;
+        this.entityManager = entityManager;
+        this.iCategoryProductCountCrudRepository = iCategoryProductCountCrudRepository;
     }
 
     /**
@@ -37,13 +79,24 @@ public class ProductCrudRepositoryImpl implements IProductRepository {
      * <p>
      * The product is first converted into a {@link com.juanlopez.ecommerce.backend.infrastructure.entity.ProductEntity},
      * persisted using the Spring Data repository, and then mapped back to its domain representation.
+     * <p>
+     * An existing product is locked first, so the category counters are moved from the
+     * category it was counted in to the one it is counted in now, if they differ.
      *
      * @param product the domain product to save
      * @return the saved product mapped back to the domain model
      */
     @Override
+    @Transactional
     public Product save(Product product) {
-        return iProductMapper.toProduct(iProductCrudRepository.save(iProductMapper.toProductEntity(product)));
+        Integer previousCategoryId = product.getId() == null ? null
+                : iProductCrudRepository.lockListingById(product.getId()).map(ProductCrudRepositoryImpl::countedCategoryId)
+                .orElse(null);
+        ProductEntity savedEntity = iProductCrudRepository.save(iProductMapper.toProductEntity(product));
+        Integer categoryId = savedEntity.getCategoryEntity() == null ? null : savedEntity.getCategoryEntity().getId();
+        moveCount(previousCategoryId,
+                countedCategoryId(categoryId, savedEntity.getName(), savedEntity.getPrice()));
+        return iProductMapper.toProduct(savedEntity);
     }
 
     /**
@@ -72,21 +125,238 @@ public class ProductCrudRepositoryImpl implements IProductRepository {
         ));
     }
 
+    /**
+     * Finds a product by its unique code, through the unique index on {@code code}.
+     *
+     * @param code the product code
+     * @return the corresponding domain {@link Product}
+     * @throws RuntimeException if no product has the given code
+     */
+    @Override
+    public Product findByCode(String code) {
+        return iProductMapper.toProduct(iProductCrudRepository.findByCode(code).orElseThrow(
+                () -> new RuntimeException("Producto con código:" + code + " no existe.")
+        ));
+    }
+
+    /**
+     * Finds several products by their codes with a single {@code IN} query.
+     *
+     * @param codes the product codes
+     * @return each existing product, keyed by code
+     */
+    @Override
+    public Map<String, Product> findByCodes(Collection<String> codes) {
+        if (codes.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Product> products = new HashMap<>();
+        iProductCrudRepository.findByCodeIn(codes)
+                .forEach(productEntity -> products.put(productEntity.getCode(), iProductMapper.toProduct(productEntity)));
+        return products;
+    }
+
+    /**
+     * Retrieves the ID of every product with a code, reading only those two columns.
+     *
+     * @return the product IDs, keyed by code
+     */
+    @Override
+    public Map<String, Integer> findIdsByCode() {
+        Map<String, Integer> ids = new HashMap<>();
+        iProductCrudRepository.findAllCodes().forEach(productCode -> ids.put(productCode.getCode(), productCode.getId()));
+        return ids;
+    }
+
+    /**
+     * Reads every product through a forward-only cursor.
+     * <p>
+     * The driver fetches {@link #SCROLL_WINDOW_SIZE} rows per round trip (PostgreSQL only
+     * honors the fetch size inside a transaction), and the persistence context is cleared
+     * after each window, so the memory used stays constant whatever the catalog size.
+     *
+     * @param consumer the action applied to each domain product
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachProduct(Consumer<Product> consumer) {
+        try (ScrollableResults<ProductEntity> results = entityManager.unwrap(Session.class)
+                .createQuery("SELECT p FROM ProductEntity p ORDER BY p.id", ProductEntity.class)
+                .setFetchSize(SCROLL_WINDOW_SIZE)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            int read = 0;
+            while (results.next()) {
+                consumer.accept(iProductMapper.toProduct(results.get()));
+                if (++read % SCROLL_WINDOW_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves a page of the products matching a filter with a single keyset query.
+     * <p>
+     * The filters and the seek predicate are combined into one {@link Specification},
+     * and the result is sorted by the key of the ordering and the ID, so the database
+     * walks one of the indexes declared on {@link ProductEntity} from the cursor
+     * position and stops after {@code limit} rows.
+     *
+     * @param filter the criteria the products must match
+     * @param sort   the ordering of the products
+     * @param after  the position after which the page starts, or {@code null} for the first page
+     * @param limit  the maximum number of products to return
+     * @return the products of the page, in the requested order
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> findPage(ProductFilter filter, ProductSort sort, ProductCursor after, int limit) {
+        Specification<ProductEntity> specification = matching(filter);
+        if (after != null) {
+            specification = specification.and(after(after));
+        }
+        List<ProductEntity> page = iProductCrudRepository.findBy(specification,
+                query -> query.sortBy(toSort(sort)).limit(limit).all());
+        return page.stream().map(iProductMapper::toProduct).toList();
+    }
+
+    /**
+     * Retrieves the current prices of several products with a single {@code IN} query.
+     *
+     * @param ids the product IDs
+     * @return the price of each existing product, keyed by ID
+     */
+    @Override
+    public Map<Integer, BigDecimal> findPricesByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Integer, BigDecimal> prices = new HashMap<>();
+        iProductCrudRepository.findPricesByIdIn(ids)
+                .forEach(productPrice -> prices.put(productPrice.getId(), productPrice.getPrice()));
+        return prices;
+    }
+
     /**
      * Deletes a product by its unique identifier.
      * <p>
-     * Before deletion, the method verifies that the product exists in the database.
+     * Before deletion, the method locks the product, verifying that it exists in the database.
      * If no product is found with the given ID, a {@link RuntimeException} is thrown.
+     * The counter of the category it was counted in is decremented.
      *
      * @param id the identifier of the product to delete
      * @throws RuntimeException if the product does not exist
      */
     @Override
+    @Transactional
     public void deleteById(Integer id) {
         // Validate that the product exists before deleting
-        iProductCrudRepository.findById(id).orElseThrow(
+        ProductListing listing = iProductCrudRepository.lockListingById(id).orElseThrow(
                 () -> new RuntimeException("Producto con Id:" + id + " no existe.")
         );
         iProductCrudRepository.deleteById(id);
+        moveCount(countedCategoryId(listing), null);
+    }
+
+    /**
+     * Moves one product from the counter of a category to the counter of another.
+     * <p>
+     * Counters are always updated in ascending category ID order, so two transactions
+     * moving products between the same categories in opposite directions cannot deadlock.
+     *
+     * @param fromCategoryId the category the product was counted in, or {@code null} if none
+     * @param toCategoryId   the category the product is counted in now, or {@code null} if none
+     */
+    private void moveCount(Integer fromCategoryId, Integer toCategoryId) {
+        if (Objects.equals(fromCategoryId, toCategoryId)) {
+            return;
+        }
+        if (fromCategoryId != null && (toCategoryId == null || fromCategoryId < toCategoryId)) {
+            iCategoryProductCountCrudRepository.add(fromCategoryId, -1);
+            fromCategoryId = null;
+        }
+        if (toCategoryId != null) {
+            iCategoryProductCountCrudRepository.add(toCategoryId, 1);
+        }
+        if (fromCategoryId != null) {
+            iCategoryProductCountCrudRepository.add(fromCategoryId, -1);
+        }
+    }
+
+    private static Integer countedCategoryId(ProductListing listing) {
+        return countedCategoryId(listing.getCategoryId(), listing.getName(), listing.getPrice());
+    }
+
+    /**
+     * Returns the category a product is counted in: its own category, only if the product is listable.
+     */
+    private static Integer countedCategoryId(Integer categoryId, String name, BigDecimal price) {
+        return name != null && price != null ? categoryId : null;
+    }
+
+    /**
+     * Builds the predicate of the filter criteria, restricted to listable products.
+     */
+    private static Specification<ProductEntity> matching(ProductFilter filter) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(criteriaBuilder.isNotNull(root.get("name")));
+            predicates.add(criteriaBuilder.isNotNull(root.get("price")));
+            if (filter.getCategoryId() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("categoryEntity").get("id"), filter.getCategoryId()));
+            }
+            if (filter.getMinPrice() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("price"), filter.getMinPrice()));
+            }
+            if (filter.getMaxPrice() != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("price"), filter.getMaxPrice()));
+            }
+            if (filter.getName() != null) {
+                String prefix = filter.getName().toLowerCase(Locale.ROOT)
+                        .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), prefix + "%", '\\'));
+            }
+            return criteriaBuilder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Builds the seek predicate selecting the products placed after the cursor.
+     */
+    private static Specification<ProductEntity> after(ProductCursor after) {
+        return (root, query, criteriaBuilder) -> {
+            Path<Integer> id = root.get("id");
+            return switch (after.getSort()) {
+                case NEWEST -> criteriaBuilder.lessThan(id, after.getId());
+                case PRICE_ASC -> seekAscending(criteriaBuilder, root.get("price"), after.getPrice(), id, after.getId());
+                case PRICE_DESC -> seekDescending(criteriaBuilder, root.get("price"), after.getPrice(), id, after.getId());
+                case NAME_ASC -> seekAscending(criteriaBuilder, root.get("name"), after.getName(), id, after.getId());
+            };
+        };
     }
+
+    private static <T extends Comparable<? super T>> Predicate seekAscending(CriteriaBuilder criteriaBuilder,
+                                                                             Path<T> key, T value,
+                                                                             Path<Integer> id, Integer lastId) {
+        return criteriaBuilder.or(criteriaBuilder.greaterThan(key, value),
+                criteriaBuilder.and(criteriaBuilder.equal(key, value), criteriaBuilder.greaterThan(id, lastId)));
+    }
+
+    private static <T extends Comparable<? super T>> Predicate seekDescending(CriteriaBuilder criteriaBuilder,
+                                                                              Path<T> key, T value,
+                                                                              Path<Integer> id, Integer lastId) {
+        return criteriaBuilder.or(criteriaBuilder.lessThan(key, value),
+                criteriaBuilder.and(criteriaBuilder.equal(key, value), criteriaBuilder.lessThan(id, lastId)));
+    }
+
+    private static Sort toSort(ProductSort sort) {
+        return switch (sort) {
+            case NEWEST -> Sort.by(Sort.Direction.DESC, "id");
+            case PRICE_ASC -> Sort.by(Sort.Direction.ASC, "price", "id");
+            case PRICE_DESC -> Sort.by(Sort.Direction.DESC, "price", "id");
+            case NAME_ASC -> Sort.by(Sort.Direction.ASC, "name", "id");
+        };
+    }
+
 }
@@ -0,0 +1,189 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.domain.model.ProductImportRow;
+import com.juanlopez.ecommerce.backend.domain.model.ProductMergeResult;
+import com.juanlopez.ecommerce.backend.domain.port.IProductImportRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * PostgreSQL implementation of {@link IProductImportRepository}.
+ * <p>
+ * Rows are staged in the unlogged {@code product_import_rows} table (see the {@code V11}
+ * migration) with {@code COPY ... FROM STDIN}, streamed through the driver, which is
+ * much cheaper than a batch of {@code INSERT} statements. The merge then runs two
+ * statements over the staged rows: an {@code UPDATE} of the products whose code exists
+ * and whose data differs, and an {@code INSERT} of the rest.
+ * <p>
+ * Since a merge can move any number of products between categories, the per-category
+ * product counters are recomputed at its end, in the same transaction, instead of being
+ * adjusted row by row.
+ */
+@Repository
+public class ProductImportRepositoryImpl implements IProductImportRepository {
+
+    /**
+     * Number of IDs reserved by each value of {@code products_seq}, the allocation size
+     * of {@link com.juanlopez.ecommerce.backend.infrastructure.entity.ProductEntity}: with
+     * the pooled-lo optimizer, a value {@code v} reserves the IDs {@code [v, v + 49]}.
+     */
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String COPY_ROWS = """
+            COPY product_import_rows (import_id, line, code, name, description, url_image, price, category_id)
+            FROM STDIN WITH (FORMAT csv)""";
+
+    /**
+     * The staged rows of the import, keeping the last line of each code.
+     */
+    private static final String LATEST_ROWS = """
+            SELECT DISTINCT ON (code) code, name, description, url_image, price, category_id
+            FROM product_import_rows
+            WHERE import_id = :importId
+            ORDER BY code, line DESC""";
+
+    private final EntityManager entityManager;
+    private final ICategoryProductCountCrudRepository iCategoryProductCountCrudRepository;
+
+    /**
+     * Constructs the adapter.
+     *
+     * @param entityManager                       the entity manager whose connection runs the statements
+     * @param iCategoryProductCountCrudRepository the repository of the per-category product counters
+     */
+    public ProductImportRepositoryImpl(EntityManager entityManager,
+                                       ICategoryProductCountCrudRepository iCategoryProductCountCrudRepository) {
+        this.entityManager = entityManager;
+        this.iCategoryProductCountCrudRepository = iCategoryProductCountCrudRepository;
+    }
+
+    /**
+     * Stages a chunk of rows with a single {@code COPY} command, writing them as CSV.
+     *
+     * @param importId the identifier of the import
+     * @param rows     the rows to stage
+     */
+    @Override
+    @Transactional
+    public void stage(UUID importId, List<ProductImportRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(pgConnection, COPY_ROWS), StandardCharsets.UTF_8))) {
+                for (ProductImportRow row : rows) {
+                    writer.write(importId.toString());
+                    writer.write(',');
+                    writer.write(Long.toString(row.getLine()));
+                    writer.write(',');
+                    writeText(writer, row.getCode());
+                    writer.write(',');
+                    writeText(writer, row.getName());
+                    writer.write(',');
+                    writeText(writer, row.getDescription());
+                    writer.write(',');
+                    writeText(writer, row.getUrlImage());
+                    writer.write(',');
+                    writer.write(row.getPrice().toPlainString());
+                    writer.write(',');
+                    writer.write(row.getCategoryId().toString());
+                    writer.write('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Merges the staged rows into {@code products}.
+     * <p>
+     * Existing products are updated first, skipping those whose data does not change so
+     * an unchanged row leaves no dead tuple behind. New products then get their IDs from
+     * {@code products_seq} in blocks of {@link #ID_BLOCK_SIZE}, as Hibernate does, so the
+     * IDs handed out by either side never collide. The category counters are recomputed
+     * last, after every product row the merge writes is already locked.
+     */
+    @Override
+    @Transactional
+    public ProductMergeResult merge(UUID importId, Integer userId) {
+        long distinctCodes = ((Number) entityManager.createNativeQuery(
+                        "SELECT COUNT(DISTINCT code) FROM product_import_rows WHERE import_id = :importId")
+                .setParameter("importId", importId)
+                .getSingleResult()).longValue();
+
+        int updated = entityManager.createNativeQuery("""
+                        UPDATE products p
+                        SET name = r.name, description = r.description, url_image = r.url_image, price = r.price,
+                            category_entity_id = r.category_id, date_updated = LOCALTIMESTAMP
+                        FROM (%s) r
+                        WHERE p.code = r.code
+                          AND (p.name, p.description, p.url_image, p.price, p.category_entity_id)
+                              IS DISTINCT FROM (r.name, r.description, r.url_image, r.price, r.category_id)"""
+                        .formatted(LATEST_ROWS))
+                .setParameter("importId", importId)
+                .executeUpdate();
+
+        int created = entityManager.createNativeQuery("""
+                        WITH new_rows AS (
+                            SELECT r.*, ROW_NUMBER() OVER (ORDER BY r.code) - 1 AS n
+                            FROM (%s) r
+                            WHERE NOT EXISTS (SELECT 1 FROM products p WHERE p.code = r.code)
+                        ), id_blocks AS (
+                            SELECT b, nextval('products_seq') AS first_id
+                            FROM generate_series(0, (SELECT (COUNT(*) + :blockSize - 1) / :blockSize - 1 FROM new_rows)) b
+                        )
+                        INSERT INTO products (id, code, name, description, url_image, price, category_entity_id,
+                                              user_entity_id, date_created, date_updated)
+                        SELECT CAST(ib.first_id + nr.n %% :blockSize AS INTEGER), nr.code, nr.name, nr.description,
+                               nr.url_image, nr.price, nr.category_id, :userId, LOCALTIMESTAMP, LOCALTIMESTAMP
+                        FROM new_rows nr
+                        JOIN id_blocks ib ON ib.b = nr.n / :blockSize"""
+                        .formatted(LATEST_ROWS))
+                .setParameter("importId", importId)
+                .setParameter("blockSize", ID_BLOCK_SIZE)
+                .setParameter("userId", userId)
+                .executeUpdate();
+
+        if (updated + created > 0) {
+            iCategoryProductCountCrudRepository.reconcile();
+        }
+        return new ProductMergeResult(created, updated, distinctCodes - created - updated);
+    }
+
+    @Override
+    @Transactional
+    public void discard(UUID importId) {
+        entityManager.createNativeQuery("DELETE FROM product_import_rows WHERE import_id = :importId")
+                .setParameter("importId", importId)
+                .executeUpdate();
+    }
+
+    /**
+     * Writes a value as a quoted CSV field, or as an empty unquoted field for {@code NULL}.
+     */
+    private static void writeText(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+}
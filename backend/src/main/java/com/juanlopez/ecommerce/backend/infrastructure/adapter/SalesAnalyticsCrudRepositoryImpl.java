@@ -0,0 +1,73 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.domain.model.DailySales;
+import com.juanlopez.ecommerce.backend.domain.model.Money;
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.model.ProductSales;
+import com.juanlopez.ecommerce.backend.domain.port.ISalesAnalyticsRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link ISalesAnalyticsRepository} using Spring Data JPA.
+ * <p>
+ * Daily sales and order counts are aggregated from the {@code order_summary} read
+ * model, whose totals are computed like {@link com.juanlopez.ecommerce.backend.domain.model.Order#getTotalOrderPrice()};
+ * product sales are aggregated from the order lines. Each aggregate is a single
+ * {@code GROUP BY} query, so no order is loaded into memory.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class SalesAnalyticsCrudRepositoryImpl implements ISalesAnalyticsRepository {
+
+    private final IOrderCrudRepository iOrderCrudRepository;
+    private final IOrderSummaryCrudRepository iOrderSummaryCrudRepository;
+
+    /**
+     * Constructs the adapter with the given JPA repositories.
+     *
+     * @param iOrderCrudRepository        the Spring Data repository for orders and their lines
+     * @param iOrderSummaryCrudRepository the Spring Data repository for order summaries
+     */
+    public SalesAnalyticsCrudRepositoryImpl(IOrderCrudRepository iOrderCrudRepository,
+                                            IOrderSummaryCrudRepository iOrderSummaryCrudRepository) {
+        this.iOrderCrudRepository = iOrderCrudRepository;
+        this.iOrderSummaryCrudRepository = iOrderSummaryCrudRepository;
+    }
+
+    @Override
+    public List<DailySales> sumSalesByDay() {
+        return iOrderSummaryCrudRepository.sumByDay().stream()
+                .map(day -> new DailySales(day.getDate(), day.getOrderCount(), toMoney(day.getRevenue())))
+                .toList();
+    }
+
+    @Override
+    public List<ProductSales> sumSalesByProduct() {
+        return iOrderCrudRepository.sumByProduct().stream()
+                .map(product -> new ProductSales(product.getProductId(), product.getQuantity(),
+                        toMoney(product.getRevenue())))
+                .toList();
+    }
+
+    @Override
+    public Map<OrderState, Long> countOrdersByState() {
+        Map<OrderState, Long> counts = new EnumMap<>(OrderState.class);
+        iOrderSummaryCrudRepository.countByState().forEach(state -> counts.put(state.getOrderState(), state.getOrderCount()));
+        return counts;
+    }
+
+    /**
+     * Converts a summed amount, rounding the products of prices and fractional quantities to the minor unit.
+     */
+    private static Money toMoney(BigDecimal amount) {
+        return amount == null ? Money.ZERO : Money.of(amount.setScale(Money.SCALE, RoundingMode.HALF_EVEN));
+    }
+
+}
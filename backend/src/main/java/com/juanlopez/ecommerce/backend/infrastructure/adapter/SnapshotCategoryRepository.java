@@ -0,0 +1,76 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.application.CatalogSnapshot;
+import com.juanlopez.ecommerce.backend.application.CatalogSnapshotService;
+import com.juanlopez.ecommerce.backend.domain.model.Category;
+import com.juanlopez.ecommerce.backend.domain.model.CategorySummary;
+import com.juanlopez.ecommerce.backend.domain.port.ICategoryRepository;
+
+import java.util.List;
+
+/**
+ * Decorator of {@link ICategoryRepository} that serves category reads from the
+ * {@link CatalogSnapshot} published by {@link CatalogSnapshotService}.
+ * <p>
+ * Categories missing from the snapshot are looked up in the delegate. Writes, and the
+ * product counts, which are maintained by the database, go to the delegate.
+ */
+public class SnapshotCategoryRepository implements ICategoryRepository {
+
+    private final ICategoryRepository delegate;
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    /**
+     * Constructs the decorator.
+     *
+     * @param delegate               the repository that actually reads and writes the categories
+     * @param catalogSnapshotService the service publishing the snapshot
+     */
+    public SnapshotCategoryRepository(ICategoryRepository delegate, CatalogSnapshotService catalogSnapshotService) {
+        this.delegate = delegate;
+        this.catalogSnapshotService = catalogSnapshotService;
+    }
+
+    @Override
+    public Category save(Category category) {
+        return delegate.save(category);
+    }
+
+    /**
+     * Retrieves all categories from the snapshot.
+     *
+     * @return an unmodifiable list of categories, ordered by ID
+     */
+    @Override
+    public Iterable<Category> findAll() {
+        return catalogSnapshotService.snapshot().categories();
+    }
+
+    @Override
+    public List<CategorySummary> findAllWithProductCounts() {
+        return delegate.findAllWithProductCounts();
+    }
+
+    @Override
+    public int reconcileProductCounts() {
+        return delegate.reconcileProductCounts();
+    }
+
+    /**
+     * Finds a category by its ID in the snapshot, or in the delegate if it is not there.
+     *
+     * @param id the category ID
+     * @return the category
+     */
+    @Override
+    public Category findById(Integer id) {
+        Category category = catalogSnapshotService.snapshot().findCategory(id);
+        return category != null ? category : delegate.findById(id);
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        delegate.deleteById(id);
+    }
+
+}
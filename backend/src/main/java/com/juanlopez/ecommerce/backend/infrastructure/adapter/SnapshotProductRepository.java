@@ -0,0 +1,141 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.application.CatalogSnapshot;
+import com.juanlopez.ecommerce.backend.application.CatalogSnapshotService;
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+import com.juanlopez.ecommerce.backend.domain.model.ProductCursor;
+import com.juanlopez.ecommerce.backend.domain.model.ProductFilter;
+import com.juanlopez.ecommerce.backend.domain.model.ProductSort;
+import com.juanlopez.ecommerce.backend.domain.port.IProductRepository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Decorator of {@link IProductRepository} that serves product reads from the
+ * {@link CatalogSnapshot} published by {@link CatalogSnapshotService}.
+ * <p>
+ * The full product list, and lookups by ID and by code, are answered from the snapshot
+ * without going through JPA or the mapper. Products missing from it, which may have
+ * been created by another instance since the last rebuild, are looked up in the
+ * delegate. The snapshot hands out copies of its products, so callers may modify them. Pages filtered by category are filtered and sorted in memory over the
+ * products of that category; pages over the whole catalog are still served by the
+ * indexed queries of the delegate.
+ * <p>
+ * Writes go to the delegate: the snapshot is updated by the service, as a catalog
+ * listener, once the write is notified. Prices are always read from the delegate, since
+ * orders must be priced with the current ones, and so is the stream of the whole catalog
+ * used to rebuild the in-memory views.
+ */
+public class SnapshotProductRepository implements IProductRepository {
+
+    private final IProductRepository delegate;
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    /**
+     * Constructs the decorator.
+     *
+     * @param delegate               the repository that actually reads and writes the products
+     * @param catalogSnapshotService the service publishing the snapshot
+     */
+    public SnapshotProductRepository(IProductRepository delegate, CatalogSnapshotService catalogSnapshotService) {
+        this.delegate = delegate;
+        this.catalogSnapshotService = catalogSnapshotService;
+    }
+
+    @Override
+    public Product save(Product product) {
+        return delegate.save(product);
+    }
+
+    /**
+     * Retrieves all products from the snapshot.
+     *
+     * @return an unmodifiable list of products, ordered by ID
+     */
+    @Override
+    public Iterable<Product> findAll() {
+        return catalogSnapshotService.snapshot().products();
+    }
+
+    /**
+     * Finds a product by its ID in the snapshot, or in the delegate if it is not there.
+     *
+     * @param id the product ID
+     * @return the product
+     */
+    @Override
+    public Product findById(Integer id) {
+        Product product = catalogSnapshotService.snapshot().findProduct(id);
+        return product != null ? product : delegate.findById(id);
+    }
+
+    /**
+     * Finds a product by its code in the snapshot, or in the delegate if it is not there.
+     *
+     * @param code the product code
+     * @return the product
+     */
+    @Override
+    public Product findByCode(String code) {
+        Product product = catalogSnapshotService.snapshot().findProductByCode(code);
+        return product != null ? product : delegate.findByCode(code);
+    }
+
+    /**
+     * Finds several products by their codes in the delegate.
+     * <p>
+     * {@link com.juanlopez.ecommerce.backend.application.ProductService#save(Product)}
+     * checks with this lookup that a code is not taken, so it must see the codes changed
+     * by other instances, which the snapshot only learns on its next rebuild.
+     *
+     * @param codes the product codes
+     * @return each existing product, keyed by code
+     */
+    @Override
+    public Map<String, Product> findByCodes(Collection<String> codes) {
+        return delegate.findByCodes(codes);
+    }
+
+    @Override
+    public Map<String, Integer> findIdsByCode() {
+        return delegate.findIdsByCode();
+    }
+
+    @Override
+    public void forEachProduct(Consumer<Product> consumer) {
+        delegate.forEachProduct(consumer);
+    }
+
+    /**
+     * Retrieves a page of the products matching a filter: from the snapshot when the
+     * filter has a category, and from the delegate otherwise.
+     *
+     * @param filter the criteria the products must match
+     * @param sort   the ordering of the products
+     * @param after  the position after which the page starts, or {@code null} for the first page
+     * @param limit  the maximum number of products to return
+     * @return the products of the page, in the requested order
+     */
+    @Override
+    public List<Product> findPage(ProductFilter filter, ProductSort sort, ProductCursor after, int limit) {
+        if (filter.getCategoryId() == null) {
+            return delegate.findPage(filter, sort, after, limit);
+        }
+        return catalogSnapshotService.snapshot().findPage(filter, sort, after, limit);
+    }
+
+    @Override
+    public Map<Integer, BigDecimal> findPricesByIds(Collection<Integer> ids) {
+        return delegate.findPricesByIds(ids);
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        delegate.deleteById(id);
+    }
+
+}
@@ -1,15 +1,55 @@
 package com.juanlopez.ecommerce.backend.infrastructure.config;
 
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juanlopez.ecommerce.backend.application.CatalogSnapshotService;
+import com.juanlopez.ecommerce.backend.application.CatalogVersionService;
 import com.juanlopez.ecommerce.backend.application.CategoryService;
+import com.juanlopez.ecommerce.backend.application.IdempotentOrderService;
+import com.juanlopez.ecommerce.backend.application.OrderArchiveService;
+import com.juanlopez.ecommerce.backend.application.OrderEventRelayService;
+import com.juanlopez.ecommerce.backend.application.OrderPlacementService;
 import com.juanlopez.ecommerce.backend.application.OrderService;
+import com.juanlopez.ecommerce.backend.application.ProductImportService;
+import com.juanlopez.ecommerce.backend.application.ProductSearchService;
 import com.juanlopez.ecommerce.backend.application.ProductService;
+import com.juanlopez.ecommerce.backend.application.SalesAnalyticsService;
 import com.juanlopez.ecommerce.backend.application.UserService;
+import com.juanlopez.ecommerce.backend.domain.port.ICatalogChangeListener;
 import com.juanlopez.ecommerce.backend.domain.port.ICategoryRepository;
+import com.juanlopez.ecommerce.backend.domain.port.IIdempotencyKeyRepository;
+import com.juanlopez.ecommerce.backend.domain.port.IOrderArchiveRepository;
+import com.juanlopez.ecommerce.backend.domain.port.IOrderEventPublisher;
+import com.juanlopez.ecommerce.backend.domain.port.IOrderOutboxRepository;
 import com.juanlopez.ecommerce.backend.domain.port.IOrderRepository;
+import com.juanlopez.ecommerce.backend.domain.port.IProductImportRepository;
 import com.juanlopez.ecommerce.backend.domain.port.IProductRepository;
+import com.juanlopez.ecommerce.backend.domain.port.ISalesAnalyticsRepository;
 import com.juanlopez.ecommerce.backend.domain.port.IUserRepository;
+import com.juanlopez.ecommerce.backend.infrastructure.adapter.AnalyticsOrderRepository;
+import com.juanlopez.ecommerce.backend.infrastructure.adapter.CachedOrderRepository;
+import com.juanlopez.ecommerce.backend.infrastructure.adapter.CachedProductRepository;
+import com.juanlopez.ecommerce.backend.infrastructure.adapter.JsonLinesOrderEventPublisher;
+import com.juanlopez.ecommerce.backend.infrastructure.adapter.OrderCrudRepositoryImpl;
+import com.juanlopez.ecommerce.backend.infrastructure.adapter.ProductCrudRepositoryImpl;
+import com.juanlopez.ecommerce.backend.infrastructure.adapter.SnapshotCategoryRepository;
+import com.juanlopez.ecommerce.backend.infrastructure.adapter.SnapshotProductRepository;
+import com.juanlopez.ecommerce.backend.infrastructure.rest.ProductJsonCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
 
 /**
  * Spring configuration class for defining application beans.
@@ -36,40 +76,343 @@ public class BeanConfiguration {
     /**
      * Defines a {@link CategoryService} bean.
      * <p>
-     * Injects an implementation of {@link ICategoryRepository} into the service.
+     * Injects an implementation of {@link ICategoryRepository} into the service, along
+     * with every {@link ICatalogChangeListener} bean. In catalog snapshot mode, the
+     * repository is decorated so categories are read from the snapshot.
      *
-     * @param iCategoryRepository the repository to be injected into the service
+     * @param iCategoryRepository    the repository to be injected into the service
+     * @param catalogChangeListeners the listeners notified after each change to the categories
+     * @param catalogSnapshotService the service publishing the catalog snapshot, if enabled
      * @return a new instance of {@link CategoryService}
      */
     @Bean
-    public CategoryService categoryService(ICategoryRepository iCategoryRepository) {
-        return new CategoryService(iCategoryRepository);
+    public CategoryService categoryService(ICategoryRepository iCategoryRepository,
+                                           List<ICatalogChangeListener> catalogChangeListeners,
+                                           ObjectProvider<CatalogSnapshotService> catalogSnapshotService) {
+        CatalogSnapshotService snapshotService = catalogSnapshotService.getIfAvailable();
+        return new CategoryService(snapshotService == null ? iCategoryRepository
+                : new SnapshotCategoryRepository(iCategoryRepository, snapshotService),
+                notificationOrder(catalogChangeListeners));
+    }
+
+    /**
+     * Defines a {@link CatalogVersionService} bean.
+     *
+     * @param maxAge the time after which a version may no longer describe changes made by other instances
+     * @return a new instance of {@link CatalogVersionService}
+     */
+    @Bean
+    public CatalogVersionService catalogVersionService(
+            @Value("${ecommerce.catalog.versions.max-age:1m}") Duration maxAge) {
+        return new CatalogVersionService(maxAge);
     }
 
     /**
      * Defines a {@link ProductService} bean.
      * <p>
-     * Injects an implementation of {@link IProductRepository} into the service.
+     * Injects an implementation of {@link IProductRepository} into the service, along
+     * with every {@link ICatalogChangeListener} bean. In catalog snapshot mode, the
+     * repository is decorated so products are read from the snapshot.
      *
-     * @param iProductRepository the repository to be injected into the service
+     * @param iProductRepository     the repository to be injected into the service
+     * @param catalogChangeListeners the listeners notified after each change to the catalog
+     * @param catalogSnapshotService the service publishing the catalog snapshot, if enabled
      * @return a new instance of {@link ProductService}
      */
     @Bean
-    public ProductService productService(IProductRepository iProductRepository) {
-        return new ProductService(iProductRepository);
+    public ProductService productService(IProductRepository iProductRepository,
+                                         List<ICatalogChangeListener> catalogChangeListeners,
+                                         ObjectProvider<CatalogSnapshotService> catalogSnapshotService) {
+        CatalogSnapshotService snapshotService = catalogSnapshotService.getIfAvailable();
+        return new ProductService(snapshotService == null ? iProductRepository
+                : new SnapshotProductRepository(iProductRepository, snapshotService),
+                notificationOrder(catalogChangeListeners));
+    }
+
+    /**
+     * Defines a {@link CatalogSnapshotService} bean, unless the catalog snapshot mode is
+     * disabled with {@code ecommerce.catalog.snapshot.enabled}.
+     * <p>
+     * Its snapshot is built from the database on creation, before the application starts
+     * accepting requests. It reads from the JPA adapters directly, so the snapshot is
+     * never built from cached products.
+     *
+     * @param productCrudRepositoryImpl the JPA adapter the products are streamed from
+     * @param iCategoryRepository       the repository the categories are read from
+     * @return a new instance of {@link CatalogSnapshotService}
+     */
+    @Bean(initMethod = "rebuild")
+    @ConditionalOnProperty(name = "ecommerce.catalog.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+    public CatalogSnapshotService catalogSnapshotService(ProductCrudRepositoryImpl productCrudRepositoryImpl,
+                                                         ICategoryRepository iCategoryRepository) {
+        return new CatalogSnapshotService(productCrudRepositoryImpl, iCategoryRepository);
+    }
+
+    /**
+     * Defines a {@link ProductImportService} bean.
+     * <p>
+     * Its threads are started on creation, and the running import is given time to
+     * finish before the persistence infrastructure is shut down, since the service
+     * depends on it.
+     *
+     * @param iProductImportRepository the repository staging and merging the imported rows
+     * @param iCategoryRepository      the repository used to validate the categories of the rows
+     * @param iUserRepository          the repository used to validate the owner of the created products
+     * @param catalogChangeListeners   the listeners notified after each import is merged
+     * @param parallelism              the number of workers parsing and staging chunks of rows
+     * @param retainedImports          the maximum number of import statuses kept
+     * @param shutdownTimeout          the maximum time to wait for the running import on shutdown
+     * @return a new instance of {@link ProductImportService}
+     */
+    @Bean(destroyMethod = "close")
+    public ProductImportService productImportService(
+            IProductImportRepository iProductImportRepository,
+            ICategoryRepository iCategoryRepository,
+            IUserRepository iUserRepository,
+            List<ICatalogChangeListener> catalogChangeListeners,
+            @Value("${ecommerce.products.import.parallelism:4}") int parallelism,
+            @Value("${ecommerce.products.import.retained-imports:100}") int retainedImports,
+            @Value("${ecommerce.products.import.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        return new ProductImportService(iProductImportRepository, iCategoryRepository, iUserRepository,
+                notificationOrder(catalogChangeListeners), parallelism, retainedImports, shutdownTimeout);
+    }
+
+    /**
+     * Defines a {@link ProductSearchService} bean.
+     * <p>
+     * Its index is built from the database on creation, before the application starts
+     * accepting requests.
+     *
+     * @param iProductRepository the repository the catalog is streamed from
+     * @return a new instance of {@link ProductSearchService}
+     */
+    @Bean(initMethod = "rebuild")
+    public ProductSearchService productSearchService(IProductRepository iProductRepository) {
+        return new ProductSearchService(iProductRepository);
+    }
+
+    /**
+     * Defines the {@link IProductRepository} used by the application: the JPA adapter
+     * decorated with a read-through cache.
+     * <p>
+     * The statistics of the caches are published as the {@code products},
+     * {@code productCatalog} and {@code productPrices} cache metrics. Its map of product codes is loaded from the
+     * database on creation.
+     *
+     * @param productCrudRepositoryImpl the JPA adapter to be decorated
+     * @param meterRegistry             the registry where the cache metrics are published
+     * @param maximumProducts           the maximum number of products cached by ID
+     * @param expireAfterWrite          the time after which a cached entry expires
+     * @param refreshAfterWrite         the time after which a cached entry is reloaded on its next read
+     * @return a new instance of {@link CachedProductRepository}
+     */
+    @Bean(initMethod = "rebuildCodeIndex")
+    @Primary
+    public CachedProductRepository cachedProductRepository(
+            ProductCrudRepositoryImpl productCrudRepositoryImpl, MeterRegistry meterRegistry,
+            @Value("${ecommerce.cache.products.maximum-products:10000}") long maximumProducts,
+            @Value("${ecommerce.cache.products.expire-after-write:1h}") Duration expireAfterWrite,
+            @Value("${ecommerce.cache.products.refresh-after-write:5m}") Duration refreshAfterWrite) {
+        CachedProductRepository cachedProductRepository = new CachedProductRepository(
+                productCrudRepositoryImpl, maximumProducts, expireAfterWrite, refreshAfterWrite);
+        CaffeineCacheMetrics.monitor(meterRegistry, cachedProductRepository.getProductCache(), "products");
+        CaffeineCacheMetrics.monitor(meterRegistry, cachedProductRepository.getCatalogCache(), "productCatalog");
+        CaffeineCacheMetrics.monitor(meterRegistry, cachedProductRepository.getPriceCache(), "productPrices");
+        return cachedProductRepository;
+    }
+
+    /**
+     * Defines the {@link ProductJsonCache} bean, holding the serialized single-product responses.
+     * <p>
+     * The statistics of the cache are published as the {@code productJson} cache metrics,
+     * along with the number of bytes it holds as {@code cache.weighted.size}.
+     *
+     * @param objectMapper  the mapper serializing the responses
+     * @param meterRegistry the registry where the cache metrics are published
+     * @param maximumSize   the maximum size of the cached JSON
+     * @return a new instance of {@link ProductJsonCache}
+     */
+    @Bean
+    public ProductJsonCache productJsonCache(
+            ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${ecommerce.cache.product-json.maximum-size:32MB}") DataSize maximumSize) {
+        ProductJsonCache productJsonCache = new ProductJsonCache(objectMapper, maximumSize.toBytes());
+        CaffeineCacheMetrics.monitor(meterRegistry, productJsonCache.getCache(), "productJson");
+        Gauge.builder("cache.weighted.size", productJsonCache, ProductJsonCache::weightedSize)
+                .tag("cache", "productJson")
+                .baseUnit("bytes")
+                .description("Bytes held by the cache, including the estimated overhead of each entry")
+                .register(meterRegistry);
+        return productJsonCache;
+    }
+
+    /**
+     * Defines a {@link SalesAnalyticsService} bean.
+     * <p>
+     * Its counters are rebuilt from the database on creation, before the application
+     * starts accepting requests.
+     *
+     * @param iSalesAnalyticsRepository the repository computing the initial aggregates
+     * @return a new instance of {@link SalesAnalyticsService}
+     */
+    @Bean(initMethod = "rebuild")
+    public SalesAnalyticsService salesAnalyticsService(ISalesAnalyticsRepository iSalesAnalyticsRepository) {
+        return new SalesAnalyticsService(iSalesAnalyticsRepository);
+    }
+
+    /**
+     * Defines the {@link IOrderRepository} used by the application: the JPA adapter
+     * decorated with the recording of sales analytics and with a per-user cache of
+     * order histories.
+     * <p>
+     * The statistics of the cache are published as the {@code orderHistory} cache metrics.
+     *
+     * @param orderCrudRepositoryImpl the JPA adapter to be decorated
+     * @param salesAnalyticsService   the analytics updated after each write
+     * @param meterRegistry           the registry where the cache metrics are published
+     * @param maximumOrders           the maximum number of cached orders
+     * @param expireAfterWrite        the time after which a cached history expires
+     * @return a new instance of {@link CachedOrderRepository}
+     */
+    @Bean
+    @Primary
+    public CachedOrderRepository cachedOrderRepository(
+            OrderCrudRepositoryImpl orderCrudRepositoryImpl, SalesAnalyticsService salesAnalyticsService,
+            MeterRegistry meterRegistry,
+            @Value("${ecommerce.cache.order-history.maximum-orders:50000}") long maximumOrders,
+            @Value("${ecommerce.cache.order-history.expire-after-write:10m}") Duration expireAfterWrite) {
+        CachedOrderRepository cachedOrderRepository =
+                new CachedOrderRepository(new AnalyticsOrderRepository(orderCrudRepositoryImpl, salesAnalyticsService),
+                        maximumOrders, expireAfterWrite);
+        CaffeineCacheMetrics.monitor(meterRegistry, cachedOrderRepository.getCache(), "orderHistory");
+        return cachedOrderRepository;
     }
 
     /**
      * Defines an {@link OrderService} bean.
      * <p>
-     * Injects an implementation of {@link IOrderRepository} into the service.
+     * Injects implementations of {@link IOrderRepository} and {@link IProductRepository}
+     * into the service; the latter provides the prices of the ordered products.
      *
-     * @param iOrderRepository the repository to be injected into the service
+     * @param iOrderRepository   the repository to be injected into the service
+     * @param iProductRepository the product repository used to price the orders
      * @return a new instance of {@link OrderService}
      */
     @Bean
-    public OrderService orderService(IOrderRepository iOrderRepository) {
-        return new OrderService(iOrderRepository);
+    public OrderService orderService(IOrderRepository iOrderRepository, IProductRepository iProductRepository) {
+        return new OrderService(iOrderRepository, iProductRepository);
+    }
+
+    /**
+     * Defines an {@link OrderPlacementService} bean.
+     * <p>
+     * Its writers are started on creation, and the queued orders are written before the
+     * persistence infrastructure is shut down, since the service depends on it.
+     *
+     * @param orderService       the service used to persist the queued orders
+     * @param queueCapacity      the maximum number of orders waiting to be written
+     * @param writers            the number of writers draining the queue
+     * @param retainedPlacements the maximum number of placement statuses kept
+     * @param shutdownTimeout    the maximum time to wait for the queue to be drained on shutdown
+     * @return a new instance of {@link OrderPlacementService}
+     */
+    @Bean(destroyMethod = "close")
+    public OrderPlacementService orderPlacementService(
+            OrderService orderService,
+            @Value("${ecommerce.orders.placement.queue-capacity:10000}") int queueCapacity,
+            @Value("${ecommerce.orders.placement.writers:4}") int writers,
+            @Value("${ecommerce.orders.placement.retained-placements:100000}") int retainedPlacements,
+            @Value("${ecommerce.orders.placement.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        return new OrderPlacementService(orderService, queueCapacity, writers, retainedPlacements, shutdownTimeout);
+    }
+
+    /**
+     * Defines an {@link IdempotentOrderService} bean.
+     *
+     * @param orderService              the service used to create the orders
+     * @param iIdempotencyKeyRepository the repository keeping the idempotency keys
+     * @param retainedKeys              the maximum number of keys whose order is kept in memory
+     * @param reservationTimeout        the time after which an abandoned key reservation can be taken over
+     * @return a new instance of {@link IdempotentOrderService}
+     */
+    @Bean
+    public IdempotentOrderService idempotentOrderService(
+            OrderService orderService,
+            IIdempotencyKeyRepository iIdempotencyKeyRepository,
+            @Value("${ecommerce.orders.idempotency.retained-keys:10000}") int retainedKeys,
+            @Value("${ecommerce.orders.idempotency.reservation-timeout:5m}") Duration reservationTimeout) {
+        return new IdempotentOrderService(orderService, iIdempotencyKeyRepository, retainedKeys, reservationTimeout);
+    }
+
+    /**
+     * Defines the {@link IOrderEventPublisher} bean, which appends the events to a local file.
+     *
+     * @param objectMapper the mapper serializing the events
+     * @param file         the file the events are appended to
+     * @return a new instance of {@link JsonLinesOrderEventPublisher}
+     */
+    @Bean
+    public IOrderEventPublisher orderEventPublisher(
+            ObjectMapper objectMapper,
+            @Value("${ecommerce.orders.outbox.file:order-events.jsonl}") Path file) {
+        return new JsonLinesOrderEventPublisher(objectMapper, file);
+    }
+
+    /**
+     * Defines an {@link OrderEventRelayService} bean.
+     *
+     * @param iOrderOutboxRepository the outbox holding the pending events
+     * @param iOrderEventPublisher   the publisher delivering the events
+     * @param batchSize              the maximum number of events published at once
+     * @param maxBatchesPerRun       the maximum number of batches published by a single run
+     * @return a new instance of {@link OrderEventRelayService}
+     */
+    @Bean
+    public OrderEventRelayService orderEventRelayService(
+            IOrderOutboxRepository iOrderOutboxRepository,
+            IOrderEventPublisher iOrderEventPublisher,
+            @Value("${ecommerce.orders.outbox.batch-size:500}") int batchSize,
+            @Value("${ecommerce.orders.outbox.max-batches-per-run:20}") int maxBatchesPerRun) {
+        return new OrderEventRelayService(iOrderOutboxRepository, iOrderEventPublisher, batchSize, maxBatchesPerRun);
+    }
+
+    /**
+     * Defines an {@link OrderArchiveService} bean.
+     *
+     * @param iOrderArchiveRepository the repository managing the order partitions
+     * @param monthsAhead             the number of upcoming months whose partitions are created in advance
+     * @param retentionMonths         the number of past months that are never archived
+     * @return a new instance of {@link OrderArchiveService}
+     */
+    @Bean
+    public OrderArchiveService orderArchiveService(
+            IOrderArchiveRepository iOrderArchiveRepository,
+            @Value("${ecommerce.orders.archive.months-ahead:3}") int monthsAhead,
+            @Value("${ecommerce.orders.archive.retention-months:12}") int retentionMonths) {
+        return new OrderArchiveService(iOrderArchiveRepository, monthsAhead, retentionMonths);
+    }
+
+    /**
+     * Defines the Jackson {@link Module} that maps domain money amounts to JSON numbers.
+     * <p>
+     * Spring Boot registers every {@link Module} bean in the application's {@code ObjectMapper}.
+     *
+     * @return a new instance of {@link MoneyJacksonModule}
+     */
+    @Bean
+    public Module moneyJacksonModule() {
+        return new MoneyJacksonModule();
+    }
+
+    /**
+     * Orders the catalog listeners so the {@link CatalogVersionService} is notified last:
+     * the catalog versions must change only once every other view of the catalog has
+     * been updated, or a client could cache a stale view under the new version.
+     */
+    private static List<ICatalogChangeListener> notificationOrder(List<ICatalogChangeListener> listeners) {
+        return listeners.stream()
+                .sorted(Comparator.comparing(listener -> listener instanceof CatalogVersionService))
+                .toList();
     }
 
 }
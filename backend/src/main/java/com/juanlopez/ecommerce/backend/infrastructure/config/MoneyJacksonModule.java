@@ -0,0 +1,64 @@
+package com.juanlopez.ecommerce.backend.infrastructure.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.juanlopez.ecommerce.backend.domain.model.Money;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Jackson module mapping the domain {@link Money} type to plain JSON numbers.
+ * <p>
+ * Amounts are written as decimal numbers with {@link Money#SCALE} decimals and read
+ * back exactly in the default currency, so the JSON representation of prices and
+ * totals is the same as before the money type was introduced. Amounts with more
+ * decimals, or too large to be represented, are rejected as invalid input.
+ */
+public class MoneyJacksonModule extends SimpleModule {
+
+    /**
+     * Constructs the module with the money serializer and deserializer.
+     */
+    public MoneyJacksonModule() {
+        super("MoneyJacksonModule");
+        addSerializer(Money.class, new MoneySerializer());
+        addDeserializer(Money.class, new MoneyDeserializer());
+    }
+
+    /**
+     * Writes money as a decimal number.
+     */
+    static class MoneySerializer extends JsonSerializer<Money> {
+
+        @Override
+        public void serialize(Money value, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeNumber(value.toBigDecimal());
+        }
+
+    }
+
+    /**
+     * Reads money from a decimal number or a numeric string.
+     */
+    static class MoneyDeserializer extends JsonDeserializer<Money> {
+
+        @Override
+        public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            BigDecimal amount = context.readValue(parser, BigDecimal.class);
+            try {
+                return Money.of(amount);
+            } catch (ArithmeticException e) {
+                return (Money) context.handleWeirdNumberValue(Money.class, amount,
+                        "el importe debe tener como máximo %d decimales", Money.SCALE);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.juanlopez.ecommerce.backend.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the execution of the {@link org.springframework.scheduling.annotation.Scheduled}
+ * jobs of the infrastructure layer.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
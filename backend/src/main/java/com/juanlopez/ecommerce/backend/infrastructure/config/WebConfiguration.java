@@ -0,0 +1,22 @@
+package com.juanlopez.ecommerce.backend.infrastructure.config;
+
+import com.juanlopez.ecommerce.backend.infrastructure.rest.AsyncTimeoutInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Customizes Spring MVC for the REST controllers of the infrastructure layer.
+ */
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+    /**
+     * Lets streaming endpoints extend the timeout of their own asynchronous processing.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new AsyncTimeoutInterceptor());
+    }
+
+}
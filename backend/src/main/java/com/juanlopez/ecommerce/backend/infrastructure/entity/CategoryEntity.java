@@ -25,10 +25,11 @@ public class CategoryEntity {
     /**
      * Primary key of the category.
      * <p>
-     * Generated automatically by the database.
+     * Taken from the {@code categories_seq} sequence, reserving 50 values per round trip.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_seq")
+    @SequenceGenerator(name = "categories_seq", sequenceName = "categories_seq", allocationSize = 50)
     private Integer id;
 
     /**
@@ -0,0 +1,32 @@
+package com.juanlopez.ecommerce.backend.infrastructure.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * JPA entity holding the number of listable products of a category.
+ * <p>
+ * A product is listable when it has a name and a price, as in the storefront catalog.
+ * Counters are adjusted in the same transaction as the product writes that change
+ * them, and periodically recomputed from the {@code products} table to correct any
+ * drift. A category without a row has no listable products.
+ */
+@Entity
+@Table(name = "category_product_counts")
+@Data
+public class CategoryProductCountEntity {
+
+    /**
+     * Identifier of the counted category.
+     */
+    @Id
+    private Integer categoryId;
+
+    /**
+     * Number of listable products of the category.
+     */
+    private long productCount;
+
+}
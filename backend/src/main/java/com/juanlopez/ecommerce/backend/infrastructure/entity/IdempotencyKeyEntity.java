@@ -0,0 +1,70 @@
+package com.juanlopez.ecommerce.backend.infrastructure.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * JPA entity representing the idempotency key of an order creation, scoped to the user
+ * who sent it.
+ * <p>
+ * A row without order is a reservation held by a request that is still creating
+ * its order.
+ */
+@Entity
+@Table(name = "order_idempotency_key")
+@IdClass(IdempotencyKeyEntity.Key.class)
+@Data
+public class IdempotencyKeyEntity {
+
+    /**
+     * Identifier of the user who sent the key.
+     */
+    @Id
+    private Integer userId;
+
+    /**
+     * Key sent by the client in the {@code Idempotency-Key} header.
+     */
+    @Id
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    /**
+     * SHA-256 hash, in hexadecimal, of the request that reserved the key.
+     */
+    private String requestHash;
+
+    /**
+     * Identifier of the order created with the key, or {@code null} while it is being created.
+     */
+    private Integer orderId;
+
+    /**
+     * Date on which the key was reserved.
+     */
+    private LocalDateTime dateCreated;
+
+    /**
+     * Composite identifier of an idempotency key: the user and the key itself.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Integer userId;
+
+        private String idempotencyKey;
+
+    }
+
+}
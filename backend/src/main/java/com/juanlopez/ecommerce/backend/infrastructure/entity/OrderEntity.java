@@ -3,9 +3,10 @@ package com.juanlopez.ecommerce.backend.infrastructure.entity;
 import com.juanlopez.ecommerce.backend.domain.model.OrderState;
 import jakarta.persistence.*;
 import lombok.Data;
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 /**
@@ -16,27 +17,36 @@ import java.util.List;
  * links to user and product details. While it reflects the domain model, this
  * class is part of the infrastructure layer and includes annotations and behavior
  * specific to JPA and Hibernate.
+ * <p>
+ * The declared indexes back the keyset pagination queries, which seek and sort on
+ * {@code (date_created, id)}, optionally scoped to a single user.
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_date_created_id", columnList = "date_created DESC, id DESC"),
+        @Index(name = "idx_orders_user_date_created_id", columnList = "user_entity_id, date_created DESC, id DESC")
+})
 @Data
 public class OrderEntity {
 
     /**
      * Primary key of the order record.
      * <p>
-     * Automatically generated using the database identity strategy.
+     * Generated from the {@code orders_seq} sequence in blocks of 50 values, which lets
+     * Hibernate assign IDs in memory and group inserts into JDBC batches.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Integer id;
 
     /**
      * Timestamp indicating when the order was created.
      * <p>
-     * Automatically assigned by Hibernate at the moment of persistence.
+     * Automatically assigned at the moment of persistence by {@link #assignDateCreated()}
+     * and never changed afterwards.
      */
-    @CreationTimestamp
+    @Column(updatable = false)
     private LocalDateTime dateCreated;
 
     /**
@@ -51,9 +61,10 @@ public class OrderEntity {
      * Reference to the user who created or owns the order.
      * <p>
      * Defines a many-to-one relationship, where multiple orders can be
-     * associated with a single user.
+     * associated with a single user. It is loaded lazily since order reads
+     * only need the user's foreign key.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private UserEntity userEntity;
 
     /**
@@ -62,8 +73,26 @@ public class OrderEntity {
      * Represents a one-to-many bidirectional relationship, where each
      * {@link OrderProductEntity} holds a reference back to this entity.
      * Cascade type PERSIST ensures that new product items are persisted
-     * automatically when the order entity is saved.
+     * automatically when the order entity is saved. When the collection is not
+     * fetched explicitly, it is initialized in batches for several orders at once.
      */
     @OneToMany(mappedBy = "orderEntity", cascade = CascadeType.PERSIST)
+    @BatchSize(size = 100)
     private List<OrderProductEntity> orderProducts;
+
+    /**
+     * Sets the creation timestamp when the order is persisted.
+     * <p>
+     * Unlike {@code @CreationTimestamp}, which Hibernate applies when the insert is
+     * flushed, the value is available right after {@code persist}. Since orders take
+     * their IDs from a pooled sequence, the insert is deferred to the end of the
+     * transaction, and the order summary and the saved order returned to the caller
+     * need the date before that. The value is truncated to the precision of the column,
+     * so the date in memory and the stored one are equal.
+     */
+    @PrePersist
+    void assignDateCreated() {
+        this.dateCreated = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
 }
@@ -0,0 +1,59 @@
+package com.juanlopez.ecommerce.backend.infrastructure.entity;
+
+import com.juanlopez.ecommerce.backend.domain.model.OrderEventType;
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * JPA entity representing an order event waiting in the outbox to be delivered.
+ * <p>
+ * Rows are inserted along with the change to the order they describe and deleted
+ * once the event has been published.
+ */
+@Entity
+@Table(name = "order_events")
+@Data
+public class OrderEventEntity {
+
+    /**
+     * Primary key of the event, generated from the {@code order_events_seq} sequence
+     * in blocks of 50 values so the events of a bulk update are inserted in batches.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_events_seq")
+    @SequenceGenerator(name = "order_events_seq", sequenceName = "order_events_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Identifier of the order that changed.
+     */
+    private Integer orderId;
+
+    /**
+     * Kind of change, stored as a string.
+     */
+    @Enumerated(value = EnumType.STRING)
+    private OrderEventType eventType;
+
+    /**
+     * State of the order after the change, stored as a string.
+     */
+    @Enumerated(value = EnumType.STRING)
+    private OrderState orderState;
+
+    /**
+     * Timestamp of the change, assigned by {@link #assignDateCreated()}.
+     */
+    @Column(updatable = false)
+    private LocalDateTime dateCreated;
+
+    @PrePersist
+    void assignDateCreated() {
+        this.dateCreated = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+}
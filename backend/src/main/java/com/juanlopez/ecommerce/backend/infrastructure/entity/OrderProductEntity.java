@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 /**
  * JPA entity representing the association between an order and a specific product.
@@ -20,10 +21,12 @@ public class OrderProductEntity {
     /**
      * Primary key of the order-product record.
      * <p>
-     * Automatically generated using the database identity strategy.
+     * Generated from the {@code order_products_seq} sequence in blocks of 50 values,
+     * so all the lines of an order can be inserted in a single JDBC batch.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_products_seq")
+    @SequenceGenerator(name = "order_products_seq", sequenceName = "order_products_seq", allocationSize = 50)
     private Integer id;
 
     /**
@@ -53,4 +56,21 @@ public class OrderProductEntity {
     @ManyToOne
     private OrderEntity orderEntity;
 
+    /**
+     * Creation date of the order, copied from {@link OrderEntity#getDateCreated()}.
+     * <p>
+     * The {@code order_products} table is partitioned by month on this column, like
+     * {@code orders} on its creation date, so the lines of an order always live in the
+     * partition of the same month as the order.
+     */
+    @Column(updatable = false)
+    private LocalDateTime orderDateCreated;
+
+    @PrePersist
+    void assignOrderDateCreated() {
+        if (orderEntity != null) {
+            this.orderDateCreated = orderEntity.getDateCreated();
+        }
+    }
+
 }
@@ -0,0 +1,82 @@
+package com.juanlopez.ecommerce.backend.infrastructure.entity;
+
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * JPA entity representing the read model of an order listing.
+ * <p>
+ * Each row summarizes one order of the {@code orders} table with the values needed
+ * by listings, so they can be served from this single narrow table. Rows are written
+ * in the same transaction as the order they summarize.
+ * <p>
+ * The identifier is the one of the order, assigned by the application. The entity
+ * implements {@link Persistable} so that Spring Data inserts new summaries directly
+ * instead of issuing a lookup to decide between insert and merge.
+ */
+@Entity
+@Table(name = "order_summary", indexes = {
+        @Index(name = "idx_order_summary_date_created_id", columnList = "date_created DESC, id DESC"),
+        @Index(name = "idx_order_summary_user_date_created_id", columnList = "user_id, date_created DESC, id DESC")
+})
+@Data
+public class OrderSummaryEntity implements Persistable<Integer> {
+
+    /**
+     * Identifier of the summarized order.
+     */
+    @Id
+    private Integer id;
+
+    /**
+     * Identifier of the user who owns the order.
+     */
+    private Integer userId;
+
+    /**
+     * Current state of the order, kept in sync with {@code orders.order_state}.
+     */
+    @Enumerated(value = EnumType.STRING)
+    private OrderState orderState;
+
+    /**
+     * Number of lines of the order.
+     */
+    private int lineCount;
+
+    /**
+     * Total price of the order.
+     */
+    private BigDecimal totalPrice;
+
+    /**
+     * Creation date of the order.
+     */
+    private LocalDateTime dateCreated;
+
+    /**
+     * Whether this summary has not been stored yet.
+     */
+    @Transient
+    private boolean isNew = true;
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    /**
+     * Marks loaded and stored summaries as existing ones.
+     */
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+}
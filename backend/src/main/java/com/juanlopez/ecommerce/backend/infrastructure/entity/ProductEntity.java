@@ -16,9 +16,22 @@ import java.time.LocalDateTime;
  * descriptive information, pricing, category assignment, ownership, and auditing data.
  * This class is part of the infrastructure layer and is used
  * by Spring Data JPA for persistence operations.
+ * <p>
+ * The declared indexes back the keyset queries used to browse the catalog: each
+ * ordering ({@code id}, {@code price, id} or {@code name, id}) has an index of its
+ * own and another one prefixed by the category, so filtering by category and
+ * seeking the next page are served by a single index range scan. The unique index on
+ * {@code code} enforces that codes are unique and serves the lookups by code.
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_category_id", columnList = "category_entity_id, id"),
+        @Index(name = "idx_products_category_price_id", columnList = "category_entity_id, price, id"),
+        @Index(name = "idx_products_category_name_id", columnList = "category_entity_id, name, id"),
+        @Index(name = "uk_products_code", columnList = "code", unique = true)
+})
 @Data
 @NoArgsConstructor
 public class ProductEntity {
@@ -26,10 +39,11 @@ public class ProductEntity {
     /**
      * Primary key of the product.
      * <p>
-     * Generated automatically by the database.
+     * Taken from the {@code products_seq} sequence, reserving 50 values per round trip.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Integer id;
 
     /**
@@ -39,6 +53,8 @@ public class ProductEntity {
 
     /**
      * Unique internal code used to identify and reference the product.
+     * <p>
+     * Optional: several products may have no code.
      */
     private String code;
 
@@ -77,18 +93,20 @@ public class ProductEntity {
      * User who created or owns this product.
      * <p>
      * Defines a many-to-one relationship where multiple products
-     * can be associated with a single user.
+     * can be associated with a single user. It is loaded lazily since
+     * product reads only need the user's foreign key.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private UserEntity userEntity;
 
     /**
      * Category to which this product belongs.
      * <p>
      * Defines a many-to-one relationship where multiple products
-     * can be grouped under a single category.
+     * can be grouped under a single category. It is loaded lazily since
+     * product reads only need the category's foreign key.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private CategoryEntity categoryEntity;
 
 }
@@ -26,10 +26,11 @@ public class UserEntity {
     /**
      * Primary key of the user.
      * <p>
-     * Generated automatically by the database.
+     * Taken from the {@code users_seq} sequence, reserving 50 values per round trip.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Integer id;
 
     /**
@@ -0,0 +1,24 @@
+package com.juanlopez.ecommerce.backend.infrastructure.mapper;
+
+import com.juanlopez.ecommerce.backend.domain.model.IdempotencyKey;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.IdempotencyKeyEntity;
+import org.mapstruct.Mapper;
+
+/**
+ * MapStruct mapper converting {@link IdempotencyKeyEntity} rows into domain
+ * {@link IdempotencyKey} instances.
+ * <p>
+ * Keys are only written through conditional statements, so no inverse mapping is needed.
+ */
+@Mapper(componentModel = "spring")
+public interface IIdempotencyKeyMapper {
+
+    /**
+     * Converts an {@link IdempotencyKeyEntity} into its domain representation.
+     *
+     * @param idempotencyKeyEntity The JPA entity to convert.
+     * @return The mapped domain key.
+     */
+    IdempotencyKey toIdempotencyKey(IdempotencyKeyEntity idempotencyKeyEntity);
+
+}
@@ -0,0 +1,38 @@
+package com.juanlopez.ecommerce.backend.infrastructure.mapper;
+
+import com.juanlopez.ecommerce.backend.domain.model.Money;
+import org.mapstruct.Mapper;
+
+import java.math.BigDecimal;
+
+/**
+ * MapStruct mapper converting between the {@link BigDecimal} amounts stored in the
+ * database and the domain {@link Money} type.
+ * <p>
+ * It is used by the mappers whose entities hold prices or totals. Both conversions
+ * are exact; amounts with more than {@link Money#SCALE} decimals are rejected.
+ */
+@Mapper(componentModel = "spring")
+public interface IMoneyMapper {
+
+    /**
+     * Converts a stored amount into money in the default currency.
+     *
+     * @param amount The stored amount, or {@code null}.
+     * @return The money amount, or {@code null} if none was stored.
+     */
+    default Money toMoney(BigDecimal amount) {
+        return amount == null ? null : Money.of(amount);
+    }
+
+    /**
+     * Converts money into the amount to be stored.
+     *
+     * @param money The money amount, or {@code null}.
+     * @return The decimal amount with {@link Money#SCALE} decimals, or {@code null}.
+     */
+    default BigDecimal toBigDecimal(Money money) {
+        return money == null ? null : money.toBigDecimal();
+    }
+
+}
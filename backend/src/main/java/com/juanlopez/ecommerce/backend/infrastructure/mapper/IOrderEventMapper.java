@@ -0,0 +1,35 @@
+package com.juanlopez.ecommerce.backend.infrastructure.mapper;
+
+import com.juanlopez.ecommerce.backend.domain.model.OrderEvent;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.OrderEventEntity;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+/**
+ * MapStruct mapper converting the {@link OrderEventEntity} rows of the outbox into
+ * domain {@link OrderEvent} instances.
+ * <p>
+ * Events are only written by the order persistence adapter, so no inverse mapping
+ * is needed.
+ */
+@Mapper(componentModel = "spring")
+public interface IOrderEventMapper {
+
+    /**
+     * Converts an {@link OrderEventEntity} into its domain representation.
+     *
+     * @param orderEventEntity The JPA entity to convert.
+     * @return The mapped domain event.
+     */
+    OrderEvent toOrderEvent(OrderEventEntity orderEventEntity);
+
+    /**
+     * Converts a list of {@link OrderEventEntity} objects, preserving their order.
+     *
+     * @param orderEventEntities List of persistence entities.
+     * @return List of mapped domain events.
+     */
+    List<OrderEvent> toOrderEvents(List<OrderEventEntity> orderEventEntities);
+
+}
@@ -6,6 +6,8 @@ import org.mapstruct.InheritInverseConfiguration;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.util.List;
+
 /**
  * MapStruct mapper responsible for converting between the domain model
  * {@link Order} and the JPA entity {@link OrderEntity}.
@@ -40,6 +42,15 @@ public interface IOrderMapper {
      */
     Iterable<Order> toOrders(Iterable<OrderEntity> orderEntities);
 
+    /**
+     * Converts a list of {@link OrderEntity} objects into a list of domain
+     * {@link Order} instances, preserving their order.
+     *
+     * @param orderEntities List of persistence entities.
+     * @return List of mapped domain objects.
+     */
+    List<Order> toOrderList(List<OrderEntity> orderEntities);
+
     /**
      * Converts a domain {@link Order} back into its corresponding
      * persistence {@link OrderEntity}.
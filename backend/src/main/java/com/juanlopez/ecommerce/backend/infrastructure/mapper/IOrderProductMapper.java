@@ -4,6 +4,10 @@ import com.juanlopez.ecommerce.backend.domain.model.OrderProduct;
 import com.juanlopez.ecommerce.backend.infrastructure.entity.OrderProductEntity;
 import org.mapstruct.InheritInverseConfiguration;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+
+import java.math.BigDecimal;
 
 /**
  * MapStruct mapper responsible for converting between the domain model
@@ -13,8 +17,10 @@ import org.mapstruct.Mapper;
  * between domain logic and persistence mechanisms while ensuring that both
  * models remain isolated and independent. MapStruct generates the underlying
  * implementation at compile time.
+ * <p>
+ * Prices are converted through {@link IMoneyMapper}.
  */
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = IMoneyMapper.class)
 public interface IOrderProductMapper {
 
     /**
@@ -24,6 +30,7 @@ public interface IOrderProductMapper {
      * @param orderProductEntity The persistence entity to convert.
      * @return The mapped domain model instance.
      */
+    @Mapping(source = "quantity", target = "quantity", qualifiedByName = "quantity")
     OrderProduct toOrderProduct(OrderProductEntity orderProductEntity);
 
     /**
@@ -40,12 +47,31 @@ public interface IOrderProductMapper {
      * persistence {@link OrderProductEntity}.
      * <p>
      * The mapping configuration is inherited from {@link #toOrderProduct(OrderProductEntity)}
-     * to ensure consistency between bidirectional transformations.
+     * to ensure consistency between bidirectional transformations. The creation date of
+     * the order is assigned by the entity itself when it is persisted.
      *
      * @param orderProduct The domain model instance to convert.
      * @return The mapped JPA entity.
      */
     @InheritInverseConfiguration
+    @Mapping(target = "orderDateCreated", ignore = true)
     OrderProductEntity toOrderProductEntity(OrderProduct orderProduct);
 
+    /**
+     * Normalizes a quantity read from the database, where it is stored with two decimals,
+     * so that integer quantities have scale zero and can be multiplied by a price
+     * without intermediate {@link BigDecimal} instances (see {@code Money#times(BigDecimal)}).
+     *
+     * @param quantity The stored quantity, or {@code null}.
+     * @return The same quantity with the smallest non-negative scale.
+     */
+    @Named("quantity")
+    default BigDecimal toQuantity(BigDecimal quantity) {
+        if (quantity == null) {
+            return null;
+        }
+        BigDecimal stripped = quantity.stripTrailingZeros();
+        return stripped.scale() < 0 ? stripped.setScale(0) : stripped;
+    }
+
 }
@@ -0,0 +1,35 @@
+package com.juanlopez.ecommerce.backend.infrastructure.mapper;
+
+import com.juanlopez.ecommerce.backend.domain.model.OrderSummary;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.OrderSummaryEntity;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+/**
+ * MapStruct mapper converting the {@link OrderSummaryEntity} read model into
+ * domain {@link OrderSummary} instances.
+ * <p>
+ * Summaries are only written by the order persistence adapter, so no inverse
+ * mapping is needed.
+ */
+@Mapper(componentModel = "spring", uses = IMoneyMapper.class)
+public interface IOrderSummaryMapper {
+
+    /**
+     * Converts an {@link OrderSummaryEntity} into its domain representation.
+     *
+     * @param orderSummaryEntity The JPA entity to convert.
+     * @return The mapped domain summary.
+     */
+    OrderSummary toOrderSummary(OrderSummaryEntity orderSummaryEntity);
+
+    /**
+     * Converts a list of {@link OrderSummaryEntity} objects, preserving their order.
+     *
+     * @param orderSummaryEntities List of persistence entities.
+     * @return List of mapped domain summaries.
+     */
+    List<OrderSummary> toOrderSummaries(List<OrderSummaryEntity> orderSummaryEntities);
+
+}
@@ -0,0 +1,34 @@
+package com.juanlopez.ecommerce.backend.infrastructure.rest;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Applies to a single asynchronous request the timeout its handler asked for, instead of
+ * the default timeout shared by every asynchronous request.
+ * <p>
+ * Handlers returning a {@code StreamingResponseBody}, whose processing cannot be given a
+ * timeout of its own, store it in the {@link #TIMEOUT_ATTRIBUTE} request attribute; the
+ * timeout is set right before the request is put in asynchronous mode.
+ */
+public class AsyncTimeoutInterceptor implements CallableProcessingInterceptor {
+
+    /**
+     * Request attribute holding the {@link Duration} of the timeout of the asynchronous processing.
+     */
+    public static final String TIMEOUT_ATTRIBUTE = AsyncTimeoutInterceptor.class.getName() + ".timeout";
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        if (request instanceof AsyncWebRequest asyncWebRequest
+                && request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Duration timeout) {
+            asyncWebRequest.setTimeout(timeout.toMillis());
+        }
+    }
+
+}
@@ -1,8 +1,10 @@
 package com.juanlopez.ecommerce.backend.infrastructure.rest;
 
+import com.juanlopez.ecommerce.backend.application.CatalogVersionService;
 import com.juanlopez.ecommerce.backend.application.CategoryService;
 import com.juanlopez.ecommerce.backend.domain.model.Category;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,6 +14,9 @@ import org.springframework.web.bind.annotation.*;
  * <p>
  * Provides endpoints to create, retrieve, and delete categories.
  * Uses {@link CategoryService} to handle business logic.
+ * <p>
+ * Reads carry an {@code ETag} built from the version tracked by {@link CatalogVersionService}
+ * and answer conditional requests for an unchanged category with {@code 304 Not Modified}.
  */
 @RestController
 @RequestMapping("api/v1/admin/categories")
@@ -19,14 +24,17 @@ import org.springframework.web.bind.annotation.*;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogVersionService catalogVersionService;
 
     /**
-     * Constructs a new {@code CategoryController} with the given {@link CategoryService}.
+     * Constructs a new {@code CategoryController} with the given services.
      *
-     * @param categoryService the service responsible for category operations
+     * @param categoryService       the service responsible for category operations
+     * @param catalogVersionService the service tracking the versions of the categories
      */
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, CatalogVersionService catalogVersionService) {
         this.categoryService = categoryService;
+        this.catalogVersionService = catalogVersionService;
     }
 
     /**
@@ -43,22 +51,40 @@ public class CategoryController {
     /**
      * Retrieves all categories.
      *
-     * @return a {@link ResponseEntity} containing the list of categories with HTTP 200 status
+     * @param ifNoneMatch the entity tag of the list held by the client (optional)
+     * @return a {@link ResponseEntity} containing the list of categories with HTTP 200 status,
+     * or HTTP 304 if no category changed since the client got them
      */
     @GetMapping
-    public ResponseEntity<Iterable<Category>> findAll() {
-        return ResponseEntity.ok(categoryService.findAll());
+    public ResponseEntity<Iterable<Category>> findAll(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // The version is read first, so it never describes a newer list than the one returned
+        String eTag = ConditionalResponses.eTag("categories", catalogVersionService.categoriesVersion());
+        if (ConditionalResponses.isNotModified(ifNoneMatch, eTag)) {
+            return ConditionalResponses.notModified(eTag, ConditionalResponses.ADMIN);
+        }
+        return ConditionalResponses.ok(categoryService.findAll(), eTag, ConditionalResponses.ADMIN, ifNoneMatch);
     }
 
     /**
      * Retrieves a category by its ID.
      *
-     * @param id the ID of the category to fetch
-     * @return a {@link ResponseEntity} containing the category with HTTP 200 status
+     * @param id          the ID of the category to fetch
+     * @param ifNoneMatch the entity tag of the category held by the client (optional)
+     * @return a {@link ResponseEntity} containing the category with HTTP 200 status,
+     * or HTTP 304 if it did not change since the client got it
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Category> findById(@PathVariable Integer id) {
-        return ResponseEntity.ok(categoryService.findById(id));
+    public ResponseEntity<Category> findById(@PathVariable Integer id,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                             String ifNoneMatch) {
+        String knownETag = ConditionalResponses.eTag("category", catalogVersionService.categoryVersion(id));
+        if (ConditionalResponses.isNotModified(ifNoneMatch, knownETag)) {
+            return ConditionalResponses.notModified(knownETag, ConditionalResponses.ADMIN);
+        }
+        Category category = categoryService.findById(id);
+        String eTag = ConditionalResponses.eTag("category", catalogVersionService.recordCategory(category));
+        return ConditionalResponses.ok(category, eTag, ConditionalResponses.ADMIN, ifNoneMatch);
     }
 
     /**
@@ -0,0 +1,105 @@
+package com.juanlopez.ecommerce.backend.infrastructure.rest;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+/**
+ * Builds the cacheable responses of the catalog endpoints, with their {@code ETag} and
+ * {@code Cache-Control} headers, and the {@code 304 Not Modified} responses to the
+ * conditional requests whose {@code If-None-Match} header names the current version.
+ * <p>
+ * Administrative responses may be stored but must be revalidated on every use, so
+ * changes are seen at once and unchanged resources cost a {@code 304}. Storefront
+ * responses may be served by browsers and shared caches for a minute, and for a while
+ * longer as they are revalidated in the background.
+ */
+final class ConditionalResponses {
+
+    /**
+     * Cache policy of the administrative catalog endpoints.
+     */
+    static final CacheControl ADMIN = CacheControl.noCache();
+
+    /**
+     * Cache policy of the storefront endpoints.
+     */
+    static final CacheControl STOREFRONT = CacheControl.maxAge(Duration.ofSeconds(60))
+            .cachePublic()
+            .staleWhileRevalidate(Duration.ofSeconds(30));
+
+    private ConditionalResponses() {
+    }
+
+    /**
+     * Builds the entity tag of a resource from its kind and version.
+     *
+     * @param kind    the kind of resource, distinguishing it from other resources with the same version
+     * @param version the version of the resource, or {@code null} if it is unknown
+     * @return the entity tag, unquoted, or {@code null} if the version is unknown
+     */
+    static String eTag(String kind, String version) {
+        return version == null ? null : kind + "-" + version;
+    }
+
+    /**
+     * Tells whether an {@code If-None-Match} header names the given entity tag, using the
+     * weak comparison the header requires.
+     *
+     * @param ifNoneMatch the value of the header, possibly {@code null}
+     * @param eTag        the current entity tag, unquoted, or {@code null} if the resource has none
+     * @return {@code true} if the client already holds the current representation
+     */
+    static boolean isNotModified(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals('"' + eTag + '"')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds a {@code 304 Not Modified} response.
+     *
+     * @param eTag         the current entity tag, unquoted
+     * @param cacheControl the cache policy of the resource
+     * @param <T>          the type of the body the resource would have
+     * @return a response without body
+     */
+    static <T> ResponseEntity<T> notModified(String eTag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+    }
+
+    /**
+     * Builds a {@code 200 OK} response, or a {@code 304 Not Modified} one if the client
+     * already holds the current representation.
+     *
+     * @param body         the representation of the resource
+     * @param eTag         its entity tag, unquoted, or {@code null} if it has none
+     * @param cacheControl the cache policy of the resource
+     * @param ifNoneMatch  the {@code If-None-Match} header of the request, possibly {@code null}
+     * @param <T>          the type of the body
+     * @return the response
+     */
+    static <T> ResponseEntity<T> ok(T body, String eTag, CacheControl cacheControl, String ifNoneMatch) {
+        if (isNotModified(ifNoneMatch, eTag)) {
+            return notModified(eTag, cacheControl);
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(cacheControl);
+        if (eTag != null) {
+            response.eTag(eTag);
+        }
+        return response.body(body);
+    }
+
+}
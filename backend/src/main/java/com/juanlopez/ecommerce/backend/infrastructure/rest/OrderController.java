@@ -1,11 +1,46 @@
 package com.juanlopez.ecommerce.backend.infrastructure.rest;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juanlopez.ecommerce.backend.application.IdempotentOrderService;
+import com.juanlopez.ecommerce.backend.application.OrderPlacementService;
 import com.juanlopez.ecommerce.backend.application.OrderService;
+import com.juanlopez.ecommerce.backend.domain.exception.IdempotencyKeyInUseException;
+import com.juanlopez.ecommerce.backend.domain.exception.IdempotencyKeyMismatchException;
+import com.juanlopez.ecommerce.backend.domain.model.CursorPage;
 import com.juanlopez.ecommerce.backend.domain.model.Order;
+import com.juanlopez.ecommerce.backend.domain.model.OrderBatchResult;
+import com.juanlopez.ecommerce.backend.domain.model.OrderPlacement;
 import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.model.OrderStateBulkUpdate;
+import com.juanlopez.ecommerce.backend.domain.model.OrderStateBulkUpdateResult;
+import com.juanlopez.ecommerce.backend.domain.model.OrderStateTransitionResult;
+import com.juanlopez.ecommerce.backend.domain.model.OrderSummary;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * REST controller for managing orders.
@@ -19,15 +54,44 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class OrderController {
 
+    /**
+     * Media type of newline-delimited JSON streams, one order per line.
+     */
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    /**
+     * Seconds a client is asked to wait before retrying a placement rejected because the queue is full.
+     */
+    private static final String PLACEMENT_RETRY_AFTER_SECONDS = "1";
+
+    /**
+     * Header carrying the key that identifies retries of the same order creation.
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final OrderService orderService;
+    private final OrderPlacementService orderPlacementService;
+    private final IdempotentOrderService idempotentOrderService;
+    private final ObjectMapper objectMapper;
+    private final Duration exportTimeout;
 
     /**
      * Constructs the OrderController with the given OrderService.
      *
-     * @param orderService The service handling order-related business logic.
+     * @param orderService           The service handling order-related business logic.
+     * @param orderPlacementService  The service placing orders asynchronously.
+     * @param idempotentOrderService The service creating orders sent with an idempotency key.
+     * @param objectMapper           The JSON mapper used to read streamed order batches.
+     * @param exportTimeout          The time an export may take to be streamed.
      */
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderPlacementService orderPlacementService,
+                           IdempotentOrderService idempotentOrderService, ObjectMapper objectMapper,
+                           @Value("${ecommerce.orders.export.timeout:1h}") Duration exportTimeout) {
         this.orderService = orderService;
+        this.orderPlacementService = orderPlacementService;
+        this.idempotentOrderService = idempotentOrderService;
+        this.objectMapper = objectMapper;
+        this.exportTimeout = exportTimeout;
     }
 
     /**
@@ -35,41 +99,222 @@ public class OrderController {
      * <p>
      * The order state is automatically set to CONFIRMED unless the incoming order
      * is marked as CANCELLED.
+     * <p>
+     * When the request carries an {@code Idempotency-Key} header, repeating it with the
+     * same key returns the order created the first time instead of creating another.
+     * Keys belong to the user of the order. A repetition received while the first request
+     * is still being processed on another instance is rejected with {@code 409 Conflict},
+     * and reusing a key with a different order with {@code 422 Unprocessable Entity}.
      *
-     * @param order The order to create.
+     * @param idempotencyKey The key identifying retries of the same request (optional).
+     * @param order          The order to create.
      * @return The created order with its assigned state.
      */
     @PostMapping
-    public ResponseEntity<Order> save(@RequestBody Order order) {
-        if (order.getOrderState().toString().equals(OrderState.CANCELLED.toString())) {
-            order.setOrderState(OrderState.CANCELLED);
-        } else {
-            order.setOrderState(OrderState.CONFIRMED);
+    public ResponseEntity<Order> save(@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                      @RequestBody Order order) {
+        applyInitialState(order);
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(orderService.save(order));
+        }
+        return ResponseEntity.ok(idempotentOrderService.save(idempotencyKey, order));
+    }
+
+    /**
+     * Accepts a new order to be created asynchronously.
+     * <p>
+     * The order is validated and queued, and the response is sent without waiting for
+     * it to be persisted. The {@code Location} header points to the placement status,
+     * which holds the ID of the order once it has been created. When too many orders
+     * are waiting to be written, the order is rejected with {@code 429 Too Many Requests}.
+     *
+     * @param order The order to create.
+     * @return The pending placement, with status {@code 202 Accepted}.
+     */
+    @PostMapping("/placements")
+    public ResponseEntity<OrderPlacement> place(@RequestBody Order order) {
+        applyInitialState(order);
+        OrderPlacement placement = orderPlacementService.submit(order);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{token}").buildAndExpand(placement.getToken()).toUri();
+        return ResponseEntity.accepted().location(location).body(placement);
+    }
+
+    /**
+     * Retrieves the status of an asynchronous order placement.
+     *
+     * @param token The token returned when the order was accepted.
+     * @return The placement, or {@code 404 Not Found} if it is unknown or has expired.
+     */
+    @GetMapping("/placements/{token}")
+    public ResponseEntity<OrderPlacement> findPlacement(@PathVariable("token") UUID token) {
+        OrderPlacement placement = orderPlacementService.findByToken(token);
+        return placement == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(placement);
+    }
+
+    /**
+     * Creates a batch of orders sent as a JSON array or as an NDJSON stream.
+     * <p>
+     * The body is read incrementally and persisted in chunks of
+     * {@link OrderService#BATCH_CHUNK_SIZE} orders, each within its own transaction,
+     * so at most one chunk of orders is held at a time; the results, one small entry per
+     * order, are collected for the whole batch before responding. Every order gets its
+     * own result: an order that cannot be read or persisted is reported as failed
+     * without affecting the rest. A syntax error in the body stops reading at that
+     * point, keeping the chunks already persisted.
+     *
+     * @param body The request body containing the orders.
+     * @return One result per order, in the order they were received.
+     * @throws IOException If the request body cannot be read.
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<List<OrderBatchResult>> saveBatch(InputStream body) throws IOException {
+        List<OrderBatchResult> results = new ArrayList<>();
+        List<Order> chunk = new ArrayList<>(OrderService.BATCH_CHUNK_SIZE);
+        int index = 0;
+
+        try (MappingIterator<Order> orders = objectMapper.readerFor(Order.class).readValues(body)) {
+            while (true) {
+                try {
+                    if (!orders.hasNextValue()) {
+                        break;
+                    }
+                    Order order = orders.nextValue();
+                    if (order != null) {
+                        applyInitialState(order);
+                    }
+                    chunk.add(order);
+                } catch (JsonParseException e) {
+                    // Malformed JSON: the rest of the stream cannot be read
+                    saveChunk(chunk, index - chunk.size(), results);
+                    results.add(OrderBatchResult.failed(index, "JSON inválido: " + e.getOriginalMessage()));
+                    break;
+                } catch (JsonMappingException e) {
+                    saveChunk(chunk, index - chunk.size(), results);
+                    // Syntax errors found inside an order are reported wrapped as mapping errors
+                    if (e.getCause() instanceof JsonParseException parseException) {
+                        results.add(OrderBatchResult.failed(index, "JSON inválido: " + parseException.getOriginalMessage()));
+                        break;
+                    }
+                    // The value is skipped and reading resumes with the next one
+                    results.add(OrderBatchResult.failed(index, "Orden inválida: " + e.getOriginalMessage()));
+                }
+                index++;
+                if (chunk.size() == OrderService.BATCH_CHUNK_SIZE) {
+                    saveChunk(chunk, index - chunk.size(), results);
+                }
+            }
         }
-        return ResponseEntity.ok(orderService.save(order));
+        saveChunk(chunk, index - chunk.size(), results);
+        return ResponseEntity.ok(results);
     }
 
     /**
      * Updates the state of an existing order identified by its ID.
+     * <p>
+     * The response status reflects the outcome of the transition: {@code 200 OK} when
+     * applied, {@code 409 Conflict} when the order changed concurrently (or does not have
+     * the expected state), {@code 422 Unprocessable Entity} when the transition is not
+     * allowed and {@code 404 Not Found} when the order does not exist.
      *
-     * @param id    The ID of the order to update.
-     * @param state The new state to be applied.
-     * @return A response entity with no content.
+     * @param id            The ID of the order to update.
+     * @param state         The new state to be applied.
+     * @param expectedState The state the client expects the order to have (optional).
+     * @return The outcome of the transition and the current state of the order.
      */
     @PostMapping("/update/state/order")
-    public ResponseEntity<Void> updateStateById(@RequestParam Integer id, @RequestParam String state) {
-        orderService.updateStateById(id, state);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<OrderStateTransitionResult> updateStateById(@RequestParam Integer id,
+                                                                      @RequestParam String state,
+                                                                      @RequestParam(required = false) String expectedState) {
+        OrderStateTransitionResult result = orderService.updateStateById(id, state, expectedState);
+        HttpStatus status = switch (result.getOutcome()) {
+            case APPLIED -> HttpStatus.OK;
+            case CONFLICT -> HttpStatus.CONFLICT;
+            case INVALID_TRANSITION -> HttpStatus.UNPROCESSABLE_ENTITY;
+            case NOT_FOUND -> HttpStatus.NOT_FOUND;
+        };
+        return ResponseEntity.status(status).body(result);
     }
 
     /**
-     * Retrieves all existing orders.
+     * Applies a state transition to many orders at once, selected either by a list of
+     * IDs or by their current state and creation date range.
      *
-     * @return An iterable collection of orders.
+     * @param bulkUpdate The description of the transition.
+     * @return The number of orders whose state was changed.
+     */
+    @PostMapping("/update/state/bulk")
+    public ResponseEntity<OrderStateBulkUpdateResult> updateStateInBulk(@RequestBody OrderStateBulkUpdate bulkUpdate) {
+        return ResponseEntity.ok(orderService.updateStateInBulk(bulkUpdate));
+    }
+
+    /**
+     * Retrieves a page of orders, from the newest to the oldest.
+     *
+     * @param cursor Opaque continuation token returned by the previous page (optional).
+     * @param size   Requested page size (optional, capped at {@link OrderService#MAX_PAGE_SIZE}).
+     * @return The requested page of orders and the token to fetch the next one.
      */
     @GetMapping
-    public ResponseEntity<Iterable<Order>> findAll() {
-        return ResponseEntity.ok(orderService.findAll());
+    public ResponseEntity<CursorPage<Order>> findAll(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(orderService.findAll(cursor, size));
+    }
+
+    /**
+     * Retrieves a page of order summaries, from the newest to the oldest.
+     * <p>
+     * Summaries include the line count and total of each order but not its products,
+     * which are returned by {@link #findById(Integer)}.
+     *
+     * @param cursor Opaque continuation token returned by the previous page (optional).
+     * @param size   Requested page size (optional, capped at {@link OrderService#MAX_PAGE_SIZE}).
+     * @return The requested page of order summaries and the token to fetch the next one.
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<CursorPage<OrderSummary>> findSummaries(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(orderService.findSummaries(cursor, size));
+    }
+
+    /**
+     * Exports the orders matching the given filters as an NDJSON stream, one order per
+     * line, from the oldest to the newest.
+     * <p>
+     * Orders are read from the database through a cursor and written to the response as
+     * they arrive, so the export never holds the whole result in memory and the client
+     * starts receiving data right away. A full export may take longer than other
+     * asynchronous requests, so it is given its own timeout.
+     *
+     * @param from    Lower bound (inclusive) of the creation date (optional).
+     * @param to      Upper bound (exclusive) of the creation date (optional).
+     * @param state   State of the exported orders (optional).
+     * @param request The current request, which carries the timeout of the export.
+     * @return The streamed orders.
+     */
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) OrderState state,
+            HttpServletRequest request) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("La fecha inicial debe ser anterior a la fecha final.");
+        }
+        request.setAttribute(AsyncTimeoutInterceptor.TIMEOUT_ATTRIBUTE, exportTimeout);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                orderService.exportOrders(state, from, to, order -> {
+                    try {
+                        generator.writeObject(order);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
     }
 
     /**
@@ -84,14 +329,110 @@ public class OrderController {
     }
 
     /**
-     * Retrieves all orders associated with a specific user.
+     * Retrieves a page of the orders associated with a specific user, from the newest to the oldest.
      *
      * @param userId The ID of the user.
-     * @return An iterable collection of orders for the given user.
+     * @param cursor Opaque continuation token returned by the previous page (optional).
+     * @param size   Requested page size (optional, capped at {@link OrderService#MAX_PAGE_SIZE}).
+     * @return The requested page of the user's orders and the token to fetch the next one.
      */
     @GetMapping("/by-user/{id}")
-    public ResponseEntity<Iterable<Order>> findByUserId(@PathVariable("id") Integer userId) {
-        return ResponseEntity.ok(orderService.fingByUserId(userId));
+    public ResponseEntity<CursorPage<Order>> findByUserId(@PathVariable("id") Integer userId,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(orderService.fingByUserId(userId, cursor, size));
+    }
+
+    /**
+     * Retrieves a page of the order summaries of a specific user, from the newest to the oldest.
+     *
+     * @param userId The ID of the user.
+     * @param cursor Opaque continuation token returned by the previous page (optional).
+     * @param size   Requested page size (optional, capped at {@link OrderService#MAX_PAGE_SIZE}).
+     * @return The requested page of the user's order summaries and the token to fetch the next one.
+     */
+    @GetMapping("/by-user/{id}/summaries")
+    public ResponseEntity<CursorPage<OrderSummary>> findSummariesByUserId(@PathVariable("id") Integer userId,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(orderService.findSummariesByUserId(userId, cursor, size));
+    }
+
+    /**
+     * Translates invalid client input, such as a malformed pagination cursor, into a
+     * {@code 400 Bad Request} response.
+     *
+     * @param e The exception raised while processing the request.
+     * @return A response entity with the error message.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    /**
+     * Translates a request repeated while its idempotency key is still in use into a
+     * {@code 409 Conflict} response.
+     *
+     * @param e The exception raised when the order of the key is still being created.
+     * @return A response entity with the error message.
+     */
+    @ExceptionHandler(IdempotencyKeyInUseException.class)
+    public ResponseEntity<String> handleIdempotencyKeyInUse(IdempotencyKeyInUseException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    /**
+     * Translates an idempotency key reused with a different order into a
+     * {@code 422 Unprocessable Entity} response.
+     *
+     * @param e The exception raised when the key was first used with another request.
+     * @return A response entity with the error message.
+     */
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<String> handleIdempotencyKeyMismatch(IdempotencyKeyMismatchException e) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getMessage());
+    }
+
+    /**
+     * Translates a placement rejected because of backpressure into a
+     * {@code 429 Too Many Requests} response.
+     *
+     * @param e The exception raised when the placement queue is full or shutting down.
+     * @return A response entity with the error message and a {@code Retry-After} header.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleRejectedExecution(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, PLACEMENT_RETRY_AFTER_SECONDS)
+                .body(e.getMessage());
+    }
+
+    /**
+     * Sets the state of a new order: CONFIRMED unless it is explicitly marked as CANCELLED.
+     *
+     * @param order The order being created.
+     */
+    private void applyInitialState(Order order) {
+        if (order.getOrderState() == OrderState.CANCELLED) {
+            order.setOrderState(OrderState.CANCELLED);
+        } else {
+            order.setOrderState(OrderState.CONFIRMED);
+        }
+    }
+
+    /**
+     * Persists the pending orders of a batch and clears the chunk.
+     *
+     * @param chunk      The orders read since the previous chunk.
+     * @param firstIndex Position of the first order of the chunk within the batch.
+     * @param results    The results of the batch, to which the chunk results are appended.
+     */
+    private void saveChunk(List<Order> chunk, int firstIndex, List<OrderBatchResult> results) {
+        if (!chunk.isEmpty()) {
+            results.addAll(orderService.saveChunk(chunk, firstIndex));
+            chunk.clear();
+        }
     }
 
 }
@@ -1,12 +1,21 @@
 package com.juanlopez.ecommerce.backend.infrastructure.rest;
 
+import com.juanlopez.ecommerce.backend.application.CatalogVersionService;
 import com.juanlopez.ecommerce.backend.application.ProductService;
+import com.juanlopez.ecommerce.backend.domain.exception.DuplicateProductCodeException;
 import com.juanlopez.ecommerce.backend.domain.model.Product;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * REST controller for managing products through the administrative API.
  * <p>
@@ -14,21 +23,39 @@ import org.springframework.web.bind.annotation.*;
  * controller belongs to the infrastructure layer and delegates business
  * operations to the {@link ProductService}, maintaining consistency with the
  * hexagonal architecture by keeping the controller free of domain logic.
+ * <p>
+ * Reads carry an {@code ETag} built from the version tracked by {@link CatalogVersionService}
+ * and answer conditional requests for an unchanged product with {@code 304 Not Modified},
+ * without reading it when its version is already known. The JSON of single products is
+ * kept by {@link ProductJsonCache}, so a product whose version is known is answered
+ * by copying its cached bytes to the response, without reading or serializing it.
  */
 @RestController
 @RequestMapping("api/v1/admin/products")
 @Slf4j
 public class ProductController {
 
+    /**
+     * Name of the unique index on the product code, as created by the migrations.
+     */
+    private static final String PRODUCT_CODE_UNIQUE_INDEX = "uk_products_code";
+
     private final ProductService productService;
+    private final CatalogVersionService catalogVersionService;
+    private final ProductJsonCache productJsonCache;
 
     /**
      * Constructs a new {@link ProductController}.
      *
-     * @param productService the application service that handles product operations
+     * @param productService        the application service that handles product operations
+     * @param catalogVersionService the service tracking the versions of the products
+     * @param productJsonCache      the cache of the serialized products
      */
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, CatalogVersionService catalogVersionService,
+                             ProductJsonCache productJsonCache) {
         this.productService = productService;
+        this.catalogVersionService = catalogVersionService;
+        this.productJsonCache = productJsonCache;
     }
 
     /**
@@ -49,23 +76,73 @@ public class ProductController {
     /**
      * Retrieves all products.
      *
-     * @return a {@link ResponseEntity} containing all registered products with {@code 200 OK} status
+     * @param ifNoneMatch the entity tag of the list held by the client (optional)
+     * @return a {@link ResponseEntity} containing all registered products with {@code 200 OK} status,
+     * or {@code 304 Not Modified} if no product changed since the client got them
      */
     @GetMapping
-    public ResponseEntity<Iterable<Product>> findAll() {
-        return ResponseEntity.ok(productService.findAll());
+    public ResponseEntity<Iterable<Product>> findAll(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // The version is read first, so it never describes a newer list than the one returned
+        String eTag = ConditionalResponses.eTag("products", catalogVersionService.productsVersion());
+        if (ConditionalResponses.isNotModified(ifNoneMatch, eTag)) {
+            return ConditionalResponses.notModified(eTag, ConditionalResponses.ADMIN);
+        }
+        return ConditionalResponses.ok(productService.findAll(), eTag, ConditionalResponses.ADMIN, ifNoneMatch);
     }
 
     /**
      * Retrieves a product by its unique identifier.
+     * <p>
+     * The product is returned as the JSON bytes cached for its current version, which
+     * are written to the response as is; on a miss it is read, serialized and cached.
      *
-     * @param id the identifier of the product to retrieve
-     * @return a {@link ResponseEntity} containing the product with {@code 200 OK} status
+     * @param id          the identifier of the product to retrieve
+     * @param ifNoneMatch the entity tag of the product held by the client (optional)
+     * @return a {@link ResponseEntity} containing the JSON of the product with {@code 200 OK} status,
+     * or {@code 304 Not Modified} if it did not change since the client got it
      * @throws RuntimeException if no product exists with the provided id
      */
-    @GetMapping("/{id}")
-    public ResponseEntity<Product> findById(@PathVariable Integer id) {
-        return ResponseEntity.ok(productService.findById(id));
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> findById(@PathVariable Integer id,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                           String ifNoneMatch) {
+        String version = catalogVersionService.productVersion(id);
+        String knownETag = ConditionalResponses.eTag("product", version);
+        if (ConditionalResponses.isNotModified(ifNoneMatch, knownETag)) {
+            return ConditionalResponses.notModified(knownETag, ConditionalResponses.ADMIN);
+        }
+        byte[] json = productJsonCache.get(id, version);
+        if (json == null) {
+            Product product = productService.findById(id);
+            version = catalogVersionService.recordProduct(product);
+            json = productJsonCache.put(product, version);
+        }
+        return ConditionalResponses.ok(json, ConditionalResponses.eTag("product", version), ConditionalResponses.ADMIN,
+                ifNoneMatch);
+    }
+
+    /**
+     * Retrieves a product by its unique code.
+     *
+     * @param code the code of the product to retrieve
+     * @return a {@link ResponseEntity} containing the product with {@code 200 OK} status
+     * @throws RuntimeException if no product has the provided code
+     */
+    @GetMapping("/by-code/{code}")
+    public ResponseEntity<Product> findByCode(@PathVariable String code) {
+        return ResponseEntity.ok(productService.findByCode(code));
+    }
+
+    /**
+     * Retrieves several products by their codes at once.
+     *
+     * @param codes the codes of the products to retrieve
+     * @return a {@link ResponseEntity} containing the existing products keyed by code, with {@code 200 OK} status
+     */
+    @GetMapping("/by-code")
+    public ResponseEntity<Map<String, Product>> findByCodes(@RequestParam List<String> codes) {
+        return ResponseEntity.ok(productService.findByCodes(codes));
     }
 
     /**
@@ -82,4 +159,51 @@ public class ProductController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Translates a save rejected because its code belongs to another product into a
+     * {@code 409 Conflict} response.
+     *
+     * @param e the exception raised while processing the request
+     * @return a {@link ResponseEntity} with the error message
+     */
+    @ExceptionHandler(DuplicateProductCodeException.class)
+    public ResponseEntity<String> handleDuplicateProductCode(DuplicateProductCodeException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    /**
+     * Translates a save rejected by the unique index on the product code into a
+     * {@code 409 Conflict} response, as when the code is found taken beforehand.
+     * <p>
+     * This happens when another product with the same code is saved concurrently, after
+     * the check made by {@link ProductService#save(Product)}. Any other violation is
+     * rethrown as is.
+     *
+     * @param e the exception raised while processing the request
+     * @return a {@link ResponseEntity} with the error message
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> handleDataIntegrityViolation(DataIntegrityViolationException e) {
+        if (!violates(e, PRODUCT_CODE_UNIQUE_INDEX)) {
+            throw e;
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Ya existe otro producto con el mismo código.");
+    }
+
+    /**
+     * Tells whether a data integrity violation was raised by the given constraint.
+     *
+     * @param e          the violation
+     * @param constraint the name of the constraint
+     * @return {@code true} if the constraint reported by the database is the given one
+     */
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return constraint.equals(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+
 }
@@ -0,0 +1,108 @@
+package com.juanlopez.ecommerce.backend.infrastructure.rest;
+
+import com.juanlopez.ecommerce.backend.application.ProductImportService;
+import com.juanlopez.ecommerce.backend.domain.model.ProductImport;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * REST controller for importing products in bulk through the administrative API.
+ * <p>
+ * A CSV file is uploaded as the raw request body and imported in the background by
+ * the {@link ProductImportService}; its progress, and the rows it rejected, are then
+ * polled through the URL returned in the {@code Location} header.
+ */
+@RestController
+@RequestMapping("api/v1/admin/products/imports")
+public class ProductImportController {
+
+    /**
+     * Media type of the uploaded files.
+     */
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    /**
+     * Seconds a client is asked to wait before retrying an import rejected because too many are queued.
+     */
+    private static final String IMPORT_RETRY_AFTER_SECONDS = "60";
+
+    private final ProductImportService productImportService;
+
+    /**
+     * Constructs a new {@code ProductImportController}.
+     *
+     * @param productImportService the application service that imports the files
+     */
+    public ProductImportController(ProductImportService productImportService) {
+        this.productImportService = productImportService;
+    }
+
+    /**
+     * Accepts a CSV file of products to be imported asynchronously.
+     * <p>
+     * The body is streamed to a temporary file, so the whole file is never held in memory,
+     * and the response is sent as soon as it has been received and its header checked.
+     * Products are matched by code: new codes create products owned by the given user,
+     * and existing ones update the product with that code.
+     *
+     * @param userId the ID of the user owning the created products
+     * @param body   the content of the CSV file
+     * @return the queued import with {@code 202 Accepted} status
+     * @throws IOException if the body cannot be read or stored
+     */
+    @PostMapping(consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ProductImport> submit(@RequestParam Integer userId, InputStream body) throws IOException {
+        ProductImport productImport = productImportService.submit(body, userId);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQuery(null).path("/{id}").buildAndExpand(productImport.getId()).toUri();
+        return ResponseEntity.accepted().location(location).body(productImport);
+    }
+
+    /**
+     * Retrieves the progress of an import.
+     *
+     * @param id the ID returned when the file was accepted
+     * @return the import, or {@code 404 Not Found} if it is unknown or has expired
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ProductImport> findById(@PathVariable UUID id) {
+        ProductImport productImport = productImportService.findById(id);
+        return productImport == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(productImport);
+    }
+
+    /**
+     * Translates an invalid file header or an unknown user into a {@code 400 Bad Request} response.
+     *
+     * @param e the exception raised while processing the request
+     * @return a {@link ResponseEntity} with the error message
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    /**
+     * Translates an import rejected because too many are queued into a
+     * {@code 429 Too Many Requests} response.
+     *
+     * @param e the exception raised when the import queue is full or shutting down
+     * @return a {@link ResponseEntity} with the error message and a {@code Retry-After} header
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleRejectedExecution(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, IMPORT_RETRY_AFTER_SECONDS)
+                .body(e.getMessage());
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.juanlopez.ecommerce.backend.infrastructure.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import com.juanlopez.ecommerce.backend.application.CatalogVersionService;
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+import com.juanlopez.ecommerce.backend.domain.port.ICatalogChangeListener;
+
+import java.io.UncheckedIOException;
+
+/**
+ * Cache of the JSON representation of single products, as returned by
+ * {@code GET /api/v1/admin/products/{id}}, so a hot product is answered by copying
+ * bytes serialized once instead of mapping and serializing it on every request.
+ * <p>
+ * Each entry holds the UTF-8 JSON of a product along with the version it was serialized
+ * from, as tracked by {@link CatalogVersionService}, and is only served for that
+ * version: bytes serialized from a product read before a concurrent change are never
+ * served once the change is known. The cache is bounded by the number of bytes it
+ * holds, evicting the least used products first.
+ * <p>
+ * As a {@link ICatalogChangeListener}, it drops the entry of every product saved or
+ * deleted, and every entry once products are imported. Hits and misses are recorded per
+ * request, counting an entry of another version as a miss. Cached bytes are shared
+ * between requests and must not be modified.
+ */
+public class ProductJsonCache implements ICatalogChangeListener {
+
+    /**
+     * Estimated size of an entry besides its JSON bytes: the key, the entry itself, the
+     * version and the array header.
+     */
+    static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Integer, SerializedProduct> cache;
+    private final StatsCounter statsCounter = new ConcurrentStatsCounter();
+
+    /**
+     * Constructs the cache.
+     *
+     * @param objectMapper the mapper serializing the products, as used for every other response
+     * @param maximumBytes the maximum number of bytes held, counting the estimated overhead of each entry
+     */
+    public ProductJsonCache(ObjectMapper objectMapper, long maximumBytes) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((Integer id, SerializedProduct product) -> ENTRY_OVERHEAD_BYTES + product.json().length)
+                .recordStats(() -> statsCounter)
+                .build();
+    }
+
+    /**
+     * Returns the underlying cache, so its statistics can be exposed as metrics.
+     *
+     * @return the cache of serialized products, keyed by ID
+     */
+    public Cache<Integer, SerializedProduct> getCache() {
+        return cache;
+    }
+
+    /**
+     * Returns the number of bytes currently held, counting the estimated overhead of each entry.
+     *
+     * @return the weighted size of the cache
+     */
+    public long weightedSize() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    /**
+     * Returns the JSON of a product, if it was serialized from the given version.
+     *
+     * @param id      the product ID
+     * @param version the current version of the product, or {@code null} if it is unknown
+     * @return the UTF-8 JSON bytes, or {@code null} if none are cached for that version
+     */
+    public byte[] get(Integer id, String version) {
+        SerializedProduct serialized = version == null ? null : cache.asMap().get(id);
+        if (serialized == null || !serialized.version().equals(version)) {
+            statsCounter.recordMisses(1);
+            return null;
+        }
+        statsCounter.recordHits(1);
+        return serialized.json();
+    }
+
+    /**
+     * Serializes a product and caches its JSON under the version it was read with.
+     * <p>
+     * Products without a known version are serialized but not cached, since the entry
+     * could never be validated.
+     *
+     * @param product the product read
+     * @param version the version of the product read, or {@code null} if it is unknown
+     * @return the UTF-8 JSON bytes of the product
+     */
+    public byte[] put(Product product, String version) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(product);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (version != null) {
+            cache.put(product.getId(), new SerializedProduct(version, json));
+        }
+        return json;
+    }
+
+    @Override
+    public void onProductSaved(Product product) {
+        cache.invalidate(product.getId());
+    }
+
+    @Override
+    public void onProductDeleted(Integer id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Drops every entry, since an import may change any number of products.
+     */
+    @Override
+    public void onProductsImported() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * JSON representation of a product, along with the version it was serialized from.
+     *
+     * @param version the version of the product
+     * @param json    the UTF-8 JSON bytes
+     */
+    public record SerializedProduct(String version, byte[] json) {
+    }
+
+}
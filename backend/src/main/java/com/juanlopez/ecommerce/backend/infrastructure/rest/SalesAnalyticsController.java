@@ -0,0 +1,82 @@
+package com.juanlopez.ecommerce.backend.infrastructure.rest;
+
+import com.juanlopez.ecommerce.backend.application.SalesAnalyticsService;
+import com.juanlopez.ecommerce.backend.domain.model.DailySales;
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.model.ProductSales;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller serving the sales dashboards.
+ * <p>
+ * Figures are read from the in-memory counters of {@link SalesAnalyticsService},
+ * so no endpoint queries the database.
+ */
+@RestController
+@RequestMapping("api/v1/admin/analytics")
+public class SalesAnalyticsController {
+
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    /**
+     * Constructs a new {@code SalesAnalyticsController} with the given {@link SalesAnalyticsService}.
+     *
+     * @param salesAnalyticsService the service holding the sales counters
+     */
+    public SalesAnalyticsController(SalesAnalyticsService salesAnalyticsService) {
+        this.salesAnalyticsService = salesAnalyticsService;
+    }
+
+    /**
+     * Retrieves the revenue of each day within an optional range.
+     *
+     * @param from first day of the range, in ISO format (optional)
+     * @param to   last day of the range, in ISO format (optional)
+     * @return a {@link ResponseEntity} with the sales of the days with orders, from the oldest to the newest
+     */
+    @GetMapping("/revenue-by-day")
+    public ResponseEntity<List<DailySales>> findRevenueByDay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesAnalyticsService.findSalesByDay(from, to));
+    }
+
+    /**
+     * Retrieves the products with the highest revenue.
+     *
+     * @param limit the number of products to return (optional, capped at {@link SalesAnalyticsService#MAX_TOP_PRODUCTS})
+     * @return a {@link ResponseEntity} with the best-selling products, from the highest revenue to the lowest
+     */
+    @GetMapping("/top-products")
+    public ResponseEntity<List<ProductSales>> findTopProducts(@RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(salesAnalyticsService.findTopProducts(limit));
+    }
+
+    /**
+     * Retrieves the number of orders in each state.
+     *
+     * @return a {@link ResponseEntity} with the number of orders of every state
+     */
+    @GetMapping("/orders-by-state")
+    public ResponseEntity<Map<OrderState, Long>> countOrdersByState() {
+        return ResponseEntity.ok(salesAnalyticsService.countOrdersByState());
+    }
+
+    /**
+     * Translates invalid parameters, such as an inverted date range, into a {@code 400 Bad Request} response.
+     *
+     * @param e the exception raised while processing the request
+     * @return a {@link ResponseEntity} with the error message
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+}
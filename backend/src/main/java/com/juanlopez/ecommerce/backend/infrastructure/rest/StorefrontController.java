@@ -0,0 +1,167 @@
+package com.juanlopez.ecommerce.backend.infrastructure.rest;
+
+import com.juanlopez.ecommerce.backend.application.CatalogVersionService;
+import com.juanlopez.ecommerce.backend.application.CategoryService;
+import com.juanlopez.ecommerce.backend.application.ProductSearchService;
+import com.juanlopez.ecommerce.backend.application.ProductService;
+import com.juanlopez.ecommerce.backend.domain.model.CategorySummary;
+import com.juanlopez.ecommerce.backend.domain.model.CursorPage;
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+import com.juanlopez.ecommerce.backend.domain.model.ProductFilter;
+import com.juanlopez.ecommerce.backend.domain.model.ProductSort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * REST controller through which customers browse the product catalog.
+ * <p>
+ * Unlike the administrative API, the catalog is never returned as a whole: products
+ * are filtered and sorted by the database and returned in pages, using the same
+ * opaque cursors as the order listings. Text searches and autocomplete are answered
+ * from the in-memory index of {@link ProductSearchService}.
+ * <p>
+ * Every response depends only on the products, so it is tagged with the version of the
+ * product list and may be kept by browsers and shared caches; a conditional request made
+ * while no product changed is answered with {@code 304 Not Modified} without querying.
+ * The category navigation is the exception: its product counts may also be corrected by
+ * a background job, so it is cached for a short time but never tagged.
+ */
+@RestController
+@RequestMapping("api/v1/products")
+public class StorefrontController {
+
+    private final ProductService productService;
+    private final ProductSearchService productSearchService;
+    private final CatalogVersionService catalogVersionService;
+    private final CategoryService categoryService;
+
+    /**
+     * Constructs a new {@code StorefrontController} with the given services.
+     *
+     * @param productService        the application service that handles product operations
+     * @param productSearchService  the application service that handles text searches
+     * @param catalogVersionService the service tracking the version of the product list
+     * @param categoryService       the application service that handles category operations
+     */
+    public StorefrontController(ProductService productService, ProductSearchService productSearchService,
+                                CatalogVersionService catalogVersionService, CategoryService categoryService) {
+        this.productService = productService;
+        this.productSearchService = productSearchService;
+        this.catalogVersionService = catalogVersionService;
+        this.categoryService = categoryService;
+    }
+
+    /**
+     * Retrieves a page of the products matching the given filters.
+     *
+     * @param categoryId  the category of the products (optional)
+     * @param minPrice    the lowest price, inclusive (optional)
+     * @param maxPrice    the highest price, inclusive (optional)
+     * @param name        the text the product names start with, ignoring case (optional)
+     * @param sort        the ordering of the products (optional, {@link ProductSort#NEWEST} by default)
+     * @param cursor      the opaque continuation token returned by the previous page (optional)
+     * @param size        the requested page size (optional, capped at {@link ProductService#MAX_PAGE_SIZE})
+     * @param ifNoneMatch the entity tag of the page held by the client (optional)
+     * @return a {@link ResponseEntity} with the page of products and the token of the next one
+     */
+    @GetMapping
+    public ResponseEntity<CursorPage<Product>> browse(@RequestParam(required = false) Integer categoryId,
+                                                      @RequestParam(required = false) BigDecimal minPrice,
+                                                      @RequestParam(required = false) BigDecimal maxPrice,
+                                                      @RequestParam(required = false) String name,
+                                                      @RequestParam(required = false) ProductSort sort,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                              required = false) String ifNoneMatch) {
+        String eTag = productsETag();
+        if (ConditionalResponses.isNotModified(ifNoneMatch, eTag)) {
+            return ConditionalResponses.notModified(eTag, ConditionalResponses.STOREFRONT);
+        }
+        ProductFilter filter = new ProductFilter(categoryId, minPrice, maxPrice, name);
+        return ConditionalResponses.ok(productService.browse(filter, sort, cursor, size), eTag,
+                ConditionalResponses.STOREFRONT, ifNoneMatch);
+    }
+
+    /**
+     * Searches the products whose name, code or description contain every word of the query.
+     *
+     * @param q           the text typed by the customer, the last word possibly incomplete
+     * @param limit       the maximum number of results (optional, capped at {@link ProductSearchService#MAX_LIMIT})
+     * @param ifNoneMatch the entity tag of the results held by the client (optional)
+     * @return a {@link ResponseEntity} with the IDs of the matching products, the most relevant first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<Integer>> search(@RequestParam String q,
+                                                @RequestParam(required = false) Integer limit,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                String ifNoneMatch) {
+        String eTag = productsETag();
+        if (ConditionalResponses.isNotModified(ifNoneMatch, eTag)) {
+            return ConditionalResponses.notModified(eTag, ConditionalResponses.STOREFRONT);
+        }
+        return ConditionalResponses.ok(productSearchService.search(q, limit), eTag, ConditionalResponses.STOREFRONT,
+                ifNoneMatch);
+    }
+
+    /**
+     * Suggests the words completing the last word typed by the customer.
+     *
+     * @param prefix      the text typed by the customer
+     * @param limit       the maximum number of suggestions (optional, capped at {@link ProductSearchService#MAX_LIMIT})
+     * @param ifNoneMatch the entity tag of the suggestions held by the client (optional)
+     * @return a {@link ResponseEntity} with the suggested words, the most frequent first
+     */
+    @GetMapping("/suggestions")
+    public ResponseEntity<List<String>> suggest(@RequestParam String prefix,
+                                                @RequestParam(required = false) Integer limit,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                String ifNoneMatch) {
+        String eTag = productsETag();
+        if (ConditionalResponses.isNotModified(ifNoneMatch, eTag)) {
+            return ConditionalResponses.notModified(eTag, ConditionalResponses.STOREFRONT);
+        }
+        return ConditionalResponses.ok(productSearchService.suggest(prefix, limit), eTag,
+                ConditionalResponses.STOREFRONT, ifNoneMatch);
+    }
+
+    /**
+     * Retrieves every category along with its number of listable products, for the
+     * storefront navigation.
+     * <p>
+     * The numbers are read from counters maintained on every product write, so the
+     * listing costs a single query whatever the size of the catalog.
+     *
+     * @return a {@link ResponseEntity} with the categories and their number of products, ordered by name
+     */
+    @GetMapping("/categories")
+    public ResponseEntity<List<CategorySummary>> categories() {
+        return ResponseEntity.ok().cacheControl(ConditionalResponses.STOREFRONT)
+                .body(categoryService.findAllWithProductCounts());
+    }
+
+    /**
+     * Builds the entity tag shared by all the responses, read before the products so it
+     * never describes a newer catalog than the one returned.
+     */
+    private String productsETag() {
+        return ConditionalResponses.eTag("products", catalogVersionService.productsVersion());
+    }
+
+    /**
+     * Translates invalid parameters, such as a malformed cursor or an inverted price
+     * range, into a {@code 400 Bad Request} response.
+     *
+     * @param e the exception raised while processing the request
+     * @return a {@link ResponseEntity} with the error message
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+}
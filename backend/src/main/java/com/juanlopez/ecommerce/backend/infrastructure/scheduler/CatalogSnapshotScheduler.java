@@ -0,0 +1,40 @@
+package com.juanlopez.ecommerce.backend.infrastructure.scheduler;
+
+import com.juanlopez.ecommerce.backend.application.CatalogSnapshotService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically rebuilds the catalog snapshot from the database.
+ * <p>
+ * Each instance only updates its snapshot with its own writes, so the rebuild brings in
+ * the changes made by the others. The interval is set with
+ * {@code ecommerce.catalog.snapshot.refresh-interval}; the first run waits one interval,
+ * since the snapshot is already built on startup.
+ */
+@Component
+@ConditionalOnProperty(name = "ecommerce.catalog.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class CatalogSnapshotScheduler {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    /**
+     * Constructs the scheduler.
+     *
+     * @param catalogSnapshotService the service publishing the snapshot
+     */
+    public CatalogSnapshotScheduler(CatalogSnapshotService catalogSnapshotService) {
+        this.catalogSnapshotService = catalogSnapshotService;
+    }
+
+    /**
+     * Rebuilds the snapshot.
+     */
+    @Scheduled(fixedDelayString = "${ecommerce.catalog.snapshot.refresh-interval:10m}",
+            initialDelayString = "${ecommerce.catalog.snapshot.refresh-interval:10m}")
+    public void rebuild() {
+        catalogSnapshotService.rebuild();
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.juanlopez.ecommerce.backend.infrastructure.scheduler;
+
+import com.juanlopez.ecommerce.backend.application.CategoryService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically reconciles the per-category product counters with the products table.
+ * <p>
+ * The schedule is set with {@code ecommerce.categories.product-counts.reconcile-cron};
+ * by default the job runs every hour.
+ */
+@Component
+public class CategoryProductCountScheduler {
+
+    private final CategoryService categoryService;
+
+    /**
+     * Constructs the scheduler.
+     *
+     * @param categoryService the service reconciling the counters
+     */
+    public CategoryProductCountScheduler(CategoryService categoryService) {
+        this.categoryService = categoryService;
+    }
+
+    /**
+     * Recomputes the counters and corrects those that drifted.
+     */
+    @Scheduled(cron = "${ecommerce.categories.product-counts.reconcile-cron:0 15 * * * *}")
+    public void reconcileProductCounts() {
+        categoryService.reconcileProductCounts();
+    }
+
+}
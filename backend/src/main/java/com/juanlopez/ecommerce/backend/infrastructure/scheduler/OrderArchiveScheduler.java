@@ -0,0 +1,35 @@
+package com.juanlopez.ecommerce.backend.infrastructure.scheduler;
+
+import com.juanlopez.ecommerce.backend.application.OrderArchiveService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically runs the maintenance of the order partitions.
+ * <p>
+ * The schedule is set with {@code ecommerce.orders.archive.cron}; by default the job
+ * runs every night, when detaching partitions locks the order tables the least.
+ */
+@Component
+public class OrderArchiveScheduler {
+
+    private final OrderArchiveService orderArchiveService;
+
+    /**
+     * Constructs the scheduler.
+     *
+     * @param orderArchiveService the service maintaining the partitions
+     */
+    public OrderArchiveScheduler(OrderArchiveService orderArchiveService) {
+        this.orderArchiveService = orderArchiveService;
+    }
+
+    /**
+     * Creates the upcoming partitions and archives the old ones.
+     */
+    @Scheduled(cron = "${ecommerce.orders.archive.cron:0 30 3 * * *}")
+    public void maintainPartitions() {
+        orderArchiveService.maintainPartitions();
+    }
+
+}
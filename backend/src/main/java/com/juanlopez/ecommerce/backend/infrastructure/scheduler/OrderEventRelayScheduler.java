@@ -0,0 +1,36 @@
+package com.juanlopez.ecommerce.backend.infrastructure.scheduler;
+
+import com.juanlopez.ecommerce.backend.application.OrderEventRelayService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically relays the order events of the outbox.
+ * <p>
+ * The delay between the end of a run and the start of the next one is set with
+ * {@code ecommerce.orders.outbox.poll-interval}, which bounds how long an event
+ * waits in the outbox when the relay keeps up.
+ */
+@Component
+public class OrderEventRelayScheduler {
+
+    private final OrderEventRelayService orderEventRelayService;
+
+    /**
+     * Constructs the scheduler.
+     *
+     * @param orderEventRelayService the service relaying the events
+     */
+    public OrderEventRelayScheduler(OrderEventRelayService orderEventRelayService) {
+        this.orderEventRelayService = orderEventRelayService;
+    }
+
+    /**
+     * Publishes the pending events.
+     */
+    @Scheduled(fixedDelayString = "${ecommerce.orders.outbox.poll-interval:1s}")
+    public void relayPendingEvents() {
+        orderEventRelayService.relayPendingEvents();
+    }
+
+}
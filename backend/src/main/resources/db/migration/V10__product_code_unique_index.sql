@@ -0,0 +1,24 @@
+-- Índice único sobre el código de producto: garantiza que ningún código se repita y resuelve
+-- las búsquedas por código (integraciones de TPV y ERP) sin recorrer la tabla.
+-- Los productos sin código (NULL) no entran en conflicto entre sí.
+--
+-- Si ya hay códigos repetidos la migración falla indicando cuántos, para que se corrijan
+-- a mano antes de desplegar en lugar de cambiar datos de catálogo sin revisión.
+-- IF NOT EXISTS: ddl-auto=update pudo haber creado ya el índice declarado con @Index.
+
+DO
+$$
+DECLARE
+    duplicated_codes INTEGER;
+BEGIN
+    SELECT COUNT(*) INTO duplicated_codes
+    FROM (SELECT code FROM products WHERE code IS NOT NULL GROUP BY code HAVING COUNT(*) > 1) duplicated;
+    IF duplicated_codes > 0 THEN
+        RAISE EXCEPTION 'Hay % códigos de producto repetidos; deben corregirse antes de crear el índice único.',
+            duplicated_codes;
+    END IF;
+END;
+$$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_products_code
+    ON products (code);
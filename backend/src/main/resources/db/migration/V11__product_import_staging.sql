@@ -0,0 +1,20 @@
+-- Tabla de preparación de la importación masiva de productos (POST /api/v1/admin/products/imports).
+-- Las filas válidas de cada fichero se cargan aquí con COPY, por bloques y desde varios hilos, y
+-- después se fusionan con products en una sola transacción: se actualizan los productos cuyo código
+-- ya existe y se crean los demás. Al terminar la importación se borran sus filas.
+--
+-- UNLOGGED: sus escrituras no pasan por el WAL, así que la carga es más rápida; a cambio la tabla
+-- se vacía tras una caída del servidor, lo que solo afecta a las importaciones en curso, que ya
+-- se pierden al reiniciar la aplicación.
+
+CREATE UNLOGGED TABLE IF NOT EXISTS product_import_rows (
+    import_id   UUID           NOT NULL,
+    line        BIGINT         NOT NULL,
+    code        VARCHAR(255)   NOT NULL,
+    name        VARCHAR(255)   NOT NULL,
+    description VARCHAR(255),
+    url_image   VARCHAR(255),
+    price       NUMERIC(38, 2) NOT NULL,
+    category_id INTEGER        NOT NULL,
+    PRIMARY KEY (import_id, line)
+);
@@ -0,0 +1,22 @@
+-- Número de productos de cada categoría para la navegación de la tienda (GET /api/v1/products/categories).
+-- Se cuentan los productos que pueden listarse, con nombre y precio, igual que en el catálogo de la tienda.
+-- Los contadores se ajustan en la misma transacción que cada alta, cambio de categoría o borrado de un
+-- producto, así que el listado no ejecuta un COUNT(*) por categoría. Una tarea periódica los vuelve a
+-- calcular y corrige las diferencias.
+-- Las categorías sin fila tienen cero productos; la fila se borra con su categoría.
+
+CREATE TABLE IF NOT EXISTS category_product_counts (
+    category_id   INTEGER NOT NULL,
+    product_count BIGINT  NOT NULL,
+    PRIMARY KEY (category_id),
+    CONSTRAINT fk_category_product_counts_category FOREIGN KEY (category_id)
+        REFERENCES categories (id) ON DELETE CASCADE
+);
+
+-- Carga inicial a partir de los productos existentes.
+INSERT INTO category_product_counts (category_id, product_count)
+SELECT category_entity_id, COUNT(*)
+FROM products
+WHERE category_entity_id IS NOT NULL AND name IS NOT NULL AND price IS NOT NULL
+GROUP BY category_entity_id
+ON CONFLICT (category_id) DO NOTHING;
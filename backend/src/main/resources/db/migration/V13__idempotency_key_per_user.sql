@@ -0,0 +1,19 @@
+-- Las claves de idempotencia pasan a ser de cada usuario: dos usuarios pueden usar la misma clave
+-- sin recibir la orden del otro. Cada clave guarda además el hash SHA-256 de la petición que la
+-- reservó, para rechazar que se reutilice con una petición distinta.
+
+ALTER TABLE order_idempotency_key ADD COLUMN user_id INTEGER;
+ALTER TABLE order_idempotency_key ADD COLUMN request_hash VARCHAR(64);
+
+-- Las claves completadas toman el usuario de su orden; las reservas pendientes se descartan.
+-- Las claves existentes quedan sin hash, así que sus repeticiones no se comprueban.
+UPDATE order_idempotency_key k
+SET user_id = o.user_entity_id
+FROM orders o
+WHERE o.id = k.order_id;
+
+DELETE FROM order_idempotency_key WHERE user_id IS NULL;
+
+ALTER TABLE order_idempotency_key DROP CONSTRAINT IF EXISTS order_idempotency_key_pkey;
+ALTER TABLE order_idempotency_key ALTER COLUMN user_id SET NOT NULL;
+ALTER TABLE order_idempotency_key ADD PRIMARY KEY (user_id, idempotency_key);
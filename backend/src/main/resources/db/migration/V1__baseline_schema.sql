@@ -0,0 +1,62 @@
+-- Esquema inicial, equivalente al generado por Hibernate con ddl-auto=update
+-- antes de introducir las migraciones. En bases de datos existentes esta versión
+-- se marca como línea base y no se ejecuta.
+
+CREATE TABLE users (
+    id           INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    username     VARCHAR(255),
+    first_name   VARCHAR(255),
+    last_name    VARCHAR(255),
+    email        VARCHAR(255),
+    address      VARCHAR(255),
+    cellphone    VARCHAR(255),
+    password     VARCHAR(255),
+    user_type    VARCHAR(255) CHECK (user_type IN ('ADMIN', 'USER')),
+    date_created TIMESTAMP(6),
+    date_updated TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE categories (
+    id           INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    name         VARCHAR(255),
+    date_created TIMESTAMP(6),
+    date_updated TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE products (
+    id                 INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    name               VARCHAR(255),
+    code               VARCHAR(255),
+    description        VARCHAR(255),
+    url_image          VARCHAR(255),
+    price              NUMERIC(38, 2),
+    date_created       TIMESTAMP(6),
+    date_updated       TIMESTAMP(6),
+    user_entity_id     INTEGER,
+    category_entity_id INTEGER,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_products_user FOREIGN KEY (user_entity_id) REFERENCES users (id),
+    CONSTRAINT fk_products_category FOREIGN KEY (category_entity_id) REFERENCES categories (id)
+);
+
+CREATE TABLE orders (
+    id             INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    date_created   TIMESTAMP(6),
+    order_state    VARCHAR(255) CHECK (order_state IN ('CANCELLED', 'CONFIRMED')),
+    user_entity_id INTEGER,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_orders_user FOREIGN KEY (user_entity_id) REFERENCES users (id)
+);
+
+CREATE TABLE order_products (
+    id              INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    quantity        NUMERIC(38, 2),
+    price           NUMERIC(38, 2),
+    product_id      INTEGER,
+    order_entity_id INTEGER,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_order_products_order FOREIGN KEY (order_entity_id) REFERENCES orders (id)
+);
@@ -0,0 +1,8 @@
+-- Índices que soportan la paginación por keyset de pedidos (dateCreated DESC, id DESC).
+-- IF NOT EXISTS: ddl-auto=update pudo haberlos creado ya a partir de las anotaciones @Index.
+
+CREATE INDEX IF NOT EXISTS idx_orders_date_created_id
+    ON orders (date_created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_orders_user_date_created_id
+    ON orders (user_entity_id, date_created DESC, id DESC);
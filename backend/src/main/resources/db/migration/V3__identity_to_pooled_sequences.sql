@@ -0,0 +1,28 @@
+-- Migra las claves primarias de columnas IDENTITY a secuencias compartidas con
+-- Hibernate (optimizador pooled-lo, bloques de 50). Con IDENTITY Hibernate debe
+-- ejecutar cada INSERT de inmediato para conocer el ID, lo que desactiva los lotes JDBC.
+--
+-- Cada secuencia arranca después del mayor ID existente: con pooled-lo, el valor
+-- obtenido es el inicio del bloque [valor, valor + 49], así que no hay colisiones
+-- con las filas ya insertadas. Se elimina la identidad para que ningún INSERT
+-- siga dependiendo de ella.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 1, false) FROM users;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS categories_seq INCREMENT BY 50;
+SELECT setval('categories_seq', COALESCE(MAX(id), 0) + 1, false) FROM categories;
+ALTER TABLE categories ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS products_seq INCREMENT BY 50;
+SELECT setval('products_seq', COALESCE(MAX(id), 0) + 1, false) FROM products;
+ALTER TABLE products ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+SELECT setval('orders_seq', COALESCE(MAX(id), 0) + 1, false) FROM orders;
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS order_products_seq INCREMENT BY 50;
+SELECT setval('order_products_seq', COALESCE(MAX(id), 0) + 1, false) FROM order_products;
+ALTER TABLE order_products ALTER COLUMN id DROP IDENTITY IF EXISTS;
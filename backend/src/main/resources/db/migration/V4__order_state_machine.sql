@@ -0,0 +1,7 @@
+-- Estados adicionales del ciclo de vida de la orden (PAID, SHIPPED, DELIVERED).
+-- El CHECK generado por Hibernate solo admitía CANCELLED y CONFIRMED.
+
+ALTER TABLE orders DROP CONSTRAINT IF EXISTS orders_order_state_check;
+
+ALTER TABLE orders ADD CONSTRAINT orders_order_state_check
+    CHECK (order_state IN ('CANCELLED', 'CONFIRMED', 'PAID', 'SHIPPED', 'DELIVERED'));
@@ -0,0 +1,33 @@
+-- Modelo de lectura desnormalizado para los listados de órdenes.
+-- Cada fila resume una orden con su número de líneas y su total precalculado, de modo que
+-- los listados leen una sola tabla estrecha y solo el detalle consulta order_products.
+-- Las filas se mantienen en la misma transacción que las escrituras de la orden.
+
+CREATE TABLE IF NOT EXISTS order_summary (
+    id           INTEGER NOT NULL,
+    user_id      INTEGER,
+    order_state  VARCHAR(255) CHECK (order_state IN ('CANCELLED', 'CONFIRMED', 'PAID', 'SHIPPED', 'DELIVERED')),
+    line_count   INTEGER NOT NULL,
+    total_price  NUMERIC(38, 2),
+    date_created TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_summary_date_created_id
+    ON order_summary (date_created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_order_summary_user_date_created_id
+    ON order_summary (user_id, date_created DESC, id DESC);
+
+-- Carga inicial a partir de las órdenes existentes.
+INSERT INTO order_summary (id, user_id, order_state, line_count, total_price, date_created)
+SELECT o.id,
+       o.user_entity_id,
+       o.order_state,
+       COUNT(op.id),
+       COALESCE(SUM(op.price * op.quantity), 0),
+       o.date_created
+FROM orders o
+         LEFT JOIN order_products op ON op.order_entity_id = o.id
+GROUP BY o.id, o.user_entity_id, o.order_state, o.date_created
+ON CONFLICT (id) DO NOTHING;
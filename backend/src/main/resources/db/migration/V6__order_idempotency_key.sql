@@ -0,0 +1,10 @@
+-- Claves de idempotencia del alta de órdenes (cabecera Idempotency-Key de POST /api/v1/orders).
+-- Una fila sin orden es una reserva de una petición que todavía está creando su orden;
+-- al completarse guarda el id de la orden creada, que se devuelve a las repeticiones.
+
+CREATE TABLE IF NOT EXISTS order_idempotency_key (
+    idempotency_key VARCHAR(255) NOT NULL,
+    order_id        INTEGER,
+    date_created    TIMESTAMP(6),
+    PRIMARY KEY (idempotency_key)
+);
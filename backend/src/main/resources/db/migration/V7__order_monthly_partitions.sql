@@ -0,0 +1,107 @@
+-- Particionado mensual de orders y order_products por fecha de creación de la orden.
+-- Cada mes vive en su propia partición (orders_pAAAAMM, order_products_pAAAAMM), de modo que
+-- los índices y el VACUUM de las particiones activas no crecen con el histórico, las consultas
+-- con rango de fechas solo leen las particiones de ese rango y los meses antiguos pueden
+-- archivarse en el esquema orders_archive separando su partición.
+--
+-- En una tabla particionada la clave primaria debe incluir la clave de partición, así que
+-- pasa a ser (id, date_created); los IDs siguen saliendo de orders_seq y son únicos.
+-- order_products guarda una copia de la fecha de su orden (order_date_created) para
+-- particionarse igual y referenciar a orders por (order_entity_id, order_date_created).
+--
+-- Las filas existentes se copian a las nuevas tablas. Las órdenes sin fecha de creación
+-- reciben la fecha 1970-01-01 y quedan en la partición por defecto; su fila de
+-- order_summary recibe la misma fecha, para que los listados las ordenen igual.
+
+CREATE SCHEMA IF NOT EXISTS orders_archive;
+
+-- Tablas actuales: se renombran, junto con los índices cuyo nombre se reutiliza
+ALTER TABLE order_products RENAME TO order_products_legacy;
+ALTER TABLE orders RENAME TO orders_legacy;
+ALTER INDEX IF EXISTS orders_pkey RENAME TO orders_legacy_pkey;
+ALTER INDEX IF EXISTS order_products_pkey RENAME TO order_products_legacy_pkey;
+DROP INDEX IF EXISTS idx_orders_date_created_id;
+DROP INDEX IF EXISTS idx_orders_user_date_created_id;
+
+CREATE TABLE orders (
+    id             INTEGER      NOT NULL,
+    date_created   TIMESTAMP(6) NOT NULL,
+    order_state    VARCHAR(255),
+    user_entity_id INTEGER,
+    PRIMARY KEY (id, date_created),
+    CONSTRAINT orders_order_state_check
+        CHECK (order_state IN ('CANCELLED', 'CONFIRMED', 'PAID', 'SHIPPED', 'DELIVERED')),
+    CONSTRAINT fk_orders_user FOREIGN KEY (user_entity_id) REFERENCES users (id)
+) PARTITION BY RANGE (date_created);
+
+CREATE TABLE order_products (
+    id                 INTEGER      NOT NULL,
+    quantity           NUMERIC(38, 2),
+    price              NUMERIC(38, 2),
+    product_id         INTEGER,
+    order_entity_id    INTEGER,
+    order_date_created TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id, order_date_created),
+    CONSTRAINT fk_order_products_order FOREIGN KEY (order_entity_id, order_date_created)
+        REFERENCES orders (id, date_created)
+) PARTITION BY RANGE (order_date_created);
+
+-- Los índices de las tablas particionadas se crean en cada partición, también en las futuras
+CREATE INDEX idx_orders_date_created_id ON orders (date_created DESC, id DESC);
+CREATE INDEX idx_orders_user_date_created_id ON orders (user_entity_id, date_created DESC, id DESC);
+CREATE INDEX idx_order_products_order ON order_products (order_entity_id, order_date_created);
+
+-- Crea, si no existen, las particiones de orders y order_products de los meses indicados.
+-- La usa también la tarea de mantenimiento para crear por adelantado los meses siguientes.
+CREATE OR REPLACE FUNCTION create_order_partitions(first_month DATE, months INTEGER) RETURNS VOID AS
+$$
+DECLARE
+    month_start DATE;
+    month_end   DATE;
+    suffix      TEXT;
+BEGIN
+    FOR i IN 0 .. months - 1 LOOP
+        month_start := (date_trunc('month', first_month) + make_interval(months => i))::DATE;
+        month_end := (month_start + INTERVAL '1 month')::DATE;
+        suffix := to_char(month_start, 'YYYYMM');
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                       'orders_p' || suffix, month_start, month_end);
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF order_products FOR VALUES FROM (%L) TO (%L)',
+                       'order_products_p' || suffix, month_start, month_end);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Particiones desde el mes de la orden más antigua hasta tres meses después del actual
+DO
+$$
+DECLARE
+    first_month DATE := date_trunc('month', COALESCE((SELECT MIN(date_created) FROM orders_legacy), CURRENT_DATE));
+BEGIN
+    PERFORM create_order_partitions(first_month,
+        ((EXTRACT(YEAR FROM CURRENT_DATE) - EXTRACT(YEAR FROM first_month)) * 12
+            + EXTRACT(MONTH FROM CURRENT_DATE) - EXTRACT(MONTH FROM first_month))::INTEGER + 4);
+END;
+$$;
+
+-- Las filas fuera de todas las particiones mensuales van a la partición por defecto
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+CREATE TABLE order_products_default PARTITION OF order_products DEFAULT;
+
+-- Copia de los datos existentes
+INSERT INTO orders (id, date_created, order_state, user_entity_id)
+SELECT id, COALESCE(date_created, TIMESTAMP '1970-01-01'), order_state, user_entity_id
+FROM orders_legacy;
+
+INSERT INTO order_products (id, quantity, price, product_id, order_entity_id, order_date_created)
+SELECT op.id, op.quantity, op.price, op.product_id, op.order_entity_id,
+       COALESCE(o.date_created, TIMESTAMP '1970-01-01')
+FROM order_products_legacy op
+LEFT JOIN orders_legacy o ON o.id = op.order_entity_id;
+
+UPDATE order_summary
+SET date_created = TIMESTAMP '1970-01-01'
+WHERE date_created IS NULL;
+
+DROP TABLE order_products_legacy;
+DROP TABLE orders_legacy;
@@ -0,0 +1,18 @@
+-- Bandeja de salida (outbox) de eventos de órdenes.
+-- Cada cambio en una orden inserta su evento en la misma transacción; un proceso periódico
+-- los bloquea por lotes con FOR UPDATE SKIP LOCKED, los publica y los borra.
+-- Los eventos no se publican necesariamente en el orden en que se registraron, ni siquiera los de una
+-- misma orden: cada instancia toma los IDs en bloques de 50 de la secuencia, y varios procesos pueden
+-- publicar lotes distintos a la vez. Los consumidores no deben depender del orden de los eventos.
+
+CREATE SEQUENCE IF NOT EXISTS order_events_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS order_events (
+    id           BIGINT       NOT NULL,
+    order_id     INTEGER      NOT NULL,
+    event_type   VARCHAR(32)  NOT NULL,
+    order_state  VARCHAR(255),
+    date_created TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT order_events_event_type_check CHECK (event_type IN ('CREATED', 'UPDATED', 'STATE_CHANGED'))
+);
@@ -0,0 +1,23 @@
+-- Índices que soportan la navegación del catálogo (GET /api/v1/products) con paginación por keyset.
+-- Cada ordenación (id, precio o nombre, siempre con id como desempate) tiene su índice, y otro
+-- precedido por la categoría para el filtro más habitual. Los filtros de precio usan los índices
+-- de precio; el filtro por nombre compara el prefijo de lower(name), que usa el último índice.
+-- IF NOT EXISTS: ddl-auto=update pudo haber creado ya los declarados con @Index.
+
+CREATE INDEX IF NOT EXISTS idx_products_price_id
+    ON products (price, id);
+
+CREATE INDEX IF NOT EXISTS idx_products_name_id
+    ON products (name, id);
+
+CREATE INDEX IF NOT EXISTS idx_products_category_id
+    ON products (category_entity_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_products_category_price_id
+    ON products (category_entity_id, price, id);
+
+CREATE INDEX IF NOT EXISTS idx_products_category_name_id
+    ON products (category_entity_id, name, id);
+
+CREATE INDEX IF NOT EXISTS idx_products_lower_name
+    ON products (lower(name) text_pattern_ops);
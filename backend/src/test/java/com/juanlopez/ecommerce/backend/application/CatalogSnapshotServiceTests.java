@@ -0,0 +1,149 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.model.Category;
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+import com.juanlopez.ecommerce.backend.domain.model.ProductCursor;
+import com.juanlopez.ecommerce.backend.domain.model.ProductFilter;
+import com.juanlopez.ecommerce.backend.domain.model.ProductSort;
+import com.juanlopez.ecommerce.backend.domain.port.ICategoryRepository;
+import com.juanlopez.ecommerce.backend.domain.port.IProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogSnapshotServiceTests {
+
+	private IProductRepository iProductRepository;
+
+	private CatalogSnapshotService catalogSnapshotService;
+
+	@BeforeEach
+	void setUp() {
+		iProductRepository = mock(IProductRepository.class);
+		ICategoryRepository iCategoryRepository = mock(ICategoryRepository.class);
+		when(iCategoryRepository.findAll()).thenReturn(List.of(category(1, "Shoes"), category(2, "Books")));
+		catalogSnapshotService = new CatalogSnapshotService(iProductRepository, iCategoryRepository);
+	}
+
+	@Test
+	void writesPublishANewSnapshotAndLeaveThePreviousOneUnchanged() {
+		streamProducts(List.of(product(1, "A-1", 1, "10"), product(2, "A-2", 1, "20"), product(3, null, 2, "5")));
+		catalogSnapshotService.rebuild();
+		CatalogSnapshot before = catalogSnapshotService.snapshot();
+
+		catalogSnapshotService.onProductSaved(product(2, "B-2", 2, "20"));
+		catalogSnapshotService.onProductDeleted(3);
+		catalogSnapshotService.onProductSaved(product(4, "A-4", 1, "15"));
+		catalogSnapshotService.onCategoryDeleted(2);
+		CatalogSnapshot after = catalogSnapshotService.snapshot();
+
+		assertThat(before.productsOfCategory(1)).extracting(Product::getId).containsExactly(1, 2);
+		assertThat(before.findProductByCode("A-2")).isNotNull();
+		assertThat(before.categories()).hasSize(2);
+		assertThat(after.products()).extracting(Product::getId).containsExactly(1, 2, 4);
+		assertThat(after.productsOfCategory(1)).extracting(Product::getId).containsExactly(1, 4);
+		assertThat(after.productsOfCategory(2)).extracting(Product::getId).containsExactly(2);
+		assertThat(after.findProductByCode("A-2")).isNull();
+		assertThat(after.findProductByCode("B-2")).isEqualTo(after.findProduct(2));
+		assertThat(after.findProduct(3)).isNull();
+		assertThat(after.categories()).extracting(Category::getId).containsExactly(1);
+	}
+
+	@Test
+	void productsHandedInOrOutCannotModifyTheSnapshot() {
+		streamProducts(List.of(product(1, "A-1", 1, "10")));
+		catalogSnapshotService.rebuild();
+		Product saved = product(2, "A-2", 1, "20");
+		catalogSnapshotService.onProductSaved(saved);
+		CatalogSnapshot snapshot = catalogSnapshotService.snapshot();
+
+		saved.setName("changed by the caller");
+		snapshot.findProduct(1).setName("changed by a reader");
+		snapshot.products().getFirst().setPrice(BigDecimal.ZERO);
+
+		assertThat(snapshot.findProduct(1).getName()).isEqualTo("Product 1");
+		assertThat(snapshot.findProduct(1).getPrice()).isEqualByComparingTo("10");
+		assertThat(snapshot.findProductByCode("A-2").getName()).isEqualTo("Product 2");
+	}
+
+	@Test
+	void changesNotifiedDuringARebuildAreNotLost() {
+		doAnswer(invocation -> {
+			Consumer<Product> consumer = invocation.getArgument(0);
+			consumer.accept(product(1, "A-1", 1, "10"));
+			// Saved after the rebuild read its row, and deleted before the rebuild reached its row
+			catalogSnapshotService.onProductSaved(product(1, "A-1", 1, "12"));
+			catalogSnapshotService.onProductDeleted(2);
+			return null;
+		}).when(iProductRepository).forEachProduct(any());
+
+		catalogSnapshotService.rebuild();
+
+		CatalogSnapshot snapshot = catalogSnapshotService.snapshot();
+		assertThat(snapshot.findProduct(1).getPrice()).isEqualByComparingTo("12");
+		assertThat(snapshot.findProduct(2)).isNull();
+	}
+
+	@Test
+	void categoryPagesFollowTheOrderingWithoutGapsOrDuplicates() {
+		List<Product> products = new ArrayList<>();
+		for (int i = 1; i <= 40; i++) {
+			products.add(product(i, "C-" + i, i % 2 + 1, String.valueOf(i % 7)));
+		}
+		products.add(product(41, null, 1, null));
+		streamProducts(products);
+		catalogSnapshotService.rebuild();
+		CatalogSnapshot snapshot = catalogSnapshotService.snapshot();
+
+		ProductFilter filter = new ProductFilter(1, BigDecimal.ONE, null, null);
+		List<Product> pages = new ArrayList<>();
+		ProductCursor after = null;
+		do {
+			List<Product> page = snapshot.findPage(filter, ProductSort.PRICE_DESC, after, 3);
+			pages.addAll(page);
+			after = page.isEmpty() ? null : ProductCursor.after(ProductSort.PRICE_DESC, page.getLast());
+		} while (after != null);
+
+		assertThat(pages).hasSize(18)
+				.allSatisfy(product -> assertThat(product.getCategoryId()).isEqualTo(1))
+				.isSortedAccordingTo(Comparator.comparing(Product::getPrice).thenComparing(Product::getId).reversed());
+		assertThat(pages).extracting(Product::getId).doesNotHaveDuplicates();
+	}
+
+	private void streamProducts(List<Product> products) {
+		doAnswer(invocation -> {
+			Consumer<Product> consumer = invocation.getArgument(0);
+			products.forEach(consumer);
+			return null;
+		}).when(iProductRepository).forEachProduct(any());
+	}
+
+	private static Product product(Integer id, String code, Integer categoryId, String price) {
+		Product product = new Product();
+		product.setId(id);
+		product.setName("Product " + id);
+		product.setCode(code);
+		product.setCategoryId(categoryId);
+		product.setPrice(price == null ? null : new BigDecimal(price));
+		return product;
+	}
+
+	private static Category category(Integer id, String name) {
+		Category category = new Category();
+		category.setId(id);
+		category.setName(name);
+		return category;
+	}
+
+}
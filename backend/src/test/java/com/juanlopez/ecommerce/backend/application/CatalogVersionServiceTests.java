@@ -0,0 +1,78 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogVersionServiceTests {
+
+	private final AtomicLong nanos = new AtomicLong();
+
+	private final CatalogVersionService catalogVersionService = new CatalogVersionService(Duration.ofMinutes(1),
+			nanos::get);
+
+	@Test
+	void productVersionFollowsTheNewestUpdateUntilDeleted() {
+		LocalDateTime updated = LocalDateTime.of(2025, 3, 1, 10, 0);
+		assertThat(catalogVersionService.productVersion(1)).isNull();
+
+		String read = catalogVersionService.recordProduct(product(1, updated));
+		assertThat(catalogVersionService.productVersion(1)).isEqualTo(read).startsWith("1-");
+
+		catalogVersionService.onProductSaved(product(1, updated.plusSeconds(1)));
+		String saved = catalogVersionService.productVersion(1);
+		assertThat(saved).isNotEqualTo(read);
+
+		// A read that started before the change does not bring the old version back
+		catalogVersionService.recordProduct(product(1, updated));
+		assertThat(catalogVersionService.productVersion(1)).isEqualTo(saved);
+
+		catalogVersionService.onProductDeleted(1);
+		catalogVersionService.recordProduct(product(1, updated.plusSeconds(2)));
+		assertThat(catalogVersionService.productVersion(1)).isNull();
+	}
+
+	@Test
+	void listVersionChangesOnEveryWrite() {
+		String initial = catalogVersionService.productsVersion();
+		assertThat(catalogVersionService.productsVersion()).isEqualTo(initial);
+
+		catalogVersionService.recordProduct(product(1, LocalDateTime.now()));
+		assertThat(catalogVersionService.productsVersion()).isEqualTo(initial);
+
+		catalogVersionService.onProductSaved(product(1, LocalDateTime.now()));
+		String afterSave = catalogVersionService.productsVersion();
+		assertThat(afterSave).isNotEqualTo(initial);
+
+		catalogVersionService.onProductDeleted(1);
+		assertThat(catalogVersionService.productsVersion()).isNotEqualTo(afterSave);
+		assertThat(catalogVersionService.categoriesVersion()).endsWith("-0-0");
+	}
+
+	@Test
+	void versionsExpireSoChangesMadeElsewhereAreEventuallySeen() {
+		String products = catalogVersionService.productsVersion();
+		catalogVersionService.recordProduct(product(1, LocalDateTime.now()));
+		nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+		assertThat(catalogVersionService.productVersion(1)).isNotNull();
+		assertThat(catalogVersionService.productsVersion()).isEqualTo(products);
+
+		nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+
+		assertThat(catalogVersionService.productVersion(1)).isNull();
+		assertThat(catalogVersionService.productsVersion()).isNotEqualTo(products);
+	}
+
+	private static Product product(Integer id, LocalDateTime dateUpdated) {
+		Product product = new Product();
+		product.setId(id);
+		product.setDateUpdated(dateUpdated);
+		return product;
+	}
+
+}
@@ -0,0 +1,181 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.exception.IdempotencyKeyInUseException;
+import com.juanlopez.ecommerce.backend.domain.exception.IdempotencyKeyMismatchException;
+import com.juanlopez.ecommerce.backend.domain.model.IdempotencyKey;
+import com.juanlopez.ecommerce.backend.domain.model.Order;
+import com.juanlopez.ecommerce.backend.domain.model.OrderProduct;
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.port.IIdempotencyKeyRepository;
+import com.juanlopez.ecommerce.backend.domain.port.IOrderRepository;
+import com.juanlopez.ecommerce.backend.domain.port.IProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotentOrderServiceTests {
+
+	private IOrderRepository iOrderRepository;
+
+	private IIdempotencyKeyRepository iIdempotencyKeyRepository;
+
+	private IdempotentOrderService idempotentOrderService;
+
+	@BeforeEach
+	void setUp() {
+		iOrderRepository = mock(IOrderRepository.class);
+		when(iOrderRepository.save(any(), anyString())).thenAnswer(invocation -> {
+			Order order = invocation.getArgument(0);
+			return new Order(1, LocalDateTime.now(), order.getOrderProducts(), order.getOrderState(), order.getUserId());
+		});
+		IProductRepository iProductRepository = mock(IProductRepository.class);
+		when(iProductRepository.findPricesByIds(any())).thenReturn(Map.of(1, BigDecimal.TEN));
+		iIdempotencyKeyRepository = mock(IIdempotencyKeyRepository.class);
+		when(iIdempotencyKeyRepository.reserve(any(), anyString(), anyString(), any())).thenReturn(true);
+		idempotentOrderService = new IdempotentOrderService(new OrderService(iOrderRepository, iProductRepository),
+				iIdempotencyKeyRepository, 100, Duration.ofMinutes(5));
+	}
+
+	@Test
+	void repeatedRequestsReturnTheOriginalOrderWithoutWriting() {
+		Order first = idempotentOrderService.save("key", order());
+		Order repeated = idempotentOrderService.save("key", order());
+
+		assertThat(repeated).isSameAs(first);
+		verify(iOrderRepository, times(1)).save(any(), anyString());
+		verify(iIdempotencyKeyRepository, times(1)).reserve(any(), anyString(), anyString(), any());
+	}
+
+	@Test
+	void quantitiesAreComparedByValue() {
+		Order first = idempotentOrderService.save("key", order());
+		Order repeated = order();
+		repeated.getOrderProducts().get(0).setQuantity(new BigDecimal("1.00"));
+
+		assertThat(idempotentOrderService.save("key", repeated)).isSameAs(first);
+	}
+
+	@Test
+	void keysReusedWithADifferentRequestAreRejected() {
+		idempotentOrderService.save("key", order());
+		Order different = order();
+		different.getOrderProducts().get(0).setQuantity(BigDecimal.TWO);
+
+		assertThatThrownBy(() -> idempotentOrderService.save("key", different))
+				.isInstanceOf(IdempotencyKeyMismatchException.class);
+		verify(iOrderRepository, times(1)).save(any(), anyString());
+	}
+
+	@Test
+	void keysAreScopedToTheUserOfTheOrder() {
+		Order other = order();
+		other.setUserId(2);
+
+		Order first = idempotentOrderService.save("key", order());
+		Order second = idempotentOrderService.save("key", other);
+
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getUserId()).isEqualTo(2);
+		verify(iOrderRepository, times(2)).save(any(), anyString());
+		verify(iIdempotencyKeyRepository).reserve(eq(1), eq("key"), anyString(), any());
+		verify(iIdempotencyKeyRepository).reserve(eq(2), eq("key"), anyString(), any());
+	}
+
+	@Test
+	void concurrentDuplicatesInsertTheOrderOnce() throws Exception {
+		CountDownLatch saving = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			saving.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return new Order(1, LocalDateTime.now(), List.of(), OrderState.CONFIRMED, 1);
+		}).when(iOrderRepository).save(any(), anyString());
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Order>> results = new ArrayList<>();
+			results.add(executor.submit(() -> idempotentOrderService.save("key", order())));
+			assertThat(saving.await(5, TimeUnit.SECONDS)).isTrue();
+			for (int i = 0; i < 3; i++) {
+				results.add(executor.submit(() -> idempotentOrderService.save("key", order())));
+			}
+			release.countDown();
+
+			for (Future<Order> result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS).getId()).isEqualTo(1);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		verify(iOrderRepository, times(1)).save(any(), anyString());
+	}
+
+	@Test
+	void keysReservedElsewhereAreAnsweredFromTheDurableStore() {
+		String requestHash = IdempotentOrderService.requestHash(order());
+		when(iIdempotencyKeyRepository.reserve(any(), anyString(), anyString(), any())).thenReturn(false);
+		when(iIdempotencyKeyRepository.findByUserIdAndKey(1, "done")).thenReturn(new IdempotencyKey(1, "done", requestHash, 7));
+		when(iIdempotencyKeyRepository.findByUserIdAndKey(1, "pending")).thenReturn(new IdempotencyKey(1, "pending", requestHash, null));
+		when(iIdempotencyKeyRepository.findByUserIdAndKey(1, "other")).thenReturn(new IdempotencyKey(1, "other", "otro", 8));
+		Order stored = new Order(7, LocalDateTime.now(), List.of(), OrderState.CONFIRMED, 1);
+		when(iOrderRepository.findById(7)).thenReturn(stored);
+
+		assertThat(idempotentOrderService.save("done", order())).isSameAs(stored);
+		assertThatThrownBy(() -> idempotentOrderService.save("pending", order()))
+				.isInstanceOf(IdempotencyKeyInUseException.class);
+		assertThatThrownBy(() -> idempotentOrderService.save("other", order()))
+				.isInstanceOf(IdempotencyKeyMismatchException.class);
+		verify(iOrderRepository, never()).save(any(), anyString());
+	}
+
+	@Test
+	void invalidOrdersAreRejectedBeforeReservingTheKey() {
+		Order invalid = order();
+		invalid.getOrderProducts().clear();
+
+		assertThatThrownBy(() -> idempotentOrderService.save("key", invalid)).isInstanceOf(IllegalArgumentException.class);
+		verify(iIdempotencyKeyRepository, never()).reserve(any(), anyString(), anyString(), any());
+	}
+
+	@Test
+	void failedCreationsReleaseTheKey() {
+		doThrow(new IdempotencyKeyInUseException("key")).when(iOrderRepository).save(any(), anyString());
+
+		assertThatThrownBy(() -> idempotentOrderService.save("key", order()))
+				.isInstanceOf(IdempotencyKeyInUseException.class);
+		verify(iIdempotencyKeyRepository).release(1, "key");
+	}
+
+	private static Order order() {
+		Order order = new Order();
+		order.setUserId(1);
+		order.setOrderState(OrderState.CONFIRMED);
+		order.getOrderProducts().add(new OrderProduct(null, BigDecimal.ONE, null, 1));
+		return order;
+	}
+
+}
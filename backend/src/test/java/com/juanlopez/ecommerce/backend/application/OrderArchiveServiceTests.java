@@ -0,0 +1,78 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.port.IOrderArchiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class OrderArchiveServiceTests {
+
+	private static final YearMonth CURRENT_MONTH = YearMonth.of(2026, 6);
+
+	private IOrderArchiveRepository iOrderArchiveRepository;
+
+	private OrderArchiveService orderArchiveService;
+
+	@BeforeEach
+	void setUp() {
+		iOrderArchiveRepository = mock(IOrderArchiveRepository.class);
+		when(iOrderArchiveRepository.runExclusively(any())).thenAnswer(invocation -> {
+			invocation.<Runnable>getArgument(0).run();
+			return true;
+		});
+		orderArchiveService = new OrderArchiveService(iOrderArchiveRepository, 3, 12);
+	}
+
+	@Test
+	void createsTheCurrentAndUpcomingPartitions() {
+		orderArchiveService.maintainPartitions(CURRENT_MONTH);
+
+		verify(iOrderArchiveRepository).createPartitions(CURRENT_MONTH, 4);
+	}
+
+	@Test
+	void archivesOnlyFinishedMonthsOlderThanTheRetention() {
+		YearMonth finished = YearMonth.of(2025, 4);
+		YearMonth inProgress = YearMonth.of(2025, 5);
+		YearMonth retained = YearMonth.of(2025, 6);
+		when(iOrderArchiveRepository.findPartitionMonths()).thenReturn(List.of(finished, inProgress, retained));
+		when(iOrderArchiveRepository.hasOrders(eq(inProgress), any())).thenReturn(true);
+
+		List<YearMonth> archived = orderArchiveService.maintainPartitions(CURRENT_MONTH);
+
+		assertThat(archived).containsExactly(finished);
+		verify(iOrderArchiveRepository).hasOrders(eq(finished), argThat(states ->
+				states.contains(OrderState.PAID) && !states.contains(OrderState.DELIVERED)
+						&& !states.contains(OrderState.CANCELLED)));
+		verify(iOrderArchiveRepository).archivePartition(finished);
+		verify(iOrderArchiveRepository, never()).archivePartition(inProgress);
+		verify(iOrderArchiveRepository, never()).archivePartition(retained);
+	}
+
+	@Test
+	void skipsTheMaintenanceWhileAnotherInstanceRunsIt() {
+		reset(iOrderArchiveRepository);
+		when(iOrderArchiveRepository.runExclusively(any())).thenReturn(false);
+
+		List<YearMonth> archived = orderArchiveService.maintainPartitions(CURRENT_MONTH);
+
+		assertThat(archived).isEmpty();
+		verify(iOrderArchiveRepository).runExclusively(any());
+		verifyNoMoreInteractions(iOrderArchiveRepository);
+	}
+
+}
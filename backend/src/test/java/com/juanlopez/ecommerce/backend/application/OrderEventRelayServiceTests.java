@@ -0,0 +1,55 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.port.IOrderEventPublisher;
+import com.juanlopez.ecommerce.backend.domain.port.IOrderOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderEventRelayServiceTests {
+
+	private IOrderOutboxRepository iOrderOutboxRepository;
+
+	private OrderEventRelayService orderEventRelayService;
+
+	@BeforeEach
+	void setUp() {
+		iOrderOutboxRepository = mock(IOrderOutboxRepository.class);
+		orderEventRelayService = new OrderEventRelayService(iOrderOutboxRepository, mock(IOrderEventPublisher.class),
+				100, 5);
+	}
+
+	@Test
+	void drainsTheOutboxUntilABatchIsNotFull() {
+		when(iOrderOutboxRepository.publishNextBatch(eq(100), any())).thenReturn(100, 100, 30);
+
+		assertThat(orderEventRelayService.relayPendingEvents()).isEqualTo(230);
+		verify(iOrderOutboxRepository, times(3)).publishNextBatch(eq(100), any());
+	}
+
+	@Test
+	void stopsAtTheMaximumNumberOfBatches() {
+		when(iOrderOutboxRepository.publishNextBatch(eq(100), any())).thenReturn(100);
+
+		assertThat(orderEventRelayService.relayPendingEvents()).isEqualTo(500);
+		verify(iOrderOutboxRepository, times(5)).publishNextBatch(eq(100), any());
+	}
+
+	@Test
+	void stopsAtTheFirstFailedBatch() {
+		when(iOrderOutboxRepository.publishNextBatch(eq(100), any()))
+				.thenReturn(100)
+				.thenThrow(new IllegalStateException("broker down"));
+
+		assertThat(orderEventRelayService.relayPendingEvents()).isEqualTo(100);
+		verify(iOrderOutboxRepository, times(2)).publishNextBatch(eq(100), any());
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.model.Money;
+import com.juanlopez.ecommerce.backend.domain.model.Order;
+import com.juanlopez.ecommerce.backend.domain.model.OrderPlacement;
+import com.juanlopez.ecommerce.backend.domain.model.OrderProduct;
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.port.IOrderRepository;
+import com.juanlopez.ecommerce.backend.domain.port.IProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderPlacementServiceTests {
+
+	private final AtomicInteger nextId = new AtomicInteger(1);
+
+	private OrderService orderService;
+
+	@BeforeEach
+	void setUp() {
+		IOrderRepository iOrderRepository = mock(IOrderRepository.class);
+		when(iOrderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			List<Order> savedOrders = new ArrayList<>();
+			for (Order order : invocation.<List<Order>>getArgument(0)) {
+				savedOrders.add(new Order(nextId.getAndIncrement(), null, order.getOrderProducts(),
+						order.getOrderState(), order.getUserId()));
+			}
+			return savedOrders;
+		});
+		IProductRepository iProductRepository = mock(IProductRepository.class);
+		when(iProductRepository.findPricesByIds(any())).thenReturn(Map.of(1, BigDecimal.TEN));
+		orderService = new OrderService(iOrderRepository, iProductRepository);
+	}
+
+	@Test
+	void submittedOrdersAreWrittenInTheBackground() throws InterruptedException {
+		try (OrderPlacementService placementService = newPlacementService(10, 2)) {
+			OrderPlacement placement = placementService.submit(order());
+
+			assertThat(placement.getStatus()).isEqualTo(OrderPlacement.Status.PENDING);
+			long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+			while (placementService.findByToken(placement.getToken()).getStatus() == OrderPlacement.Status.PENDING
+					&& System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			assertThat(placementService.findByToken(placement.getToken()).getStatus())
+					.isEqualTo(OrderPlacement.Status.CREATED);
+			assertThat(placementService.findByToken(placement.getToken()).getOrderId()).isNotNull();
+		}
+	}
+
+	@Test
+	void ordersAreRejectedWhenTheQueueIsFull() {
+		try (OrderPlacementService placementService = newPlacementService(1, 0)) {
+			placementService.submit(order());
+
+			assertThatThrownBy(() -> placementService.submit(order())).isInstanceOf(RejectedExecutionException.class);
+		}
+	}
+
+	@Test
+	void invalidOrdersAreRejectedBeforeBeingQueued() {
+		try (OrderPlacementService placementService = newPlacementService(10, 0)) {
+			assertThatThrownBy(() -> placementService.submit(new Order())).isInstanceOf(IllegalArgumentException.class);
+			assertThat(placementService.pendingCount()).isZero();
+		}
+	}
+
+	@Test
+	void closeWritesTheQueuedOrders() {
+		OrderPlacementService placementService = newPlacementService(10, 0);
+		List<OrderPlacement> placements = List.of(placementService.submit(order()), placementService.submit(order()));
+
+		placementService.close();
+
+		assertThat(placements).allSatisfy(placement -> assertThat(placementService.findByToken(placement.getToken())
+				.getStatus()).isEqualTo(OrderPlacement.Status.CREATED));
+		assertThatThrownBy(() -> placementService.submit(order())).isInstanceOf(RejectedExecutionException.class);
+	}
+
+	@Test
+	void ordersSubmittedWhileClosingAreEitherRejectedOrWritten() throws InterruptedException {
+		OrderPlacementService placementService = newPlacementService(100_000, 2);
+		List<OrderPlacement> placements = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch submitting = new CountDownLatch(4);
+		List<Thread> submitters = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			submitters.add(Thread.ofVirtual().start(() -> {
+				try {
+					for (int n = 0; n < 10_000; n++) {
+						placements.add(placementService.submit(order()));
+						submitting.countDown();
+					}
+				} catch (RejectedExecutionException e) {
+					// The service is shutting down
+				}
+			}));
+		}
+		submitting.await();
+
+		placementService.close();
+		for (Thread submitter : submitters) {
+			submitter.join();
+		}
+
+		assertThat(placementService.pendingCount()).isZero();
+		assertThat(placements).allSatisfy(placement -> assertThat(placementService.findByToken(placement.getToken())
+				.getStatus()).isEqualTo(OrderPlacement.Status.CREATED));
+	}
+
+	private OrderPlacementService newPlacementService(int queueCapacity, int writers) {
+		return new OrderPlacementService(orderService, queueCapacity, writers, queueCapacity, Duration.ofSeconds(5));
+	}
+
+	private static Order order() {
+		Order order = new Order();
+		order.setUserId(1);
+		order.setOrderState(OrderState.CONFIRMED);
+		order.getOrderProducts().add(new OrderProduct(null, BigDecimal.ONE, Money.of(BigDecimal.TEN), 1));
+		return order;
+	}
+
+}
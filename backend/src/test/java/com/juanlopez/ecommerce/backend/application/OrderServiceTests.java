@@ -0,0 +1,149 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.model.Money;
+import com.juanlopez.ecommerce.backend.domain.model.Order;
+import com.juanlopez.ecommerce.backend.domain.model.OrderBatchResult;
+import com.juanlopez.ecommerce.backend.domain.model.OrderProduct;
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.model.OrderStateBulkUpdate;
+import com.juanlopez.ecommerce.backend.domain.model.OrderStateBulkUpdateResult;
+import com.juanlopez.ecommerce.backend.domain.model.OrderStateTransitionResult;
+import com.juanlopez.ecommerce.backend.domain.port.IOrderRepository;
+import com.juanlopez.ecommerce.backend.domain.port.IProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderServiceTests {
+
+	private IOrderRepository iOrderRepository;
+
+	private IProductRepository iProductRepository;
+
+	private OrderService orderService;
+
+	@BeforeEach
+	void setUp() {
+		iOrderRepository = mock(IOrderRepository.class);
+		iProductRepository = mock(IProductRepository.class);
+		when(iProductRepository.findPricesByIds(any())).thenReturn(Map.of(1, new BigDecimal("12.50"), 2, BigDecimal.ONE));
+		when(iOrderRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		when(iOrderRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+		orderService = new OrderService(iOrderRepository, iProductRepository);
+	}
+
+	@Test
+	void saveReplacesTheClientPriceWithTheCurrentProductPrice() {
+		Order savedOrder = orderService.save(order(1, Money.ofMinor(1)));
+
+		assertThat(savedOrder.getOrderProducts().getFirst().getPrice()).isEqualTo(Money.of(new BigDecimal("12.50")));
+		assertThat(savedOrder.getTotalOrderPrice()).isEqualTo(Money.of(new BigDecimal("25.00")));
+	}
+
+	@Test
+	void saveRejectsUnknownProductsWithoutWriting() {
+		assertThatThrownBy(() -> orderService.save(order(3, null))).isInstanceOf(IllegalArgumentException.class);
+
+		verify(iOrderRepository, never()).save(any());
+	}
+
+	@Test
+	void saveChunkResolvesEveryProductWithASingleLookup() {
+		List<OrderBatchResult> results = orderService.saveChunk(List.of(order(1, null), order(2, null), order(3, null)), 0);
+
+		assertThat(results).extracting(OrderBatchResult::getError).containsExactly(null, null,
+				"El producto con Id: 3 no existe o no tiene precio.");
+		verify(iProductRepository, times(1)).findPricesByIds(Set.of(1, 2, 3));
+		verify(iOrderRepository, times(1)).saveAll(anyList());
+	}
+
+	@Test
+	void aChunkThatCannotBeSavedAtOnceIsRetriedOrderByOrder() {
+		Order rejectedOrder = order(2, null);
+		rejectedOrder.setUserId(2);
+		doThrow(new IllegalStateException("Restricción violada")).when(iOrderRepository).saveAll(anyList());
+		doAnswer(invocation -> {
+			Order order = invocation.getArgument(0);
+			if (order.getUserId() == 2) {
+				throw new IllegalStateException("Usuario 2 bloqueado");
+			}
+			order.setId(order.getOrderProducts().getFirst().getProductId() + 100);
+			return order;
+		}).when(iOrderRepository).save(any());
+
+		List<OrderBatchResult> results = orderService.saveChunk(
+				List.of(order(1, null), rejectedOrder, order(3, null), order(2, null)), 10);
+
+		assertThat(results).extracting(OrderBatchResult::getIndex, OrderBatchResult::getOrderId, OrderBatchResult::getError)
+				.containsExactly(
+						tuple(10, 101, null),
+						tuple(11, null, "Usuario 2 bloqueado"),
+						tuple(12, null, "El producto con Id: 3 no existe o no tiene precio."),
+						tuple(13, 102, null));
+		// Only the priced orders are retried
+		verify(iOrderRepository, times(3)).save(any());
+	}
+
+	@Test
+	void invalidTransitionsReportTheStoredStateRatherThanTheExpectedOne() {
+		when(iOrderRepository.findStateById(7)).thenReturn(OrderState.PAID);
+
+		OrderStateTransitionResult result = orderService.updateStateById(7, "CONFIRMED", "DELIVERED");
+
+		assertThat(result.getOutcome()).isEqualTo(OrderStateTransitionResult.Outcome.INVALID_TRANSITION);
+		assertThat(result.getCurrentState()).isEqualTo(OrderState.PAID);
+		verify(iOrderRepository, never()).compareAndSetState(any(), any(), any());
+	}
+
+	@Test
+	void filteredBulkUpdatesGoOnAfterAChunkComesBackShort() {
+		LocalDateTime dateFrom = LocalDateTime.of(2026, 1, 1, 0, 0);
+		LocalDateTime dateTo = LocalDateTime.of(2026, 2, 1, 0, 0);
+		// The second chunk skips orders changed concurrently, while matching orders remain
+		when(iOrderRepository.updateStateByFilter(OrderState.CONFIRMED, dateFrom, dateTo, OrderState.CANCELLED,
+				OrderService.BULK_UPDATE_CHUNK_SIZE))
+				.thenReturn(ids(1, OrderService.BULK_UPDATE_CHUNK_SIZE))
+				.thenReturn(ids(2001, 2998))
+				.thenReturn(ids(3001, 3500))
+				.thenReturn(List.of());
+
+		OrderStateBulkUpdateResult result = orderService.updateStateInBulk(
+				new OrderStateBulkUpdate(null, OrderState.CONFIRMED, dateFrom, dateTo, OrderState.CANCELLED));
+
+		assertThat(result.getUpdated()).isEqualTo(OrderService.BULK_UPDATE_CHUNK_SIZE + 998 + 500);
+		verify(iOrderRepository, times(4)).updateStateByFilter(OrderState.CONFIRMED, dateFrom, dateTo,
+				OrderState.CANCELLED, OrderService.BULK_UPDATE_CHUNK_SIZE);
+	}
+
+	private static List<Integer> ids(int from, int to) {
+		return IntStream.rangeClosed(from, to).boxed().toList();
+	}
+
+	private static Order order(Integer productId, Money price) {
+		Order order = new Order();
+		order.setUserId(1);
+		order.setOrderState(OrderState.CONFIRMED);
+		order.getOrderProducts().add(new OrderProduct(null, new BigDecimal("2"), price, productId));
+		return order;
+	}
+
+}
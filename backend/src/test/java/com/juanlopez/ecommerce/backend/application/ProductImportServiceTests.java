@@ -0,0 +1,140 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.model.Category;
+import com.juanlopez.ecommerce.backend.domain.model.ProductImport;
+import com.juanlopez.ecommerce.backend.domain.model.ProductImportRow;
+import com.juanlopez.ecommerce.backend.domain.model.ProductMergeResult;
+import com.juanlopez.ecommerce.backend.domain.port.ICatalogChangeListener;
+import com.juanlopez.ecommerce.backend.domain.port.ICategoryRepository;
+import com.juanlopez.ecommerce.backend.domain.port.IProductImportRepository;
+import com.juanlopez.ecommerce.backend.domain.port.IUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductImportServiceTests {
+
+	private final List<List<ProductImportRow>> stagedChunks = new CopyOnWriteArrayList<>();
+
+	private IProductImportRepository iProductImportRepository;
+
+	private ICatalogChangeListener listener;
+
+	private ProductImportService productImportService;
+
+	@BeforeEach
+	void setUp() {
+		iProductImportRepository = mock(IProductImportRepository.class);
+		doAnswer(invocation -> stagedChunks.add(invocation.getArgument(1)))
+				.when(iProductImportRepository).stage(any(), anyList());
+		when(iProductImportRepository.merge(any(), eq(7))).thenAnswer(invocation -> new ProductMergeResult(
+				stagedChunks.stream().mapToLong(List::size).sum(), 0, 0));
+		ICategoryRepository iCategoryRepository = mock(ICategoryRepository.class);
+		Category category = new Category();
+		category.setId(3);
+		when(iCategoryRepository.findAll()).thenReturn(List.of(category));
+		listener = mock(ICatalogChangeListener.class);
+		productImportService = new ProductImportService(iProductImportRepository, iCategoryRepository,
+				mock(IUserRepository.class), List.of(listener), 2, 10, Duration.ofSeconds(5));
+	}
+
+	@Test
+	void validRowsAreMergedAndInvalidOnesReportedByLine() throws Exception {
+		String csv = """
+				code,name,description,price,category_id,unused\r
+				A-1,Camisa,"Algodón, talla \"\"M\"\"",19.90,3,x\r
+				A-2,,Sin nombre,5,3,x\r
+				A-3,Pantalón,"Dos
+				líneas",abc,3,x\r
+				A-4,Gorra,,7.5,9,x\r
+				A-5,Bufanda,,12,3,x\r
+				""";
+		ProductImport productImport = awaitFinished(productImportService.submit(stream(csv), 7));
+
+		assertThat(productImport.getStatus()).isEqualTo(ProductImport.Status.COMPLETED);
+		assertThat(productImport.getRowsRead()).isEqualTo(5);
+		assertThat(productImport.getRowsStaged()).isEqualTo(2);
+		assertThat(productImport.getProductsCreated()).isEqualTo(2);
+		assertThat(productImport.getErrors()).extracting("line", "code").containsExactly(
+				tuple(3L, "A-2"),
+				tuple(4L, "A-3"),
+				tuple(6L, "A-4"));
+		assertThat(stagedChunks.getFirst()).containsExactly(
+				new ProductImportRow(2, "A-1", "Camisa", "Algodón, talla \"M\"", null, new BigDecimal("19.90"), 3),
+				new ProductImportRow(7, "A-5", "Bufanda", null, null, new BigDecimal("12"), 3));
+		verify(listener).onProductsImported();
+		verify(iProductImportRepository).discard(productImport.getId());
+	}
+
+	@Test
+	void largeFilesAreStagedInChunks() throws Exception {
+		StringBuilder csv = new StringBuilder("category_id,price,name,code\n");
+		int rows = ProductImportService.CHUNK_SIZE * 2 + 1;
+		for (int i = 0; i < rows; i++) {
+			csv.append("3,1.5,Producto ").append(i).append(",P-").append(i).append('\n');
+		}
+		ProductImport productImport = awaitFinished(productImportService.submit(stream(csv.toString()), 7));
+
+		assertThat(productImport.getStatus()).isEqualTo(ProductImport.Status.COMPLETED);
+		assertThat(productImport.getProductsCreated()).isEqualTo(rows);
+		assertThat(stagedChunks).hasSize(3)
+				.allSatisfy(chunk -> assertThat(chunk).hasSizeLessThanOrEqualTo(ProductImportService.CHUNK_SIZE));
+	}
+
+	@Test
+	void failedStagingLeavesTheCatalogUntouched() throws Exception {
+		doThrow(new IllegalStateException("conexión perdida")).when(iProductImportRepository).stage(any(), anyList());
+		ProductImport productImport = awaitFinished(
+				productImportService.submit(stream("code,name,price,category_id\nA-1,Camisa,10,3\n"), 7));
+
+		assertThat(productImport.getStatus()).isEqualTo(ProductImport.Status.FAILED);
+		assertThat(productImport.getError()).isEqualTo("conexión perdida");
+		verify(iProductImportRepository, never()).merge(any(), any());
+		verify(listener, never()).onProductsImported();
+		verify(iProductImportRepository).discard(productImport.getId());
+	}
+
+	@Test
+	void filesWithoutTheRequiredColumnsAreRejectedOnSubmission() {
+		assertThatThrownBy(() -> productImportService.submit(stream("code,name\nA-1,Camisa\n"), 7))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Faltan columnas obligatorias en la cabecera: price, category_id.");
+	}
+
+	private ProductImport awaitFinished(ProductImport submitted) throws InterruptedException {
+		UUID id = submitted.getId();
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		ProductImport productImport = productImportService.findById(id);
+		while (productImport.getDateFinished() == null && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+			productImport = productImportService.findById(id);
+		}
+		return productImport;
+	}
+
+	private static ByteArrayInputStream stream(String csv) throws IOException {
+		return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,138 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTests {
+
+	private ProductSearchIndex productSearchIndex;
+
+	@BeforeEach
+	void setUp() {
+		productSearchIndex = new ProductSearchIndex();
+	}
+
+	@Test
+	void queriesWalkingTheRarestTermStopAfterTheMaximumNumberOfCandidates() {
+		int products = 2 * ProductSearchIndex.MAX_CANDIDATES;
+		for (int id = 1; id <= products; id++) {
+			productSearchIndex.put(product(id, "alpha", null, "beta"));
+		}
+
+		// As many products have the prefix as the exact term, so the exact term is walked
+		assertThat(productSearchIndex.search("alpha be", products))
+				.containsExactlyElementsOf(ids(1, ProductSearchIndex.MAX_CANDIDATES));
+		assertThat(productSearchIndex.search("alpha", products)).hasSize(products);
+	}
+
+	@Test
+	void queriesWalkingThePrefixStopAfterTheMaximumNumberOfCandidates() {
+		int products = 2 * ProductSearchIndex.MAX_CANDIDATES;
+		for (int id = 1; id <= products; id++) {
+			productSearchIndex.put(product(id, "alpha", null, "beta"));
+		}
+		for (int id = products + 1; id <= products + 10; id++) {
+			productSearchIndex.put(product(id, "alpha", null, null));
+		}
+
+		// Fewer products have the prefix than the exact term, so the prefix is walked
+		assertThat(productSearchIndex.search("alpha be", products))
+				.containsExactlyElementsOf(ids(1, ProductSearchIndex.MAX_CANDIDATES));
+	}
+
+	@Test
+	void walkingTheRarestTermDoesNotStopBeforeBlocksTheOtherTermsCanRaise() {
+		productSearchIndex.put(product(1, "alpha", null, "beta"));
+		productSearchIndex.put(product(2, null, "beta", "alpha"));
+		productSearchIndex.put(product(3, "beta", null, null));
+
+		// 1 scores 2 * 4 + 1 first, but 2 scores 2 * 1 + 8 in the lower block of alpha
+		assertThat(productSearchIndex.search("alpha be", 1)).containsExactly(2);
+		assertThat(productSearchIndex.search("alpha be", 2)).containsExactly(2, 1);
+	}
+
+	@Test
+	void walkingThePrefixDoesNotStopBeforeScoresTheExactTermsCanRaise() {
+		productSearchIndex.put(product(1, "alpha", null, "beta"));
+		productSearchIndex.put(product(2, "beta", null, "alpha"));
+		for (int id = 3; id <= 5; id++) {
+			productSearchIndex.put(product(id, "alpha", null, null));
+		}
+
+		// 2 scores 4 + 2 * 1 first, but 1 scores 1 + 2 * 4 with a lower prefix score
+		assertThat(productSearchIndex.search("alpha be", 1)).containsExactly(1);
+		assertThat(productSearchIndex.search("alpha be", 2)).containsExactly(1, 2);
+	}
+
+	@Test
+	void bothWalksRankTheSameWayWhateverTermIsRarest() {
+		productSearchIndex.put(product(1, "camiseta", null, "zap"));
+		productSearchIndex.put(product(2, "camiseta", null, "zapato"));
+		productSearchIndex.put(product(3, "camiseta zapato", null, null));
+		productSearchIndex.put(product(4, "camiseta", "zap", "zapato"));
+		productSearchIndex.put(product(5, "zapato", null, null));
+		for (int id = 6; id <= 20; id++) {
+			productSearchIndex.put(product(id, "camiseta", null, null));
+		}
+
+		// The completions of the prefix hold 6 postings and the exact term 19: the completions are walked.
+		// An exact match of the prefix scores twice its weight, and each product scores its
+		// best completion only
+		assertThat(productSearchIndex.search("camiseta zap", 10)).containsExactly(4, 3, 1, 2);
+		// The exact term matches 4 products and the prefix 19: the exact term is walked, and
+		// product 5 is left out for lacking the prefix
+		assertThat(productSearchIndex.search("zapato cam", 10)).containsExactly(3, 2, 4);
+		assertThat(productSearchIndex.search("zapato camiseta", 10)).containsExactly(3, 2, 4);
+	}
+
+	@Test
+	void termIdsFreedByRemovalsAreReusedWithoutMixingTerms() {
+		productSearchIndex.put(product(1, "alpha shared", null, null));
+		productSearchIndex.put(product(2, "beta shared", null, null));
+		productSearchIndex.remove(1);
+		productSearchIndex.put(product(3, "delta shared", null, null));
+
+		assertThat(productSearchIndex.search("alpha", 10)).isEmpty();
+		assertThat(productSearchIndex.search("shared del", 10)).containsExactly(3);
+		assertThat(productSearchIndex.search("beta sha", 10)).containsExactly(2);
+		assertThat(productSearchIndex.search("delta beta", 10)).isEmpty();
+		assertThat(productSearchIndex.size()).isEqualTo(2);
+	}
+
+	@Test
+	void manyTermsCanBeRemovedAndReplacedAtOnce() {
+		for (int id = 1; id <= 100; id++) {
+			productSearchIndex.put(product(id, "old" + id, null, "common"));
+		}
+		for (int id = 1; id <= 100; id++) {
+			productSearchIndex.put(product(id, "new" + id, null, "common"));
+		}
+
+		assertThat(productSearchIndex.size()).isEqualTo(100);
+		assertThat(productSearchIndex.search("old", 200)).isEmpty();
+		assertThat(productSearchIndex.search("new", 200)).containsExactlyElementsOf(ids(1, 100));
+		for (int id = 1; id <= 100; id++) {
+			assertThat(productSearchIndex.search("new" + id + " common", 10)).containsExactly(id);
+		}
+	}
+
+	private static List<Integer> ids(int from, int to) {
+		return IntStream.rangeClosed(from, to).boxed().toList();
+	}
+
+	private static Product product(Integer id, String name, String code, String description) {
+		Product product = new Product();
+		product.setId(id);
+		product.setName(name);
+		product.setCode(code);
+		product.setDescription(description);
+		return product;
+	}
+
+}
@@ -0,0 +1,102 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+import com.juanlopez.ecommerce.backend.domain.port.IProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ProductSearchServiceTests {
+
+	private IProductRepository iProductRepository;
+
+	private ProductSearchService productSearchService;
+
+	@BeforeEach
+	void setUp() {
+		iProductRepository = mock(IProductRepository.class);
+		doAnswer(invocation -> {
+			Consumer<Product> consumer = invocation.getArgument(0);
+			consumer.accept(product(1, "Camiseta roja", "CAM-001", "Algodón orgánico"));
+			consumer.accept(product(2, "Canción de cuna", "MUS-002", "Disco para dormir"));
+			consumer.accept(product(3, "Taza", "TAZ-003", "Taza con estampado de camiseta roja"));
+			consumer.accept(product(4, "Camisa azul", "CAM-004", null));
+			return null;
+		}).when(iProductRepository).forEachProduct(any());
+		productSearchService = new ProductSearchService(iProductRepository);
+		productSearchService.rebuild();
+	}
+
+	@Test
+	void matchesInTheNameRankAboveMatchesInTheDescription() {
+		assertThat(productSearchService.search("camiseta roja", null)).containsExactly(1, 3);
+		assertThat(productSearchService.search("roja taza", null)).containsExactly(3);
+		assertThat(productSearchService.search("cam-004", null)).containsExactly(4);
+	}
+
+	@Test
+	void theLastWordMatchesAsAPrefixIgnoringCaseAndAccents() {
+		assertThat(productSearchService.search("CAMIS", null)).containsExactly(1, 4, 3);
+		assertThat(productSearchService.search("cancion", null)).containsExactly(2);
+		assertThat(productSearchService.search("algodon org", null)).containsExactly(1);
+		assertThat(productSearchService.search("camiseta verde", null)).isEmpty();
+		assertThat(productSearchService.search(" -- ", null)).isEmpty();
+		assertThat(productSearchService.search("cam", 1)).containsExactly(1);
+	}
+
+	@Test
+	void catalogChangesAreAppliedIncrementally() {
+		productSearchService.onProductSaved(product(4, "Camisa verde", "CAM-004", null));
+		productSearchService.onProductSaved(product(5, "Camiseta verde", "CAM-005", null));
+		productSearchService.onProductDeleted(1);
+
+		assertThat(productSearchService.search("azul", null)).isEmpty();
+		assertThat(productSearchService.search("verde", null)).containsExactly(4, 5);
+		assertThat(productSearchService.search("camiseta", null)).containsExactly(5, 3);
+	}
+
+	@Test
+	void changesMadeWhileRebuildingAreNotLost() {
+		doAnswer(invocation -> {
+			Consumer<Product> consumer = invocation.getArgument(0);
+			consumer.accept(product(1, "Camiseta roja", "CAM-001", null));
+			// Saved and deleted once the rebuild has already read them, or before it reads them
+			productSearchService.onProductSaved(product(1, "Camiseta verde", "CAM-001", null));
+			productSearchService.onProductSaved(product(5, "Gorra verde", "GOR-005", null));
+			productSearchService.onProductDeleted(4);
+			consumer.accept(product(4, "Camisa azul", "CAM-004", null));
+			return null;
+		}).when(iProductRepository).forEachProduct(any());
+
+		productSearchService.rebuild();
+
+		assertThat(productSearchService.search("verde", null)).containsExactly(1, 5);
+		assertThat(productSearchService.search("roja", null)).isEmpty();
+		assertThat(productSearchService.search("azul", null)).isEmpty();
+	}
+
+	@Test
+	void suggestionsAreTheMostFrequentCompletions() {
+		assertThat(productSearchService.suggest("camisa d", null)).containsExactly("de", "disco", "dormir");
+		assertThat(productSearchService.suggest("ca", 2)).containsExactly("cam", "camiseta");
+		assertThatThrownBy(() -> productSearchService.suggest("ca", 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static Product product(Integer id, String name, String code, String description) {
+		Product product = new Product();
+		product.setId(id);
+		product.setName(name);
+		product.setCode(code);
+		product.setDescription(description);
+		return product;
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.juanlopez.ecommerce.backend.application;
+
+import com.juanlopez.ecommerce.backend.domain.model.DailySales;
+import com.juanlopez.ecommerce.backend.domain.model.Money;
+import com.juanlopez.ecommerce.backend.domain.model.Order;
+import com.juanlopez.ecommerce.backend.domain.model.OrderProduct;
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.model.ProductSales;
+import com.juanlopez.ecommerce.backend.domain.port.ISalesAnalyticsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SalesAnalyticsServiceTests {
+
+	private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+	private SalesAnalyticsService salesAnalyticsService;
+
+	@BeforeEach
+	void setUp() {
+		ISalesAnalyticsRepository iSalesAnalyticsRepository = mock(ISalesAnalyticsRepository.class);
+		when(iSalesAnalyticsRepository.sumSalesByDay()).thenReturn(List.of(
+				new DailySales(DAY, 2, Money.of(new BigDecimal("30.00")))));
+		when(iSalesAnalyticsRepository.sumSalesByProduct()).thenReturn(List.of(
+				new ProductSales(1, new BigDecimal("3"), Money.of(new BigDecimal("30.00")))));
+		when(iSalesAnalyticsRepository.countOrdersByState()).thenReturn(Map.of(OrderState.CONFIRMED, 2L));
+		salesAnalyticsService = new SalesAnalyticsService(iSalesAnalyticsRepository);
+		salesAnalyticsService.rebuild();
+	}
+
+	@Test
+	void createdOrdersAreAddedToTheRebuiltCounters() {
+		salesAnalyticsService.recordCreated(order(DAY.atTime(10, 0), 1, "2", "10.00"));
+		salesAnalyticsService.recordCreated(order(DAY.plusDays(1).atTime(10, 0), 2, "1", "5.50"));
+
+		assertThat(salesAnalyticsService.findSalesByDay(null, null)).containsExactly(
+				new DailySales(DAY, 3, Money.of(new BigDecimal("50.00"))),
+				new DailySales(DAY.plusDays(1), 1, Money.of(new BigDecimal("5.50"))));
+		assertThat(salesAnalyticsService.findSalesByDay(DAY.plusDays(1), null)).hasSize(1);
+		assertThat(salesAnalyticsService.findTopProducts(null)).first()
+				.isEqualTo(new ProductSales(1, new BigDecimal("5.00"), Money.of(new BigDecimal("50.00"))));
+		assertThat(salesAnalyticsService.countOrdersByState()).containsEntry(OrderState.CONFIRMED, 4L);
+	}
+
+	@Test
+	void transitionsMoveOrdersBetweenStates() {
+		salesAnalyticsService.recordTransition(OrderState.CONFIRMED, OrderState.CANCELLED, 1);
+
+		assertThat(salesAnalyticsService.countOrdersByState())
+				.containsEntry(OrderState.CONFIRMED, 1L)
+				.containsEntry(OrderState.CANCELLED, 1L)
+				.containsEntry(OrderState.PAID, 0L);
+	}
+
+	@Test
+	void topProductsKeepsOnlyTheHighestRevenues() {
+		IntStream.rangeClosed(2, 50).forEach(productId ->
+				salesAnalyticsService.recordCreated(order(LocalDateTime.now(), productId, "1", productId + ".00")));
+
+		List<ProductSales> top = salesAnalyticsService.findTopProducts(3);
+
+		assertThat(top).extracting(ProductSales::getProductId).containsExactly(50, 49, 48);
+	}
+
+	private static Order order(LocalDateTime dateCreated, Integer productId, String quantity, String price) {
+		List<OrderProduct> orderProducts = new ArrayList<>();
+		orderProducts.add(new OrderProduct(null, new BigDecimal(quantity), Money.of(new BigDecimal(price)), productId));
+		return new Order(null, dateCreated, orderProducts, OrderState.CONFIRMED, 1);
+	}
+
+}
@@ -0,0 +1,195 @@
+package com.juanlopez.ecommerce.backend.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JDBC traffic produced when persisting an order with its lines using
+ * IDENTITY keys (one INSERT round trip per row, as Hibernate is forced to do) against
+ * pooled-lo sequence keys with JDBC batching (the current mapping).
+ * <p>
+ * Besides the latency per order, the {@code roundTrips} and {@code orders} counters
+ * report the totals of each iteration; their ratio is the number of statements that
+ * reach the database per order (about {@code lines + 1} against 2). By default it runs against an in-memory
+ * H2 database, which hides network latency; to obtain representative numbers run it
+ * against PostgreSQL:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=OrderInsertBenchmark \
+ *     -Djdbc.url=jdbc:postgresql://localhost:5432/bench -Djdbc.username=... -Djdbc.password=...
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderInsertBenchmark {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Param({"1", "10", "50"})
+    private int lines;
+
+    private Connection connection;
+
+    private long nextOrderId;
+    private long lastOrderId = -1;
+    private long nextLineId;
+    private long lastLineId = -1;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class RoundTrips {
+
+        public long roundTrips;
+
+        public long orders;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            roundTrips = 0;
+            orders = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("jdbc.url", "jdbc:h2:mem:bench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"),
+                System.getProperty("jdbc.username", "sa"),
+                System.getProperty("jdbc.password", ""));
+        try (Statement statement = connection.createStatement()) {
+            dropTables(statement);
+            statement.execute("CREATE TABLE bench_identity_orders (id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, date_created TIMESTAMP, order_state VARCHAR(255))");
+            statement.execute("CREATE TABLE bench_identity_lines (id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, quantity NUMERIC(38, 2), price NUMERIC(38, 2), product_id INTEGER, order_id INTEGER)");
+            statement.execute("CREATE TABLE bench_seq_orders (id INTEGER PRIMARY KEY, date_created TIMESTAMP, order_state VARCHAR(255))");
+            statement.execute("CREATE TABLE bench_seq_lines (id INTEGER PRIMARY KEY, quantity NUMERIC(38, 2), price NUMERIC(38, 2), product_id INTEGER, order_id INTEGER)");
+            statement.execute("CREATE SEQUENCE bench_orders_seq INCREMENT BY " + ALLOCATION_SIZE);
+            statement.execute("CREATE SEQUENCE bench_lines_seq INCREMENT BY " + ALLOCATION_SIZE);
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            dropTables(statement);
+        }
+        connection.close();
+    }
+
+    /**
+     * One INSERT per row, reading back the generated key each time.
+     */
+    @Benchmark
+    public void identityPerRow(RoundTrips counter) throws SQLException {
+        long orderId;
+        try (PreparedStatement insertOrder = connection.prepareStatement(
+                "INSERT INTO bench_identity_orders (date_created, order_state) VALUES (CURRENT_TIMESTAMP, 'CONFIRMED')",
+                Statement.RETURN_GENERATED_KEYS)) {
+            insertOrder.executeUpdate();
+            counter.roundTrips++;
+            try (ResultSet keys = insertOrder.getGeneratedKeys()) {
+                keys.next();
+                orderId = keys.getLong(1);
+            }
+        }
+        try (PreparedStatement insertLine = connection.prepareStatement(
+                "INSERT INTO bench_identity_lines (quantity, price, product_id, order_id) VALUES (?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < lines; i++) {
+                bindLine(insertLine, 1, i, orderId);
+                insertLine.executeUpdate();
+                counter.roundTrips++;
+                try (ResultSet keys = insertLine.getGeneratedKeys()) {
+                    keys.next();
+                }
+            }
+        }
+        connection.commit();
+        counter.orders++;
+    }
+
+    /**
+     * IDs assigned in memory from pooled-lo sequence blocks and lines sent as one JDBC batch.
+     */
+    @Benchmark
+    public void pooledSequenceBatched(RoundTrips counter) throws SQLException {
+        if (nextOrderId > lastOrderId) {
+            nextOrderId = nextBlock("bench_orders_seq", counter);
+            lastOrderId = nextOrderId + ALLOCATION_SIZE - 1;
+        }
+        long orderId = nextOrderId++;
+        try (PreparedStatement insertOrder = connection.prepareStatement(
+                "INSERT INTO bench_seq_orders (id, date_created, order_state) VALUES (?, CURRENT_TIMESTAMP, 'CONFIRMED')")) {
+            insertOrder.setLong(1, orderId);
+            insertOrder.executeUpdate();
+            counter.roundTrips++;
+        }
+        try (PreparedStatement insertLine = connection.prepareStatement(
+                "INSERT INTO bench_seq_lines (id, quantity, price, product_id, order_id) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < lines; i++) {
+                if (nextLineId > lastLineId) {
+                    nextLineId = nextBlock("bench_lines_seq", counter);
+                    lastLineId = nextLineId + ALLOCATION_SIZE - 1;
+                }
+                insertLine.setLong(1, nextLineId++);
+                bindLine(insertLine, 2, i, orderId);
+                insertLine.addBatch();
+            }
+            insertLine.executeBatch();
+            counter.roundTrips++;
+        }
+        connection.commit();
+        counter.orders++;
+    }
+
+    private long nextBlock(String sequence, RoundTrips counter) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT nextval('" + sequence + "')")) {
+            counter.roundTrips++;
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static void bindLine(PreparedStatement statement, int firstIndex, int line, long orderId) throws SQLException {
+        statement.setBigDecimal(firstIndex, BigDecimal.ONE);
+        statement.setBigDecimal(firstIndex + 1, BigDecimal.TEN);
+        statement.setInt(firstIndex + 2, line);
+        statement.setLong(firstIndex + 3, orderId);
+    }
+
+    private static void dropTables(Statement statement) throws SQLException {
+        statement.execute("DROP TABLE IF EXISTS bench_identity_lines");
+        statement.execute("DROP TABLE IF EXISTS bench_identity_orders");
+        statement.execute("DROP TABLE IF EXISTS bench_seq_lines");
+        statement.execute("DROP TABLE IF EXISTS bench_seq_orders");
+        statement.execute("DROP SEQUENCE IF EXISTS bench_orders_seq");
+        statement.execute("DROP SEQUENCE IF EXISTS bench_lines_seq");
+    }
+
+}
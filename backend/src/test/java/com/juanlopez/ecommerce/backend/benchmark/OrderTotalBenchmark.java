@@ -0,0 +1,78 @@
+package com.juanlopez.ecommerce.backend.benchmark;
+
+import com.juanlopez.ecommerce.backend.domain.model.Money;
+import com.juanlopez.ecommerce.backend.domain.model.Order;
+import com.juanlopez.ecommerce.backend.domain.model.OrderProduct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the computation of an order total with {@link BigDecimal} prices, as
+ * {@code Order.getTotalOrderPrice()} used to do it (one {@code multiply} per line and
+ * a stream reduce over the line totals), against the current {@link Money} path.
+ * <p>
+ * Both paths get the same lines: prices with two decimals and integer quantities, the
+ * latter with two decimals in the {@link BigDecimal} path, as they are read from the
+ * database, and with scale zero in the {@link Money} path, as the mapper now leaves them.
+ * Run it with the GC profiler to also get the bytes allocated per operation:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark="OrderTotalBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderTotalBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int lines;
+
+    private List<BigDecimal[]> bigDecimalLines;
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        bigDecimalLines = new ArrayList<>(lines);
+        order = new Order();
+        for (int i = 0; i < lines; i++) {
+            long priceMinorUnits = 100 + random.nextInt(1_000_000);
+            int quantity = 1 + random.nextInt(10);
+            bigDecimalLines.add(new BigDecimal[]{
+                    BigDecimal.valueOf(priceMinorUnits, 2), BigDecimal.valueOf(quantity * 100L, 2)});
+            order.getOrderProducts().add(new OrderProduct(
+                    null, BigDecimal.valueOf(quantity), Money.ofMinor(priceMinorUnits), i));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        return bigDecimalLines.stream().map(line -> line[0].multiply(line[1]))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public Money money() {
+        return order.getTotalOrderPrice();
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.juanlopez.ecommerce.backend.benchmark;
+
+import com.juanlopez.ecommerce.backend.application.ProductSearchIndex;
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency distribution of {@link ProductSearchIndex} queries over a
+ * synthetic catalog.
+ * <p>
+ * Product names and descriptions are drawn from a vocabulary whose word frequencies
+ * follow a Zipf-like distribution, so common words have long postings and rare ones
+ * short postings, as in a real catalog. Queries mix one and two words, the last one
+ * truncated to simulate typing. The sample mode reports the percentiles (p99 included);
+ * the 1M catalog needs a larger heap:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark="ProductSearchBenchmark -jvmArgs -Xmx4g"
+ * </pre>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductSearchBenchmark {
+
+    private static final int VOCABULARY_SIZE = 20_000;
+
+    private static final int QUERIES = 4096;
+
+    @Param({"100000", "1000000"})
+    private int products;
+
+    private ProductSearchIndex index;
+
+    private String[] vocabulary;
+
+    private String[] queries;
+
+    private int nextQuery;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        vocabulary = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            vocabulary[i] = randomWord(random);
+        }
+        index = new ProductSearchIndex();
+        for (int id = 1; id <= products; id++) {
+            Product product = new Product();
+            product.setId(id);
+            product.setName(words(random, 3));
+            product.setCode("SKU-" + id);
+            product.setDescription(words(random, 12));
+            index.put(product);
+        }
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String last = word(random);
+            String prefix = last.substring(0, Math.min(last.length(), 2 + random.nextInt(3)));
+            queries[i] = random.nextBoolean() ? prefix : word(random) + " " + prefix;
+        }
+    }
+
+    @Benchmark
+    public List<Integer> search() {
+        String query = queries[nextQuery++ & (QUERIES - 1)];
+        return index.search(query, 20);
+    }
+
+    @Benchmark
+    public List<String> suggest() {
+        String query = queries[nextQuery++ & (QUERIES - 1)];
+        return index.suggest(query, 10);
+    }
+
+    private String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(word(random)).append(' ');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Picks a word, the lower ranks far more often than the higher ones.
+     */
+    private String word(Random random) {
+        double rank = Math.pow(VOCABULARY_SIZE, random.nextDouble());
+        return vocabulary[(int) rank - 1];
+    }
+
+    private static String randomWord(Random random) {
+        char[] letters = new char[4 + random.nextInt(6)];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+
+}
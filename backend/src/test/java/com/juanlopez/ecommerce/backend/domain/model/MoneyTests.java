@@ -0,0 +1,51 @@
+package com.juanlopez.ecommerce.backend.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTests {
+
+	@Test
+	void conversionFromDecimalsIsExact() {
+		assertThat(Money.of(new BigDecimal("12.3")).getMinorUnits()).isEqualTo(1230);
+		assertThat(Money.of(new BigDecimal("12.30")).toBigDecimal()).isEqualTo(new BigDecimal("12.30"));
+		assertThatThrownBy(() -> Money.of(new BigDecimal("0.001"))).isInstanceOf(ArithmeticException.class);
+	}
+
+	@Test
+	void arithmeticDetectsOverflow() {
+		Money max = Money.ofMinor(Long.MAX_VALUE);
+
+		assertThatThrownBy(() -> max.plus(Money.ofMinor(1))).isInstanceOf(ArithmeticException.class);
+		assertThatThrownBy(() -> max.times(BigDecimal.TWO)).isInstanceOf(ArithmeticException.class);
+		assertThatThrownBy(() -> Money.of(new BigDecimal("1E+20"))).isInstanceOf(ArithmeticException.class);
+	}
+
+	@Test
+	void fractionalQuantitiesAreRoundedHalfEven() {
+		assertThat(Money.ofMinor(101).times(new BigDecimal("0.5"))).isEqualTo(Money.ofMinor(50));
+		assertThat(Money.ofMinor(103).times(new BigDecimal("0.5"))).isEqualTo(Money.ofMinor(52));
+		assertThat(Money.ofMinor(250).times(new BigDecimal("3.00"))).isEqualTo(Money.ofMinor(750));
+	}
+
+	@Test
+	void orderTotalAddsTheLineTotals() {
+		Order order = new Order();
+		order.getOrderProducts().add(new OrderProduct(null, BigDecimal.valueOf(3), Money.ofMinor(199), 1));
+		order.getOrderProducts().add(new OrderProduct(null, new BigDecimal("1.5"), Money.ofMinor(1000), 2));
+
+		assertThat(order.getTotalOrderPrice()).isEqualTo(Money.ofMinor(2097));
+		assertThat(new Order().getTotalOrderPrice()).isEqualTo(Money.ZERO);
+	}
+
+	@Test
+	void amountsInDifferentCurrenciesCannotBeCombined() {
+		assertThatThrownBy(() -> Money.ofMinor(100).plus(new Money(100, "EUR")))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.application.SalesAnalyticsService;
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.port.IOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class AnalyticsOrderRepositoryTests {
+
+	private IOrderRepository delegate;
+
+	private SalesAnalyticsService salesAnalyticsService;
+
+	private AnalyticsOrderRepository analyticsOrderRepository;
+
+	@BeforeEach
+	void setUp() {
+		delegate = mock(IOrderRepository.class);
+		salesAnalyticsService = mock(SalesAnalyticsService.class);
+		analyticsOrderRepository = new AnalyticsOrderRepository(delegate, salesAnalyticsService);
+	}
+
+	@Test
+	void bulkUpdatesRecordOneTransitionPerPreviousState() {
+		List<Integer> ids = List.of(1, 2, 3, 4);
+		Map<Integer, OrderState> previousStates = Map.of(
+				1, OrderState.CONFIRMED, 2, OrderState.PAID, 4, OrderState.CONFIRMED);
+		when(delegate.updateStateByIds(ids, OrderState.CANCELLED)).thenReturn(previousStates);
+
+		Map<Integer, OrderState> changed = analyticsOrderRepository.updateStateByIds(ids, OrderState.CANCELLED);
+
+		assertThat(changed).isEqualTo(previousStates);
+		verify(salesAnalyticsService).recordTransition(OrderState.CONFIRMED, OrderState.CANCELLED, 2);
+		verify(salesAnalyticsService).recordTransition(OrderState.PAID, OrderState.CANCELLED, 1);
+		verifyNoMoreInteractions(salesAnalyticsService);
+	}
+
+	@Test
+	void bulkUpdatesChangingNothingRecordNoTransition() {
+		when(delegate.updateStateByIds(List.of(1), OrderState.CANCELLED)).thenReturn(Map.of());
+
+		analyticsOrderRepository.updateStateByIds(List.of(1), OrderState.CANCELLED);
+
+		verify(salesAnalyticsService, never()).recordTransition(any(), any(), anyLong());
+	}
+
+}
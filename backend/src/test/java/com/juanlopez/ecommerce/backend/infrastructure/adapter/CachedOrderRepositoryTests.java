@@ -0,0 +1,85 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.domain.model.Order;
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.port.IOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachedOrderRepositoryTests {
+
+	private IOrderRepository delegate;
+
+	private CachedOrderRepository cachedOrderRepository;
+
+	@BeforeEach
+	void setUp() {
+		delegate = mock(IOrderRepository.class);
+		cachedOrderRepository = new CachedOrderRepository(delegate, 1000, Duration.ofMinutes(10));
+		when(delegate.findByUserId(1, null, 20)).thenReturn(List.of(order(10, 1), order(11, 1)));
+		when(delegate.findByUserId(2, null, 20)).thenReturn(List.of(order(20, 2)));
+	}
+
+	@Test
+	void findByUserIdIsServedFromTheCacheAfterTheFirstRead() {
+		cachedOrderRepository.findByUserId(1, null, 20);
+		List<Order> page = cachedOrderRepository.findByUserId(1, null, 20);
+
+		assertThat(page).extracting(Order::getId).containsExactly(10, 11);
+		verify(delegate, times(1)).findByUserId(1, null, 20);
+		assertThat(cachedOrderRepository.getCache().stats().hitCount()).isEqualTo(1);
+		assertThat(cachedOrderRepository.getCache().stats().missCount()).isEqualTo(1);
+	}
+
+	@Test
+	void saveInvalidatesOnlyTheOwnerOfTheOrder() {
+		when(delegate.save(any())).thenReturn(order(12, 1));
+		cachedOrderRepository.findByUserId(1, null, 20);
+		cachedOrderRepository.findByUserId(2, null, 20);
+
+		cachedOrderRepository.save(order(null, 1));
+		cachedOrderRepository.findByUserId(1, null, 20);
+		cachedOrderRepository.findByUserId(2, null, 20);
+
+		verify(delegate, times(2)).findByUserId(1, null, 20);
+		verify(delegate, times(1)).findByUserId(2, null, 20);
+	}
+
+	@Test
+	void stateTransitionsInvalidateTheUsersWhoseHistoryContainsTheOrder() {
+		when(delegate.compareAndSetState(11, OrderState.CONFIRMED, OrderState.PAID)).thenReturn(true);
+		cachedOrderRepository.findByUserId(1, null, 20);
+		cachedOrderRepository.findByUserId(2, null, 20);
+
+		cachedOrderRepository.compareAndSetState(11, OrderState.CONFIRMED, OrderState.PAID);
+
+		assertThat(cachedOrderRepository.getCache().asMap()).containsOnlyKeys(2);
+	}
+
+	@Test
+	void saveAllInvalidatesThePreviousOwnersOfExistingOrders() {
+		when(delegate.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		cachedOrderRepository.findByUserId(1, null, 20);
+		cachedOrderRepository.findByUserId(2, null, 20);
+
+		cachedOrderRepository.saveAll(List.of(order(20, 1)));
+
+		assertThat(cachedOrderRepository.getCache().asMap()).isEmpty();
+	}
+
+	private static Order order(Integer id, Integer userId) {
+		return new Order(id, LocalDateTime.now(), List.of(), OrderState.CONFIRMED, userId);
+	}
+
+}
@@ -0,0 +1,171 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+import com.juanlopez.ecommerce.backend.domain.port.IProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachedProductRepositoryTests {
+
+	private final AtomicLong nanos = new AtomicLong();
+
+	private final Queue<Runnable> refreshes = new ArrayDeque<>();
+
+	private IProductRepository delegate;
+
+	private CachedProductRepository cachedProductRepository;
+
+	@BeforeEach
+	void setUp() {
+		delegate = mock(IProductRepository.class);
+		cachedProductRepository = new CachedProductRepository(delegate, 1000, Duration.ofHours(1),
+				Duration.ofMinutes(5), nanos::get, refreshes::add);
+		when(delegate.findById(1)).thenReturn(product(1, "10.00"));
+		when(delegate.findAll()).thenReturn(List.of(product(1, "10.00"), product(2, "20.00")));
+	}
+
+	@Test
+	void readsAreServedFromTheCacheAfterTheFirstOne() {
+		cachedProductRepository.findById(1);
+		cachedProductRepository.findAll();
+
+		assertThat(cachedProductRepository.findById(1).getPrice()).isEqualByComparingTo("10.00");
+		assertThat(cachedProductRepository.findAll()).hasSize(2);
+		verify(delegate, times(1)).findById(1);
+		verify(delegate, times(1)).findAll();
+	}
+
+	@Test
+	void saveEvictsTheProductAndTheList() {
+		when(delegate.save(any())).thenReturn(product(1, "12.00"));
+		cachedProductRepository.findById(1);
+		cachedProductRepository.findAll();
+
+		cachedProductRepository.save(product(1, "12.00"));
+		cachedProductRepository.findById(1);
+		cachedProductRepository.findAll();
+
+		verify(delegate, times(2)).findById(1);
+		verify(delegate, times(2)).findAll();
+	}
+
+	@Test
+	void staleEntriesAreServedWhileTheyAreReloaded() {
+		cachedProductRepository.findById(1);
+		when(delegate.findById(1)).thenReturn(product(1, "12.00"));
+		nanos.addAndGet(TimeUnit.MINUTES.toNanos(6));
+
+		// The read triggering the refresh still gets the current value
+		assertThat(cachedProductRepository.findById(1).getPrice()).isEqualByComparingTo("10.00");
+		runRefreshes();
+		assertThat(cachedProductRepository.findById(1).getPrice()).isEqualByComparingTo("12.00");
+		verify(delegate, times(2)).findById(1);
+	}
+
+	@Test
+	void concurrentMissesForTheSameProductLoadItOnce() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(delegate.findById(2)).thenAnswer(invocation -> {
+			loading.countDown();
+			release.await();
+			return product(2, "20.00");
+		});
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<Product> first = executor.submit(() -> cachedProductRepository.findById(2));
+			loading.await();
+			List<Future<Product>> others = List.of(
+					executor.submit(() -> cachedProductRepository.findById(2)),
+					executor.submit(() -> cachedProductRepository.findById(2)),
+					executor.submit(() -> cachedProductRepository.findById(2)));
+			release.countDown();
+
+			assertThat(first.get(5, TimeUnit.SECONDS).getId()).isEqualTo(2);
+			for (Future<Product> other : others) {
+				assertThat(other.get(5, TimeUnit.SECONDS)).isSameAs(first.get());
+			}
+			verify(delegate, times(1)).findById(2);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void codesAreResolvedInMemoryAndFollowSavesAndDeletes() {
+		Product renamed = product(1, "10.00");
+		renamed.setCode("B-1");
+		when(delegate.findIdsByCode()).thenReturn(Map.of("A-1", 1));
+		when(delegate.save(any())).thenReturn(renamed);
+		when(delegate.findById(1)).thenReturn(renamed);
+		when(delegate.findByCodes(List.of("C-3"))).thenReturn(Map.of());
+		cachedProductRepository.rebuildCodeIndex();
+
+		cachedProductRepository.save(renamed);
+
+		assertThat(cachedProductRepository.findIdsByCode()).isEqualTo(Map.of("B-1", 1));
+		assertThat(cachedProductRepository.findByCode("B-1")).isSameAs(renamed);
+		assertThat(cachedProductRepository.findByCodes(List.of("B-1", "C-3"))).isEqualTo(Map.of("B-1", renamed));
+		verify(delegate, never()).findByCode(any());
+		verify(delegate).findByCodes(List.of("C-3"));
+
+		cachedProductRepository.deleteById(1);
+
+		assertThat(cachedProductRepository.findIdsByCode()).isEmpty();
+	}
+
+	@Test
+	void pricesAreIndexedUntilTheProductIsWrittenOrTheyExpire() {
+		when(delegate.findPricesByIds(List.of(1, 2, 3))).thenReturn(Map.of(1, BigDecimal.ONE, 2, BigDecimal.TWO));
+		when(delegate.findPricesByIds(List.of(3))).thenReturn(Map.of());
+		when(delegate.findPricesByIds(List.of(1))).thenReturn(Map.of(1, BigDecimal.TEN));
+		when(delegate.save(any())).thenReturn(product(1, "10.00"));
+
+		cachedProductRepository.findPricesByIds(List.of(1, 2, 3));
+		assertThat(cachedProductRepository.findPricesByIds(List.of(1, 2, 3)))
+				.isEqualTo(Map.of(1, BigDecimal.ONE, 2, BigDecimal.TWO));
+		verify(delegate).findPricesByIds(List.of(3));
+
+		cachedProductRepository.save(product(1, "10.00"));
+		assertThat(cachedProductRepository.findPricesByIds(List.of(1, 2))).isEqualTo(Map.of(1, BigDecimal.TEN, 2, BigDecimal.TWO));
+
+		nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+		cachedProductRepository.findPricesByIds(List.of(1, 2, 3));
+		verify(delegate, times(2)).findPricesByIds(List.of(1, 2, 3));
+	}
+
+	private void runRefreshes() {
+		for (Runnable refresh = refreshes.poll(); refresh != null; refresh = refreshes.poll()) {
+			refresh.run();
+		}
+	}
+
+	private static Product product(Integer id, String price) {
+		Product product = new Product();
+		product.setId(id);
+		product.setPrice(new BigDecimal(price));
+		return product;
+	}
+
+}
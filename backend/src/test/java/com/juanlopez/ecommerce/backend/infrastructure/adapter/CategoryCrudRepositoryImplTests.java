@@ -0,0 +1,144 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.domain.model.CategorySummary;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.CategoryEntity;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.CategoryProductCountEntity;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.ProductEntity;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.UserEntity;
+import com.juanlopez.ecommerce.backend.infrastructure.mapper.ICategoryMapperImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doNothing;
+
+@DataJpaTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({CategoryCrudRepositoryImpl.class, ICategoryMapperImpl.class})
+class CategoryCrudRepositoryImplTests {
+
+	@Autowired
+	private CategoryCrudRepositoryImpl categoryCrudRepository;
+
+	@Autowired
+	private TestEntityManager testEntityManager;
+
+	/**
+	 * Spied to reconcile without taking the table lock, since H2 does not support {@code LOCK TABLE}.
+	 */
+	@MockitoSpyBean
+	private ICategoryProductCountCrudRepository iCategoryProductCountCrudRepository;
+
+	private UserEntity userEntity;
+
+	private Integer shoes;
+
+	private Integer books;
+
+	private Integer toys;
+
+	private Integer empty;
+
+	@BeforeEach
+	void setUp() {
+		doNothing().when(iCategoryProductCountCrudRepository).lockForReconciliation();
+		doCallRealMethod().when(iCategoryProductCountCrudRepository).reconcile();
+		userEntity = testEntityManager.persist(user());
+		shoes = testEntityManager.persist(category("Shoes")).getId();
+		books = testEntityManager.persist(category("Books")).getId();
+		toys = testEntityManager.persist(category("Toys")).getId();
+		empty = testEntityManager.persist(category("Empty")).getId();
+	}
+
+	@Test
+	void reconcileFixesDriftedCountersAndZeroesEmptiedCategories() {
+		for (int i = 0; i < 3; i++) {
+			testEntityManager.persist(product("Shoe " + i, BigDecimal.TEN, shoes));
+		}
+		testEntityManager.persist(product(null, BigDecimal.TEN, shoes));
+		testEntityManager.persist(product("Unpriced shoe", null, shoes));
+		testEntityManager.persist(product("Book", BigDecimal.ONE, books));
+		testEntityManager.persist(product("Toy", BigDecimal.ONE, toys));
+		testEntityManager.persist(count(shoes, 5));
+		testEntityManager.persist(count(books, 1));
+		testEntityManager.persist(count(empty, 2));
+		testEntityManager.flush();
+		testEntityManager.clear();
+
+		int corrected = categoryCrudRepository.reconcileProductCounts();
+
+		assertThat(corrected).isEqualTo(3);
+		assertThat(productCount(shoes)).isEqualTo(3);
+		assertThat(productCount(books)).isEqualTo(1);
+		assertThat(productCount(toys)).isEqualTo(1);
+		assertThat(productCount(empty)).isZero();
+	}
+
+	@Test
+	void reconcileChangesNothingWhenTheCountersAreRight() {
+		testEntityManager.persist(product("Book", BigDecimal.ONE, books));
+		testEntityManager.persist(count(books, 1));
+		testEntityManager.persist(count(empty, 0));
+		testEntityManager.flush();
+		testEntityManager.clear();
+
+		assertThat(categoryCrudRepository.reconcileProductCounts()).isZero();
+	}
+
+	@Test
+	void categoriesAreListedByNameWithTheirCounters() {
+		testEntityManager.persist(count(shoes, 3));
+		testEntityManager.persist(count(books, 1));
+		testEntityManager.flush();
+		testEntityManager.clear();
+
+		assertThat(categoryCrudRepository.findAllWithProductCounts()).containsExactly(
+				new CategorySummary(books, "Books", 1),
+				new CategorySummary(empty, "Empty", 0),
+				new CategorySummary(shoes, "Shoes", 3),
+				new CategorySummary(toys, "Toys", 0));
+	}
+
+	private long productCount(Integer categoryId) {
+		return testEntityManager.find(CategoryProductCountEntity.class, categoryId).getProductCount();
+	}
+
+	private static UserEntity user() {
+		UserEntity userEntity = new UserEntity();
+		userEntity.setEmail("seller@example.com");
+		return userEntity;
+	}
+
+	private static CategoryEntity category(String name) {
+		CategoryEntity categoryEntity = new CategoryEntity();
+		categoryEntity.setName(name);
+		return categoryEntity;
+	}
+
+	private static CategoryProductCountEntity count(Integer categoryId, long productCount) {
+		CategoryProductCountEntity countEntity = new CategoryProductCountEntity();
+		countEntity.setCategoryId(categoryId);
+		countEntity.setProductCount(productCount);
+		return countEntity;
+	}
+
+	private ProductEntity product(String name, BigDecimal price, Integer categoryId) {
+		ProductEntity productEntity = new ProductEntity();
+		productEntity.setName(name);
+		productEntity.setPrice(price);
+		productEntity.setUserEntity(userEntity);
+		productEntity.setCategoryEntity(testEntityManager.find(CategoryEntity.class, categoryId));
+		return productEntity;
+	}
+
+}
@@ -0,0 +1,264 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.domain.model.Money;
+import com.juanlopez.ecommerce.backend.domain.model.Order;
+import com.juanlopez.ecommerce.backend.domain.model.OrderCursor;
+import com.juanlopez.ecommerce.backend.domain.model.OrderEvent;
+import com.juanlopez.ecommerce.backend.domain.model.OrderEventType;
+import com.juanlopez.ecommerce.backend.domain.model.OrderProduct;
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.domain.model.OrderSummary;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.OrderProductEntity;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.UserEntity;
+import com.juanlopez.ecommerce.backend.infrastructure.mapper.IMoneyMapperImpl;
+import com.juanlopez.ecommerce.backend.infrastructure.mapper.IOrderEventMapperImpl;
+import com.juanlopez.ecommerce.backend.infrastructure.mapper.IOrderMapperImpl;
+import com.juanlopez.ecommerce.backend.infrastructure.mapper.IOrderProductMapperImpl;
+import com.juanlopez.ecommerce.backend.infrastructure.mapper.IOrderSummaryMapperImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({OrderCrudRepositoryImpl.class, OrderOutboxRepositoryImpl.class, IOrderMapperImpl.class,
+		IOrderProductMapperImpl.class, IOrderSummaryMapperImpl.class, IOrderEventMapperImpl.class,
+		IMoneyMapperImpl.class})
+class OrderCrudRepositoryImplTests {
+
+	private static final int PAGE_SIZE = 500;
+
+	@Autowired
+	private OrderCrudRepositoryImpl orderCrudRepository;
+
+	@Autowired
+	private OrderOutboxRepositoryImpl orderOutboxRepository;
+
+	@Autowired
+	private TestEntityManager testEntityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private final List<Integer> userIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < 50; i++) {
+			UserEntity userEntity = new UserEntity();
+			userEntity.setEmail("user" + i + "@example.com");
+			userIds.add(testEntityManager.persist(userEntity).getId());
+		}
+		for (int i = 0; i < PAGE_SIZE + 20; i++) {
+			Order order = new Order();
+			order.setOrderState(OrderState.CONFIRMED);
+			order.setUserId(userIds.get(i % userIds.size()));
+			order.getOrderProducts().add(new OrderProduct(null, BigDecimal.ONE, Money.of(BigDecimal.TEN), 1));
+			order.getOrderProducts().add(new OrderProduct(null, BigDecimal.TWO, Money.of(BigDecimal.ONE), 2));
+			orderCrudRepository.save(order);
+		}
+		testEntityManager.flush();
+		testEntityManager.clear();
+	}
+
+	@Test
+	void findAllLoadsAPageInAConstantNumberOfStatements() {
+		Statistics statistics = statistics();
+
+		List<Order> page = orderCrudRepository.findAll(null, PAGE_SIZE);
+
+		assertThat(page).hasSize(PAGE_SIZE);
+		assertThat(page).allSatisfy(order -> {
+			assertThat(order.getOrderProducts()).hasSize(2);
+			assertThat(order.getUserId()).isNotNull();
+		});
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void findAllSeeksPastTheCursorInAConstantNumberOfStatements() {
+		List<Order> firstPage = orderCrudRepository.findAll(null, 20);
+		testEntityManager.clear();
+		Statistics statistics = statistics();
+
+		List<Order> page = orderCrudRepository.findAll(OrderCursor.after(firstPage.get(19)), PAGE_SIZE);
+
+		assertThat(page).hasSize(PAGE_SIZE);
+		assertThat(page).extracting(Order::getId).doesNotContainAnyElementsOf(firstPage.stream().map(Order::getId).toList());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void findByUserIdLoadsAPageInAConstantNumberOfStatements() {
+		Statistics statistics = statistics();
+
+		List<Order> page = orderCrudRepository.findByUserId(userIds.get(0), null, PAGE_SIZE);
+
+		assertThat(page).isNotEmpty().allSatisfy(order -> {
+			assertThat(order.getUserId()).isEqualTo(userIds.get(0));
+			assertThat(order.getOrderProducts()).hasSize(2);
+		});
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void forEachOrderLoadsTheOrderProductsOncePerWindow() {
+		orderCrudRepository.updateStateByIds(orderCrudRepository.findAll(null, 10).stream().map(Order::getId).toList(),
+				OrderState.CONFIRMED, OrderState.CANCELLED);
+		testEntityManager.clear();
+		List<Integer> exportedIds = new ArrayList<>();
+		Statistics statistics = statistics();
+
+		orderCrudRepository.forEachOrder(OrderState.CONFIRMED, null, null, order -> {
+			assertThat(order.getOrderProducts()).hasSize(2);
+			exportedIds.add(order.getId());
+		});
+
+		assertThat(exportedIds).hasSize(PAGE_SIZE + 10).isSorted();
+		// The cursor query plus one order products query per window of 500 orders
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+	}
+
+	@Test
+	void saveInsertsAllTheOrderLinesInASingleBatch() {
+		Order order = new Order();
+		order.setOrderState(OrderState.CONFIRMED);
+		order.setUserId(userIds.get(0));
+		for (int i = 0; i < 50; i++) {
+			order.getOrderProducts().add(new OrderProduct(null, BigDecimal.ONE, Money.of(BigDecimal.TEN), i));
+		}
+		Statistics statistics = statistics();
+
+		Order savedOrder = orderCrudRepository.save(order);
+		testEntityManager.flush();
+
+		assertThat(savedOrder.getDateCreated()).isNotNull();
+		// At most one sequence call per table plus one insert statement per table, summary and event included
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(53);
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(7);
+	}
+
+	@Test
+	void findSummariesReadsAPageFromTheSummaryTableOnly() {
+		Statistics statistics = statistics();
+
+		List<OrderSummary> page = orderCrudRepository.findSummaries(null, PAGE_SIZE);
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(page).hasSize(PAGE_SIZE).allSatisfy(summary -> {
+			assertThat(summary.getDateCreated()).isNotNull();
+			assertThat(summary.getLineCount()).isEqualTo(2);
+			assertThat(summary.getTotalPrice()).isEqualTo(Money.ofMinor(1200));
+		});
+		assertThat(page).extracting(OrderSummary::getId)
+				.containsExactlyElementsOf(orderCrudRepository.findAll(null, PAGE_SIZE).stream().map(Order::getId).toList());
+	}
+
+	@Test
+	void stateTransitionsAreAppliedToTheSummaries() {
+		List<OrderSummary> summaries = orderCrudRepository.findSummariesByUserId(userIds.get(0), null, 2);
+
+		orderCrudRepository.compareAndSetState(summaries.get(0).getId(), OrderState.CONFIRMED, OrderState.PAID);
+		orderCrudRepository.updateStateByIds(List.of(summaries.get(1).getId()), OrderState.CONFIRMED,
+				OrderState.CANCELLED);
+		testEntityManager.clear();
+
+		assertThat(orderCrudRepository.findSummariesByUserId(userIds.get(0), null, 2))
+				.extracting(OrderSummary::getOrderState)
+				.containsExactly(OrderState.PAID, OrderState.CANCELLED);
+	}
+
+	@Test
+	void stateUpdatesReturnTheIdsOfTheOrdersActuallyChanged() {
+		List<Integer> ids = orderCrudRepository.findAll(null, 4).stream().map(Order::getId).toList();
+		orderCrudRepository.compareAndSetState(ids.get(0), OrderState.CONFIRMED, OrderState.CANCELLED);
+
+		List<Integer> paid = orderCrudRepository.updateStateByIds(ids, OrderState.CONFIRMED, OrderState.PAID);
+		List<Integer> filtered = orderCrudRepository.updateStateByFilter(OrderState.CONFIRMED,
+				LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), OrderState.CANCELLED, 5);
+		testEntityManager.clear();
+
+		assertThat(paid).containsExactlyInAnyOrderElementsOf(ids.subList(1, 4));
+		assertThat(filtered).hasSize(5).doesNotContainAnyElementsOf(ids);
+		assertThat(orderCrudRepository.findSummaries(null, PAGE_SIZE + 20))
+				.filteredOn(summary -> filtered.contains(summary.getId()))
+				.extracting(OrderSummary::getOrderState)
+				.containsOnly(OrderState.CANCELLED);
+	}
+
+	@Test
+	void orderProductsTakeTheCreationDateOfTheirOrder() {
+		List<OrderProductEntity> orderProducts = testEntityManager.getEntityManager()
+				.createQuery("SELECT op FROM OrderProductEntity op JOIN FETCH op.orderEntity", OrderProductEntity.class)
+				.getResultList();
+
+		assertThat(orderProducts).isNotEmpty().allSatisfy(orderProduct -> assertThat(orderProduct.getOrderDateCreated())
+				.isNotNull()
+				.isEqualTo(orderProduct.getOrderEntity().getDateCreated()));
+	}
+
+	@Test
+	void everyChangeIsRecordedInTheOutboxUntilPublished() {
+		List<OrderSummary> summaries = orderCrudRepository.findSummariesByUserId(userIds.get(0), null, 2);
+		orderCrudRepository.compareAndSetState(summaries.get(0).getId(), OrderState.CONFIRMED, OrderState.PAID);
+		orderCrudRepository.updateStateByIds(List.of(summaries.get(1).getId()), OrderState.CONFIRMED,
+				OrderState.CANCELLED);
+		testEntityManager.flush();
+		List<OrderEvent> published = new ArrayList<>();
+
+		int firstBatch = orderOutboxRepository.publishNextBatch(PAGE_SIZE, published::addAll);
+		int secondBatch = orderOutboxRepository.publishNextBatch(PAGE_SIZE, published::addAll);
+
+		assertThat(firstBatch).isEqualTo(PAGE_SIZE);
+		assertThat(secondBatch).isEqualTo(22);
+		assertThat(published).hasSize(PAGE_SIZE + 22)
+				.isSortedAccordingTo((first, second) -> first.getId().compareTo(second.getId()));
+		assertThat(published.subList(0, PAGE_SIZE + 20)).allSatisfy(event -> {
+			assertThat(event.getEventType()).isEqualTo(OrderEventType.CREATED);
+			assertThat(event.getOrderState()).isEqualTo(OrderState.CONFIRMED);
+			assertThat(event.getDateCreated()).isNotNull();
+		});
+		assertThat(published.subList(PAGE_SIZE + 20, PAGE_SIZE + 22))
+				.extracting(OrderEvent::getOrderId, OrderEvent::getEventType, OrderEvent::getOrderState)
+				.containsExactly(
+						tuple(summaries.get(0).getId(), OrderEventType.STATE_CHANGED, OrderState.PAID),
+						tuple(summaries.get(1).getId(), OrderEventType.STATE_CHANGED, OrderState.CANCELLED));
+		assertThat(orderOutboxRepository.publishNextBatch(PAGE_SIZE, published::addAll)).isZero();
+	}
+
+	@Test
+	void failedPublicationsKeepTheEventsInTheOutbox() {
+		assertThatThrownBy(() -> orderOutboxRepository.publishNextBatch(10, events -> {
+			throw new IllegalStateException("broker down");
+		})).isInstanceOf(IllegalStateException.class);
+
+		List<OrderEvent> published = new ArrayList<>();
+		orderOutboxRepository.publishNextBatch(10, published::addAll);
+		assertThat(published).hasSize(10);
+	}
+
+	private Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+
+}
@@ -0,0 +1,218 @@
+package com.juanlopez.ecommerce.backend.infrastructure.adapter;
+
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+import com.juanlopez.ecommerce.backend.domain.model.ProductCursor;
+import com.juanlopez.ecommerce.backend.domain.model.ProductFilter;
+import com.juanlopez.ecommerce.backend.domain.model.ProductSort;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.CategoryEntity;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.ProductEntity;
+import com.juanlopez.ecommerce.backend.infrastructure.entity.UserEntity;
+import com.juanlopez.ecommerce.backend.infrastructure.mapper.IProductMapperImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({ProductCrudRepositoryImpl.class, IProductMapperImpl.class})
+class ProductCrudRepositoryImplTests {
+
+	@Autowired
+	private ProductCrudRepositoryImpl productCrudRepository;
+
+	@Autowired
+	private TestEntityManager testEntityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	/**
+	 * Spied without changing any counter, since H2 does not support the upsert of {@code add}.
+	 */
+	@MockitoSpyBean
+	private ICategoryProductCountCrudRepository iCategoryProductCountCrudRepository;
+
+	private Integer shoes;
+
+	private Integer books;
+
+	private Integer book;
+
+	private Integer unpricedShoe;
+
+	private Integer leatherShoe;
+
+	@BeforeEach
+	void setUp() {
+		doNothing().when(iCategoryProductCountCrudRepository).add(any(), anyLong());
+		UserEntity userEntity = testEntityManager.persist(user());
+		shoes = testEntityManager.persist(category("Shoes")).getId();
+		books = testEntityManager.persist(category("Books")).getId();
+		for (int i = 0; i < 60; i++) {
+			// Prices repeat every ten products, so pages must be split inside groups of equal prices
+			testEntityManager.persist(product("Shoe " + i, BigDecimal.valueOf(10 + i % 10), userEntity, shoes));
+			testEntityManager.persist(product("Book " + i, BigDecimal.valueOf(5 + i % 10), userEntity, books));
+		}
+		book = testEntityManager.persist(product("Book", BigDecimal.ONE, userEntity, books)).getId();
+		unpricedShoe = testEntityManager.persist(product("Unpriced shoe", null, userEntity, shoes)).getId();
+		leatherShoe = testEntityManager.persist(product("100% leather shoe", BigDecimal.TEN, userEntity, shoes)).getId();
+		testEntityManager.flush();
+		testEntityManager.clear();
+	}
+
+	@Test
+	void pagesFollowTheOrderingWithoutGapsOrDuplicates() {
+		ProductFilter filter = new ProductFilter(shoes, null, null, null);
+		List<Product> products = new ArrayList<>();
+		ProductCursor after = null;
+		do {
+			List<Product> page = productCrudRepository.findPage(filter, ProductSort.PRICE_DESC, after, 7);
+			products.addAll(page);
+			after = page.isEmpty() ? null : ProductCursor.decode(ProductCursor.after(ProductSort.PRICE_DESC,
+					page.getLast()).encode());
+		} while (after != null);
+
+		assertThat(products).hasSize(61)
+				.allSatisfy(product -> assertThat(product.getCategoryId()).isEqualTo(shoes))
+				.isSortedAccordingTo(Comparator.comparing(Product::getPrice).thenComparing(Product::getId).reversed());
+		assertThat(products).extracting(Product::getId).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void filtersByPriceRangeAndNamePrefix() {
+		List<Product> cheapBooks = productCrudRepository.findPage(
+				new ProductFilter(books, new BigDecimal("6"), new BigDecimal("7"), null), ProductSort.NAME_ASC, null, 100);
+		List<Product> byName = productCrudRepository.findPage(
+				new ProductFilter(null, null, null, "100%"), ProductSort.NEWEST, null, 100);
+
+		assertThat(cheapBooks).hasSize(12).allSatisfy(product -> assertThat(product.getPrice()).isBetween(
+				new BigDecimal("6"), new BigDecimal("7")));
+		assertThat(cheapBooks).extracting(Product::getName).isSorted();
+		assertThat(byName).extracting(Product::getName).containsExactly("100% leather shoe");
+	}
+
+	@Test
+	void aPageIsLoadedWithASingleStatement() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		List<Product> page = productCrudRepository.findPage(new ProductFilter(), ProductSort.NEWEST, null, 50);
+
+		assertThat(page).hasSize(50).allSatisfy(product -> {
+			assertThat(product.getUserId()).isNotNull();
+			assertThat(product.getCategoryId()).isNotNull();
+		});
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void movingAProductToAnotherCategoryMovesItsCountInCategoryOrder() {
+		Product product = productCrudRepository.findById(book);
+		product.setCategoryId(shoes);
+
+		productCrudRepository.save(product);
+
+		// Shoes was created first, so its counter is updated first whatever the direction
+		InOrder inOrder = inOrder(iCategoryProductCountCrudRepository);
+		inOrder.verify(iCategoryProductCountCrudRepository).add(shoes, 1);
+		inOrder.verify(iCategoryProductCountCrudRepository).add(books, -1);
+		verifyNoMoreInteractions(iCategoryProductCountCrudRepository);
+	}
+
+	@Test
+	void savingAProductInTheSameCategoryLeavesTheCountsUnchanged() {
+		Product product = productCrudRepository.findById(book);
+		product.setName("Renamed book");
+
+		productCrudRepository.save(product);
+
+		verify(iCategoryProductCountCrudRepository, never()).add(any(), anyLong());
+	}
+
+	@Test
+	void deletingAProductDecrementsTheCountOfItsCategory() {
+		productCrudRepository.deleteById(book);
+
+		verify(iCategoryProductCountCrudRepository).add(books, -1);
+		verifyNoMoreInteractions(iCategoryProductCountCrudRepository);
+	}
+
+	@Test
+	void deletingAnUnlistableProductLeavesTheCountsUnchanged() {
+		productCrudRepository.deleteById(unpricedShoe);
+
+		verify(iCategoryProductCountCrudRepository, never()).add(any(), anyLong());
+	}
+
+	@Test
+	void aProductLosingItsNameOrPriceIsNoLongerCounted() {
+		Product unnamed = productCrudRepository.findById(book);
+		unnamed.setName(null);
+		productCrudRepository.save(unnamed);
+		Product unpriced = productCrudRepository.findById(leatherShoe);
+		unpriced.setPrice(null);
+		productCrudRepository.save(unpriced);
+
+		verify(iCategoryProductCountCrudRepository).add(books, -1);
+		verify(iCategoryProductCountCrudRepository).add(shoes, -1);
+		verifyNoMoreInteractions(iCategoryProductCountCrudRepository);
+	}
+
+	@Test
+	void aProductGainingAPriceIsCounted() {
+		Product product = productCrudRepository.findById(unpricedShoe);
+		product.setPrice(BigDecimal.TEN);
+
+		productCrudRepository.save(product);
+
+		verify(iCategoryProductCountCrudRepository).add(shoes, 1);
+		verifyNoMoreInteractions(iCategoryProductCountCrudRepository);
+	}
+
+	private static UserEntity user() {
+		UserEntity userEntity = new UserEntity();
+		userEntity.setEmail("seller@example.com");
+		return userEntity;
+	}
+
+	private static CategoryEntity category(String name) {
+		CategoryEntity categoryEntity = new CategoryEntity();
+		categoryEntity.setName(name);
+		return categoryEntity;
+	}
+
+	private ProductEntity product(String name, BigDecimal price, UserEntity userEntity, Integer categoryId) {
+		ProductEntity productEntity = new ProductEntity();
+		productEntity.setName(name);
+		productEntity.setPrice(price);
+		productEntity.setUserEntity(userEntity);
+		productEntity.setCategoryEntity(testEntityManager.find(CategoryEntity.class, categoryId));
+		return productEntity;
+	}
+
+}
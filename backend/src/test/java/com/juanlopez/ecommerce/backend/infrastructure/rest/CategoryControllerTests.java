@@ -0,0 +1,119 @@
+package com.juanlopez.ecommerce.backend.infrastructure.rest;
+
+import com.juanlopez.ecommerce.backend.application.CatalogVersionService;
+import com.juanlopez.ecommerce.backend.application.CategoryService;
+import com.juanlopez.ecommerce.backend.domain.model.Category;
+import com.juanlopez.ecommerce.backend.domain.port.ICategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CategoryControllerTests {
+
+	private ICategoryRepository iCategoryRepository;
+
+	private CategoryService categoryService;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		iCategoryRepository = mock(ICategoryRepository.class);
+		CatalogVersionService catalogVersionService = new CatalogVersionService(Duration.ofHours(1));
+		categoryService = new CategoryService(iCategoryRepository, List.of(catalogVersionService));
+		mockMvc = MockMvcBuilders.standaloneSetup(new CategoryController(categoryService, catalogVersionService)).build();
+	}
+
+	@Test
+	void aKnownCategoryIsAnsweredNotModifiedWithoutReadingIt() throws Exception {
+		when(iCategoryRepository.findById(1)).thenReturn(category(1, "Shoes"));
+		String eTag = mockMvc.perform(get("/api/v1/admin/categories/1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Shoes"))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, ConditionalResponses.ADMIN.getHeaderValue()))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(eTag).startsWith("\"category-");
+
+		mockMvc.perform(get("/api/v1/admin/categories/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, eTag))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, ConditionalResponses.ADMIN.getHeaderValue()))
+				.andExpect(content().string(""));
+		mockMvc.perform(get("/api/v1/admin/categories/1").header(HttpHeaders.IF_NONE_MATCH, "W/" + eTag))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(get("/api/v1/admin/categories/1").header(HttpHeaders.IF_NONE_MATCH, "*"))
+				.andExpect(status().isNotModified());
+
+		verify(iCategoryRepository, times(1)).findById(1);
+	}
+
+	@Test
+	void aChangedCategoryIsReadAgain() throws Exception {
+		when(iCategoryRepository.findById(1)).thenReturn(category(1, "Shoes"));
+		when(iCategoryRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		String eTag = mockMvc.perform(get("/api/v1/admin/categories/1"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		Category renamed = category(1, "Footwear");
+		renamed.setDateUpdated(renamed.getDateUpdated().plusHours(1));
+		categoryService.save(renamed);
+		when(iCategoryRepository.findById(1)).thenReturn(renamed);
+
+		mockMvc.perform(get("/api/v1/admin/categories/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Footwear"))
+				.andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+		verify(iCategoryRepository, times(2)).findById(1);
+	}
+
+	@Test
+	void theListIsAnsweredNotModifiedUntilACategoryChanges() throws Exception {
+		when(iCategoryRepository.findAll()).thenReturn(List.of(category(1, "Shoes")));
+		String eTag = mockMvc.perform(get("/api/v1/admin/categories"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, ConditionalResponses.ADMIN.getHeaderValue()))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(eTag).startsWith("\"categories-");
+
+		mockMvc.perform(get("/api/v1/admin/categories").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, eTag));
+		verify(iCategoryRepository, times(1)).findAll();
+
+		categoryService.deleteById(2);
+
+		mockMvc.perform(get("/api/v1/admin/categories").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+		verify(iCategoryRepository, times(2)).findAll();
+	}
+
+	private static Category category(Integer id, String name) {
+		Category category = new Category();
+		category.setId(id);
+		category.setName(name);
+		category.setDateUpdated(LocalDateTime.of(2026, 1, 1, 0, 0));
+		return category;
+	}
+
+}
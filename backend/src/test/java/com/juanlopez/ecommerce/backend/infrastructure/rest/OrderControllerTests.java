@@ -0,0 +1,130 @@
+package com.juanlopez.ecommerce.backend.infrastructure.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juanlopez.ecommerce.backend.application.IdempotentOrderService;
+import com.juanlopez.ecommerce.backend.application.OrderPlacementService;
+import com.juanlopez.ecommerce.backend.application.OrderService;
+import com.juanlopez.ecommerce.backend.domain.model.Order;
+import com.juanlopez.ecommerce.backend.domain.model.OrderBatchResult;
+import com.juanlopez.ecommerce.backend.domain.model.OrderState;
+import com.juanlopez.ecommerce.backend.infrastructure.config.MoneyJacksonModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OrderControllerTests {
+
+	private static final String ORDER = "{\"userId\":1,\"orderProducts\":[{\"quantity\":1,\"productId\":1}]}";
+
+	private OrderService orderService;
+
+	/**
+	 * Copies of the chunks passed to {@link OrderService#saveChunk(List, int)}, which are reused afterwards.
+	 */
+	private final List<List<Order>> chunks = new ArrayList<>();
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		orderService = mock(OrderService.class);
+		// Every order is created, with its position in the batch plus 100 as ID
+		when(orderService.saveChunk(anyList(), anyInt())).thenAnswer(invocation -> {
+			List<Order> chunk = invocation.getArgument(0);
+			int firstIndex = invocation.getArgument(1);
+			chunks.add(List.copyOf(chunk));
+			return IntStream.range(0, chunk.size())
+					.mapToObj(i -> OrderBatchResult.created(firstIndex + i, firstIndex + i + 100))
+					.toList();
+		});
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().modules(new MoneyJacksonModule()).build();
+		mockMvc = MockMvcBuilders.standaloneSetup(new OrderController(orderService, mock(OrderPlacementService.class),
+						mock(IdempotentOrderService.class), objectMapper, Duration.ofHours(1)))
+				.setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+				.build();
+	}
+
+	@Test
+	void aJsonArrayIsSavedInChunks() throws Exception {
+		int orders = OrderService.BATCH_CHUNK_SIZE + 2;
+		String body = IntStream.range(0, orders).mapToObj(i -> ORDER).collect(Collectors.joining(",", "[", "]"));
+
+		mockMvc.perform(post("/api/v1/orders/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(orders))
+				.andExpect(jsonPath("$[0].orderId").value(100))
+				.andExpect(jsonPath("$[" + (orders - 1) + "].index").value(orders - 1))
+				.andExpect(jsonPath("$[" + (orders - 1) + "].orderId").value(orders - 1 + 100));
+
+		verify(orderService).saveChunk(anyList(), eq(0));
+		verify(orderService).saveChunk(anyList(), eq(OrderService.BATCH_CHUNK_SIZE));
+		assertThat(chunks).extracting(List::size).containsExactly(OrderService.BATCH_CHUNK_SIZE, 2);
+	}
+
+	@Test
+	void anNdjsonStreamIsSavedWithTheInitialStateOfEveryOrder() throws Exception {
+		String body = ORDER + "\n" + ORDER.replace("{\"userId\":1", "{\"userId\":2,\"orderState\":\"CANCELLED\"") + "\n";
+		mockMvc.perform(post("/api/v1/orders/batch").contentType(OrderController.APPLICATION_NDJSON_VALUE).content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(jsonPath("$[1].orderId").value(101));
+
+		assertThat(chunks).singleElement().satisfies(chunk -> assertThat(chunk)
+				.extracting(Order::getUserId, Order::getOrderState)
+				.containsExactly(tuple(1, OrderState.CONFIRMED), tuple(2, OrderState.CANCELLED)));
+	}
+
+	@Test
+	void ordersThatCannotBeMappedAreReportedWithoutStoppingTheBatch() throws Exception {
+		String body = "[" + ORDER + ",{\"userId\":\"not a number\"}," + ORDER + "]";
+
+		mockMvc.perform(post("/api/v1/orders/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(3))
+				.andExpect(jsonPath("$[0].orderId").value(100))
+				.andExpect(jsonPath("$[1].index").value(1))
+				.andExpect(jsonPath("$[1].orderId").doesNotExist())
+				.andExpect(jsonPath("$[1].error").value(startsWith("Orden inválida")))
+				.andExpect(jsonPath("$[2].index").value(2))
+				.andExpect(jsonPath("$[2].orderId").value(102));
+	}
+
+	@Test
+	void aSyntaxErrorStopsTheBatchKeepingTheOrdersAlreadyRead() throws Exception {
+		String body = ORDER + "\n" + ORDER + "\n{\"userId\": 1, \"orderProducts\": [}\n" + ORDER + "\n";
+
+		mockMvc.perform(post("/api/v1/orders/batch").contentType(OrderController.APPLICATION_NDJSON_VALUE).content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(3))
+				.andExpect(jsonPath("$[0].orderId").value(100))
+				.andExpect(jsonPath("$[1].orderId").value(101))
+				.andExpect(jsonPath("$[2].index").value(2))
+				.andExpect(jsonPath("$[2].error").value(startsWith("JSON inválido")));
+
+		assertThat(chunks).singleElement().satisfies(chunk -> assertThat(chunk).hasSize(2));
+	}
+
+}
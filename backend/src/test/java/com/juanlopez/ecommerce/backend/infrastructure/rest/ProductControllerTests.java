@@ -0,0 +1,187 @@
+package com.juanlopez.ecommerce.backend.infrastructure.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juanlopez.ecommerce.backend.application.CatalogVersionService;
+import com.juanlopez.ecommerce.backend.application.ProductService;
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+import com.juanlopez.ecommerce.backend.domain.port.IProductRepository;
+import jakarta.servlet.ServletException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ProductControllerTests {
+
+	private static final String PRODUCT = "{\"name\":\"Shoe\",\"code\":\"SH-1\",\"price\":10}";
+
+	private IProductRepository iProductRepository;
+
+	private ProductService productService;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		iProductRepository = mock(IProductRepository.class);
+		CatalogVersionService catalogVersionService = new CatalogVersionService(Duration.ofHours(1));
+		productService = new ProductService(iProductRepository, List.of(catalogVersionService));
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		mockMvc = MockMvcBuilders.standaloneSetup(new ProductController(productService, catalogVersionService,
+				new ProductJsonCache(objectMapper, 1024 * 1024))).build();
+	}
+
+	@Test
+	void savingACodeTakenBeforehandIsAConflict() throws Exception {
+		when(iProductRepository.findByCodes(List.of("SH-1"))).thenReturn(Map.of("SH-1", product(2, "SH-1")));
+
+		mockMvc.perform(post("/api/v1/admin/products").contentType(MediaType.APPLICATION_JSON).content(PRODUCT))
+				.andExpect(status().isConflict())
+				.andExpect(content().string("Ya existe otro producto con el código SH-1."));
+	}
+
+	@Test
+	void savingACodeTakenConcurrentlyIsAConflict() throws Exception {
+		when(iProductRepository.save(any())).thenThrow(violation("uk_products_code"));
+
+		mockMvc.perform(post("/api/v1/admin/products").contentType(MediaType.APPLICATION_JSON).content(PRODUCT))
+				.andExpect(status().isConflict())
+				.andExpect(content().string("Ya existe otro producto con el mismo código."));
+	}
+
+	@Test
+	void otherViolationsAreNotTakenForADuplicateCode() {
+		when(iProductRepository.save(any())).thenThrow(violation("uk_products_code_old"));
+
+		assertThatThrownBy(() -> mockMvc.perform(post("/api/v1/admin/products")
+				.contentType(MediaType.APPLICATION_JSON).content(PRODUCT)))
+				.isInstanceOf(ServletException.class)
+				.hasCauseInstanceOf(DataIntegrityViolationException.class);
+	}
+
+	@Test
+	void aProductIsFoundByItsCode() throws Exception {
+		when(iProductRepository.findByCode("SH-1")).thenReturn(product(1, "SH-1"));
+
+		mockMvc.perform(get("/api/v1/admin/products/by-code/SH-1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(1))
+				.andExpect(jsonPath("$.code").value("SH-1"));
+	}
+
+	@Test
+	void severalProductsAreFoundByTheirCodesLeavingOutUnknownCodes() throws Exception {
+		when(iProductRepository.findByCodes(List.of("SH-1", "SH-2", "XX"))).thenReturn(Map.of(
+				"SH-1", product(1, "SH-1"), "SH-2", product(2, "SH-2")));
+
+		mockMvc.perform(get("/api/v1/admin/products/by-code").param("codes", "SH-1", "SH-2", "XX"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(jsonPath("$['SH-1'].id").value(1))
+				.andExpect(jsonPath("$['SH-2'].id").value(2))
+				.andExpect(jsonPath("$.XX").doesNotExist());
+	}
+
+	@Test
+	void aKnownProductIsAnsweredNotModifiedWithoutReadingIt() throws Exception {
+		when(iProductRepository.findById(1)).thenReturn(product(1, "SH-1"));
+		String eTag = mockMvc.perform(get("/api/v1/admin/products/1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.code").value("SH-1"))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, ConditionalResponses.ADMIN.getHeaderValue()))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(eTag).startsWith("\"product-");
+
+		mockMvc.perform(get("/api/v1/admin/products/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, eTag))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, ConditionalResponses.ADMIN.getHeaderValue()))
+				.andExpect(content().bytes(new byte[0]));
+		// Weak tags match too, also among other tags
+		mockMvc.perform(get("/api/v1/admin/products/1").header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + eTag))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(get("/api/v1/admin/products/1").header(HttpHeaders.IF_NONE_MATCH, "*"))
+				.andExpect(status().isNotModified());
+
+		verify(iProductRepository, times(1)).findById(1);
+	}
+
+	@Test
+	void aProductWhoseVersionIsUnknownIsReadToCompareItsTag() throws Exception {
+		when(iProductRepository.findById(1)).thenReturn(product(1, "SH-1"));
+
+		mockMvc.perform(get("/api/v1/admin/products/1").header(HttpHeaders.IF_NONE_MATCH, "\"product-stale\""))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andExpect(jsonPath("$.id").value(1));
+
+		verify(iProductRepository).findById(1);
+	}
+
+	@Test
+	void theListIsAnsweredNotModifiedUntilAProductChanges() throws Exception {
+		when(iProductRepository.findAll()).thenReturn(List.of(product(1, "SH-1")));
+		when(iProductRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		String eTag = mockMvc.perform(get("/api/v1/admin/products"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, ConditionalResponses.ADMIN.getHeaderValue()))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(eTag).startsWith("\"products-");
+
+		mockMvc.perform(get("/api/v1/admin/products").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, eTag));
+		verify(iProductRepository, times(1)).findAll();
+
+		productService.save(product(2, "SH-2"));
+
+		mockMvc.perform(get("/api/v1/admin/products").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+		verify(iProductRepository, times(2)).findAll();
+	}
+
+	private static DataIntegrityViolationException violation(String constraintName) {
+		return new DataIntegrityViolationException("could not execute statement",
+				new ConstraintViolationException("could not execute statement", new SQLException(), constraintName));
+	}
+
+	private static Product product(Integer id, String code) {
+		Product product = new Product();
+		product.setId(id);
+		product.setName("Product " + id);
+		product.setCode(code);
+		product.setPrice(BigDecimal.TEN);
+		product.setDateUpdated(LocalDateTime.of(2026, 1, 1, 0, 0).plusMinutes(id));
+		return product;
+	}
+
+}
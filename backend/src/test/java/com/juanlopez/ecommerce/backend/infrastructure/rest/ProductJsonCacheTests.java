@@ -0,0 +1,51 @@
+package com.juanlopez.ecommerce.backend.infrastructure.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juanlopez.ecommerce.backend.domain.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductJsonCacheTests {
+
+	private final ProductJsonCache productJsonCache = new ProductJsonCache(new ObjectMapper(), 64 * 1024);
+
+	@Test
+	void bytesAreOnlyServedForTheVersionTheyWereSerializedFrom() {
+		byte[] json = productJsonCache.put(product(1, "Camiseta"), "1-a");
+
+		assertThat(new String(json, StandardCharsets.UTF_8)).contains("\"name\":\"Camiseta\"");
+		assertThat(productJsonCache.get(1, "1-a")).isSameAs(json);
+		assertThat(productJsonCache.get(1, "1-b")).isNull();
+		assertThat(productJsonCache.get(1, null)).isNull();
+
+		productJsonCache.onProductSaved(product(1, "Camiseta roja"));
+		assertThat(productJsonCache.get(1, "1-a")).isNull();
+		assertThat(productJsonCache.getCache().stats().hitCount()).isEqualTo(1);
+		assertThat(productJsonCache.getCache().stats().missCount()).isEqualTo(3);
+	}
+
+	@Test
+	void theCachedBytesStayWithinTheBound() {
+		String description = "x".repeat(1000);
+		for (int id = 1; id <= 200; id++) {
+			Product product = product(id, "Producto " + id);
+			product.setDescription(description);
+			productJsonCache.put(product, id + "-a");
+		}
+		productJsonCache.getCache().cleanUp();
+
+		assertThat(productJsonCache.weightedSize()).isPositive().isLessThanOrEqualTo(64 * 1024);
+		assertThat(productJsonCache.getCache().estimatedSize()).isLessThan(200);
+	}
+
+	private static Product product(Integer id, String name) {
+		Product product = new Product();
+		product.setId(id);
+		product.setName(name);
+		return product;
+	}
+
+}
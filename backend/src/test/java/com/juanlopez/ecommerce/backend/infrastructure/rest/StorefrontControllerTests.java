@@ -0,0 +1,83 @@
+package com.juanlopez.ecommerce.backend.infrastructure.rest;
+
+import com.juanlopez.ecommerce.backend.application.CatalogVersionService;
+import com.juanlopez.ecommerce.backend.application.CategoryService;
+import com.juanlopez.ecommerce.backend.application.ProductSearchService;
+import com.juanlopez.ecommerce.backend.application.ProductService;
+import com.juanlopez.ecommerce.backend.domain.model.CategorySummary;
+import com.juanlopez.ecommerce.backend.domain.model.CursorPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class StorefrontControllerTests {
+
+	private ProductService productService;
+
+	private CatalogVersionService catalogVersionService;
+
+	private CategoryService categoryService;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		productService = mock(ProductService.class);
+		catalogVersionService = mock(CatalogVersionService.class);
+		categoryService = mock(CategoryService.class);
+		mockMvc = MockMvcBuilders.standaloneSetup(new StorefrontController(productService,
+				mock(ProductSearchService.class), catalogVersionService, categoryService)).build();
+	}
+
+	@Test
+	void anUnchangedCatalogIsAnsweredNotModifiedWithoutBrowsingIt() throws Exception {
+		when(catalogVersionService.productsVersion()).thenReturn("7");
+		when(productService.browse(any(), any(), any(), any())).thenReturn(new CursorPage<>(List.of(), null, false));
+
+		mockMvc.perform(get("/api/v1/products"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"products-7\""))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, ConditionalResponses.STOREFRONT.getHeaderValue()));
+		mockMvc.perform(get("/api/v1/products").param("size", "5").header(HttpHeaders.IF_NONE_MATCH, "W/\"products-7\""))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"products-7\""))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, ConditionalResponses.STOREFRONT.getHeaderValue()));
+
+		verify(productService, times(1)).browse(any(), any(), any(), any());
+	}
+
+	@Test
+	void categoriesAreListedWithTheirProductCountsAndCachedBriefly() throws Exception {
+		when(categoryService.findAllWithProductCounts()).thenReturn(List.of(
+				new CategorySummary(2, "Books", 12), new CategorySummary(1, "Shoes", 0)));
+
+		mockMvc.perform(get("/api/v1/products/categories"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(jsonPath("$[0].id").value(2))
+				.andExpect(jsonPath("$[0].name").value("Books"))
+				.andExpect(jsonPath("$[0].productCount").value(12))
+				.andExpect(jsonPath("$[1].name").value("Shoes"))
+				.andExpect(jsonPath("$[1].productCount").value(0))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, ConditionalResponses.STOREFRONT.getHeaderValue()))
+				.andExpect(header().doesNotExist(HttpHeaders.ETAG));
+		// The counters may be corrected without changing the catalog version, so it is not read
+		verifyNoInteractions(catalogVersionService);
+	}
+
+}